@@ -4,16 +4,24 @@ import com.ecommerce.cart.dto.CartItemDto;
 import com.ecommerce.cart.dto.CartResponse;
 import com.ecommerce.cart.model.Cart;
 import com.ecommerce.cart.model.CartItem;
+import com.ecommerce.cart.model.Money;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.stream.Collectors;
 
 @Mapper(componentModel = "cdi")
 public interface CartMapper {
 
+    String CURRENCY = "USD";
+
+    long TAX_RATE_BASIS_POINTS = 1_000L;
+
+    Money SHIPPING_FEE = Money.ofMinor(999L, CURRENCY); // Flat rate for example
+
     @Mapping(target = "totalItems", expression = "java(calculateTotalItems(cart))")
     @Mapping(target = "subtotal", expression = "java(calculateSubtotal(cart))")
     @Mapping(target = "tax", expression = "java(calculateTax(cart))")
@@ -50,26 +58,35 @@ public interface CartMapper {
     }
 
     default BigDecimal calculateSubtotal(Cart cart) {
-        return cart.getItems().stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return subtotal(cart).toBigDecimal();
     }
 
     default BigDecimal calculateTax(Cart cart) {
-        BigDecimal subtotal = calculateSubtotal(cart);
-        return subtotal.multiply(new BigDecimal("0.10")); // 10% tax for example
+        return tax(subtotal(cart)).toBigDecimal();
     }
 
     default BigDecimal calculateShippingFee(Cart cart) {
-        return new BigDecimal("9.99"); // Flat rate for example
+        return SHIPPING_FEE.toBigDecimal();
     }
 
     default BigDecimal calculateTotal(Cart cart) {
-        BigDecimal subtotal = calculateSubtotal(cart);
-        BigDecimal tax = calculateTax(cart);
-        BigDecimal shippingFee = calculateShippingFee(cart);
-        BigDecimal discount = cart.getDiscountAmount() != null ? cart.getDiscountAmount() : BigDecimal.ZERO;
-        
-        return subtotal.add(tax).add(shippingFee).subtract(discount);
+        Money subtotal = subtotal(cart);
+        return subtotal.plus(tax(subtotal))
+                .plus(SHIPPING_FEE)
+                .minus(Money.of(cart.getDiscountAmount(), CURRENCY))
+                .toBigDecimal();
+    }
+
+    private static Money subtotal(Cart cart) {
+        long subtotal = 0L;
+        for (CartItem item : cart.getItems()) {
+            subtotal = Math.addExact(subtotal,
+                    Math.multiplyExact(Money.toMinorUnits(item.getUnitPrice(), CURRENCY), item.getQuantity()));
+        }
+        return Money.ofMinor(subtotal, CURRENCY);
+    }
+
+    private static Money tax(Money subtotal) {
+        return subtotal.applyRate(TAX_RATE_BASIS_POINTS, RoundingMode.HALF_UP); // 10% tax for example
     }
 }
@@ -14,6 +14,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "cart_items")
 public class CartItem {
+
+    private static final String CURRENCY = "USD";
     
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -47,7 +49,7 @@ public class CartItem {
     @PreUpdate
     public void calculateItemTotal() {
         if (unitPrice != null) {
-            this.itemTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            this.itemTotal = Money.of(unitPrice, CURRENCY).times(quantity).toBigDecimal();
         }
     }
 }
@@ -0,0 +1,140 @@
+package com.ecommerce.cart.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount of money held as a whole number of minor units (cents for USD, yen for JPY) of one currency.
+ * <p>
+ * Arithmetic is done on {@code long}s and throws {@link ArithmeticException} on overflow instead of wrapping.
+ * Only operations that can produce fractions of a minor unit, {@link #applyRate} and {@link #of}, round, and they
+ * take or document the {@link RoundingMode}. Entities keep {@link BigDecimal} fields so the NUMERIC columns are
+ * unchanged; convert with {@link #of} and {@link #toBigDecimal()} at the boundary. The static {@code long}
+ * overloads let hot loops accumulate without creating a {@code Money} per step.
+ */
+public record Money(long minorUnits, String currency) {
+
+    /** Rates are expressed in basis points: 1000 is 10%. */
+    public static final long BASIS_POINTS = 10_000L;
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0L, currency);
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * Converts a decimal amount, rounding half-even to the currency's minor unit.
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(toMinorUnits(amount, currency), currency);
+    }
+
+    /**
+     * Returns {@code amount} in minor units of {@code currency}, rounded half-even; {@code null} counts as zero.
+     */
+    public static long toMinorUnits(BigDecimal amount, String currency) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(scale(currency), RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Number of decimal places of {@code currency}'s minor unit, e.g. 2 for USD and 0 for JPY.
+     */
+    public static int scale(String currency) {
+        int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+        return digits < 0 ? 0 : digits;
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    /**
+     * Returns {@code basisPoints / 10000} of this amount, e.g. a tax, rounded to a minor unit with {@code rounding}.
+     */
+    public Money applyRate(long basisPoints, RoundingMode rounding) {
+        return new Money(applyRate(minorUnits, basisPoints, rounding), currency);
+    }
+
+    /**
+     * Returns this amount, or zero if it is negative.
+     */
+    public Money atLeastZero() {
+        return minorUnits < 0 ? zero(currency) : this;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, scale(currency));
+    }
+
+    /**
+     * Returns {@code minorUnits * basisPoints / 10000}, rounded with {@code rounding}.
+     *
+     * @throws ArithmeticException on overflow, or if {@code rounding} is {@link RoundingMode#UNNECESSARY} and the
+     *                             result is not a whole number of minor units
+     */
+    public static long applyRate(long minorUnits, long basisPoints, RoundingMode rounding) {
+        return divide(Math.multiplyExact(minorUnits, basisPoints), BASIS_POINTS, rounding);
+    }
+
+    /**
+     * Divides {@code dividend} by a positive {@code divisor}, rounding the quotient like
+     * {@link BigDecimal#divide(BigDecimal, RoundingMode)} would.
+     */
+    static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = dividend < 0 ? -1 : 1;
+        long twiceRemainder = Math.abs(remainder) * 2;
+        boolean awayFromZero = switch (rounding) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> twiceRemainder >= divisor;
+            case HALF_DOWN -> twiceRemainder > divisor;
+            case HALF_EVEN -> twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+}
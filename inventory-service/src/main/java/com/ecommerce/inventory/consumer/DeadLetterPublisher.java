@@ -0,0 +1,42 @@
+package com.ecommerce.inventory.consumer;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parks events a consumer cannot apply on the dead-letter-events channel, so one poison event is set aside instead
+ * of stopping its channel. Each parked record carries the source channel, the failure and the original payload,
+ * which can be republished to the source topic once the cause is fixed.
+ */
+@ApplicationScoped
+public class DeadLetterPublisher {
+    private static final Logger log = Logger.getLogger(DeadLetterPublisher.class);
+
+    @Inject
+    @Channel("dead-letter-events")
+    Emitter<Map<String, Object>> deadLetterEmitter;
+
+    /**
+     * Parks {@code eventsJson} and waits for the broker to acknowledge them, so the caller only acknowledges the
+     * source batch once they are safe. A failure to park propagates.
+     */
+    public void park(String channel, List<String> eventsJson, Throwable failure) {
+        for (String eventJson : eventsJson) {
+            Map<String, Object> parked = new HashMap<>();
+            parked.put("channel", channel);
+            parked.put("error", String.valueOf(failure));
+            parked.put("payload", eventJson);
+            parked.put("timestamp", LocalDateTime.now().toString());
+            deadLetterEmitter.send(parked).toCompletableFuture().join();
+        }
+        log.warnf("Parked %d %s events on the dead-letter topic: %s", eventsJson.size(), channel, failure);
+    }
+}
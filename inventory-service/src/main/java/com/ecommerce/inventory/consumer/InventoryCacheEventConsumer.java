@@ -0,0 +1,77 @@
+package com.ecommerce.inventory.consumer;
+
+import com.ecommerce.inventory.service.InventoryCacheService;
+import com.ecommerce.inventory.service.LowStockService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.common.annotation.Blocking;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts the SKUs changed by other instances from the local inventory caches, read from inventory-events, and keeps
+ * the local low-stock set of {@link LowStockService} current.
+ * <p>
+ * Every instance needs every event, so the channel has no fixed consumer group and starts from the latest offset;
+ * entries cached before the instance started expire on their own. This instance's own events evict once more,
+ * which is harmless.
+ */
+@ApplicationScoped
+public class InventoryCacheEventConsumer {
+    private static final Logger log = Logger.getLogger(InventoryCacheEventConsumer.class);
+
+    @Inject
+    InventoryCacheService inventoryCache;
+
+    @Inject
+    LowStockService lowStock;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Incoming("inventory-cache-events")
+    @Blocking
+    public void handleInventoryEvents(List<String> eventsJson) {
+        Set<String> skuCodes = new HashSet<>();
+        for (String eventJson : eventsJson) {
+            try {
+                JsonNode event = objectMapper.readTree(eventJson);
+                addSkuCode(event, skuCodes);
+                if (event.path("skuCode").isTextual()) {
+                    lowStock.onInventoryEvent(event.path("eventType").asText(), event.path("skuCode").asText(),
+                            intOrNull(event.path("availableQuantity")), intOrNull(event.path("lowStockThreshold")),
+                            intOrNull(event.path("restockThreshold")));
+                }
+                // Order outcomes and cycle counts carry one line per SKU
+                for (JsonNode line : event.path("items")) {
+                    addSkuCode(line, skuCodes);
+                    if (line.path("skuCode").isTextual()) {
+                        lowStock.onInventoryEvent(event.path("eventType").asText(), line.path("skuCode").asText(),
+                                intOrNull(line.path("availableQuantity")), null, null);
+                    }
+                }
+            } catch (Exception e) {
+                log.errorf(e, "Skipping malformed inventory event: %s", eventJson);
+            }
+        }
+        inventoryCache.evict(skuCodes);
+        log.debugf("Evicted %d SKUs for %d inventory events", skuCodes.size(), eventsJson.size());
+    }
+
+    private static Integer intOrNull(JsonNode node) {
+        return node.isNumber() ? node.asInt() : null;
+    }
+
+    private static void addSkuCode(JsonNode node, Set<String> skuCodes) {
+        JsonNode skuCode = node.path("skuCode");
+        if (skuCode.isTextual()) {
+            skuCodes.add(skuCode.asText());
+        }
+    }
+}
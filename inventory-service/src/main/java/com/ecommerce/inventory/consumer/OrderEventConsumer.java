@@ -0,0 +1,80 @@
+package com.ecommerce.inventory.consumer;
+
+import com.ecommerce.inventory.dto.event.OrderEvent;
+import com.ecommerce.inventory.service.OrderEventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.common.annotation.Blocking;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes order-events in poll batches and reserves or releases stock for them.
+ * <p>
+ * A batch is applied in one transaction by {@link OrderEventService}, and acknowledged, with its offsets committed,
+ * only after that transaction has committed; a failure propagates so the batch is retried. Events already applied are
+ * recorded by order id, so a retried or redelivered batch only applies the rest. Once the retries are exhausted the
+ * events are applied one at a time, each in its own transaction, and those that still fail, such as a
+ * {@code ReservationConflictException}, are parked through {@link DeadLetterPublisher} so the channel keeps running.
+ */
+@ApplicationScoped
+public class OrderEventConsumer {
+    private static final Logger log = Logger.getLogger(OrderEventConsumer.class);
+
+    @Inject
+    OrderEventService orderEventService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    DeadLetterPublisher deadLetters;
+
+    @Incoming("order-events")
+    @Blocking
+    @Retry(maxRetries = 3, delay = 1000)
+    @Fallback(fallbackMethod = "parkOrderEvents")
+    public void handleOrderEvents(List<String> eventsJson) {
+        List<OrderEvent> events = new ArrayList<>(eventsJson.size());
+        for (String eventJson : eventsJson) {
+            OrderEvent event = parse(eventJson);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        int published = orderEventService.applyOrderEvents(events);
+        log.infof("Received %d order events, published %d inventory events", eventsJson.size(), published);
+    }
+
+    void parkOrderEvents(List<String> eventsJson) {
+        int published = 0;
+        for (String eventJson : eventsJson) {
+            OrderEvent event = parse(eventJson);
+            if (event == null) {
+                continue;
+            }
+            try {
+                published += orderEventService.applyOrderEvents(List.of(event));
+            } catch (RuntimeException e) {
+                log.errorf(e, "Failed to apply %s for order %s after retries", event.eventType(), event.orderId());
+                deadLetters.park("order-events", List.of(eventJson), e);
+            }
+        }
+        log.infof("Applied %d order events one by one, published %d inventory events", eventsJson.size(), published);
+    }
+
+    private OrderEvent parse(String eventJson) {
+        try {
+            return objectMapper.readValue(eventJson, OrderEvent.class);
+        } catch (Exception e) {
+            log.errorf(e, "Skipping malformed order event: %s", eventJson);
+            return null;
+        }
+    }
+}
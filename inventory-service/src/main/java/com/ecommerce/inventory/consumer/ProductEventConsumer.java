@@ -0,0 +1,84 @@
+package com.ecommerce.inventory.consumer;
+
+import com.ecommerce.inventory.dto.event.ProductEvent;
+import com.ecommerce.inventory.service.InventoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.common.annotation.Blocking;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps an inventory item per product from product-events, in poll batches.
+ * <p>
+ * Only the last event per product in a batch matters, since each one carries the whole product. The batch is
+ * applied in one transaction; applying it twice changes nothing. Once the retries are exhausted the products are
+ * applied one at a time and those that still fail are parked through {@link DeadLetterPublisher}.
+ */
+@ApplicationScoped
+public class ProductEventConsumer {
+    private static final Logger log = Logger.getLogger(ProductEventConsumer.class);
+
+    @Inject
+    InventoryService inventoryService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    DeadLetterPublisher deadLetters;
+
+    @Incoming("product-events")
+    @Blocking
+    @Retry(maxRetries = 3, delay = 1000)
+    @Fallback(fallbackMethod = "parkProductEvents")
+    public void handleProductEvents(List<String> eventsJson) {
+        Map<UUID, ProductEvent> latest = latestPerProduct(eventsJson, new HashMap<>());
+        if (!latest.isEmpty()) {
+            inventoryService.applyProductEvents(new ArrayList<>(latest.values()));
+        }
+        log.debugf("Applied %d product events", latest.size());
+    }
+
+    void parkProductEvents(List<String> eventsJson) {
+        Map<UUID, String> latestJson = new HashMap<>();
+        for (ProductEvent event : latestPerProduct(eventsJson, latestJson).values()) {
+            try {
+                inventoryService.applyProductEvents(List.of(event));
+            } catch (RuntimeException e) {
+                log.errorf(e, "Failed to apply product event for %s after retries", event.id());
+                deadLetters.park("product-events", List.of(latestJson.get(event.id())), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the last event per product, in arrival order, and puts its payload into {@code latestJson}.
+     */
+    private Map<UUID, ProductEvent> latestPerProduct(List<String> eventsJson, Map<UUID, String> latestJson) {
+        Map<UUID, ProductEvent> latest = new LinkedHashMap<>();
+        for (String eventJson : eventsJson) {
+            try {
+                ProductEvent event = objectMapper.readValue(eventJson, ProductEvent.class);
+                if (event.id() != null && event.sku() != null) {
+                    latest.remove(event.id());
+                    latest.put(event.id(), event);
+                    latestJson.put(event.id(), eventJson);
+                }
+            } catch (Exception e) {
+                log.errorf(e, "Skipping malformed product event: %s", eventJson);
+            }
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,217 @@
+package com.ecommerce.inventory.controller;
+
+import com.ecommerce.inventory.dto.CycleCountReport;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.service.CycleCountService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Serves {@code POST /api/inventory/cycle-counts}: imports counted quantities of many SKUs from CSV
+ * ({@code skuCode,quantity}) or NDJSON.
+ * <p>
+ * The upload is streamed to a temporary file without blocking the event loop and imported from there on the managed
+ * executor, so it is never held in memory and a long import does not tie up a Vert.x worker thread. It is a Vert.x route rather than a JAX-RS method because uploads run far
+ * past the server-wide {@code quarkus.http.limits.max-body-size}: the route is ordered ahead of that check and
+ * enforces {@code inventory.cycle-count.max-upload-size} itself, for this path only.
+ */
+@ApplicationScoped
+public class CycleCountRoute {
+
+    private static final Logger log = Logger.getLogger(CycleCountRoute.class);
+
+    /**
+     * Quarkus installs the server-wide body size check at order -2.
+     */
+    private static final int ORDER = -3;
+
+    @Inject
+    CycleCountService cycleCountService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    ManagedExecutor executor;
+
+    @ConfigProperty(name = "inventory.cycle-count.max-upload-size", defaultValue = "512M")
+    MemorySize maxUploadSize;
+
+    void register(@Observes Router router) {
+        router.post("/api/inventory/cycle-counts")
+                .order(ORDER)
+                .consumes("text/csv")
+                .consumes("application/x-ndjson")
+                .handler(this::upload);
+    }
+
+    private void upload(RoutingContext ctx) {
+        HttpServerRequest request = ctx.request();
+        long limit = maxUploadSize.asLongValue();
+        String length = request.getHeader(HttpHeaderNames.CONTENT_LENGTH);
+        if (length != null) {
+            long declared;
+            try {
+                declared = Long.parseLong(length.trim());
+            } catch (NumberFormatException e) {
+                declared = -1;
+            }
+            if (declared < 0) {
+                ctx.response().putHeader(HttpHeaderNames.CONNECTION, "close");
+                respond(ctx, HttpResponseStatus.BAD_REQUEST, badRequest("Invalid Content-Length: " + length));
+                return;
+            }
+            if (declared > limit) {
+                tooLarge(ctx);
+                return;
+            }
+        }
+        request.pause();
+
+        CycleCountService.Format format = request.getHeader(HttpHeaderNames.CONTENT_TYPE).contains("ndjson")
+                ? CycleCountService.Format.NDJSON
+                : CycleCountService.Format.CSV;
+        String reference = ctx.queryParams().get("reference");
+        FileSystem fs = vertx.fileSystem();
+        fs.createTempFile("cycle-count-", ".upload").onComplete(created -> {
+            if (created.failed()) {
+                ctx.fail(created.cause());
+                return;
+            }
+            String path = created.result();
+            fs.open(path, new OpenOptions().setWrite(true))
+                    .compose(file -> receive(request, file, limit))
+                    .compose(received -> received
+                            ? Future.fromCompletionStage(executor.supplyAsync(() -> importFrom(path, format, reference)),
+                                    ctx.vertx().getOrCreateContext())
+                            : Future.<CycleCountReport>succeededFuture())
+                    .onComplete(imported -> {
+                        fs.delete(path).onFailure(e -> log.warnf("Failed to delete cycle count upload %s: %s",
+                                path, e.getMessage()));
+                        if (imported.succeeded()) {
+                            if (imported.result() != null) {
+                                respond(ctx, HttpResponseStatus.OK, imported.result());
+                            } else {
+                                tooLarge(ctx);
+                            }
+                        } else if (unwrap(imported.cause()) instanceof InvalidInventoryOperationException) {
+                            respond(ctx, HttpResponseStatus.BAD_REQUEST,
+                                    badRequest(unwrap(imported.cause()).getMessage()));
+                        } else {
+                            ctx.fail(imported.cause());
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Writes the request body to {@code file}, pausing the request while the file catches up. Completes with
+     * {@code false}, without reading further, once more than {@code limit} bytes have arrived.
+     */
+    private Future<Boolean> receive(HttpServerRequest request, AsyncFile file, long limit) {
+        Promise<Boolean> done = Promise.promise();
+        long[] received = {0};
+        file.exceptionHandler(done::tryFail);
+        request.handler(chunk -> {
+            received[0] += chunk.length();
+            if (received[0] > limit) {
+                request.handler(null);
+                request.endHandler(null);
+                file.close().onComplete(closed -> done.tryComplete(false));
+                return;
+            }
+            file.write(chunk);
+            if (file.writeQueueFull()) {
+                request.pause();
+                file.drainHandler(drained -> request.resume());
+            }
+        });
+        request.exceptionHandler(e -> file.close().onComplete(closed -> done.tryFail(e)));
+        request.endHandler(end -> file.close().onComplete(closed -> {
+            if (closed.succeeded()) {
+                done.tryComplete(true);
+            } else {
+                done.tryFail(closed.cause());
+            }
+        }));
+        request.resume();
+        return done.future();
+    }
+
+    private CycleCountReport importFrom(String path, CycleCountService.Format format, String reference) {
+        try (InputStream body = Files.newInputStream(Path.of(path))) {
+            return cycleCountService.importCounts(body, format, reference);
+        } catch (IOException e) {
+            throw new InvalidInventoryOperationException("Failed to read cycle count upload: " + e.getMessage());
+        }
+    }
+
+    private void tooLarge(RoutingContext ctx) {
+        ctx.response().putHeader(HttpHeaderNames.CONNECTION, "close");
+        respond(ctx, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE, Map.of(
+                "status", HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code(),
+                "error", "Payload Too Large",
+                "message", "Cycle count uploads are limited to " + maxUploadSize.asLongValue() + " bytes"));
+    }
+
+    /**
+     * The import's completion stage wraps what it threw in a {@link CompletionException}.
+     */
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static Map<String, Object> badRequest(String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpResponseStatus.BAD_REQUEST.code());
+        body.put("error", "Bad Request");
+        body.put("message", message);
+        body.put("path", "/api/inventory/cycle-counts");
+        return body;
+    }
+
+    private void respond(RoutingContext ctx, HttpResponseStatus status, Object body) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            ctx.fail(e);
+            return;
+        }
+        ctx.response()
+                .setStatusCode(status.code())
+                .putHeader(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .end(json);
+    }
+}
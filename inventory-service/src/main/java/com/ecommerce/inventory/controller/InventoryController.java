@@ -3,6 +3,10 @@ package com.ecommerce.inventory.controller;
 import com.ecommerce.inventory.dto.InventoryRequest;
 import com.ecommerce.inventory.dto.InventoryResponse;
 import com.ecommerce.inventory.dto.InventoryStatus;
+import com.ecommerce.inventory.dto.InventoryStatusBatchRequest;
+import com.ecommerce.inventory.dto.InventoryStatusBatchResponse;
+import com.ecommerce.inventory.dto.OrderReservationRequest;
+import com.ecommerce.inventory.dto.OrderReservationResponse;
 import com.ecommerce.inventory.dto.ReleaseRequest;
 import com.ecommerce.inventory.dto.ReservationRequest;
 import com.ecommerce.inventory.dto.StockAdjustment;
@@ -43,9 +47,13 @@ public class InventoryController {
 
     @POST
     @Path("/adjust")
-    @Operation(summary = "Adjust inventory stock level")
-    public InventoryResponse adjustStock(@Valid StockAdjustment adjustment) {
-        return inventoryService.adjustStock(adjustment);
+    @Operation(summary = "Adjust inventory stock level",
+            description = "With an Idempotency-Key, a repeated key returns the current stock without adjusting it again")
+    public InventoryResponse adjustStock(@HeaderParam("Idempotency-Key") String idempotencyKey,
+                                         @Valid StockAdjustment adjustment) {
+        return idempotencyKey == null || idempotencyKey.isBlank()
+                ? inventoryService.adjustStock(adjustment)
+                : inventoryService.adjustStockOnce(idempotencyKey, adjustment);
     }
 
     @POST
@@ -55,6 +63,13 @@ public class InventoryController {
         return inventoryService.reserveStock(request);
     }
 
+    @POST
+    @Path("/reservations")
+    @Operation(summary = "Reserve every line of an order, or none of them")
+    public OrderReservationResponse reserveOrder(@Valid OrderReservationRequest request) {
+        return inventoryService.reserveOrder(request);
+    }
+
     @POST
     @Path("/release")
     @Operation(summary = "Release reserved stock")
@@ -69,6 +84,13 @@ public class InventoryController {
         return inventoryService.checkInventoryStatus(skuCode);
     }
 
+    @POST
+    @Path("/status:batch")
+    @Operation(summary = "Check inventory status of many SKUs or products in one call")
+    public InventoryStatusBatchResponse checkInventoryStatuses(@Valid InventoryStatusBatchRequest request) {
+        return inventoryService.checkInventoryStatuses(request);
+    }
+
     @GET
     @Path("/low-stock")
     @Operation(summary = "Get all low stock items")
@@ -96,6 +118,15 @@ public class InventoryController {
         return inventoryService.consumeReservedStock(skuCode, quantity, reservationId);
     }
 
+    @PUT
+    @Path("/{skuCode}/shards")
+    @Operation(summary = "Split a hot SKU's available stock over counter shards, or merge it back with count 0")
+    public InventoryResponse setStockShards(
+            @PathParam("skuCode") String skuCode,
+            @QueryParam("count") int count) {
+        return inventoryService.setStockShards(skuCode, count);
+    }
+
     @GET
     @Path("/health")
     @Produces(MediaType.TEXT_PLAIN)
@@ -0,0 +1,23 @@
+package com.ecommerce.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleCountReport {
+    private UUID importId;
+    private int rowsRead;
+    private int rowsApplied;
+    private int rowsRejected;
+    private int chunks;
+    private List<CycleCountError> errors;
+    private boolean errorsTruncated;
+}
@@ -32,6 +32,7 @@ public class InventoryResponse {
     private String locationCode;
     private String binLocation;
     private Boolean isActive;
+    private Integer shardCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -54,6 +55,7 @@ public class InventoryResponse {
                 .locationCode(item.getLocationCode())
                 .binLocation(item.getBinLocation())
                 .isActive(item.getIsActive())
+                .shardCount(item.getShardCount())
                 .createdAt(item.getCreatedAt())
                 .updatedAt(item.getUpdatedAt())
                 .build();
@@ -1,18 +1,41 @@
 package com.ecommerce.inventory.dto;
 
+import com.ecommerce.inventory.model.InventoryItem;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class InventoryStatus {
     private String skuCode;
+    private UUID productId;
     private boolean inStock;
     private Integer availableQuantity;
     private boolean lowStock;
     private String status;
+
+    public static InventoryStatus fromEntity(InventoryItem item) {
+        String status;
+        if (item.getAvailableQuantity() <= 0) {
+            status = "OUT_OF_STOCK";
+        } else if (item.getAvailableQuantity() <= item.getLowStockThreshold()) {
+            status = "LOW_STOCK";
+        } else {
+            status = "IN_STOCK";
+        }
+        return InventoryStatus.builder()
+                .skuCode(item.getSkuCode())
+                .productId(item.getProductId())
+                .inStock(item.getAvailableQuantity() > 0)
+                .availableQuantity(item.getAvailableQuantity())
+                .lowStock(item.getAvailableQuantity() <= item.getLowStockThreshold())
+                .status(status)
+                .build();
+    }
 }
@@ -0,0 +1,24 @@
+package com.ecommerce.inventory.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryStatusBatchRequest {
+    @Size(max = 500, message = "At most 500 SKU codes can be looked up at once")
+    private List<@NotBlank String> skuCodes;
+
+    @Size(max = 500, message = "At most 500 product ids can be looked up at once")
+    private List<@NotNull UUID> productIds;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryStatusBatchResponse {
+    private List<InventoryStatus> items;
+    private List<String> missingSkuCodes;
+    private List<UUID> missingProductIds;
+}
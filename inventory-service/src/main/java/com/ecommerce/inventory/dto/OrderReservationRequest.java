@@ -0,0 +1,27 @@
+package com.ecommerce.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReservationRequest {
+    @NotBlank(message = "Reservation ID is required")
+    private String reservationId;
+
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = 500, message = "At most 500 lines can be reserved at once")
+    private List<@Valid ReservationLine> lines;
+
+    private String notes;
+}
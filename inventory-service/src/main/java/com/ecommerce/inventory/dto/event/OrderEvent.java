@@ -0,0 +1,49 @@
+package com.ecommerce.inventory.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Typed view of an order-events record. {@code items} is only set on {@code ORDER_CREATED}; {@code status} is the
+ * order status after the event.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OrderEvent(String eventType, String orderId, String status, List<Item> items) {
+
+    public static final String ORDER_CREATED = "ORDER_CREATED";
+    public static final String ORDER_CANCELLED = "ORDER_CANCELLED";
+    public static final String ORDER_STATUS_UPDATED = "ORDER_STATUS_UPDATED";
+
+    /**
+     * Type under which fulfilments are recorded as processed; no event carries it.
+     */
+    public static final String ORDER_FULFILLED = "ORDER_FULFILLED";
+
+    private static final String CANCELLED = "CANCELLED";
+
+    private static final Set<String> FULFILLED = Set.of("SHIPPED", "DELIVERED", "COMPLETED");
+
+    /**
+     * Whether the event cancels the order: {@code ORDER_CANCELLED}, or a status update to {@code CANCELLED} as
+     * published by single and bulk status changes.
+     */
+    public boolean isCancellation() {
+        return ORDER_CANCELLED.equals(eventType)
+                || (ORDER_STATUS_UPDATED.equals(eventType) && CANCELLED.equals(status));
+    }
+
+    /**
+     * Whether the event reports the order as fulfilled, a status update to {@code SHIPPED}, {@code DELIVERED} or
+     * {@code COMPLETED}: its units have left the warehouse.
+     */
+    public boolean isFulfilment() {
+        return ORDER_STATUS_UPDATED.equals(eventType) && status != null && FULFILLED.contains(status);
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Item(UUID productId, Integer quantity) {
+    }
+}
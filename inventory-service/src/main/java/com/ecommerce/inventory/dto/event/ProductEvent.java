@@ -0,0 +1,12 @@
+package com.ecommerce.inventory.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.UUID;
+
+/**
+ * Typed view of a product-events record, which carries the whole product; a deleted product arrives inactive.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ProductEvent(UUID id, String sku, boolean active) {
+}
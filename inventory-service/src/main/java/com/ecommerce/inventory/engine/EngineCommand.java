@@ -0,0 +1,22 @@
+package com.ecommerce.inventory.engine;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A request queued for a partition. The result is empty when the partition does not serve the SKU.
+ *
+ * @param reservationId {@code null} for {@link Type#ADJUST}
+ * @param quantity      the units to reserve, release or consume, or the signed adjustment
+ */
+record EngineCommand(Type type, String reservationId, String skuCode, int quantity,
+                     CompletableFuture<Optional<EngineResult>> result) {
+
+    enum Type {
+        RESERVE, RELEASE, CONSUME, ADJUST
+    }
+
+    EngineCommand(Type type, String reservationId, String skuCode, int quantity) {
+        this(type, reservationId, skuCode, quantity, new CompletableFuture<>());
+    }
+}
@@ -0,0 +1,587 @@
+package com.ecommerce.inventory.engine;
+
+import com.ecommerce.inventory.exception.EngineOverloadedException;
+import com.ecommerce.inventory.exception.InsufficientStockException;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.exception.ReservationConflictException;
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.model.ReservationState;
+import com.ecommerce.inventory.model.StockReservation;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * One partition of the {@link ReservationEngine}: the SKUs hashed to it, their engine-owned holds, and the single
+ * thread that changes them.
+ * <p>
+ * The thread drains commands from the ring in batches and applies each to memory, recording its effect. Once the
+ * batch is applied its effects are appended to the journal with one write, and only then are the callers answered;
+ * if the write fails the effects are undone and the callers get {@link EngineOverloadedException}. Every
+ * {@code flush-interval} the deltas applied since the last flush are handed to a flusher thread, which writes them
+ * to the database while the partition keeps serving; the partition rebases on the rows the flush read back, so
+ * changes other writers made in the meantime show up too. All loaded SKUs are re-read every
+ * {@code refresh-interval}.
+ * <p>
+ * The partition thread never waits for the database. A command for a SKU not loaded yet, or for a hold not in
+ * memory, is parked while a loader thread reads the SKU or claims the hold from the ledger; later commands for the
+ * same SKU queue behind it, so they are still applied in arrival order.
+ */
+final class EnginePartition implements Runnable {
+
+    private static final Logger log = Logger.getLogger(EnginePartition.class);
+
+    private static final int MAX_BATCH = 256;
+
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    record Settings(Duration reservationTtl, Duration flushInterval, Duration refreshInterval,
+                    Duration settledRetention, boolean settleWithoutLedger) {
+    }
+
+    /**
+     * What one applied command or expiry changed; {@code command} is {@code null} for an expiry and {@code entry}
+     * is {@code null} for a command that changed nothing.
+     */
+    private record Effect(EngineCommand command, EngineResult result, JournalEntry entry, Hold.Key key,
+                          Hold previous) {
+    }
+
+    private record FlushBatch(long journalSeq, SortedMap<String, int[]> deltas, List<Hold> holds,
+                              Set<String> refresh, boolean refreshAll) {
+    }
+
+    private final int partition;
+    private final RingBuffer<EngineCommand> ring;
+    private final Queue<Runnable> control = new ConcurrentLinkedQueue<>();
+    private final Journal journal;
+    private final EngineStore store;
+    private final Executor flusher;
+    private final Executor loader;
+    private final Settings settings;
+    private final Consumer<List<ExpiredHolds>> expiryListener;
+
+    private final Map<String, SkuState> skus = new HashMap<>();
+    /** SKUs found missing or sharded; cleared on every refresh so they are looked up again. */
+    private final Set<String> unserved = new HashSet<>();
+    /** Commands parked per SKU while the SKU is loaded or one of its holds is claimed, in arrival order. */
+    private final Map<String, List<EngineCommand>> waiting = new HashMap<>();
+    /** Holds just looked up in the ledger and not found; each is consumed by the command that asked. */
+    private final Set<Hold.Key> notInLedger = new HashSet<>();
+    private final Map<Hold.Key, Hold> holds = new HashMap<>();
+    private final PriorityQueue<Hold> expiries = new PriorityQueue<>(Comparator.comparing(Hold::expiresAt));
+    private final Set<String> dirtySkus = new TreeSet<>();
+    private final Set<Hold.Key> dirtyHolds = new LinkedHashSet<>();
+    private final List<Effect> effects = new ArrayList<>();
+    private final Map<String, List<Hold>> expired = new LinkedHashMap<>();
+
+    private long seq;
+    private boolean flushing;
+    private long nextFlushAt;
+    private long nextRefreshAt;
+    private volatile boolean running = true;
+    private volatile Thread thread;
+
+    EnginePartition(int partition, int ringSize, Journal journal, long lastSeq, EngineStore store, Executor flusher,
+                    Executor loader, Settings settings, Consumer<List<ExpiredHolds>> expiryListener) {
+        this.partition = partition;
+        this.ring = new RingBuffer<>(ringSize);
+        this.journal = journal;
+        this.seq = lastSeq;
+        this.store = store;
+        this.flusher = flusher;
+        this.loader = loader;
+        this.settings = settings;
+        this.expiryListener = expiryListener;
+    }
+
+    void start() {
+        long now = System.nanoTime();
+        nextFlushAt = now + settings.flushInterval().toNanos();
+        nextRefreshAt = now + settings.refreshInterval().toNanos();
+        Thread started = new Thread(this, "reservation-engine-" + partition);
+        started.setDaemon(true);
+        thread = started;
+        started.start();
+    }
+
+    /**
+     * Queues a command; safe to call from any thread.
+     *
+     * @return {@code false} if the ring is full
+     */
+    boolean submit(EngineCommand command) {
+        if (!ring.offer(command)) {
+            return false;
+        }
+        LockSupport.unpark(thread);
+        return true;
+    }
+
+    /**
+     * Stops taking new work, answers the queued commands, flushes and closes the journal.
+     */
+    void stop(Duration timeout) throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(timeout.toMillis());
+    }
+
+    @Override
+    public void run() {
+        while (running || flushing || !ring.isEmpty() || !waiting.isEmpty()) {
+            Runnable task;
+            while ((task = control.poll()) != null) {
+                task.run();
+            }
+            int drained = ring.drain(this::apply, MAX_BATCH);
+            expireDue();
+            commit();
+
+            long now = System.nanoTime();
+            boolean refreshDue = now - nextRefreshAt >= 0;
+            if (running && !flushing && (refreshDue || (now - nextFlushAt >= 0 && hasChanges()))) {
+                startFlush(refreshDue);
+                nextFlushAt = now + settings.flushInterval().toNanos();
+                if (refreshDue) {
+                    nextRefreshAt = now + settings.refreshInterval().toNanos();
+                }
+            }
+            if (drained == 0 && control.isEmpty()) {
+                long untilFlush = nextFlushAt - now;
+                LockSupport.parkNanos(untilFlush > 0 ? Math.min(untilFlush, MAX_PARK_NANOS) : MAX_PARK_NANOS);
+            }
+        }
+        flushBeforeStop();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warnf(e, "Could not close the journal of reservation engine partition %d", partition);
+        }
+    }
+
+    private void apply(EngineCommand command) {
+        List<EngineCommand> queued = waiting.get(command.skuCode());
+        if (queued != null) {
+            queued.add(command);
+            return;
+        }
+        try {
+            SkuState sku = skus.get(command.skuCode());
+            if (sku == null) {
+                if (unserved.contains(command.skuCode())) {
+                    command.result().complete(Optional.empty());
+                } else {
+                    load(command);
+                }
+                return;
+            }
+            if (command.reservationId() != null) {
+                Hold.Key key = new Hold.Key(command.reservationId(), command.skuCode());
+                if (!holds.containsKey(key) && !notInLedger.remove(key)) {
+                    claim(command, key);
+                    return;
+                }
+            }
+            switch (command.type()) {
+                case RESERVE -> reserve(command, sku);
+                case RELEASE -> settle(command, sku, ReservationState.RELEASED);
+                case CONSUME -> settle(command, sku, ReservationState.CONSUMED);
+                case ADJUST -> adjust(command, sku);
+            }
+        } catch (RuntimeException e) {
+            command.result().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Reserves units under a new hold. The hold has been looked up in the ledger too, so a reservation settled by
+     * the database path or an earlier run is refused rather than held again.
+     */
+    private void reserve(EngineCommand command, SkuState sku) {
+        Hold.Key key = new Hold.Key(command.reservationId(), command.skuCode());
+        Hold existing = holds.get(key);
+        if (existing != null) {
+            if (existing.state() != ReservationState.HELD || existing.quantity() != command.quantity()) {
+                throw new ReservationConflictException("Reservation " + command.reservationId()
+                        + " already exists with different lines or has ended");
+            }
+            effects.add(new Effect(command, new EngineResult(sku.view(), false), null, key, null));
+            return;
+        }
+        if (sku.available() < command.quantity()) {
+            throw new InsufficientStockException("Insufficient available quantity for SKU: " + command.skuCode());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Hold hold = new Hold(command.reservationId(), command.skuCode(), command.quantity(), ReservationState.HELD,
+                now.plus(settings.reservationTtl()), now);
+        record(command, sku, 0, command.quantity(), null, hold);
+        expiries.add(hold);
+    }
+
+    private void settle(EngineCommand command, SkuState sku, ReservationState target) {
+        Hold existing = holds.get(new Hold.Key(command.reservationId(), command.skuCode()));
+        if (existing != null && existing.state() == target) {
+            effects.add(new Effect(command, new EngineResult(sku.view(), false), null, existing.key(), null));
+            return;
+        }
+        if (existing == null && !settings.settleWithoutLedger()) {
+            throw new ReservationConflictException("Reservation " + command.reservationId() + " holds no units of SKU "
+                    + command.skuCode());
+        }
+        if (existing != null && existing.state() != ReservationState.HELD) {
+            throw new ReservationConflictException("Reservation " + command.reservationId() + " for SKU "
+                    + command.skuCode() + " is already " + existing.state());
+        }
+        if (existing != null && existing.quantity() != command.quantity()) {
+            throw new InvalidInventoryOperationException("Reservation " + command.reservationId() + " holds "
+                    + existing.quantity() + " units of SKU " + command.skuCode() + ", not " + command.quantity());
+        }
+        if (sku.reserved() < command.quantity()) {
+            throw new InvalidInventoryOperationException("Cannot release more than reserved quantity");
+        }
+        int quantityDelta = 0;
+        if (target == ReservationState.CONSUMED) {
+            if (sku.quantity() < command.quantity()) {
+                throw new InvalidInventoryOperationException("Cannot consume more than reserved quantity");
+            }
+            quantityDelta = -command.quantity();
+        }
+        // During the ledger cutover a reservation made before the ledger existed has no hold; like the database path
+        // it settles the counters only
+        record(command, sku, quantityDelta, -command.quantity(), existing,
+                existing != null ? existing.settle(target, LocalDateTime.now()) : null);
+    }
+
+    private void adjust(EngineCommand command, SkuState sku) {
+        if (sku.quantity() + command.quantity() < 0) {
+            throw new InvalidInventoryOperationException("Insufficient quantity for adjustment");
+        }
+        record(command, sku, command.quantity(), 0, null, null);
+    }
+
+    /**
+     * Expires the holds that are due. Expiries run in the same batch as the commands, so they are journalled and
+     * undone with them.
+     */
+    private void expireDue() {
+        if (expiries.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        while (!expiries.isEmpty() && !expiries.peek().expiresAt().isAfter(now)) {
+            Hold hold = expiries.poll();
+            SkuState sku = skus.get(hold.skuCode());
+            if (holds.get(hold.key()) != hold || sku == null) {
+                continue;
+            }
+            int reservedDelta = -hold.quantity();
+            if (sku.reserved() < hold.quantity()) {
+                // Same as the database sweep: the hold ends, a counter that no longer covers it is left alone
+                log.warnf("Expiring reservation %s but SKU %s has only %d units reserved",
+                        hold.reservationId(), hold.skuCode(), sku.reserved());
+                reservedDelta = 0;
+            }
+            record(null, sku, 0, reservedDelta, hold, hold.settle(ReservationState.EXPIRED, now));
+            expired.computeIfAbsent(hold.skuCode(), skuCode -> new ArrayList<>()).add(hold);
+        }
+    }
+
+    /**
+     * Applies a change to memory and records its effect for the journal.
+     *
+     * @param previous the hold before the change, or {@code null}
+     * @param next     the hold after the change, or {@code null} for an adjustment or a settle without a hold
+     */
+    private void record(EngineCommand command, SkuState sku, int quantityDelta, int reservedDelta, Hold previous,
+                        Hold next) {
+        String skuCode = command != null ? command.skuCode() : next.skuCode();
+        sku.apply(quantityDelta, reservedDelta);
+        dirtySkus.add(skuCode);
+        Hold.Key key = null;
+        if (next != null) {
+            key = next.key();
+            holds.put(key, next);
+            dirtyHolds.add(key);
+        }
+        JournalEntry entry = next == null
+                ? new JournalEntry(++seq, skuCode, quantityDelta, reservedDelta, null, null, 0, null)
+                : new JournalEntry(++seq, skuCode, quantityDelta, reservedDelta, next.reservationId(), next.state(),
+                        next.quantity(), next.expiresAt());
+        EngineResult result = command != null ? new EngineResult(sku.view(), true) : null;
+        effects.add(new Effect(command, result, entry, key, previous));
+    }
+
+    /**
+     * Journals the effects of the batch and answers its commands.
+     */
+    private void commit() {
+        if (effects.isEmpty()) {
+            return;
+        }
+        List<JournalEntry> entries = effects.stream().map(Effect::entry).filter(Objects::nonNull).toList();
+        try {
+            if (!entries.isEmpty()) {
+                journal.append(entries);
+            }
+        } catch (IOException e) {
+            log.errorf(e, "Could not write the journal of reservation engine partition %d", partition);
+            undo(entries.size());
+            for (Effect effect : effects) {
+                if (effect.command() != null) {
+                    effect.command().result().completeExceptionally(
+                            new EngineOverloadedException("Reservation engine journal unavailable, retry", e));
+                }
+            }
+            effects.clear();
+            expired.clear();
+            return;
+        }
+        for (Effect effect : effects) {
+            if (effect.command() != null) {
+                effect.command().result().complete(Optional.of(effect.result()));
+            }
+        }
+        effects.clear();
+        if (!expired.isEmpty()) {
+            List<ExpiredHolds> notices = new ArrayList<>();
+            expired.forEach((skuCode, expiredHolds) -> notices.add(new ExpiredHolds(skus.get(skuCode).view(),
+                    expiredHolds.stream().map(Hold::reservationId).toList(),
+                    expiredHolds.stream().mapToInt(Hold::quantity).sum())));
+            expired.clear();
+            expiryListener.accept(notices);
+        }
+    }
+
+    private void undo(int journalled) {
+        for (int i = effects.size() - 1; i >= 0; i--) {
+            Effect effect = effects.get(i);
+            if (effect.entry() == null) {
+                continue;
+            }
+            skus.get(effect.entry().skuCode()).apply(-effect.entry().quantityDelta(), -effect.entry().reservedDelta());
+            if (effect.key() == null) {
+                continue;
+            }
+            if (effect.previous() == null) {
+                holds.remove(effect.key());
+            } else {
+                holds.put(effect.key(), effect.previous());
+                if (effect.previous().state() == ReservationState.HELD) {
+                    scheduleExpiry(effect.previous());
+                }
+            }
+        }
+        seq -= journalled;
+    }
+
+    /**
+     * Queues a held hold for expiry; a hold without an expiry, such as an order's, is never expired.
+     */
+    private void scheduleExpiry(Hold hold) {
+        if (hold.expiresAt() != null) {
+            expiries.add(hold);
+        }
+    }
+
+    private boolean hasChanges() {
+        return !dirtySkus.isEmpty() || !dirtyHolds.isEmpty();
+    }
+
+    private FlushBatch snapshot(boolean refreshAll) {
+        SortedMap<String, int[]> deltas = new TreeMap<>();
+        for (String skuCode : dirtySkus) {
+            SkuState sku = skus.get(skuCode);
+            if (sku != null && sku.hasPending()) {
+                deltas.put(skuCode, sku.beginFlush());
+            }
+        }
+        dirtySkus.clear();
+        List<Hold> changedHolds = dirtyHolds.stream().map(holds::get).filter(Objects::nonNull).toList();
+        dirtyHolds.clear();
+        Set<String> refresh = new TreeSet<>(deltas.keySet());
+        if (refreshAll) {
+            refresh.addAll(skus.keySet());
+        }
+        return new FlushBatch(seq, deltas, changedHolds, refresh, refreshAll);
+    }
+
+    private void startFlush(boolean refreshAll) {
+        FlushBatch batch = snapshot(refreshAll);
+        try {
+            journal.rotate(batch.journalSeq() + 1);
+        } catch (IOException e) {
+            // The old segment stays open and is deleted together with the next rotated one
+            log.warnf(e, "Could not start a new journal segment for reservation engine partition %d", partition);
+        }
+        flushing = true;
+        CompletableFuture.supplyAsync(() -> store.flush(partition, batch.journalSeq(), batch.deltas(), batch.holds(),
+                        batch.refresh()), flusher)
+                .whenComplete((rows, failure) -> {
+                    control.add(() -> flushed(batch, rows, failure));
+                    LockSupport.unpark(thread);
+                });
+    }
+
+    private void flushed(FlushBatch batch, List<InventoryItem> rows, Throwable failure) {
+        flushing = false;
+        if (failure != null) {
+            log.warnf(failure, "Reservation engine partition %d could not flush through journal sequence %d, "
+                    + "will retry", partition, batch.journalSeq());
+            for (String skuCode : batch.deltas().keySet()) {
+                skus.get(skuCode).abortFlush();
+                dirtySkus.add(skuCode);
+            }
+            batch.holds().forEach(hold -> dirtyHolds.add(hold.key()));
+            return;
+        }
+        rebase(batch, rows);
+        try {
+            journal.deleteUpTo(batch.journalSeq());
+        } catch (IOException e) {
+            log.warnf(e, "Could not delete flushed journal segments of reservation engine partition %d", partition);
+        }
+        if (batch.refreshAll()) {
+            unserved.clear();
+            purgeSettledHolds();
+        }
+    }
+
+    private void rebase(FlushBatch batch, List<InventoryItem> rows) {
+        Set<String> missing = new HashSet<>(batch.refresh());
+        for (InventoryItem row : rows) {
+            missing.remove(row.getSkuCode());
+            SkuState sku = skus.get(row.getSkuCode());
+            if (sku == null) {
+                continue;
+            }
+            if (row.getShardCount() > 0) {
+                log.warnf("SKU %s was sharded while the reservation engine served it; no longer serving it",
+                        row.getSkuCode());
+                skus.remove(row.getSkuCode());
+                continue;
+            }
+            sku.rebase(row);
+        }
+        for (String skuCode : missing) {
+            log.warnf("SKU %s no longer exists; reservation engine partition %d dropped it", skuCode, partition);
+            skus.remove(skuCode);
+        }
+    }
+
+    private void purgeSettledHolds() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(settings.settledRetention());
+        holds.values().removeIf(hold -> hold.state() != ReservationState.HELD && hold.updatedAt().isBefore(cutoff)
+                && !dirtyHolds.contains(hold.key()));
+    }
+
+    /**
+     * Writes what is left synchronously; anything that fails stays in the journal for the next start.
+     */
+    private void flushBeforeStop() {
+        if (!hasChanges()) {
+            return;
+        }
+        FlushBatch batch = snapshot(false);
+        try {
+            store.flush(partition, batch.journalSeq(), batch.deltas(), batch.holds(), batch.refresh());
+            journal.rotate(batch.journalSeq() + 1);
+            journal.deleteUpTo(batch.journalSeq());
+        } catch (IOException | RuntimeException e) {
+            log.errorf(e, "Reservation engine partition %d could not flush before stopping; its journal is "
+                    + "replayed on the next start", partition);
+        }
+    }
+
+    /**
+     * Parks {@code command} and reads its SKU on a loader thread. A SKU that does not exist or is sharded is left to
+     * the database path.
+     */
+    private void load(EngineCommand command) {
+        String skuCode = command.skuCode();
+        waiting.put(skuCode, new ArrayList<>(List.of(command)));
+        CompletableFuture.supplyAsync(() -> store.load(skuCode), loader)
+                .whenComplete((loaded, failure) -> {
+                    control.add(() -> {
+                        if (failure == null) {
+                            if (loaded.isEmpty() || loaded.get().item().getShardCount() > 0) {
+                                unserved.add(skuCode);
+                            } else {
+                                skus.put(skuCode, new SkuState(loaded.get().item()));
+                                for (StockReservation line : loaded.get().holds()) {
+                                    Hold hold = Hold.of(line);
+                                    holds.putIfAbsent(hold.key(), hold);
+                                    scheduleExpiry(hold);
+                                }
+                            }
+                        }
+                        resume(skuCode, failure);
+                    });
+                    LockSupport.unpark(thread);
+                });
+    }
+
+    /**
+     * Parks {@code command} and claims its hold from the ledger on a loader thread, where the database path or an
+     * earlier run may have written it.
+     */
+    private void claim(EngineCommand command, Hold.Key key) {
+        waiting.put(key.skuCode(), new ArrayList<>(List.of(command)));
+        CompletableFuture.supplyAsync(() -> store.claimHold(key.reservationId(), key.skuCode()), loader)
+                .whenComplete((line, failure) -> {
+                    control.add(() -> {
+                        if (failure == null && line.isPresent()) {
+                            Hold hold = Hold.of(line.get());
+                            holds.put(key, hold);
+                            if (hold.state() == ReservationState.HELD) {
+                                scheduleExpiry(hold);
+                            }
+                        } else if (failure == null) {
+                            notInLedger.add(key);
+                        }
+                        resume(key.skuCode(), failure);
+                    });
+                    LockSupport.unpark(thread);
+                });
+    }
+
+    /**
+     * Applies the commands parked on a SKU in arrival order, or fails them all if the lookup failed.
+     */
+    private void resume(String skuCode, Throwable failure) {
+        List<EngineCommand> parked = waiting.remove(skuCode);
+        if (failure != null) {
+            log.warnf(failure, "Reservation engine partition %d could not read SKU %s", partition, skuCode);
+            EngineOverloadedException retry = new EngineOverloadedException(
+                    "Reservation engine could not read SKU " + skuCode + ", retry", failure);
+            parked.forEach(command -> command.result().completeExceptionally(retry));
+            return;
+        }
+        // A command that starts another lookup parks the rest behind it again
+        parked.forEach(this::apply);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.inventory.engine;
+
+import com.ecommerce.inventory.model.InventoryItem;
+
+/**
+ * Outcome of a command served by the {@link ReservationEngine}.
+ *
+ * @param item    detached copy of the item with its live counters
+ * @param changed {@code false} if the command repeated one already applied and nothing changed
+ */
+public record EngineResult(InventoryItem item, boolean changed) {
+}
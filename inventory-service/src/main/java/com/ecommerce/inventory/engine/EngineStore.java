@@ -0,0 +1,37 @@
+package com.ecommerce.inventory.engine;
+
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.model.StockReservation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * Database access of the engine partitions. Every call runs in its own transaction.
+ */
+interface EngineStore {
+
+    record LoadedSku(InventoryItem item, List<StockReservation> holds) {
+    }
+
+    /**
+     * @return the item with the holds the engine owns on it, or empty if the SKU does not exist
+     */
+    Optional<LoadedSku> load(String skuCode);
+
+    /**
+     * @see com.ecommerce.inventory.repository.StockReservationRepository#claimForEngine
+     */
+    Optional<StockReservation> claimHold(String reservationId, String skuCode);
+
+    /**
+     * Writes the holds, adds the counter deltas (indexed by SKU as {@code {quantityDelta, reservedDelta}}) and
+     * checkpoints {@code journalSeq}, all in one transaction.
+     *
+     * @return the rows of {@code refresh} as committed
+     */
+    List<InventoryItem> flush(int partition, long journalSeq, SortedMap<String, int[]> deltas, List<Hold> holds,
+                              Collection<String> refresh);
+}
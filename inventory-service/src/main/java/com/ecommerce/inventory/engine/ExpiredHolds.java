@@ -0,0 +1,11 @@
+package com.ecommerce.inventory.engine;
+
+import com.ecommerce.inventory.model.InventoryItem;
+
+import java.util.List;
+
+/**
+ * Fired asynchronously when the {@link ReservationEngine} expires holds of a SKU.
+ */
+public record ExpiredHolds(InventoryItem item, List<String> reservationIds, int quantityReleased) {
+}
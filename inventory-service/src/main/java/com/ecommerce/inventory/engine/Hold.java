@@ -0,0 +1,35 @@
+package com.ecommerce.inventory.engine;
+
+import com.ecommerce.inventory.model.ReservationState;
+import com.ecommerce.inventory.model.StockReservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * In-memory copy of one engine-owned {@link StockReservation} line. Instances are immutable: every transition puts
+ * a new instance in the partition's map, so the expiry queue can tell a superseded entry by identity.
+ */
+record Hold(String reservationId, String skuCode, int quantity, ReservationState state, LocalDateTime expiresAt,
+            LocalDateTime updatedAt) {
+
+    record Key(String reservationId, String skuCode) {
+    }
+
+    static Hold of(StockReservation line) {
+        return new Hold(line.getReservationId(), line.getSkuCode(), line.getQuantity(), line.getState(),
+                line.getExpiresAt(), line.getUpdatedAt());
+    }
+
+    static Hold of(JournalEntry entry, LocalDateTime now) {
+        return new Hold(entry.reservationId(), entry.skuCode(), entry.holdQuantity(), entry.holdState(),
+                entry.expiresAt(), now);
+    }
+
+    Key key() {
+        return new Key(reservationId, skuCode);
+    }
+
+    Hold settle(ReservationState target, LocalDateTime now) {
+        return new Hold(reservationId, skuCode, quantity, target, expiresAt, now);
+    }
+}
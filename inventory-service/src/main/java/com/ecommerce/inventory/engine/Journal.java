@@ -0,0 +1,251 @@
+package com.ecommerce.inventory.engine;
+
+import com.ecommerce.inventory.model.ReservationState;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of one engine partition, split into segment files named after the first sequence they hold.
+ * <p>
+ * Each record is length-prefixed and followed by a CRC32, so a record torn by a crash ends the replay of its segment
+ * instead of corrupting it. A write that fails is cut off again before the error is reported, so records appended
+ * later never sit behind a torn one. A new segment is started whenever the partition hands its changes to a flush;
+ * once that flush is committed every older segment is deleted.
+ */
+final class Journal implements Closeable {
+
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final String prefix;
+    private final boolean fsync;
+    private FileChannel current;
+    private long currentFirstSeq;
+
+    Journal(Path directory, int partition, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.prefix = "partition-" + partition + "-";
+        this.fsync = fsync;
+    }
+
+    /**
+     * Reads every intact record of every segment in sequence order.
+     */
+    List<JournalEntry> readAll() throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        for (Path segment : segments()) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(segment))) {
+                JournalEntry entry;
+                while ((entry = read(in)) != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Starts a new segment for records from {@code firstSeq} on, closing the current one. Every sequence from
+     * {@code firstSeq} on is unacknowledged, so whatever an existing segment of that name holds, such as a torn
+     * write, is discarded.
+     */
+    void rotate(long firstSeq) throws IOException {
+        FileChannel next = FileChannel.open(segment(firstSeq), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (current != null) {
+            current.close();
+        }
+        current = next;
+        currentFirstSeq = firstSeq;
+    }
+
+    /**
+     * Writes {@code entries} with one write and, if configured, one fsync. If the write fails the segment is cut back
+     * to its length before the write; if even that fails, a new segment is started at the first of {@code entries}.
+     * Should that fail too, appends fail until the next {@link #rotate}.
+     */
+    void append(List<JournalEntry> entries) throws IOException {
+        if (current == null) {
+            throw new IOException("No journal segment is open after a failed write");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(entries.size() * 96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        ByteArrayOutputStream record = new ByteArrayOutputStream(96);
+        for (JournalEntry entry : entries) {
+            record.reset();
+            write(new DataOutputStream(record), entry);
+            CRC32 crc = new CRC32();
+            crc.update(record.toByteArray());
+            out.writeInt(record.size());
+            record.writeTo(out);
+            out.writeInt((int) crc.getValue());
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        long length = current.size();
+        try {
+            while (buffer.hasRemaining()) {
+                current.write(buffer);
+            }
+            if (fsync) {
+                current.force(false);
+            }
+        } catch (IOException e) {
+            discardFrom(length, entries.get(0).seq(), e);
+            throw e;
+        }
+    }
+
+    private void discardFrom(long length, long firstSeq, IOException failure) {
+        try {
+            current.truncate(length);
+            if (fsync) {
+                current.force(false);
+            }
+            return;
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+        try {
+            rotate(firstSeq);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+            try {
+                current.close();
+            } catch (IOException closeFailure) {
+                failure.addSuppressed(closeFailure);
+            }
+            current = null;
+        }
+    }
+
+    /**
+     * Deletes the closed segments holding only records up to {@code seq}.
+     */
+    void deleteUpTo(long seq) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long nextFirstSeq = firstSeq(segments.get(i + 1));
+            if (nextFirstSeq <= seq + 1 && firstSeq(segments.get(i)) != currentFirstSeq) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the partitions that have segments in {@code directory}, including partitions beyond the configured
+     * count that must still be replayed.
+     */
+    static Set<Integer> partitions(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Set.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("partition-") && name.endsWith(SUFFIX))
+                    .map(name -> Integer.valueOf(name.substring("partition-".length(), name.indexOf('-', "partition-".length()))))
+                    .collect(Collectors.toCollection(TreeSet::new));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(SUFFIX);
+                    })
+                    .sorted((a, b) -> Long.compare(firstSeq(a), firstSeq(b)))
+                    .toList();
+        }
+    }
+
+    private Path segment(long firstSeq) {
+        return directory.resolve(prefix + String.format("%020d", firstSeq) + SUFFIX);
+    }
+
+    private long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static void write(DataOutputStream out, JournalEntry entry) throws IOException {
+        out.writeLong(entry.seq());
+        out.writeUTF(entry.skuCode());
+        out.writeInt(entry.quantityDelta());
+        out.writeInt(entry.reservedDelta());
+        out.writeBoolean(entry.reservationId() != null);
+        if (entry.reservationId() != null) {
+            out.writeUTF(entry.reservationId());
+            out.writeByte(entry.holdState().ordinal());
+            out.writeInt(entry.holdQuantity());
+            // Empty for a hold that never expires
+            out.writeUTF(entry.expiresAt() != null ? entry.expiresAt().toString() : "");
+        }
+    }
+
+    /**
+     * @return the next record, or {@code null} at the end of the segment or at a torn record
+     */
+    private static JournalEntry read(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            if (length <= 0 || length > 1 << 20) {
+                return null;
+            }
+            byte[] record = in.readNBytes(length);
+            if (record.length < length) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            if (in.readInt() != (int) crc.getValue()) {
+                return null;
+            }
+            return decode(new DataInputStream(new ByteArrayInputStream(record)));
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static JournalEntry decode(DataInputStream in) throws IOException {
+        long seq = in.readLong();
+        String skuCode = in.readUTF();
+        int quantityDelta = in.readInt();
+        int reservedDelta = in.readInt();
+        if (!in.readBoolean()) {
+            return new JournalEntry(seq, skuCode, quantityDelta, reservedDelta, null, null, 0, null);
+        }
+        String reservationId = in.readUTF();
+        ReservationState state = ReservationState.values()[in.readByte()];
+        int holdQuantity = in.readInt();
+        String expiry = in.readUTF();
+        LocalDateTime expiresAt = expiry.isEmpty() ? null : LocalDateTime.parse(expiry);
+        return new JournalEntry(seq, skuCode, quantityDelta, reservedDelta, reservationId, state, holdQuantity, expiresAt);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.inventory.engine;
+
+import com.ecommerce.inventory.model.ReservationState;
+
+import java.time.LocalDateTime;
+
+/**
+ * The effect of one applied command: counter deltas for a SKU and, for reservation commands, the new state of the
+ * hold. Replay applies effects as recorded, without re-checking stock.
+ *
+ * @param reservationId {@code null} for adjustments
+ */
+record JournalEntry(long seq, String skuCode, int quantityDelta, int reservedDelta,
+                    String reservationId, ReservationState holdState, int holdQuantity, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,346 @@
+package com.ecommerce.inventory.engine;
+
+import com.ecommerce.inventory.exception.EngineOverloadedException;
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.model.StockReservation;
+import com.ecommerce.inventory.repository.EngineCheckpointRepository;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import com.ecommerce.inventory.service.InventoryCacheService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in in-memory reservation engine ({@code inventory.engine.enabled}).
+ * <p>
+ * SKUs are hashed over {@code inventory.engine.partitions} {@link EnginePartition}s, each owned by one thread that
+ * applies reservations, releases, consumption and adjustments in arrival order from a bounded ring. A change is
+ * answered once it is in the partition's journal under {@code inventory.engine.journal-dir}; the counters and the
+ * {@link StockReservation} ledger are written behind in batches, together with a per-partition checkpoint of the
+ * last journal sequence written. On startup every journal entry past its checkpoint is written to the database
+ * before the partitions start, so nothing acknowledged is lost in a crash.
+ * <p>
+ * The engine owns the counters of the SKUs it serves, so it must run on a single instance, and its journal and
+ * checkpoints are kept under {@code inventory.engine.instance-id}, which must be set when the engine is enabled.
+ * Writers that would take units behind its back are refused while it runs: multi-SKU order reservations, whether
+ * requested directly or from order-events, and cycle counts. Restocks go through {@link #adjust}. Writers that only
+ * return units, such as order cancellations and the database expiry sweep, still go to the database, and the engine
+ * sees their changes after its next flush or refresh. Sharded SKUs are not served and stay on the database path.
+ */
+@ApplicationScoped
+public class ReservationEngine {
+
+    private static final Logger log = Logger.getLogger(ReservationEngine.class);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+
+    @Inject
+    InventoryRepository inventoryRepository;
+
+    @Inject
+    StockReservationRepository reservationRepository;
+
+    @Inject
+    EngineCheckpointRepository checkpointRepository;
+
+    @Inject
+    InventoryCacheService inventoryCache;
+
+    @Inject
+    Event<ExpiredHolds> expiredHoldsEvent;
+
+    @ConfigProperty(name = "inventory.engine.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "inventory.engine.partitions", defaultValue = "8")
+    int partitionCount;
+
+    @ConfigProperty(name = "inventory.engine.ring-size", defaultValue = "4096")
+    int ringSize;
+
+    @ConfigProperty(name = "inventory.engine.journal-dir", defaultValue = "data/reservation-engine")
+    String journalDir;
+
+    @ConfigProperty(name = "inventory.engine.journal-fsync", defaultValue = "true")
+    boolean journalFsync;
+
+    @ConfigProperty(name = "inventory.engine.flush-interval", defaultValue = "PT0.2S")
+    Duration flushInterval;
+
+    @ConfigProperty(name = "inventory.engine.refresh-interval", defaultValue = "PT5S")
+    Duration refreshInterval;
+
+    @ConfigProperty(name = "inventory.engine.request-timeout", defaultValue = "PT2S")
+    Duration requestTimeout;
+
+    @ConfigProperty(name = "inventory.engine.settled-retention", defaultValue = "PT1H")
+    Duration settledRetention;
+
+    @ConfigProperty(name = "inventory.engine.instance-id")
+    Optional<String> configuredInstanceId;
+
+    @ConfigProperty(name = "inventory.reservation.ttl", defaultValue = "PT15M")
+    Duration reservationTtl;
+
+    @ConfigProperty(name = "inventory.reservation.settle-without-ledger", defaultValue = "false")
+    boolean settleWithoutLedger;
+
+    private final EngineStore store = new DatabaseStore();
+
+    private volatile EnginePartition[] partitions;
+
+    private ExecutorService flusher;
+
+    private ExecutorService loader;
+
+    private String instanceId;
+
+    void onStart(@Observes StartupEvent event) throws IOException {
+        if (enabled) {
+            start();
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) throws InterruptedException {
+        EnginePartition[] running = partitions;
+        if (running == null) {
+            return;
+        }
+        partitions = null;
+        for (EnginePartition partition : running) {
+            partition.stop(STOP_TIMEOUT);
+        }
+        flusher.shutdown();
+        loader.shutdown();
+        log.info("Reservation engine stopped");
+    }
+
+    /**
+     * Whether the engine is running. While it is not, every method returns empty and the caller uses the database.
+     */
+    public boolean isEnabled() {
+        return partitions != null;
+    }
+
+    public Optional<EngineResult> reserve(String reservationId, String skuCode, int quantity) {
+        return submit(new EngineCommand(EngineCommand.Type.RESERVE, reservationId, skuCode, quantity));
+    }
+
+    public Optional<EngineResult> release(String reservationId, String skuCode, int quantity) {
+        return submit(new EngineCommand(EngineCommand.Type.RELEASE, reservationId, skuCode, quantity));
+    }
+
+    public Optional<EngineResult> consume(String reservationId, String skuCode, int quantity) {
+        return submit(new EngineCommand(EngineCommand.Type.CONSUME, reservationId, skuCode, quantity));
+    }
+
+    public Optional<EngineResult> adjust(String skuCode, int adjustment) {
+        return submit(new EngineCommand(EngineCommand.Type.ADJUST, null, skuCode, adjustment));
+    }
+
+    /**
+     * Queues a command on the SKU's partition and waits for the answer. A command that times out may still be
+     * applied later; repeating it with the same reservation id is safe.
+     *
+     * @return the result, or empty if the engine is off or does not serve the SKU
+     * @throws EngineOverloadedException if the partition's ring is full or it does not answer in time
+     */
+    private Optional<EngineResult> submit(EngineCommand command) {
+        EnginePartition[] running = partitions;
+        if (running == null) {
+            return Optional.empty();
+        }
+        if (!running[Math.floorMod(command.skuCode().hashCode(), running.length)].submit(command)) {
+            throw new EngineOverloadedException("Reservation engine is busy, retry");
+        }
+        try {
+            return command.result().get(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new EngineOverloadedException("Reservation engine did not answer within " + requestTimeout
+                    + ", retry", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EngineOverloadedException("Interrupted waiting for the reservation engine", e);
+        }
+    }
+
+    private synchronized void start() throws IOException {
+        instanceId = configuredInstanceId.filter(id -> !id.isBlank()).orElseThrow(() -> new IllegalStateException(
+                "inventory.engine.instance-id must be set to an id unique to this instance to enable the engine"));
+        Path directory = Path.of(journalDir, instanceId);
+        flusher = daemonPool("reservation-engine-flush-");
+        loader = daemonPool("reservation-engine-load-");
+        EnginePartition.Settings settings = new EnginePartition.Settings(reservationTtl, flushInterval,
+                refreshInterval, settledRetention, settleWithoutLedger);
+
+        // Partitions left over from a run with more partitions are replayed and then stay idle
+        for (int partition : Journal.partitions(directory)) {
+            if (partition >= partitionCount) {
+                try (Journal journal = new Journal(directory, partition, journalFsync)) {
+                    recover(partition, journal);
+                }
+            }
+        }
+        EnginePartition[] started = new EnginePartition[partitionCount];
+        for (int partition = 0; partition < partitionCount; partition++) {
+            Journal journal = new Journal(directory, partition, journalFsync);
+            long lastSeq = recover(partition, journal);
+            started[partition] = new EnginePartition(partition, ringSize, journal, lastSeq, store, flusher, loader,
+                    settings, notices -> notices.forEach(expiredHoldsEvent::fireAsync));
+            started[partition].start();
+        }
+        partitions = started;
+        log.infof("Reservation engine started with %d partitions, journal in %s", partitionCount, directory);
+    }
+
+    /**
+     * Writes the journal entries past the partition's checkpoint to the database and starts a fresh segment.
+     *
+     * @return the last journal sequence of the partition
+     */
+    private long recover(int partition, Journal journal) throws IOException {
+        long checkpoint = QuarkusTransaction.requiringNew()
+                .call(() -> checkpointRepository.findJournalSeq(instanceId, partition));
+        SortedMap<String, int[]> deltas = new TreeMap<>();
+        Map<Hold.Key, Hold> holds = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        long lastSeq = checkpoint;
+        int replayed = 0;
+        for (JournalEntry entry : journal.readAll()) {
+            if (entry.seq() <= checkpoint) {
+                continue;
+            }
+            int[] delta = deltas.computeIfAbsent(entry.skuCode(), skuCode -> new int[2]);
+            delta[0] += entry.quantityDelta();
+            delta[1] += entry.reservedDelta();
+            if (entry.reservationId() != null) {
+                Hold hold = Hold.of(entry, now);
+                holds.put(hold.key(), hold);
+            }
+            lastSeq = Math.max(lastSeq, entry.seq());
+            replayed++;
+        }
+        if (replayed > 0) {
+            store.flush(partition, lastSeq, deltas, new ArrayList<>(holds.values()), List.of());
+            log.infof("Replayed %d journal entries of reservation engine partition %d", replayed, partition);
+        }
+        journal.rotate(lastSeq + 1);
+        journal.deleteUpTo(lastSeq);
+        return lastSeq;
+    }
+
+    private ExecutorService daemonPool(String namePrefix) {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(partitionCount, runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void warnUnwritten(String what, int written, int expected, int partition) {
+        if (written < expected) {
+            log.warnf("Reservation engine partition %d wrote %d of %d %s", partition, written, expected, what);
+        }
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += CHUNK_SIZE) {
+            chunks.add(values.subList(from, Math.min(values.size(), from + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    private final class DatabaseStore implements EngineStore {
+
+        @Override
+        public Optional<LoadedSku> load(String skuCode) {
+            return QuarkusTransaction.requiringNew().call(() -> inventoryRepository.findBySkuCode(skuCode)
+                    .map(item -> new LoadedSku(item, reservationRepository.findEngineHeld(skuCode))));
+        }
+
+        @Override
+        public Optional<StockReservation> claimHold(String reservationId, String skuCode) {
+            return QuarkusTransaction.requiringNew()
+                    .call(() -> reservationRepository.claimForEngine(reservationId, skuCode));
+        }
+
+        /**
+         * Takes the locks in the same order as the database path: ledger lines first, then item rows in SKU order.
+         */
+        @Override
+        public List<InventoryItem> flush(int partition, long journalSeq, SortedMap<String, int[]> deltas,
+                                         List<Hold> holds, Collection<String> refresh) {
+            return QuarkusTransaction.requiringNew().call(() -> {
+                int written = 0;
+                for (List<Hold> chunk : chunks(holds)) {
+                    written += reservationRepository.upsertEngineOwned(chunk.stream()
+                            .map(hold -> StockReservation.builder()
+                                    .id(UUID.randomUUID())
+                                    .reservationId(hold.reservationId())
+                                    .skuCode(hold.skuCode())
+                                    .quantity(hold.quantity())
+                                    .state(hold.state())
+                                    .expiresAt(hold.expiresAt())
+                                    .engineOwned(true)
+                                    .build())
+                            .toList());
+                }
+                warnUnwritten("reservation lines", written, holds.size(), partition);
+
+                int updated = 0;
+                for (List<String> chunk : chunks(new ArrayList<>(deltas.keySet()))) {
+                    inventoryRepository.lockAvailableInSkuOrder(chunk);
+                    SortedMap<String, int[]> chunkDeltas = new TreeMap<>();
+                    chunk.forEach(skuCode -> chunkDeltas.put(skuCode, deltas.get(skuCode)));
+                    updated += inventoryRepository.applyEngineDeltas(chunkDeltas).size();
+                }
+                warnUnwritten("counter deltas", updated, deltas.size(), partition);
+                inventoryCache.evict(deltas.keySet());
+
+                checkpointRepository.saveJournalSeq(instanceId, partition, journalSeq);
+
+                List<InventoryItem> rows = new ArrayList<>();
+                for (List<String> chunk : chunks(new ArrayList<>(refresh))) {
+                    rows.addAll(inventoryRepository.findBySkuCodeIn(chunk));
+                }
+                return rows;
+            });
+        }
+    }
+}
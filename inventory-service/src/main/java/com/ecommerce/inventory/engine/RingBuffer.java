@@ -0,0 +1,87 @@
+package com.ecommerce.inventory.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, preallocated ring of commands with many producers and one consumer.
+ * <p>
+ * Every slot carries a sequence number: a producer claims the next position with one CAS on the tail, writes the
+ * slot and then publishes it by advancing the slot's sequence; the consumer reads slots strictly in claim order and
+ * hands them back by advancing the sequence a full lap. Neither side takes a lock, and a full ring is reported to the
+ * producer instead of blocking it.
+ */
+final class RingBuffer<T> {
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    /** Only read and written by the consumer thread. */
+    private long head;
+
+    RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two, was " + capacity);
+        }
+        slots = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Appends {@code item}; safe to call from any thread.
+     *
+     * @return {@code false} if the ring is full
+     */
+    boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = item;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Passes up to {@code max} published items to {@code consumer} in order; only the consumer thread may call this.
+     *
+     * @return the number of items consumed
+     */
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<T> consumer, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            T item = (T) slots[index];
+            slots[index] = null;
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            drained++;
+            consumer.accept(item);
+        }
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.inventory.engine;
+
+import com.ecommerce.inventory.model.InventoryItem;
+
+import java.math.BigDecimal;
+
+/**
+ * Counters of one SKU owned by a partition: the row as last read from the database, plus the deltas of a flush in
+ * progress ({@code inflight}) and the deltas applied since ({@code pending}).
+ */
+final class SkuState {
+
+    private InventoryItem row;
+    private int inflightQuantity;
+    private int inflightReserved;
+    private int pendingQuantity;
+    private int pendingReserved;
+
+    SkuState(InventoryItem row) {
+        this.row = row;
+    }
+
+    int quantity() {
+        return row.getQuantity() + inflightQuantity + pendingQuantity;
+    }
+
+    int reserved() {
+        return row.getReservedQuantity() + inflightReserved + pendingReserved;
+    }
+
+    int available() {
+        return Math.max(0, quantity() - reserved());
+    }
+
+    void apply(int quantityDelta, int reservedDelta) {
+        pendingQuantity += quantityDelta;
+        pendingReserved += reservedDelta;
+    }
+
+    boolean hasPending() {
+        return pendingQuantity != 0 || pendingReserved != 0;
+    }
+
+    /**
+     * Moves the pending deltas into the flush that is starting.
+     *
+     * @return {@code {quantityDelta, reservedDelta}}
+     */
+    int[] beginFlush() {
+        inflightQuantity = pendingQuantity;
+        inflightReserved = pendingReserved;
+        pendingQuantity = 0;
+        pendingReserved = 0;
+        return new int[]{inflightQuantity, inflightReserved};
+    }
+
+    /**
+     * Returns the deltas of a failed flush to the pending ones, to be written by the next flush.
+     */
+    void abortFlush() {
+        pendingQuantity += inflightQuantity;
+        pendingReserved += inflightReserved;
+        inflightQuantity = 0;
+        inflightReserved = 0;
+    }
+
+    /**
+     * Takes a row read after the flush committed, which already includes the inflight deltas and any change made to
+     * the row by other writers.
+     */
+    void rebase(InventoryItem row) {
+        this.row = row;
+        inflightQuantity = 0;
+        inflightReserved = 0;
+    }
+
+    /**
+     * Returns a detached copy of the row carrying the live counters.
+     */
+    InventoryItem view() {
+        int quantity = quantity();
+        return InventoryItem.builder()
+                .id(row.getId())
+                .productId(row.getProductId())
+                .skuCode(row.getSkuCode())
+                .quantity(quantity)
+                .reservedQuantity(reserved())
+                .availableQuantity(available())
+                .lowStockThreshold(row.getLowStockThreshold())
+                .restockThreshold(row.getRestockThreshold())
+                .lastRestockedDate(row.getLastRestockedDate())
+                .nextRestockDate(row.getNextRestockDate())
+                .unitCost(row.getUnitCost())
+                .totalValue(row.getUnitCost() != null
+                        ? row.getUnitCost().multiply(BigDecimal.valueOf(quantity))
+                        : row.getTotalValue())
+                .locationCode(row.getLocationCode())
+                .binLocation(row.getBinLocation())
+                .isActive(row.getIsActive())
+                .shardCount(row.getShardCount())
+                .version(row.getVersion())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.inventory.exception;
+
+public class EngineOverloadedException extends RuntimeException {
+    public EngineOverloadedException(String message) {
+        super(message);
+    }
+
+    public EngineOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.inventory.exception.mapper;
+
+import com.ecommerce.inventory.exception.EngineOverloadedException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Provider
+public class EngineOverloadedExceptionMapper implements ExceptionMapper<EngineOverloadedException> {
+
+    @Override
+    public Response toResponse(EngineOverloadedException exception) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", Response.Status.SERVICE_UNAVAILABLE.getStatusCode());
+        body.put("error", "Service Unavailable");
+        body.put("message", exception.getMessage());
+        body.put("path", "/"); // Placeholder
+
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(body).build();
+    }
+}
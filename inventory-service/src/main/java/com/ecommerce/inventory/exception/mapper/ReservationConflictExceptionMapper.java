@@ -0,0 +1,26 @@
+package com.ecommerce.inventory.exception.mapper;
+
+import com.ecommerce.inventory.exception.ReservationConflictException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Provider
+public class ReservationConflictExceptionMapper implements ExceptionMapper<ReservationConflictException> {
+
+    @Override
+    public Response toResponse(ReservationConflictException exception) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", Response.Status.CONFLICT.getStatusCode());
+        body.put("error", "Conflict");
+        body.put("message", exception.getMessage());
+        body.put("path", "/"); // Placeholder
+
+        return Response.status(Response.Status.CONFLICT).entity(body).build();
+    }
+}
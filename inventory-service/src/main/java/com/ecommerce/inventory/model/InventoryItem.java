@@ -66,6 +66,10 @@ public class InventoryItem {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive;
     
+    /** Number of stock shards holding the available units; 0 when the counters live on this row. */
+    @Column(name = "shard_count", nullable = false)
+    private Integer shardCount;
+    
     @Version
     private Long version;
     
@@ -96,6 +100,10 @@ public class InventoryItem {
             this.isActive = true;
         }
         
+        if (shardCount == null) {
+            this.shardCount = 0;
+        }
+        
         if (lowStockThreshold == null) {
             this.lowStockThreshold = 10; // Default threshold
         }
@@ -0,0 +1,8 @@
+package com.ecommerce.inventory.model;
+
+public enum ReservationState {
+    HELD,
+    RELEASED,
+    CONSUMED,
+    EXPIRED
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One SKU line of a reservation. While {@link ReservationState#HELD} its quantity is counted in the item's
+ * {@code reservedQuantity}; every other state is final.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stock_reservations")
+public class StockReservation {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "reservation_id", nullable = false)
+    private String reservationId;
+
+    @Column(name = "sku_code", nullable = false)
+    private String skuCode;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationState state;
+
+    /** {@code null} for a hold that never expires, such as the hold of an order. */
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    /** Held by the in-memory reservation engine, which expires it itself. */
+    @Column(name = "engine_owned", nullable = false)
+    private boolean engineOwned;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
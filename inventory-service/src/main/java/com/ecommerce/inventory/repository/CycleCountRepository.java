@@ -0,0 +1,120 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.model.InventoryItem;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies cycle counts through a staging table. A chunk of counted lines is streamed into a temporary table with
+ * {@code COPY}, its item rows are locked in SKU order, and the counts are written by one set-based {@code UPDATE}.
+ * The staging table is dropped at commit, so every chunk runs in a transaction of its own.
+ */
+@ApplicationScoped
+public class CycleCountRepository {
+
+    private static final String STAGING = "cycle_count_staging";
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * A counted SKU; {@code line} is its line number in the uploaded file.
+     */
+    public record CountedLine(int line, String skuCode, int quantity) {
+    }
+
+    /**
+     * A counted line that was not applied, and why.
+     */
+    public record RejectedLine(int line, String skuCode, String reason) {
+    }
+
+    /**
+     * An item as updated by a count, with its quantity and available units before it.
+     */
+    public record CountedItem(InventoryItem item, int previousQuantity, int previousAvailable) {
+    }
+
+    public record ChunkResult(List<CountedItem> applied, List<RejectedLine> rejected) {
+    }
+
+    /**
+     * Sets the quantity of every counted SKU to its count, keeping its reserved units. Lines for unknown or sharded
+     * SKUs, and counts below the units reserved, are rejected. Call within a transaction; the SKUs must be distinct.
+     */
+    @SuppressWarnings("unchecked")
+    public ChunkResult apply(List<CountedLine> lines) {
+        entityManager.createNativeQuery("CREATE TEMPORARY TABLE " + STAGING
+                + " (line_no INTEGER NOT NULL, sku_code VARCHAR(255) NOT NULL, counted_quantity INTEGER NOT NULL)"
+                + " ON COMMIT DROP").executeUpdate();
+        StringBuilder csv = new StringBuilder();
+        for (CountedLine line : lines) {
+            csv.append(line.line()).append(",\"").append(line.skuCode().replace("\"", "\"\"")).append("\",")
+                    .append(line.quantity()).append('\n');
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try {
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn("COPY " + STAGING
+                        + " (line_no, sku_code, counted_quantity) FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new SQLException("Failed to stream cycle counts into staging", e);
+            }
+        });
+
+        // Lock the counted rows in SKU order, the order every other writer takes them in
+        Map<String, int[]> previous = new HashMap<>();
+        List<Object[]> locked = entityManager.createNativeQuery("SELECT i.sku_code, i.quantity, i.available_quantity "
+                        + "FROM inventory_items i JOIN " + STAGING + " s ON s.sku_code = i.sku_code "
+                        + "ORDER BY i.sku_code FOR UPDATE OF i")
+                .getResultList();
+        for (Object[] row : locked) {
+            previous.put((String) row[0], new int[]{((Number) row[1]).intValue(), ((Number) row[2]).intValue()});
+        }
+
+        List<RejectedLine> rejected = new ArrayList<>();
+        List<Object[]> unapplied = entityManager.createNativeQuery("SELECT s.line_no, s.sku_code, s.counted_quantity, "
+                        + "i.shard_count, i.reserved_quantity FROM " + STAGING + " s "
+                        + "LEFT JOIN inventory_items i ON i.sku_code = s.sku_code "
+                        + "WHERE i.id IS NULL OR i.shard_count > 0 OR s.counted_quantity < i.reserved_quantity "
+                        + "ORDER BY s.line_no")
+                .getResultList();
+        for (Object[] row : unapplied) {
+            String reason;
+            if (row[3] == null) {
+                reason = "Unknown SKU";
+            } else if (((Number) row[3]).intValue() > 0) {
+                reason = "SKU has sharded stock counters; merge them before counting";
+            } else {
+                reason = "Counted quantity " + row[2] + " is below the " + row[4] + " units reserved";
+            }
+            rejected.add(new RejectedLine(((Number) row[0]).intValue(), (String) row[1], reason));
+        }
+
+        List<InventoryItem> updated = entityManager.createNativeQuery("UPDATE inventory_items i SET "
+                        + "version = i.version + 1, quantity = s.counted_quantity, "
+                        + "available_quantity = s.counted_quantity - i.reserved_quantity, "
+                        + "total_value = COALESCE(i.unit_cost * s.counted_quantity, i.total_value), "
+                        + "updated_at = NOW() "
+                        + "FROM " + STAGING + " s WHERE i.sku_code = s.sku_code AND i.shard_count = 0 "
+                        + "AND s.counted_quantity >= i.reserved_quantity RETURNING i.*", InventoryItem.class)
+                .getResultList();
+        List<CountedItem> applied = new ArrayList<>(updated.size());
+        for (InventoryItem item : updated) {
+            int[] before = previous.get(item.getSkuCode());
+            applied.add(new CountedItem(item, before[0], before[1]));
+        }
+        return new ChunkResult(applied, rejected);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.inventory.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+
+/**
+ * Statements on {@code inventory_engine_checkpoints}: the last journal sequence of each reservation engine partition
+ * whose effects are committed to the database.
+ */
+@ApplicationScoped
+public class EngineCheckpointRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * @return the checkpointed sequence, or 0 if the partition never flushed
+     */
+    @SuppressWarnings("unchecked")
+    public long findJournalSeq(String instanceId, int partition) {
+        List<Number> rows = entityManager
+                .createNativeQuery("SELECT journal_seq FROM inventory_engine_checkpoints "
+                        + "WHERE instance_id = :instance AND partition_no = :partition")
+                .setParameter("instance", instanceId)
+                .setParameter("partition", partition)
+                .getResultList();
+        return rows.isEmpty() ? 0 : rows.get(0).longValue();
+    }
+
+    public void saveJournalSeq(String instanceId, int partition, long journalSeq) {
+        entityManager.createNativeQuery("INSERT INTO inventory_engine_checkpoints "
+                        + "(instance_id, partition_no, journal_seq, updated_at) VALUES (:instance, :partition, :seq, now()) "
+                        + "ON CONFLICT (instance_id, partition_no) DO UPDATE SET journal_seq = EXCLUDED.journal_seq, "
+                        + "updated_at = now()")
+                .setParameter("instance", instanceId)
+                .setParameter("partition", partition)
+                .setParameter("seq", journalSeq)
+                .executeUpdate();
+    }
+}
@@ -2,15 +2,21 @@ package com.ecommerce.inventory.repository;
 
 import com.ecommerce.inventory.dto.InventoryStatus;
 import com.ecommerce.inventory.dto.StockLevel;
+import com.ecommerce.inventory.dto.event.ProductEvent;
 import com.ecommerce.inventory.model.InventoryItem;
+import io.quarkus.cache.CacheResult;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.Query;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
 import java.util.UUID;
 
 @ApplicationScoped
@@ -28,8 +34,15 @@ public class InventoryRepository implements PanacheRepository<InventoryItem> {
         return list("productId IN ?1", productIds);
     }
 
+    /**
+     * Returns the active unsharded items at or below their low-stock threshold; served by a partial index.
+     */
     public List<InventoryItem> findLowStockItems() {
-        return list("availableQuantity <= lowStockThreshold AND isActive = true");
+        return list("availableQuantity <= lowStockThreshold AND isActive = true AND shardCount = 0");
+    }
+
+    public List<InventoryItem> findActiveShardedItems() {
+        return list("shardCount > 0 AND isActive = true");
     }
 
     public List<InventoryItem> findItemsNeedingRestock() {
@@ -40,48 +53,303 @@ public class InventoryRepository implements PanacheRepository<InventoryItem> {
         return list("nextRestockDate IS NOT NULL AND nextRestockDate <= ?1", LocalDateTime.now());
     }
 
-    public int adjustInventory(String skuCode, int adjustment) {
-        return update("quantity = quantity + ?1, availableQuantity = (quantity + ?1) - reservedQuantity WHERE skuCode = ?2 AND (quantity + ?1) >= 0", adjustment, skuCode);
+    /**
+     * Adds {@code adjustment} to the quantity in one conditional statement, unless the quantity would go negative.
+     *
+     * @return the updated item, or empty if the SKU does not exist, is sharded or the guard failed
+     */
+    public Optional<InventoryItem> adjustInventory(String skuCode, int adjustment) {
+        return updateReturning("quantity = quantity + :qty, "
+                + "available_quantity = GREATEST(0, quantity + :qty - reserved_quantity), "
+                + "total_value = COALESCE(unit_cost * (quantity + :qty), total_value) "
+                + "WHERE sku_code = :sku AND shard_count = 0 AND quantity + :qty >= 0", skuCode, adjustment);
+    }
+
+    /**
+     * Reserves {@code quantity} units in one conditional statement, unless fewer are available.
+     *
+     * @return the updated item, or empty if the SKU does not exist, is sharded or the guard failed
+     */
+    public Optional<InventoryItem> reserveStock(String skuCode, int quantity) {
+        return updateReturning("reserved_quantity = reserved_quantity + :qty, "
+                + "available_quantity = quantity - reserved_quantity - :qty "
+                + "WHERE sku_code = :sku AND shard_count = 0 AND quantity - reserved_quantity >= :qty", skuCode, quantity);
+    }
+
+    /**
+     * Releases {@code quantity} reserved units in one conditional statement, unless fewer are reserved.
+     *
+     * @return the updated item, or empty if the SKU does not exist, is sharded or the guard failed
+     */
+    public Optional<InventoryItem> releaseStock(String skuCode, int quantity) {
+        return updateReturning("reserved_quantity = reserved_quantity - :qty, "
+                + "available_quantity = GREATEST(0, quantity - reserved_quantity + :qty) "
+                + "WHERE sku_code = :sku AND shard_count = 0 AND reserved_quantity >= :qty", skuCode, quantity);
+    }
+
+    /**
+     * Removes {@code quantity} reserved units from both the quantity and the reservation in one conditional
+     * statement; the available quantity does not change.
+     *
+     * @return the updated item, or empty if the SKU does not exist, is sharded or the guard failed
+     */
+    public Optional<InventoryItem> consumeReservedStock(String skuCode, int quantity) {
+        return updateReturning("quantity = quantity - :qty, reserved_quantity = reserved_quantity - :qty, "
+                + "total_value = COALESCE(unit_cost * (quantity - :qty), total_value) "
+                + "WHERE sku_code = :sku AND shard_count = 0 AND quantity >= :qty AND reserved_quantity >= :qty",
+                skuCode, quantity);
+    }
+
+    /**
+     * Locks the rows for {@code skuCodes} in SKU order and returns the units each has available. Every multi-SKU
+     * writer takes its locks in this one order, so two of them can wait for each other but never deadlock.
+     * Sharded SKUs are not locked; their rows stay free for the shard statements.
+     *
+     * @return available units by SKU; SKUs that do not exist or are sharded are absent
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Integer> lockAvailableInSkuOrder(Collection<String> skuCodes) {
+        List<Object[]> rows = getEntityManager()
+                .createNativeQuery("SELECT sku_code, quantity - reserved_quantity FROM inventory_items "
+                        + "WHERE sku_code IN (:skus) AND shard_count = 0 ORDER BY sku_code FOR UPDATE")
+                .setParameter("skus", skuCodes)
+                .getResultList();
+        Map<String, Integer> available = new HashMap<>();
+        for (Object[] row : rows) {
+            available.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        return available;
+    }
+
+    /**
+     * Reserves every SKU in {@code quantities} with one set-based conditional statement. Lines whose guard fails are
+     * left unchanged and missing from the result, so the caller compares sizes and rolls back on a mismatch. Call
+     * {@link #lockAvailableInSkuOrder} first: the rows this statement touches are then already locked in SKU order.
+     *
+     * @return the updated items
+     */
+    public List<InventoryItem> reserveAll(SortedMap<String, Integer> quantities) {
+        return updateAllReturning("reserved_quantity = i.reserved_quantity + r.qty, "
+                + "available_quantity = i.quantity - i.reserved_quantity - r.qty",
+                "i.quantity - i.reserved_quantity >= r.qty", quantities);
+    }
+
+    /**
+     * Releases reserved units for every SKU in {@code quantities} with one set-based conditional statement; the
+     * counterpart of {@link #reserveAll}, with the same locking contract.
+     *
+     * @return the updated items; SKUs with fewer units reserved than requested are left unchanged and missing
+     */
+    public List<InventoryItem> releaseAll(SortedMap<String, Integer> quantities) {
+        return updateAllReturning("reserved_quantity = i.reserved_quantity - r.qty, "
+                + "available_quantity = GREATEST(0, i.quantity - i.reserved_quantity + r.qty)",
+                "i.reserved_quantity >= r.qty", quantities);
+    }
+
+    /**
+     * Adds the quantity and reserved deltas written behind by the reservation engine, indexed by SKU as
+     * {@code {quantityDelta, reservedDelta}}, with one set-based statement. The engine already checked every change
+     * against its own counters, so there is no guard beyond skipping sharded SKUs. Call
+     * {@link #lockAvailableInSkuOrder} first.
+     *
+     * @return the updated items
+     */
+    @SuppressWarnings("unchecked")
+    public List<InventoryItem> applyEngineDeltas(SortedMap<String, int[]> deltas) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < deltas.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append("(:sku").append(i).append(", CAST(:dq").append(i)
+                    .append(" AS integer), CAST(:dr").append(i).append(" AS integer))");
+        }
+        Query update = getEntityManager().createNativeQuery("UPDATE inventory_items i SET version = i.version + 1, "
+                + "quantity = i.quantity + d.dq, reserved_quantity = i.reserved_quantity + d.dr, "
+                + "available_quantity = GREATEST(0, i.quantity + d.dq - i.reserved_quantity - d.dr), "
+                + "total_value = COALESCE(i.unit_cost * (i.quantity + d.dq), i.total_value) "
+                + "FROM (VALUES " + values + ") AS d(sku, dq, dr) "
+                + "WHERE i.sku_code = d.sku AND i.shard_count = 0 RETURNING i.*", InventoryItem.class);
+        int i = 0;
+        for (Map.Entry<String, int[]> delta : deltas.entrySet()) {
+            update.setParameter("sku" + i, delta.getKey());
+            update.setParameter("dq" + i, delta.getValue()[0]);
+            update.setParameter("dr" + i, delta.getValue()[1]);
+            i++;
+        }
+        return update.getResultList();
+    }
+
+    /**
+     * Creates an empty, unsharded item for every product that has none yet. Products whose SKU is already used by
+     * another item are skipped too.
+     *
+     * @return the created items
+     */
+    @SuppressWarnings("unchecked")
+    public List<InventoryItem> insertMissing(List<ProductEvent> products) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < products.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append("(:id").append(i).append(", :product").append(i)
+                    .append(", :sku").append(i).append(", 0, 0, 0, 10, 20, :active").append(i)
+                    .append(", 0, 0, now(), now())");
+        }
+        Query insert = getEntityManager().createNativeQuery("INSERT INTO inventory_items (id, product_id, sku_code, "
+                + "quantity, reserved_quantity, available_quantity, low_stock_threshold, restock_threshold, is_active, "
+                + "shard_count, version, created_at, updated_at) VALUES " + values
+                + " ON CONFLICT DO NOTHING RETURNING *", InventoryItem.class);
+        for (int i = 0; i < products.size(); i++) {
+            insert.setParameter("id" + i, UUID.randomUUID());
+            insert.setParameter("product" + i, products.get(i).id());
+            insert.setParameter("sku" + i, products.get(i).sku());
+            insert.setParameter("active" + i, products.get(i).active());
+        }
+        return insert.getResultList();
+    }
+
+    /**
+     * Copies the products' active flags to their items with one set-based statement.
+     *
+     * @return the items whose flag changed
+     */
+    @SuppressWarnings("unchecked")
+    public List<InventoryItem> updateActive(List<ProductEvent> products) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < products.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append("(:product").append(i).append(", CAST(:active").append(i)
+                    .append(" AS boolean))");
+        }
+        Query update = getEntityManager().createNativeQuery("UPDATE inventory_items i SET version = i.version + 1, "
+                + "is_active = p.active FROM (VALUES " + values + ") AS p(product_id, active) "
+                + "WHERE i.product_id = p.product_id AND i.is_active <> p.active RETURNING i.*", InventoryItem.class);
+        for (int i = 0; i < products.size(); i++) {
+            update.setParameter("product" + i, products.get(i).id());
+            update.setParameter("active" + i, products.get(i).active());
+        }
+        return update.getResultList();
+    }
+
+    public List<InventoryItem> findBySkuCodeIn(Collection<String> skuCodes) {
+        return list("skuCode IN ?1", skuCodes);
+    }
+
+    /**
+     * Returns the shard count of every sharded SKU among {@code skuCodes}, without locking.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Integer> findShardCounts(Collection<String> skuCodes) {
+        List<Object[]> rows = getEntityManager()
+                .createNativeQuery("SELECT sku_code, shard_count FROM inventory_items "
+                        + "WHERE sku_code IN (:skus) AND shard_count > 0")
+                .setParameter("skus", skuCodes)
+                .getResultList();
+        Map<String, Integer> shardCounts = new HashMap<>();
+        for (Object[] row : rows) {
+            shardCounts.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        return shardCounts;
     }
 
-    public int reserveStock(String skuCode, int quantity) {
-        return update("reservedQuantity = reservedQuantity + ?1, availableQuantity = quantity - (reservedQuantity + ?1) WHERE skuCode = ?2 AND (quantity - (reservedQuantity + ?1)) >= 0", quantity, skuCode);
+    /**
+     * Consumes {@code quantity} units of a sharded SKU. The units already left its shards when they were reserved,
+     * so only the quantity and the reserved total change.
+     *
+     * @return {@code false} if the SKU is not sharded or has fewer units
+     */
+    public boolean consumeShardedStock(String skuCode, int quantity) {
+        return getEntityManager()
+                .createNativeQuery("UPDATE inventory_items SET version = version + 1, quantity = quantity - :qty, "
+                        + "reserved_quantity = GREATEST(0, reserved_quantity - :qty), "
+                        + "total_value = COALESCE(unit_cost * (quantity - :qty), total_value) "
+                        + "WHERE sku_code = :sku AND shard_count > 0 AND quantity >= :qty")
+                .setParameter("sku", skuCode)
+                .setParameter("qty", quantity)
+                .executeUpdate() > 0;
     }
 
-    public int releaseStock(String skuCode, int quantity) {
-        return update("reservedQuantity = reservedQuantity - ?1, availableQuantity = availableQuantity + ?1 WHERE skuCode = ?2 AND reservedQuantity >= ?1", quantity, skuCode);
+    /**
+     * Adds {@code adjustment} to the quantity of a sharded SKU; the caller moves the same units into or out of its
+     * shards.
+     *
+     * @return {@code false} if the SKU is not sharded or the quantity would go negative
+     */
+    public boolean adjustShardedInventory(String skuCode, int adjustment) {
+        return getEntityManager()
+                .createNativeQuery("UPDATE inventory_items SET version = version + 1, quantity = quantity + :qty, "
+                        + "total_value = COALESCE(unit_cost * (quantity + :qty), total_value) "
+                        + "WHERE sku_code = :sku AND shard_count > 0 AND quantity + :qty >= 0")
+                .setParameter("sku", skuCode)
+                .setParameter("qty", adjustment)
+                .executeUpdate() > 0;
     }
 
-    public int consumeReservedStock(String skuCode, int quantity) {
-        return update("quantity = quantity - ?1, reservedQuantity = reservedQuantity - ?1 WHERE skuCode = ?2 AND quantity >= ?1 AND reservedQuantity >= ?1", quantity, skuCode);
+    /**
+     * Records a restock without touching the counters, for SKUs whose counters the reservation engine owns.
+     */
+    public void markRestocked(String skuCode, LocalDateTime restockedAt, LocalDateTime nextRestockDate) {
+        getEntityManager()
+                .createNativeQuery("UPDATE inventory_items SET version = version + 1, last_restocked_date = :restockedAt, "
+                        + "next_restock_date = :nextRestockDate WHERE sku_code = :sku")
+                .setParameter("sku", skuCode)
+                .setParameter("restockedAt", restockedAt)
+                .setParameter("nextRestockDate", nextRestockDate)
+                .executeUpdate();
+    }
+
+    /**
+     * Stores the live total of a sharded SKU's shards as its available quantity, and the rest of its quantity as
+     * reserved.
+     */
+    public void foldShardTotals(String skuCode, int available) {
+        getEntityManager()
+                .createNativeQuery("UPDATE inventory_items SET version = version + 1, "
+                        + "available_quantity = :available, reserved_quantity = GREATEST(0, quantity - :available) "
+                        + "WHERE sku_code = :sku AND shard_count > 0 AND available_quantity <> :available")
+                .setParameter("sku", skuCode)
+                .setParameter("available", available)
+                .executeUpdate();
+    }
+
+    /**
+     * Replaces the stored counters of a sharded item with the live total of its shards. The item is detached first,
+     * so the overlay is never written back.
+     */
+    public InventoryItem withShardTotals(InventoryItem item) {
+        if (item.getShardCount() == null || item.getShardCount() == 0) {
+            return item;
+        }
+        if (getEntityManager().contains(item)) {
+            getEntityManager().detach(item);
+        }
+        int available = ((Number) getEntityManager()
+                .createNativeQuery("SELECT COALESCE(SUM(available_quantity), 0) FROM inventory_stock_shards "
+                        + "WHERE sku_code = :sku")
+                .setParameter("sku", item.getSkuCode())
+                .getSingleResult()).intValue();
+        item.setAvailableQuantity(available);
+        item.setReservedQuantity(Math.max(0, item.getQuantity() - available));
+        return item;
     }
 
     public Optional<InventoryStatus> getInventoryStatus(String skuCode) {
-        // Panache doesn't directly support constructor expressions with complex logic like Spring Data JPA.
-        // We'll fetch the entity and map it manually.
-        return findBySkuCode(skuCode).map(item -> {
-            String status;
-            if (item.getAvailableQuantity() <= 0) {
-                status = "OUT_OF_STOCK";
-            } else if (item.getAvailableQuantity() <= item.getLowStockThreshold()) {
-                status = "LOW_STOCK";
-            } else {
-                status = "IN_STOCK";
-            }
-            return InventoryStatus.builder()
-                    .skuCode(item.getSkuCode())
-                    .inStock(item.getAvailableQuantity() > 0)
-                    .availableQuantity(item.getAvailableQuantity())
-                    .lowStock(item.getAvailableQuantity() <= item.getLowStockThreshold())
-                    .status(status)
-                    .build();
-        });
+        return findBySkuCode(skuCode).map(this::withShardTotals).map(InventoryStatus::fromEntity);
     }
 
+    /**
+     * Returns the items matching any of {@code skuCodes} or {@code productIds}, in one query.
+     */
+    public List<InventoryItem> findBySkuCodeOrProductIdIn(Collection<String> skuCodes, Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return skuCodes.isEmpty() ? List.of() : findBySkuCodeIn(skuCodes);
+        }
+        if (skuCodes.isEmpty()) {
+            return list("productId IN ?1", productIds);
+        }
+        return list("skuCode IN ?1 OR productId IN ?2", skuCodes, productIds);
+    }
+
+    @CacheResult(cacheName = "stockLevels")
     public Optional<StockLevel> getStockLevel(String skuCode) {
         // Panache doesn't directly support constructor expressions with complex logic like Spring Data JPA.
         // We'll fetch the entity and map it manually.
-        return findBySkuCode(skuCode).map(item -> {
+        return findBySkuCode(skuCode).map(this::withShardTotals).map(item -> {
             String status;
             if (item.getAvailableQuantity() <= 0) {
                 status = "OUT_OF_STOCK";
@@ -109,4 +377,43 @@ public class InventoryRepository implements PanacheRepository<InventoryItem> {
     public boolean existsBySkuCode(String skuCode) {
         return count("skuCode", skuCode) > 0;
     }
+
+    /**
+     * Runs one {@code UPDATE ... FROM (VALUES ...)} joining every SKU in {@code quantities} as {@code r(sku, qty)}
+     * against {@code inventory_items i}, and maps the updated rows back to entities.
+     */
+    @SuppressWarnings("unchecked")
+    private List<InventoryItem> updateAllReturning(String set, String guard, SortedMap<String, Integer> quantities) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < quantities.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append("(:sku").append(i).append(", CAST(:qty").append(i)
+                    .append(" AS integer))");
+        }
+        Query update = getEntityManager().createNativeQuery("UPDATE inventory_items i SET version = i.version + 1, "
+                + set + " FROM (VALUES " + values + ") AS r(sku, qty) "
+                + "WHERE i.sku_code = r.sku AND " + guard + " RETURNING i.*", InventoryItem.class);
+        int i = 0;
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            update.setParameter("sku" + i, line.getKey());
+            update.setParameter("qty" + i, line.getValue());
+            i++;
+        }
+        return update.getResultList();
+    }
+
+    /**
+     * Runs {@code UPDATE inventory_items SET <setAndWhere> RETURNING *} and maps the row back to an entity. The row
+     * stays locked until the surrounding transaction commits, and the version is bumped so entity-based writers still
+     * detect the change.
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<InventoryItem> updateReturning(String setAndWhere, String skuCode, int quantity) {
+        List<InventoryItem> updated = getEntityManager()
+                .createNativeQuery("UPDATE inventory_items SET version = version + 1, " + setAndWhere + " RETURNING *",
+                        InventoryItem.class)
+                .setParameter("sku", skuCode)
+                .setParameter("qty", quantity)
+                .getResultList();
+        return updated.stream().findFirst();
+    }
 }
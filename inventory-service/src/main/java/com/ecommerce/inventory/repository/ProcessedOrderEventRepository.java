@@ -0,0 +1,77 @@
+package com.ecommerce.inventory.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Statements on {@code processed_order_events}, which makes the order-events consumer idempotent per order id and
+ * event type. Stock adjustments sent with an {@code Idempotency-Key} are recorded here too, under their key.
+ */
+@ApplicationScoped
+public class ProcessedOrderEventRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Records {@code eventType} as processed for every order in {@code orderIds}. An order already recorded by another
+     * transaction is waited for and then left out.
+     *
+     * @return the order ids recorded by this call
+     */
+    @SuppressWarnings("unchecked")
+    public Set<String> claim(Collection<String> orderIds, String eventType) {
+        if (orderIds.isEmpty()) {
+            return Set.of();
+        }
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < orderIds.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append("(:order").append(i).append(", :eventType, now())");
+        }
+        Query insert = entityManager.createNativeQuery("INSERT INTO processed_order_events "
+                + "(order_id, event_type, processed_at) VALUES " + values + " ON CONFLICT DO NOTHING RETURNING order_id");
+        int i = 0;
+        for (String orderId : orderIds) {
+            insert.setParameter("order" + i++, orderId);
+        }
+        return new HashSet<>((List<String>) insert.setParameter("eventType", eventType).getResultList());
+    }
+
+    /**
+     * Returns the orders in {@code orderIds} that already have {@code eventType} recorded as processed.
+     */
+    @SuppressWarnings("unchecked")
+    public Set<String> findProcessed(Collection<String> orderIds, String eventType) {
+        if (orderIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>((List<String>) entityManager
+                .createNativeQuery("SELECT order_id FROM processed_order_events "
+                        + "WHERE order_id IN (:orderIds) AND event_type = :eventType")
+                .setParameter("orderIds", orderIds)
+                .setParameter("eventType", eventType)
+                .getResultList());
+    }
+
+    /**
+     * Deletes up to {@code limit} records processed before {@code before}.
+     *
+     * @return the number of records deleted
+     */
+    public int purge(LocalDateTime before, int limit) {
+        return entityManager
+                .createNativeQuery("DELETE FROM processed_order_events WHERE (order_id, event_type) IN "
+                        + "(SELECT order_id, event_type FROM processed_order_events WHERE processed_at < :before LIMIT :limit)")
+                .setParameter("before", before)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,212 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.model.ReservationState;
+import com.ecommerce.inventory.model.StockReservation;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.UUID;
+
+@ApplicationScoped
+public class StockReservationRepository implements PanacheRepository<StockReservation> {
+
+    public List<StockReservation> findByReservationId(String reservationId) {
+        return list("reservationId", reservationId);
+    }
+
+    public List<StockReservation> findByReservationIdIn(Collection<String> reservationIds) {
+        return list("reservationId IN ?1", reservationIds);
+    }
+
+    public Optional<StockReservation> findByReservationIdAndSkuCode(String reservationId, String skuCode) {
+        return find("reservationId = ?1 AND skuCode = ?2", reservationId, skuCode).firstResultOptional();
+    }
+
+    /**
+     * Records a {@link ReservationState#HELD} line for every SKU in {@code quantities}. Lines that already exist for
+     * this reservation are left as they are; a concurrent insert of the same line waits for the other transaction.
+     *
+     * @param expiresAt when the sweep expires the lines, or {@code null} if they never expire
+     *
+     * @return the number of lines inserted
+     */
+    public int insertHeld(String reservationId, SortedMap<String, Integer> quantities, LocalDateTime expiresAt) {
+        return insert(reservationId, quantities, ReservationState.HELD, expiresAt);
+    }
+
+    /**
+     * Records a line in {@code state} for every SKU in {@code quantities}, as {@link #insertHeld} does; a settled
+     * state records a hold taken and settled within the same transaction.
+     *
+     * @return the number of lines inserted
+     */
+    public int insert(String reservationId, SortedMap<String, Integer> quantities, ReservationState state,
+                      LocalDateTime expiresAt) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < quantities.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append("(:id").append(i).append(", :reservationId, :sku").append(i)
+                    .append(", :qty").append(i).append(", :state, :expiresAt, now(), now())");
+        }
+        Query insert = getEntityManager().createNativeQuery("INSERT INTO stock_reservations "
+                + "(id, reservation_id, sku_code, quantity, state, expires_at, created_at, updated_at) VALUES "
+                + values + " ON CONFLICT (reservation_id, sku_code) DO NOTHING");
+        int i = 0;
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            insert.setParameter("id" + i, UUID.randomUUID());
+            insert.setParameter("sku" + i, line.getKey());
+            insert.setParameter("qty" + i, line.getValue());
+            i++;
+        }
+        // Typed, so a null expiry binds as a timestamp
+        return insert.unwrap(NativeQuery.class)
+                .setParameter("reservationId", reservationId)
+                .setParameter("state", state.name())
+                .setParameter("expiresAt", expiresAt, LocalDateTime.class)
+                .executeUpdate();
+    }
+
+    public List<StockReservation> findEngineHeld(String skuCode) {
+        return list("skuCode = ?1 AND state = ?2 AND engineOwned = true", skuCode, ReservationState.HELD);
+    }
+
+    /**
+     * Hands a held line over to the reservation engine, so the database sweep no longer expires it.
+     *
+     * @return the line in its current state, claimed if it was held; empty if it does not exist
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<StockReservation> claimForEngine(String reservationId, String skuCode) {
+        List<StockReservation> claimed = getEntityManager()
+                .createNativeQuery("UPDATE stock_reservations SET engine_owned = true "
+                        + "WHERE reservation_id = :reservationId AND sku_code = :sku AND state = 'HELD' "
+                        + "RETURNING *", StockReservation.class)
+                .setParameter("reservationId", reservationId)
+                .setParameter("sku", skuCode)
+                .getResultList();
+        return claimed.isEmpty() ? findByReservationIdAndSkuCode(reservationId, skuCode) : Optional.of(claimed.get(0));
+    }
+
+    /**
+     * Writes lines held or settled by the reservation engine. Existing lines are updated only if the engine owns
+     * them; a line with the same key written by the database path is left alone.
+     *
+     * @return the number of lines written
+     */
+    public int upsertEngineOwned(List<StockReservation> lines) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append("(:id").append(i).append(", :reservationId").append(i)
+                    .append(", :sku").append(i).append(", :qty").append(i).append(", :state").append(i)
+                    .append(", :expiresAt").append(i).append(", true, now(), now())");
+        }
+        Query upsert = getEntityManager().createNativeQuery("INSERT INTO stock_reservations "
+                + "(id, reservation_id, sku_code, quantity, state, expires_at, engine_owned, created_at, updated_at) "
+                + "VALUES " + values + " ON CONFLICT (reservation_id, sku_code) DO UPDATE SET "
+                + "quantity = EXCLUDED.quantity, state = EXCLUDED.state, expires_at = EXCLUDED.expires_at "
+                + "WHERE stock_reservations.engine_owned");
+        for (int i = 0; i < lines.size(); i++) {
+            StockReservation line = lines.get(i);
+            upsert.setParameter("id" + i, line.getId());
+            upsert.setParameter("reservationId" + i, line.getReservationId());
+            upsert.setParameter("sku" + i, line.getSkuCode());
+            upsert.setParameter("qty" + i, line.getQuantity());
+            upsert.setParameter("state" + i, line.getState().name());
+            upsert.unwrap(NativeQuery.class).setParameter("expiresAt" + i, line.getExpiresAt(), LocalDateTime.class);
+        }
+        return upsert.executeUpdate();
+    }
+
+    /**
+     * Moves a held line to {@code target}. Only one caller can win the transition, so a repeated release or consume
+     * finds nothing to settle.
+     *
+     * @return the quantity that was held, or empty if no held line exists
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<Integer> settle(String reservationId, String skuCode, ReservationState target) {
+        List<Number> held = getEntityManager()
+                .createNativeQuery("UPDATE stock_reservations SET state = :target "
+                        + "WHERE reservation_id = :reservationId AND sku_code = :sku AND state = 'HELD' "
+                        + "RETURNING quantity")
+                .setParameter("target", target.name())
+                .setParameter("reservationId", reservationId)
+                .setParameter("sku", skuCode)
+                .getResultList();
+        return held.stream().findFirst().map(Number::intValue);
+    }
+
+    /**
+     * Releases every held line of the given reservations that the database path owns; lines owned by the
+     * reservation engine are left to it.
+     *
+     * @return the released lines
+     */
+    public List<StockReservation> releaseHeld(Collection<String> reservationIds) {
+        return settleHeld(reservationIds, ReservationState.RELEASED);
+    }
+
+    /**
+     * Consumes every held line of the given reservations that the database path owns, as {@link #releaseHeld}
+     * releases them.
+     *
+     * @return the consumed lines
+     */
+    public List<StockReservation> consumeHeld(Collection<String> reservationIds) {
+        return settleHeld(reservationIds, ReservationState.CONSUMED);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StockReservation> settleHeld(Collection<String> reservationIds, ReservationState target) {
+        return getEntityManager()
+                .createNativeQuery("UPDATE stock_reservations SET state = :target "
+                        + "WHERE reservation_id IN (:reservationIds) AND state = 'HELD' AND NOT engine_owned "
+                        + "RETURNING *", StockReservation.class)
+                .setParameter("target", target.name())
+                .setParameter("reservationIds", reservationIds)
+                .getResultList();
+    }
+
+    /**
+     * Marks up to {@code limit} held lines past their expiry as {@link ReservationState#EXPIRED}. Lines locked by
+     * another transaction, such as a concurrent sweep or a release in progress, are skipped rather than waited for.
+     *
+     * @param includeEngineOwned whether to expire lines held by the reservation engine too; {@code false} while the
+     *                           engine runs and expires them itself
+     * @return the expired lines
+     */
+    @SuppressWarnings("unchecked")
+    public List<StockReservation> expireHeld(LocalDateTime now, int limit, boolean includeEngineOwned) {
+        return getEntityManager()
+                .createNativeQuery("WITH due AS (SELECT id FROM stock_reservations "
+                        + "WHERE state = 'HELD' AND expires_at <= :now AND (:includeEngineOwned OR NOT engine_owned) "
+                        + "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED) "
+                        + "UPDATE stock_reservations r SET state = 'EXPIRED' FROM due WHERE r.id = due.id "
+                        + "RETURNING r.*", StockReservation.class)
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .setParameter("includeEngineOwned", includeEngineOwned)
+                .getResultList();
+    }
+
+    /**
+     * Deletes up to {@code limit} settled lines last changed before {@code before}.
+     *
+     * @return the number of lines deleted
+     */
+    public int purgeSettled(LocalDateTime before, int limit) {
+        return getEntityManager()
+                .createNativeQuery("DELETE FROM stock_reservations WHERE id IN (SELECT id FROM stock_reservations "
+                        + "WHERE state <> 'HELD' AND updated_at < :before LIMIT :limit)")
+                .setParameter("before", before)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+}
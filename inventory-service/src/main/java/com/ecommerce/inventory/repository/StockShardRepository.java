@@ -0,0 +1,111 @@
+package com.ecommerce.inventory.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.List;
+
+/**
+ * Statements on {@code inventory_stock_shards}. Each statement touches one shard row unless it says otherwise;
+ * statements that lock several shards of a SKU lock them in shard order.
+ */
+@ApplicationScoped
+public class StockShardRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    public void insertShards(String skuCode, int[] available) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < available.length; i++) {
+            values.append(i == 0 ? "" : ", ").append("(:sku, ").append(i).append(", :qty").append(i).append(")");
+        }
+        Query insert = entityManager.createNativeQuery("INSERT INTO inventory_stock_shards "
+                + "(sku_code, shard_no, available_quantity) VALUES " + values);
+        for (int i = 0; i < available.length; i++) {
+            insert.setParameter("qty" + i, available[i]);
+        }
+        insert.setParameter("sku", skuCode).executeUpdate();
+    }
+
+    /**
+     * Locks every shard of the SKU in shard order.
+     *
+     * @return the available units per shard, indexed by shard number; empty if the SKU has no shards
+     */
+    @SuppressWarnings("unchecked")
+    public int[] lockShards(String skuCode) {
+        List<Number> rows = entityManager
+                .createNativeQuery("SELECT available_quantity FROM inventory_stock_shards WHERE sku_code = :sku "
+                        + "ORDER BY shard_no FOR UPDATE")
+                .setParameter("sku", skuCode)
+                .getResultList();
+        return rows.stream().mapToInt(Number::intValue).toArray();
+    }
+
+    public void deleteShards(String skuCode) {
+        entityManager.createNativeQuery("DELETE FROM inventory_stock_shards WHERE sku_code = :sku")
+                .setParameter("sku", skuCode)
+                .executeUpdate();
+    }
+
+    /**
+     * Takes {@code quantity} units from one shard, unless it holds fewer.
+     */
+    public boolean take(String skuCode, int shardNo, int quantity) {
+        return entityManager
+                .createNativeQuery("UPDATE inventory_stock_shards SET available_quantity = available_quantity - :qty "
+                        + "WHERE sku_code = :sku AND shard_no = :shard AND available_quantity >= :qty")
+                .setParameter("sku", skuCode)
+                .setParameter("shard", shardNo)
+                .setParameter("qty", quantity)
+                .executeUpdate() > 0;
+    }
+
+    /**
+     * Takes {@code quantity} units from the fullest shard that holds enough and is not locked by another transaction.
+     */
+    public boolean takeFromFullest(String skuCode, int quantity) {
+        return entityManager
+                .createNativeQuery("UPDATE inventory_stock_shards s SET available_quantity = s.available_quantity - :qty "
+                        + "FROM (SELECT shard_no FROM inventory_stock_shards "
+                        + "WHERE sku_code = :sku AND available_quantity >= :qty "
+                        + "ORDER BY available_quantity DESC LIMIT 1 FOR UPDATE SKIP LOCKED) f "
+                        + "WHERE s.sku_code = :sku AND s.shard_no = f.shard_no")
+                .setParameter("sku", skuCode)
+                .setParameter("qty", quantity)
+                .executeUpdate() > 0;
+    }
+
+    /**
+     * Adds {@code quantity} units to one shard.
+     *
+     * @return {@code false} if the shard does not exist
+     */
+    public boolean give(String skuCode, int shardNo, int quantity) {
+        return setOrAdd("available_quantity + :qty", skuCode, shardNo, quantity);
+    }
+
+    public void setAvailable(String skuCode, int shardNo, int available) {
+        setOrAdd(":qty", skuCode, shardNo, available);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> findShardedSkuCodes() {
+        return entityManager
+                .createNativeQuery("SELECT sku_code FROM inventory_items WHERE shard_count > 0 ORDER BY sku_code")
+                .getResultList();
+    }
+
+    private boolean setOrAdd(String value, String skuCode, int shardNo, int quantity) {
+        return entityManager
+                .createNativeQuery("UPDATE inventory_stock_shards SET available_quantity = " + value
+                        + " WHERE sku_code = :sku AND shard_no = :shard")
+                .setParameter("sku", skuCode)
+                .setParameter("shard", shardNo)
+                .setParameter("qty", quantity)
+                .executeUpdate() > 0;
+    }
+}
@@ -0,0 +1,316 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.CycleCountError;
+import com.ecommerce.inventory.dto.CycleCountReport;
+import com.ecommerce.inventory.engine.ReservationEngine;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.repository.CycleCountRepository;
+import com.ecommerce.inventory.repository.CycleCountRepository.ChunkResult;
+import com.ecommerce.inventory.repository.CycleCountRepository.CountedItem;
+import com.ecommerce.inventory.repository.CycleCountRepository.CountedLine;
+import com.ecommerce.inventory.repository.CycleCountRepository.RejectedLine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Imports cycle counts: the counted on-hand quantity of many SKUs, uploaded as CSV or NDJSON.
+ * <p>
+ * The upload is read line by line and applied in chunks of {@code inventory.cycle-count.chunk-size} SKUs, each in a
+ * transaction of its own through {@link CycleCountRepository}, so memory stays bounded by one chunk. A count replaces
+ * the quantity and keeps the reserved units. Each chunk publishes one {@code cycle-count-applied} event listing only
+ * the SKUs whose quantity changed, instead of an event per SKU. Lines that cannot be applied are reported with
+ * their line number, up to {@code inventory.cycle-count.max-reported-errors}; a chunk that fails rejects its lines
+ * and the import goes on.
+ */
+@ApplicationScoped
+public class CycleCountService {
+
+    private static final Logger log = Logger.getLogger(CycleCountService.class);
+
+    /**
+     * Length of the {@code sku_code} columns; a longer code would fail the whole chunk in the staging table.
+     */
+    private static final int MAX_SKU_LENGTH = 255;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    @Inject
+    CycleCountRepository cycleCountRepository;
+
+    @Inject
+    ReservationEngine engine;
+
+    @Inject
+    InventoryCacheService inventoryCache;
+
+    @Inject
+    LowStockService lowStock;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    @Channel("inventory-events")
+    Emitter<Map<String, Object>> inventoryEventEmitter;
+
+    @ConfigProperty(name = "inventory.cycle-count.chunk-size", defaultValue = "2000")
+    int chunkSize;
+
+    @ConfigProperty(name = "inventory.cycle-count.max-reported-errors", defaultValue = "10000")
+    int maxReportedErrors;
+
+    /**
+     * Imports the counts in {@code body}. CSV needs a header naming a {@code skuCode} and a {@code quantity} column;
+     * NDJSON needs one object with those fields per line. Blank lines are skipped. When a SKU is counted twice within
+     * a chunk, the later line wins and the earlier one is reported.
+     *
+     * @param reference free-form reference of the count, copied into the events
+     */
+    public CycleCountReport importCounts(InputStream body, Format format, String reference) {
+        if (engine.isEnabled()) {
+            throw new InvalidInventoryOperationException(
+                    "Cycle counts cannot be imported while the reservation engine is enabled");
+        }
+        Import counts = new Import(UUID.randomUUID(), reference);
+        log.infof("Importing %s cycle count %s", format, counts.importId);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            int[] columns = null;
+            Map<String, CountedLine> chunk = new LinkedHashMap<>();
+            int lineNo = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = csvColumns(line);
+                    continue;
+                }
+                counts.rowsRead++;
+                CountedLine counted;
+                try {
+                    counted = format == Format.CSV ? parseCsv(line, lineNo, columns) : parseJson(line, lineNo);
+                } catch (IllegalArgumentException e) {
+                    counts.reject(lineNo, null, e.getMessage());
+                    continue;
+                }
+                CountedLine replaced = chunk.put(counted.skuCode(), counted);
+                if (replaced != null) {
+                    counts.reject(replaced.line(), replaced.skuCode(), "Counted again on line " + lineNo);
+                }
+                if (chunk.size() >= chunkSize) {
+                    applyChunk(counts, new ArrayList<>(chunk.values()));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                applyChunk(counts, new ArrayList<>(chunk.values()));
+            }
+        } catch (IOException e) {
+            throw new InvalidInventoryOperationException("Failed to read cycle count upload: " + e.getMessage());
+        }
+
+        log.infof("Cycle count %s: %d rows read, %d applied, %d rejected in %d chunks", counts.importId,
+                counts.rowsRead, counts.rowsApplied, counts.rowsRejected, counts.chunks);
+        return CycleCountReport.builder()
+                .importId(counts.importId)
+                .rowsRead(counts.rowsRead)
+                .rowsApplied(counts.rowsApplied)
+                .rowsRejected(counts.rowsRejected)
+                .chunks(counts.chunks)
+                .errors(counts.errors)
+                .errorsTruncated(counts.rowsRejected > counts.errors.size())
+                .build();
+    }
+
+    private void applyChunk(Import counts, List<CountedLine> lines) {
+        int chunkNo = ++counts.chunks;
+        ChunkResult result;
+        try {
+            result = applyInTransaction(lines);
+        } catch (Exception e) {
+            log.errorf(e, "Cycle count %s: chunk %d of %d lines failed", counts.importId, chunkNo, lines.size());
+            lines.forEach(line -> counts.reject(line.line(), line.skuCode(), "Chunk failed: " + e.getMessage()));
+            return;
+        }
+        counts.rowsApplied += result.applied().size();
+        for (RejectedLine rejected : result.rejected()) {
+            counts.reject(rejected.line(), rejected.skuCode(), rejected.reason());
+        }
+        publishChunk(counts, chunkNo, result);
+    }
+
+    /**
+     * Applies one chunk in a transaction of its own and records its low-stock crossings and cache evictions.
+     */
+    ChunkResult applyInTransaction(List<CountedLine> lines) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            ChunkResult applied = cycleCountRepository.apply(lines);
+            for (CountedItem counted : applied.applied()) {
+                lowStock.record(counted.item(),
+                        counted.item().getAvailableQuantity() - counted.previousAvailable());
+            }
+            inventoryCache.evict(applied.applied().stream()
+                    .map(counted -> counted.item().getSkuCode())
+                    .collect(Collectors.toList()));
+            return applied;
+        });
+    }
+
+    private void publishChunk(Import counts, int chunkNo, ChunkResult result) {
+        try {
+            List<Map<String, Object>> changed = new ArrayList<>();
+            long quantityDelta = 0;
+            for (CountedItem counted : result.applied()) {
+                int delta = counted.item().getQuantity() - counted.previousQuantity();
+                if (delta == 0) {
+                    continue;
+                }
+                quantityDelta += delta;
+                changed.add(Map.of(
+                        "skuCode", counted.item().getSkuCode(),
+                        "quantity", counted.item().getQuantity(),
+                        "availableQuantity", counted.item().getAvailableQuantity()));
+            }
+            Map<String, Object> event = new HashMap<>();
+            event.put("eventType", "cycle-count-applied");
+            event.put("timestamp", LocalDateTime.now().toString());
+            event.put("importId", counts.importId);
+            event.put("chunk", chunkNo);
+            event.put("reference", counts.reference);
+            event.put("rowsApplied", result.applied().size());
+            event.put("rowsRejected", result.rejected().size());
+            event.put("quantityDelta", quantityDelta);
+            event.put("items", changed);
+            inventoryEventEmitter.send(event);
+            log.debugf("Published cycle-count-applied event for chunk %d of %s", chunkNo, counts.importId);
+        } catch (Exception e) {
+            log.errorf(e, "Failed to publish inventory event: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Finds the SKU and quantity columns in a CSV header.
+     */
+    private static int[] csvColumns(String header) {
+        String[] names = splitCsv(header);
+        int sku = -1;
+        int quantity = -1;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i].toLowerCase().replace("_", "");
+            if (name.equals("sku") || name.equals("skucode")) {
+                sku = i;
+            } else if (name.equals("quantity") || name.equals("countedquantity")) {
+                quantity = i;
+            }
+        }
+        if (sku < 0 || quantity < 0) {
+            throw new InvalidInventoryOperationException(
+                    "CSV header must name a skuCode and a quantity column: " + header);
+        }
+        return new int[]{sku, quantity};
+    }
+
+    private static CountedLine parseCsv(String line, int lineNo, int[] columns) {
+        String[] fields = splitCsv(line);
+        if (fields.length <= Math.max(columns[0], columns[1])) {
+            throw new IllegalArgumentException("Expected at least " + (Math.max(columns[0], columns[1]) + 1)
+                    + " fields");
+        }
+        return counted(lineNo, fields[columns[0]], fields[columns[1]]);
+    }
+
+    private CountedLine parseJson(String line, int lineNo) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+        return counted(lineNo, node.path("skuCode").asText(null), node.path("quantity").asText(null));
+    }
+
+    private static CountedLine counted(int lineNo, String skuCode, String quantity) {
+        if (skuCode == null || skuCode.isBlank()) {
+            throw new IllegalArgumentException("SKU code is required");
+        }
+        if (skuCode.trim().length() > MAX_SKU_LENGTH) {
+            throw new IllegalArgumentException("SKU code is longer than " + MAX_SKU_LENGTH + " characters");
+        }
+        int counted;
+        try {
+            counted = Integer.parseInt(quantity == null ? "" : quantity.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Quantity must be a whole number: " + quantity);
+        }
+        if (counted < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative: " + counted);
+        }
+        return new CountedLine(lineNo, skuCode.trim(), counted);
+    }
+
+    /**
+     * Splits a CSV line on commas and strips surrounding quotes; SKU codes and quantities hold no commas.
+     */
+    private static String[] splitCsv(String line) {
+        String[] fields = line.split(",", -1);
+        for (int i = 0; i < fields.length; i++) {
+            String field = fields[i].trim();
+            if (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) {
+                field = field.substring(1, field.length() - 1).replace("\"\"", "\"");
+            }
+            fields[i] = field;
+        }
+        return fields;
+    }
+
+    /**
+     * Running totals and the error report of one import.
+     */
+    private final class Import {
+        final UUID importId;
+        final String reference;
+        final List<CycleCountError> errors = new ArrayList<>();
+        int rowsRead;
+        int rowsApplied;
+        int rowsRejected;
+        int chunks;
+
+        Import(UUID importId, String reference) {
+            this.importId = importId;
+            this.reference = reference;
+        }
+
+        void reject(int line, String skuCode, String message) {
+            rowsRejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(CycleCountError.builder().line(line).skuCode(skuCode).message(message).build());
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.dto.InventoryStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.jboss.logging.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Per-SKU eviction for the read-through caches {@code inventoryItems}, {@code inventoryStatus} and
+ * {@code stockLevels}, all keyed by SKU code.
+ * <p>
+ * Every write path evicts the SKUs it changed. Inside a transaction the entries are evicted at once and again after
+ * completion, so a read that loads the old row while the transaction is still open does not stay cached. Other
+ * instances evict from the inventory-events they consume; {@code expire-after-write} bounds the staleness of an
+ * entry whose event is lost. The hit ratio of each cache is exported as {@code inventory.cache.hit.ratio}.
+ */
+@ApplicationScoped
+public class InventoryCacheService {
+
+    private static final Logger log = Logger.getLogger(InventoryCacheService.class);
+
+    private static final String INVENTORY_ITEMS = "inventoryItems";
+    private static final String INVENTORY_STATUS = "inventoryStatus";
+    private static final String STOCK_LEVELS = "stockLevels";
+
+    @Inject
+    @CacheName(INVENTORY_ITEMS)
+    Cache inventoryItems;
+
+    @Inject
+    @CacheName(INVENTORY_STATUS)
+    Cache inventoryStatus;
+
+    @Inject
+    @CacheName(STOCK_LEVELS)
+    Cache stockLevels;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void init() {
+        for (String cacheName : List.of(INVENTORY_ITEMS, INVENTORY_STATUS, STOCK_LEVELS)) {
+            Gauge.builder("inventory.cache.hit.ratio", () -> hitRatio(cacheName))
+                    .tag("cache", cacheName)
+                    .register(meterRegistry);
+        }
+    }
+
+    public void evict(String skuCode) {
+        evict(Set.of(skuCode));
+    }
+
+    public void evict(Collection<String> skuCodes) {
+        if (skuCodes.isEmpty()) {
+            return;
+        }
+        invalidate(skuCodes);
+        if (transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            List<String> changed = List.copyOf(skuCodes);
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    // Nothing to do before completion
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(changed);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reads an item through the {@code inventoryItems} cache, for callers inside {@link InventoryService}: a call to
+     * its own {@code @CacheResult} method would not pass the cache interceptor.
+     */
+    public InventoryResponse cachedItem(String skuCode, Function<String, InventoryResponse> loader) {
+        return inventoryItems.get(skuCode, loader).await().indefinitely();
+    }
+
+    /**
+     * Returns the cached status of every SKU among {@code skuCodes} that has one; lookups count as cache hits and
+     * misses like reads through {@code checkInventoryStatus}.
+     */
+    public Map<String, InventoryStatus> cachedStatuses(Collection<String> skuCodes) {
+        CaffeineCache cache = inventoryStatus.as(CaffeineCache.class);
+        Map<String, InventoryStatus> cached = new HashMap<>();
+        for (String skuCode : skuCodes) {
+            CompletableFuture<InventoryStatus> status = cache.getIfPresent(skuCode);
+            if (status != null && status.isDone() && !status.isCompletedExceptionally()) {
+                cached.put(skuCode, status.join());
+            }
+        }
+        return cached;
+    }
+
+    public void cacheStatus(InventoryStatus status) {
+        inventoryStatus.as(CaffeineCache.class).put(status.getSkuCode(), CompletableFuture.completedFuture(status));
+    }
+
+    private void invalidate(Collection<String> skuCodes) {
+        try {
+            for (String skuCode : skuCodes) {
+                inventoryItems.invalidate(skuCode).await().indefinitely();
+                inventoryStatus.invalidate(skuCode).await().indefinitely();
+                stockLevels.invalidate(skuCode).await().indefinitely();
+            }
+        } catch (Exception e) {
+            log.errorf(e, "Failed to evict %d SKUs from the inventory caches", skuCodes.size());
+        }
+    }
+
+    private double hitRatio(String cacheName) {
+        double hits = gets(cacheName, "hit");
+        double total = hits + gets(cacheName, "miss");
+        return total == 0 ? Double.NaN : hits / total;
+    }
+
+    private double gets(String cacheName, String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets")
+                .tags("cache", cacheName, "result", result)
+                .functionCounter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -3,18 +3,37 @@ package com.ecommerce.inventory.service;
 import com.ecommerce.inventory.dto.InventoryRequest;
 import com.ecommerce.inventory.dto.InventoryResponse;
 import com.ecommerce.inventory.dto.InventoryStatus;
+import com.ecommerce.inventory.dto.InventoryStatusBatchRequest;
+import com.ecommerce.inventory.dto.InventoryStatusBatchResponse;
+import com.ecommerce.inventory.dto.OrderReservationRequest;
+import com.ecommerce.inventory.dto.OrderReservationResponse;
 import com.ecommerce.inventory.dto.ReleaseRequest;
+import com.ecommerce.inventory.dto.ReservationLine;
 import com.ecommerce.inventory.dto.ReservationRequest;
 import com.ecommerce.inventory.dto.StockAdjustment;
 import com.ecommerce.inventory.dto.StockLevel;
+import com.ecommerce.inventory.dto.event.ProductEvent;
+import com.ecommerce.inventory.engine.EngineResult;
+import com.ecommerce.inventory.engine.ExpiredHolds;
+import com.ecommerce.inventory.engine.ReservationEngine;
+import com.ecommerce.inventory.exception.EngineOverloadedException;
 import com.ecommerce.inventory.exception.InsufficientStockException;
 import com.ecommerce.inventory.exception.InventoryItemNotFoundException;
 import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.exception.ReservationConflictException;
 import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.model.ReservationState;
+import com.ecommerce.inventory.model.StockReservation;
 import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.ProcessedOrderEventRepository;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import io.quarkus.cache.CacheResult;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.ObservesAsync;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
 import org.eclipse.microprofile.faulttolerance.Fallback;
 import org.eclipse.microprofile.faulttolerance.Retry;
@@ -22,18 +41,49 @@ import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.jboss.logging.Logger;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * Inventory operations. Reservations, releases, adjustments and consumption change the stock counters either with
+ * one guarded {@code UPDATE ... RETURNING} per change or under a pessimistic row lock, depending on
+ * {@code inventory.reservation.lock-mode}; see {@link ReservationLockMode}.
+ * <p>
+ * Every reservation is also recorded per SKU in the {@link StockReservation} ledger, in the same transaction as the
+ * counter change. A hold expires after {@code inventory.reservation.ttl} and is reclaimed by
+ * {@link ReservationExpiryService}. Releases and consumption settle the ledger line first, so repeating one is a
+ * no-op, and settling a line that already ended another way, or a reservation with no line, is rejected.
+ * <p>
+ * SKUs with sharded counters fail the item-row guards ({@code shard_count = 0}) and are then served from their
+ * shards by {@link StockShardService}; their responses and events show the live shard totals.
+ * <p>
+ * With {@code inventory.engine.enabled}, single-SKU reservations, releases, consumption and adjustments of unsharded
+ * SKUs are served from memory by the {@link ReservationEngine}, which writes the counters and ledger behind; events
+ * are published only for commands that changed something.
+ */
 @ApplicationScoped
 public class InventoryService {
 
     private static final Logger log = Logger.getLogger(InventoryService.class);
 
+    /**
+     * Event type under which keyed adjustments are recorded in {@code processed_order_events}.
+     */
+    private static final String STOCK_ADJUSTED = "STOCK_ADJUSTED";
+
     @Inject
     InventoryRepository inventoryRepository;
 
@@ -41,6 +91,33 @@ public class InventoryService {
     @Channel("inventory-events")
     Emitter<Map<String, Object>> inventoryEventEmitter;
 
+    @Inject
+    StockReservationRepository reservationRepository;
+
+    @Inject
+    ProcessedOrderEventRepository processedEventRepository;
+
+    @Inject
+    StockShardService shardService;
+
+    @Inject
+    ReservationEngine engine;
+
+    @Inject
+    InventoryCacheService inventoryCache;
+
+    @Inject
+    LowStockService lowStock;
+
+    @ConfigProperty(name = "inventory.reservation.lock-mode", defaultValue = "ATOMIC")
+    ReservationLockMode lockMode;
+
+    @ConfigProperty(name = "inventory.reservation.ttl", defaultValue = "PT15M")
+    Duration reservationTtl;
+
+    @ConfigProperty(name = "inventory.reservation.settle-without-ledger", defaultValue = "false")
+    boolean settleWithoutLedger;
+
     @Transactional
     public InventoryResponse createInventoryItem(InventoryRequest request) {
         log.infof("Creating inventory item for product: %s", request.getProductId());
@@ -66,15 +143,14 @@ public class InventoryService {
         inventoryRepository.persist(item);
         
         publishInventoryEvent("inventory-created", item);
+        lowStock.created(item);
         
         return InventoryResponse.fromEntity(item);
     }
 
+    @CacheResult(cacheName = "inventoryItems")
     public InventoryResponse getInventoryBySkuCode(String skuCode) {
-        log.debugf("Fetching inventory for SKU: %s", skuCode);
-        InventoryItem item = inventoryRepository.findBySkuCode(skuCode)
-                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + skuCode));
-        return InventoryResponse.fromEntity(item);
+        return loadInventory(skuCode);
     }
 
     @Transactional
@@ -83,58 +159,232 @@ public class InventoryService {
     public InventoryResponse adjustStock(StockAdjustment adjustment) {
         log.infof("Adjusting stock for SKU: %s by %d", adjustment.getSkuCode(), adjustment.getAdjustment());
         
-        InventoryItem item = inventoryRepository.findBySkuCodeForUpdate(adjustment.getSkuCode())
-                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + adjustment.getSkuCode()));
-        
-        item.adjustInventory(adjustment.getAdjustment());
-        
-        // Panache automatically persists changes to managed entities within a transaction
+        Map<String, Object> extra = new HashMap<>();
+        extra.put("adjustment", adjustment.getAdjustment());
+        extra.put("reason", adjustment.getReason());
+        extra.put("referenceId", adjustment.getReferenceId());
+        Optional<EngineResult> served = engine.adjust(adjustment.getSkuCode(), adjustment.getAdjustment());
+        if (served.isPresent()) {
+            return engineResponse(served.get(), "stock-adjusted", extra, adjustment.getAdjustment());
+        }
+        InventoryItem item;
+        if (lockMode == ReservationLockMode.ATOMIC) {
+            item = inventoryRepository.adjustInventory(adjustment.getSkuCode(), adjustment.getAdjustment())
+                    .orElseGet(() -> adjustShards(existingItem(adjustment.getSkuCode()), adjustment.getAdjustment()));
+        } else {
+            item = lockedItem(adjustment.getSkuCode());
+            if (item.getShardCount() > 0) {
+                item = adjustShards(item, adjustment.getAdjustment());
+            } else {
+                try {
+                    item.adjustInventory(adjustment.getAdjustment());
+                } catch (IllegalStateException e) {
+                    throw new InvalidInventoryOperationException(e.getMessage());
+                }
+            }
+            // Panache automatically persists changes to managed entities within a transaction
+        }
         
-        publishInventoryEvent("stock-adjusted", item, Map.of(
-                "adjustment", adjustment.getAdjustment(),
-                "reason", adjustment.getReason(),
-                "referenceId", adjustment.getReferenceId()
-        ));
+        publishInventoryEvent("stock-adjusted", item, extra);
+        lowStock.record(item, adjustment.getAdjustment());
         
         return InventoryResponse.fromEntity(item);
     }
 
+    /**
+     * Applies {@code adjustment} once per {@code idempotencyKey}: the key is recorded with the adjustment, and a
+     * repeated key returns the current stock without adjusting it again. For callers that retry after an unknown
+     * outcome, such as the restock of an order return.
+     */
     @Transactional
-    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 5000)
-    @Fallback(fallbackMethod = "reserveStockFallback")
+    public InventoryResponse adjustStockOnce(String idempotencyKey, StockAdjustment adjustment) {
+        if (processedEventRepository.claim(List.of(idempotencyKey), STOCK_ADJUSTED).isEmpty()) {
+            log.infof("Adjustment %s of SKU %s already applied", idempotencyKey, adjustment.getSkuCode());
+            return loadInventory(adjustment.getSkuCode());
+        }
+        return adjustStock(adjustment);
+    }
+
+    @Transactional
+    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 5000,
+            skipOn = {InsufficientStockException.class, InventoryItemNotFoundException.class,
+                    ReservationConflictException.class, EngineOverloadedException.class})
+    @Fallback(fallbackMethod = "reserveStockFallback",
+            skipOn = {InsufficientStockException.class, InventoryItemNotFoundException.class,
+                    ReservationConflictException.class, EngineOverloadedException.class})
     public InventoryResponse reserveStock(ReservationRequest request) {
         log.infof("Reserving %d units of SKU: %s for reservation ID: %s", 
                 request.getQuantity(), request.getSkuCode(), request.getReservationId());
         
-        InventoryItem item = inventoryRepository.findBySkuCodeForUpdate(request.getSkuCode())
-                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + request.getSkuCode()));
-        
-        item.reserve(request.getQuantity());
+        Map<String, Object> extra = new HashMap<>();
+        extra.put("reservationId", request.getReservationId());
+        extra.put("quantityReserved", request.getQuantity());
+        extra.put("notes", request.getNotes());
+        Optional<EngineResult> served = engine.reserve(request.getReservationId(), request.getSkuCode(),
+                request.getQuantity());
+        if (served.isPresent()) {
+            return engineResponse(served.get(), "stock-reserved", extra, -request.getQuantity());
+        }
+        if (!holdInLedger(request.getReservationId(), new TreeMap<>(Map.of(request.getSkuCode(), request.getQuantity())))) {
+            return inventoryCache.cachedItem(request.getSkuCode(), this::loadInventory);
+        }
+        InventoryItem item;
+        if (lockMode == ReservationLockMode.ATOMIC) {
+            item = inventoryRepository.reserveStock(request.getSkuCode(), request.getQuantity())
+                    .orElseGet(() -> reserveFromShards(existingItem(request.getSkuCode()), request.getQuantity()));
+        } else {
+            item = lockedItem(request.getSkuCode());
+            if (item.getShardCount() > 0) {
+                item = reserveFromShards(item, request.getQuantity());
+            } else {
+                if (!item.canFulfill(request.getQuantity())) {
+                    throw insufficientStock(request.getSkuCode());
+                }
+                item.reserve(request.getQuantity());
+            }
+        }
         
-        publishInventoryEvent("stock-reserved", item, Map.of(
-                "reservationId", request.getReservationId(),
-                "quantityReserved", request.getQuantity(),
-                "notes", request.getNotes()
-        ));
+        publishInventoryEvent("stock-reserved", item, extra);
+        lowStock.record(item, -request.getQuantity());
         
         return InventoryResponse.fromEntity(item);
     }
 
+    /**
+     * Reserves every line of an order under one reservation id, or none of them. Lines for the same SKU are merged.
+     * Repeating the request with the same lines returns the current items without reserving again.
+     * The rows are locked in SKU order and then updated by one set-based statement, so concurrent orders sharing SKUs
+     * queue behind each other instead of deadlocking. Sharded SKUs are then taken from their shards, also in SKU
+     * order.
+     *
+     * @throws InventoryItemNotFoundException     if any SKU does not exist
+     * @throws InsufficientStockException         if any SKU has fewer units available than requested
+     * @throws ReservationConflictException       if the reservation id is already used with other lines
+     * @throws InvalidInventoryOperationException if the {@link ReservationEngine} is enabled, as these writes would
+     *                                            take units from counters it owns
+     */
+    @Transactional
+    public OrderReservationResponse reserveOrder(OrderReservationRequest request) {
+        if (engine.isEnabled()) {
+            throw new InvalidInventoryOperationException(
+                    "Order reservations cannot be made while the reservation engine is enabled");
+        }
+        SortedMap<String, Integer> quantities = new TreeMap<>();
+        for (ReservationLine line : request.getLines()) {
+            quantities.merge(line.getSkuCode(), line.getQuantity(), Math::addExact);
+        }
+        log.infof("Reserving %d SKUs for reservation ID: %s", quantities.size(), request.getReservationId());
+
+        if (!holdInLedger(request.getReservationId(), quantities)) {
+            return OrderReservationResponse.builder()
+                    .reservationId(request.getReservationId())
+                    .items(inventoryRepository.list("skuCode IN ?1", Sort.by("skuCode"), quantities.keySet()).stream()
+                            .map(inventoryRepository::withShardTotals)
+                            .map(InventoryResponse::fromEntity)
+                            .collect(Collectors.toList()))
+                    .build();
+        }
+        Map<String, Integer> available = inventoryRepository.lockAvailableInSkuOrder(quantities.keySet());
+        Map<String, Integer> shardCounts = available.size() == quantities.size()
+                ? Map.of()
+                : inventoryRepository.findShardCounts(quantities.keySet());
+        List<String> missing = quantities.keySet().stream()
+                .filter(sku -> !available.containsKey(sku) && !shardCounts.containsKey(sku))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new InventoryItemNotFoundException("Inventory not found for SKUs: " + missing);
+        }
+        List<String> insufficient = quantities.entrySet().stream()
+                .filter(line -> available.containsKey(line.getKey()) && available.get(line.getKey()) < line.getValue())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (!insufficient.isEmpty()) {
+            throw new InsufficientStockException("Insufficient available quantity for SKUs: " + insufficient);
+        }
+
+        SortedMap<String, Integer> rowQuantities = new TreeMap<>(quantities);
+        rowQuantities.keySet().retainAll(available.keySet());
+        List<InventoryItem> items = new ArrayList<>();
+        if (!rowQuantities.isEmpty()) {
+            items.addAll(inventoryRepository.reserveAll(rowQuantities));
+            if (items.size() != rowQuantities.size()) {
+                // Cannot happen while the rows are locked; rolls back rather than leave a partial reservation
+                throw new InsufficientStockException("Insufficient available quantity for reservation: "
+                        + request.getReservationId());
+            }
+        }
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            Integer shardCount = shardCounts.get(line.getKey());
+            if (shardCount == null) {
+                continue;
+            }
+            StockShardService.Take take = shardService.take(line.getKey(), shardCount, line.getValue());
+            if (take == StockShardService.Take.NOT_SHARDED) {
+                throw shardingChanged(line.getKey());
+            }
+            if (take == StockShardService.Take.INSUFFICIENT) {
+                insufficient.add(line.getKey());
+            } else {
+                items.add(shardedView(existingItem(line.getKey())));
+            }
+        }
+        if (!insufficient.isEmpty()) {
+            throw new InsufficientStockException("Insufficient available quantity for SKUs: " + insufficient);
+        }
+        items.sort(Comparator.comparing(InventoryItem::getSkuCode));
+
+        for (InventoryItem item : items) {
+            Map<String, Object> extra = new HashMap<>();
+            extra.put("reservationId", request.getReservationId());
+            extra.put("quantityReserved", quantities.get(item.getSkuCode()));
+            extra.put("notes", request.getNotes());
+            publishInventoryEvent("stock-reserved", item, extra);
+            lowStock.record(item, -quantities.get(item.getSkuCode()));
+        }
+
+        return OrderReservationResponse.builder()
+                .reservationId(request.getReservationId())
+                .items(items.stream().map(InventoryResponse::fromEntity).collect(Collectors.toList()))
+                .build();
+    }
+
     @Transactional
     public InventoryResponse releaseStock(ReleaseRequest request) {
         log.infof("Releasing %d units of SKU: %s for reservation ID: %s", 
                 request.getQuantity(), request.getSkuCode(), request.getReservationId());
         
-        InventoryItem item = inventoryRepository.findBySkuCodeForUpdate(request.getSkuCode())
-                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + request.getSkuCode()));
-        
-        item.release(request.getQuantity());
+        Map<String, Object> extra = new HashMap<>();
+        extra.put("reservationId", request.getReservationId());
+        extra.put("quantityReleased", request.getQuantity());
+        extra.put("reason", request.getReason());
+        Optional<EngineResult> served = engine.release(request.getReservationId(), request.getSkuCode(),
+                request.getQuantity());
+        if (served.isPresent()) {
+            return engineResponse(served.get(), "stock-released", extra, request.getQuantity());
+        }
+        if (!settleInLedger(request.getReservationId(), request.getSkuCode(), request.getQuantity(),
+                ReservationState.RELEASED)) {
+            return inventoryCache.cachedItem(request.getSkuCode(), this::loadInventory);
+        }
+        InventoryItem item;
+        if (lockMode == ReservationLockMode.ATOMIC) {
+            item = inventoryRepository.releaseStock(request.getSkuCode(), request.getQuantity())
+                    .orElseGet(() -> releaseToShards(existingItem(request.getSkuCode()), request.getQuantity()));
+        } else {
+            item = lockedItem(request.getSkuCode());
+            if (item.getShardCount() > 0) {
+                item = releaseToShards(item, request.getQuantity());
+            } else {
+                try {
+                    item.release(request.getQuantity());
+                } catch (IllegalStateException e) {
+                    throw new InvalidInventoryOperationException(e.getMessage());
+                }
+            }
+        }
         
-        publishInventoryEvent("stock-released", item, Map.of(
-                "reservationId", request.getReservationId(),
-                "quantityReleased", request.getQuantity(),
-                "reason", request.getReason()
-        ));
+        publishInventoryEvent("stock-released", item, extra);
+        lowStock.record(item, request.getQuantity());
         
         return InventoryResponse.fromEntity(item);
     }
@@ -144,48 +394,204 @@ public class InventoryService {
         log.infof("Consuming %d reserved units of SKU: %s for reservation ID: %s", 
                 quantity, skuCode, reservationId);
         
-        InventoryItem item = inventoryRepository.findBySkuCodeForUpdate(skuCode)
-                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + skuCode));
+        if (quantity <= 0) {
+            throw new InvalidInventoryOperationException("Consume quantity must be positive");
+        }
+        Map<String, Object> extra = Map.of("reservationId", reservationId, "quantityConsumed", quantity);
+        Optional<EngineResult> served = engine.consume(reservationId, skuCode, quantity);
+        if (served.isPresent()) {
+            // Consumption takes reserved units, so the available units do not change
+            return engineResponse(served.get(), "reserved-stock-consumed", extra, 0);
+        }
+        if (!settleInLedger(reservationId, skuCode, quantity, ReservationState.CONSUMED)) {
+            return inventoryCache.cachedItem(skuCode, this::loadInventory);
+        }
+        InventoryItem item;
+        if (lockMode == ReservationLockMode.ATOMIC) {
+            item = inventoryRepository.consumeReservedStock(skuCode, quantity)
+                    .orElseGet(() -> consumeSharded(existingItem(skuCode), quantity));
+        } else {
+            item = lockedItem(skuCode);
+            if (item.getShardCount() > 0) {
+                item = consumeSharded(item, quantity);
+            } else {
+                try {
+                    // Consuming a reservation reduces both the quantity and the reserved quantity
+                    item.adjustInventory(-quantity);
+                    item.release(quantity);
+                } catch (IllegalStateException e) {
+                    throw new InvalidInventoryOperationException(e.getMessage());
+                }
+            }
+        }
         
-        // Assuming consumeReservedStock means reducing both quantity and reservedQuantity
-        // This logic needs to be carefully implemented in InventoryItem or here.
-        // For now, let's adjust quantity and then release the reserved quantity.
-        item.adjustInventory(-quantity); // Reduce total quantity
-        item.release(quantity); // Release the reserved quantity that was consumed
+        publishInventoryEvent("reserved-stock-consumed", item, extra);
         
-        publishInventoryEvent("reserved-stock-consumed", item, Map.of(
-                "reservationId", reservationId,
-                "quantityConsumed", quantity
+        return InventoryResponse.fromEntity(item);
+    }
+
+    /**
+     * Expires up to {@code limit} overdue holds and returns their units to stock, in one transaction. Holds owned by
+     * a running {@link ReservationEngine} are left to the engine.
+     *
+     * @return the number of ledger lines expired
+     */
+    @Transactional
+    public int expireReservations(int limit) {
+        List<StockReservation> expired = reservationRepository.expireHeld(LocalDateTime.now(), limit,
+                !engine.isEnabled());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        SortedMap<String, Integer> quantities = new TreeMap<>();
+        Map<String, List<String>> reservationIds = new HashMap<>();
+        for (StockReservation line : expired) {
+            quantities.merge(line.getSkuCode(), line.getQuantity(), Math::addExact);
+            reservationIds.computeIfAbsent(line.getSkuCode(), sku -> new ArrayList<>()).add(line.getReservationId());
+        }
+
+        Map<String, Integer> available = inventoryRepository.lockAvailableInSkuOrder(quantities.keySet());
+        SortedMap<String, Integer> rowQuantities = new TreeMap<>(quantities);
+        rowQuantities.keySet().retainAll(available.keySet());
+        List<InventoryItem> items = new ArrayList<>();
+        if (!rowQuantities.isEmpty()) {
+            items.addAll(inventoryRepository.releaseAll(rowQuantities));
+        }
+        if (available.size() < quantities.size()) {
+            for (Map.Entry<String, Integer> shardCount : inventoryRepository.findShardCounts(quantities.keySet()).entrySet()) {
+                String skuCode = shardCount.getKey();
+                if (shardService.give(skuCode, shardCount.getValue(), quantities.get(skuCode))) {
+                    items.add(shardedView(existingItem(skuCode)));
+                }
+            }
+        }
+        if (items.size() != quantities.size()) {
+            // The ledger line is final either way; a counter that no longer covers it needs a manual adjustment
+            log.warnf("Expired %d reservation lines but only %d of %d SKUs had the units reserved",
+                    expired.size(), items.size(), quantities.size());
+        }
+        for (InventoryItem item : items) {
+            publishInventoryEvent("reservation-expired", item, Map.of(
+                    "reservationIds", reservationIds.get(item.getSkuCode()),
+                    "quantityReleased", quantities.get(item.getSkuCode())
+            ));
+            lowStock.record(item, quantities.get(item.getSkuCode()));
+        }
+        return expired.size();
+    }
+
+    /**
+     * Publishes the holds the {@link ReservationEngine} expired.
+     */
+    void onEngineExpiry(@ObservesAsync ExpiredHolds expired) {
+        publishInventoryEvent("reservation-expired", expired.item(), Map.of(
+                "reservationIds", expired.reservationIds(),
+                "quantityReleased", expired.quantityReleased()
         ));
-        
+        lowStock.record(expired.item(), expired.quantityReleased());
+    }
+
+    /**
+     * Splits the available stock of a SKU over {@code shardCount} counter shards, or merges it back onto the item
+     * row with 0; see {@link StockShardService}. Not possible while the {@link ReservationEngine} runs, as it may
+     * own the SKU's counters.
+     */
+    public InventoryResponse setStockShards(String skuCode, int shardCount) {
+        if (engine.isEnabled()) {
+            throw new InvalidInventoryOperationException(
+                    "Stock shards cannot be changed while the reservation engine is enabled");
+        }
+        InventoryItem item = shardService.setShardCount(skuCode, shardCount);
+        publishInventoryEvent("stock-sharding-changed", item, Map.of("shardCount", item.getShardCount()));
         return InventoryResponse.fromEntity(item);
     }
 
+    @CacheResult(cacheName = "inventoryStatus")
     public InventoryStatus checkInventoryStatus(String skuCode) {
         return inventoryRepository.getInventoryStatus(skuCode)
                 .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + skuCode));
     }
 
+    /**
+     * Answers the status of many SKUs, named by SKU code or product id. Statuses of SKU codes come from the
+     * {@code inventoryStatus} cache where present; everything else is read with one query and cached.
+     */
+    public InventoryStatusBatchResponse checkInventoryStatuses(InventoryStatusBatchRequest request) {
+        Set<String> skuCodes = request.getSkuCodes() != null ? new LinkedHashSet<>(request.getSkuCodes()) : Set.of();
+        Set<UUID> productIds = request.getProductIds() != null ? new LinkedHashSet<>(request.getProductIds()) : Set.of();
+        if (skuCodes.isEmpty() && productIds.isEmpty()) {
+            throw new InvalidInventoryOperationException("At least one SKU code or product id is required");
+        }
+
+        Map<String, InventoryStatus> bySku = inventoryCache.cachedStatuses(skuCodes);
+        List<String> misses = skuCodes.stream().filter(skuCode -> !bySku.containsKey(skuCode)).toList();
+        for (InventoryItem item : inventoryRepository.findBySkuCodeOrProductIdIn(misses, productIds)) {
+            InventoryStatus status = InventoryStatus.fromEntity(inventoryRepository.withShardTotals(item));
+            inventoryCache.cacheStatus(status);
+            bySku.put(status.getSkuCode(), status);
+        }
+        Map<UUID, InventoryStatus> byProduct = new HashMap<>();
+        bySku.values().forEach(status -> byProduct.put(status.getProductId(), status));
+
+        // Request order, each SKU once
+        Map<String, InventoryStatus> items = new LinkedHashMap<>();
+        List<String> missingSkuCodes = new ArrayList<>();
+        List<UUID> missingProductIds = new ArrayList<>();
+        for (String skuCode : skuCodes) {
+            InventoryStatus status = bySku.get(skuCode);
+            if (status != null) {
+                items.putIfAbsent(skuCode, status);
+            } else {
+                missingSkuCodes.add(skuCode);
+            }
+        }
+        for (UUID productId : productIds) {
+            InventoryStatus status = byProduct.get(productId);
+            if (status != null) {
+                items.putIfAbsent(status.getSkuCode(), status);
+            } else {
+                missingProductIds.add(productId);
+            }
+        }
+        return InventoryStatusBatchResponse.builder()
+                .items(new ArrayList<>(items.values()))
+                .missingSkuCodes(missingSkuCodes)
+                .missingProductIds(missingProductIds)
+                .build();
+    }
+
     public List<StockLevel> getLowStockItems() {
-        return inventoryRepository.findLowStockItems().stream()
-                .map(item -> StockLevel.builder()
-                        .skuCode(item.getSkuCode())
-                        .currentLevel(item.getAvailableQuantity())
-                        .lowStockThreshold(item.getLowStockThreshold())
-                        .restockThreshold(item.getRestockThreshold())
-                        .status(item.isLowStock() ? "LOW_STOCK" : "IN_STOCK") // Simplified status for this method
-                        .build())
-                .collect(Collectors.toList());
+        return lowStock.getLowStockItems();
     }
 
+    /**
+     * Adds restocked units. A SKU served by the {@link ReservationEngine} is restocked through it, and only the
+     * restock dates are written to the row.
+     */
     @Transactional
     public void processRestock(String skuCode, int quantity) {
         log.infof("Processing restock of %d units for SKU: %s", quantity, skuCode);
         
+        Optional<EngineResult> served = engine.adjust(skuCode, quantity);
+        if (served.isPresent()) {
+            InventoryItem item = served.get().item();
+            item.setLastRestockedDate(LocalDateTime.now());
+            item.setNextRestockDate(LocalDateTime.now().plusWeeks(2));
+            inventoryRepository.markRestocked(skuCode, item.getLastRestockedDate(), item.getNextRestockDate());
+            publishInventoryEvent("inventory-restocked", item, Map.of(
+                    "quantityAdded", quantity,
+                    "newQuantity", item.getQuantity()
+            ));
+            lowStock.record(item, quantity);
+            return;
+        }
         InventoryItem item = inventoryRepository.findBySkuCodeForUpdate(skuCode)
                 .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + skuCode));
         
         item.adjustInventory(quantity);
+        if (item.getShardCount() > 0 && !shardService.give(skuCode, item.getShardCount(), quantity)) {
+            throw shardingChanged(skuCode);
+        }
         item.setLastRestockedDate(LocalDateTime.now());
         item.setNextRestockDate(LocalDateTime.now().plusWeeks(2));
         
@@ -193,6 +599,27 @@ public class InventoryService {
                 "quantityAdded", quantity,
                 "newQuantity", item.getQuantity()
         ));
+        lowStock.record(item, quantity);
+    }
+
+    /**
+     * Creates an empty item for every new product and copies the active flag of known ones, one statement each.
+     */
+    @Transactional
+    public void applyProductEvents(List<ProductEvent> products) {
+        List<InventoryItem> created = inventoryRepository.insertMissing(products);
+        List<InventoryItem> updated = inventoryRepository.updateActive(products);
+        log.infof("Applied %d product events: %d items created, %d updated", products.size(), created.size(),
+                updated.size());
+
+        created.forEach(item -> {
+            publishInventoryEvent("inventory-created", item);
+            lowStock.created(item);
+        });
+        updated.forEach(item -> {
+            publishInventoryEvent("inventory-updated", item, Map.of("isActive", item.getIsActive()));
+            lowStock.activeChanged(item);
+        });
     }
 
     // Fallback methods
@@ -207,11 +634,171 @@ public class InventoryService {
     }
 
     // Helper methods
+
+    /**
+     * Records held ledger lines for a new reservation.
+     *
+     * @return {@code true} if the lines were recorded and the counters must now be reserved, {@code false} if the
+     *         same reservation is already held and nothing needs to change
+     * @throws ReservationConflictException if the reservation id is already used with other lines or has ended
+     */
+    private boolean holdInLedger(String reservationId, SortedMap<String, Integer> quantities) {
+        int inserted = reservationRepository.insertHeld(reservationId, quantities,
+                LocalDateTime.now().plus(reservationTtl));
+        if (inserted == quantities.size()) {
+            return true;
+        }
+        List<StockReservation> existing = reservationRepository.findByReservationId(reservationId);
+        boolean sameHold = inserted == 0 && existing.size() == quantities.size() && existing.stream()
+                .allMatch(line -> line.getState() == ReservationState.HELD
+                        && line.getQuantity().equals(quantities.get(line.getSkuCode())));
+        if (!sameHold) {
+            throw new ReservationConflictException("Reservation " + reservationId
+                    + " already exists with different lines or has ended");
+        }
+        log.infof("Reservation %s is already held", reservationId);
+        return false;
+    }
+
+    /**
+     * Moves a held ledger line to {@code target}. A reservation made before the ledger existed has no line at all;
+     * only while {@code inventory.reservation.settle-without-ledger} is set for the cutover is it settled on the
+     * counters alone, as it was then, with the counter guards still refusing to release or consume more than is
+     * reserved.
+     *
+     * @return {@code true} if the counters must now change, {@code false} if the line is already in {@code target}
+     *         and nothing needs to change
+     * @throws ReservationConflictException      if the line ended in another state, or there is no line and the
+     *                                           cutover is over
+     * @throws InvalidInventoryOperationException if {@code quantity} differs from the hold
+     */
+    private boolean settleInLedger(String reservationId, String skuCode, int quantity, ReservationState target) {
+        Optional<Integer> held = reservationRepository.settle(reservationId, skuCode, target);
+        if (held.isPresent()) {
+            if (held.get() != quantity) {
+                throw new InvalidInventoryOperationException("Reservation " + reservationId + " holds "
+                        + held.get() + " units of SKU " + skuCode + ", not " + quantity);
+            }
+            return true;
+        }
+        Optional<StockReservation> line = reservationRepository.findByReservationIdAndSkuCode(reservationId, skuCode);
+        if (line.isEmpty()) {
+            if (!settleWithoutLedger) {
+                throw new ReservationConflictException("Reservation " + reservationId + " holds no units of SKU "
+                        + skuCode);
+            }
+            log.infof("Reservation %s for SKU %s has no ledger line, settling the counters only", reservationId,
+                    skuCode);
+            return true;
+        }
+        if (line.get().getState() != target) {
+            throw new ReservationConflictException("Reservation " + reservationId + " for SKU " + skuCode
+                    + " is already " + line.get().getState());
+        }
+        log.infof("Reservation %s for SKU %s is already %s", reservationId, skuCode, target);
+        return false;
+    }
+
+    private InventoryResponse engineResponse(EngineResult result, String eventType, Map<String, Object> extra,
+                                             int availableDelta) {
+        if (result.changed()) {
+            publishInventoryEvent(eventType, result.item(), extra);
+            lowStock.record(result.item(), availableDelta);
+        }
+        return InventoryResponse.fromEntity(result.item());
+    }
+
+    private InventoryItem lockedItem(String skuCode) {
+        return inventoryRepository.findBySkuCodeForUpdate(skuCode)
+                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + skuCode));
+    }
+
+    private InventoryResponse loadInventory(String skuCode) {
+        log.debugf("Fetching inventory for SKU: %s", skuCode);
+        return InventoryResponse.fromEntity(inventoryRepository.withShardTotals(existingItem(skuCode)));
+    }
+
+    private InventoryItem existingItem(String skuCode) {
+        return inventoryRepository.findBySkuCode(skuCode)
+                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + skuCode));
+    }
+
+    /**
+     * Re-reads an item changed by native statements in this transaction and overlays its live shard totals.
+     */
+    private InventoryItem shardedView(InventoryItem item) {
+        inventoryRepository.getEntityManager().refresh(item);
+        return inventoryRepository.withShardTotals(item);
+    }
+
+    // The *Shards and *Sharded helpers run after an item-row statement matched nothing: either the item is sharded,
+    // or its own guard failed and the matching exception is thrown
+
+    private InventoryItem reserveFromShards(InventoryItem item, int quantity) {
+        if (item.getShardCount() == 0) {
+            throw insufficientStock(item.getSkuCode());
+        }
+        StockShardService.Take take = shardService.take(item.getSkuCode(), item.getShardCount(), quantity);
+        if (take == StockShardService.Take.INSUFFICIENT) {
+            throw insufficientStock(item.getSkuCode());
+        }
+        if (take == StockShardService.Take.NOT_SHARDED) {
+            throw shardingChanged(item.getSkuCode());
+        }
+        return shardedView(item);
+    }
+
+    private InventoryItem releaseToShards(InventoryItem item, int quantity) {
+        if (item.getShardCount() == 0) {
+            throw new InvalidInventoryOperationException("Cannot release more than reserved quantity");
+        }
+        if (!shardService.give(item.getSkuCode(), item.getShardCount(), quantity)) {
+            throw shardingChanged(item.getSkuCode());
+        }
+        return shardedView(item);
+    }
+
+    private InventoryItem consumeSharded(InventoryItem item, int quantity) {
+        if (item.getShardCount() == 0 || !inventoryRepository.consumeShardedStock(item.getSkuCode(), quantity)) {
+            throw new InvalidInventoryOperationException("Cannot consume more than reserved quantity");
+        }
+        return shardedView(item);
+    }
+
+    private InventoryItem adjustShards(InventoryItem item, int adjustment) {
+        String skuCode = item.getSkuCode();
+        if (item.getShardCount() == 0 || !inventoryRepository.adjustShardedInventory(skuCode, adjustment)) {
+            throw new InvalidInventoryOperationException("Insufficient quantity for adjustment");
+        }
+        if (adjustment > 0 && !shardService.give(skuCode, item.getShardCount(), adjustment)) {
+            throw shardingChanged(skuCode);
+        }
+        if (adjustment < 0) {
+            StockShardService.Take take = shardService.take(skuCode, item.getShardCount(), -adjustment);
+            if (take == StockShardService.Take.INSUFFICIENT) {
+                throw new InvalidInventoryOperationException("Insufficient available quantity for adjustment");
+            }
+            if (take == StockShardService.Take.NOT_SHARDED) {
+                throw shardingChanged(skuCode);
+            }
+        }
+        return shardedView(item);
+    }
+
+    private static InsufficientStockException insufficientStock(String skuCode) {
+        return new InsufficientStockException("Insufficient available quantity for SKU: " + skuCode);
+    }
+
+    private static ReservationConflictException shardingChanged(String skuCode) {
+        return new ReservationConflictException("Stock sharding of SKU " + skuCode + " changed during the request, retry");
+    }
+
     private void publishInventoryEvent(String eventType, InventoryItem item) {
         publishInventoryEvent(eventType, item, null);
     }
     
     private void publishInventoryEvent(String eventType, InventoryItem item, Map<String, Object> additionalData) {
+        inventoryCache.evict(item.getSkuCode());
         try {
             Map<String, Object> event = new HashMap<>();
             event.put("eventType", eventType);
@@ -0,0 +1,239 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.StockLevel;
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks which active SKUs are at or below their low-stock threshold, without scanning the table per request.
+ * <p>
+ * Every write path reports the change it made to a SKU's available units. A change that crosses the threshold
+ * publishes one {@code low-stock} or {@code stock-recovered} event after commit; since the crossing is derived from
+ * the change itself, only the instance that made it publishes. The low-stock set is updated after commit too, kept
+ * current from other instances' inventory-events, and reloaded from the database at startup and every
+ * {@code inventory.low-stock.refresh-interval}, which bounds its drift. Its size is exported as the
+ * {@code inventory.low.stock.items} gauge.
+ */
+@ApplicationScoped
+public class LowStockService {
+
+    private static final Logger log = Logger.getLogger(LowStockService.class);
+
+    private static final String LOW_STOCK = "low-stock";
+    private static final String STOCK_RECOVERED = "stock-recovered";
+
+    private final ConcurrentMap<String, StockLevel> lowStock = new ConcurrentHashMap<>();
+
+    @Inject
+    InventoryRepository inventoryRepository;
+
+    @Inject
+    @Channel("inventory-events")
+    Emitter<Map<String, Object>> inventoryEventEmitter;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void init() {
+        meterRegistry.gaugeMapSize("inventory.low.stock.items", Tags.empty(), lowStock);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        refreshQuietly();
+    }
+
+    @Scheduled(every = "{inventory.low-stock.refresh-interval}", delayed = "{inventory.low-stock.refresh-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        refreshQuietly();
+    }
+
+    public List<StockLevel> getLowStockItems() {
+        return lowStock.values().stream()
+                .sorted(Comparator.comparing(StockLevel::getSkuCode))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records a change of {@code availableDelta} available units that left {@code item} with its current counters.
+     */
+    public void record(InventoryItem item, int availableDelta) {
+        record(item, item.getAvailableQuantity(), availableDelta);
+    }
+
+    /**
+     * Records a change of {@code availableDelta} available units that left the SKU of {@code item} with
+     * {@code available} units; the item only supplies the SKU, its thresholds and its active flag.
+     */
+    public void record(InventoryItem item, int available, int availableDelta) {
+        boolean wasLow = isLow(item, available - availableDelta);
+        apply(item, available, wasLow);
+    }
+
+    /**
+     * Records that the active flag of {@code item} was just flipped. Only active SKUs count as low, so a low SKU that
+     * is deactivated leaves the set with a {@code stock-recovered} event, and one that is reactivated enters it with
+     * a {@code low-stock} event.
+     */
+    public void activeChanged(InventoryItem item) {
+        int available = item.getAvailableQuantity();
+        boolean wasLow = !Boolean.TRUE.equals(item.getIsActive()) && available <= item.getLowStockThreshold();
+        apply(item, available, wasLow);
+    }
+
+    /**
+     * Records a new item; it crosses the threshold if it starts low.
+     */
+    public void created(InventoryItem item) {
+        apply(item, item.getAvailableQuantity(), false);
+    }
+
+    /**
+     * Applies a {@code low-stock} or {@code stock-recovered} event, or the new available units of a SKU, published by
+     * any instance.
+     */
+    public void onInventoryEvent(String eventType, String skuCode, Integer available, Integer lowStockThreshold,
+                                 Integer restockThreshold) {
+        if (LOW_STOCK.equals(eventType) && available != null && lowStockThreshold != null) {
+            lowStock.put(skuCode, level(skuCode, available, lowStockThreshold, restockThreshold));
+        } else if (STOCK_RECOVERED.equals(eventType)) {
+            lowStock.remove(skuCode);
+        } else if (available != null) {
+            lowStock.computeIfPresent(skuCode, (sku, level) -> level(sku, available, level.getLowStockThreshold(),
+                    level.getRestockThreshold()));
+        }
+    }
+
+    /**
+     * Reloads the low-stock set from the database.
+     *
+     * @return the number of low-stock SKUs
+     */
+    public int refresh() {
+        Map<String, StockLevel> current = QuarkusTransaction.requiringNew().call(() -> {
+            Map<String, StockLevel> levels = new HashMap<>();
+            for (InventoryItem item : inventoryRepository.findLowStockItems()) {
+                levels.put(item.getSkuCode(), level(item, item.getAvailableQuantity()));
+            }
+            // Sharded SKUs keep their available units in the shards
+            for (InventoryItem item : inventoryRepository.findActiveShardedItems()) {
+                inventoryRepository.withShardTotals(item);
+                if (isLow(item, item.getAvailableQuantity())) {
+                    levels.put(item.getSkuCode(), level(item, item.getAvailableQuantity()));
+                }
+            }
+            return levels;
+        });
+        lowStock.keySet().retainAll(current.keySet());
+        lowStock.putAll(current);
+        log.debugf("Loaded %d low-stock SKUs", current.size());
+        return current.size();
+    }
+
+    private void apply(InventoryItem item, int available, boolean wasLow) {
+        boolean low = isLow(item, available);
+        StockLevel level = level(item, available);
+        afterCommit(() -> {
+            if (low) {
+                lowStock.put(level.getSkuCode(), level);
+            } else {
+                lowStock.remove(level.getSkuCode());
+            }
+            if (low != wasLow) {
+                publish(low ? LOW_STOCK : STOCK_RECOVERED, item, level);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            action.run();
+            return;
+        }
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // Nothing to do before completion
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void publish(String eventType, InventoryItem item, StockLevel level) {
+        try {
+            Map<String, Object> event = new HashMap<>();
+            event.put("eventType", eventType);
+            event.put("timestamp", LocalDateTime.now().toString());
+            event.put("productId", item.getProductId());
+            event.put("skuCode", level.getSkuCode());
+            event.put("availableQuantity", level.getCurrentLevel());
+            event.put("lowStockThreshold", level.getLowStockThreshold());
+            event.put("restockThreshold", level.getRestockThreshold());
+            inventoryEventEmitter.send(event);
+            log.infof("SKU %s %s with %d units available", level.getSkuCode(),
+                    LOW_STOCK.equals(eventType) ? "is low on stock" : "recovered", level.getCurrentLevel());
+        } catch (Exception e) {
+            log.errorf(e, "Failed to publish inventory event: %s", e.getMessage());
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.errorf(e, "Low-stock refresh failed, keeping the current set");
+        }
+    }
+
+    private static boolean isLow(InventoryItem item, int available) {
+        return Boolean.TRUE.equals(item.getIsActive()) && available <= item.getLowStockThreshold();
+    }
+
+    private static StockLevel level(InventoryItem item, int available) {
+        return level(item.getSkuCode(), available, item.getLowStockThreshold(), item.getRestockThreshold());
+    }
+
+    private static StockLevel level(String skuCode, int available, Integer lowStockThreshold, Integer restockThreshold) {
+        return StockLevel.builder()
+                .skuCode(skuCode)
+                .currentLevel(available)
+                .lowStockThreshold(lowStockThreshold)
+                .restockThreshold(restockThreshold)
+                .status("LOW_STOCK")
+                .build();
+    }
+}
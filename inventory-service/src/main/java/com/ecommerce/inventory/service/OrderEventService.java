@@ -0,0 +1,380 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.event.OrderEvent;
+import com.ecommerce.inventory.engine.ReservationEngine;
+import com.ecommerce.inventory.exception.InsufficientStockException;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.exception.ReservationConflictException;
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.model.ReservationState;
+import com.ecommerce.inventory.model.StockReservation;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.ProcessedOrderEventRepository;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import com.ecommerce.inventory.repository.StockShardRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Turns order-events into stock reservations, one poll batch per transaction.
+ * <p>
+ * {@code ORDER_CREATED} reserves every line of the order under the order id as reservation id, or none of them. The
+ * hold has no expiry: it lasts as long as the order, not {@code inventory.reservation.ttl}, and ends one of two ways.
+ * A cancellation, whether {@code ORDER_CANCELLED} or {@code ORDER_STATUS_UPDATED} to {@code CANCELLED}, releases what
+ * the order still holds. A fulfilment, {@code ORDER_STATUS_UPDATED} to {@code SHIPPED}, {@code DELIVERED} or
+ * {@code COMPLETED}, consumes it: the units leave both the quantity and the reserved quantity. Each event is recorded
+ * by order id and type in {@code processed_order_events} in the same transaction, both kinds of cancellation under
+ * {@code ORDER_CANCELLED} and every fulfilment status under {@code ORDER_FULFILLED}, so a redelivered batch or a
+ * second cancellation or fulfilment changes nothing twice. An {@code ORDER_CREATED} that arrives after its order's
+ * cancellation takes no hold.
+ * <p>
+ * Within a batch the lines are grouped per SKU: every SKU involved is locked once, in SKU order, the events are
+ * checked against the locked counters in arrival order, and the net change per SKU is written with one set-based
+ * statement; consumed units are taken per SKU. Outcomes are published on inventory-events after commit as
+ * {@code inventory-reserved}, {@code inventory-out-of-stock}, {@code inventory-released} and
+ * {@code inventory-consumed}, keyed by order id.
+ * <p>
+ * While the {@link ReservationEngine} is enabled it owns the counters these reservations would take units from, so a
+ * batch holding {@code ORDER_CREATED} is refused and its events end up parked by the consumer; cancellations and
+ * fulfilments only settle holds taken before it was enabled, and are still applied.
+ */
+@ApplicationScoped
+public class OrderEventService {
+
+    private static final Logger log = Logger.getLogger(OrderEventService.class);
+
+    @Inject
+    InventoryRepository inventoryRepository;
+
+    @Inject
+    StockReservationRepository reservationRepository;
+
+    @Inject
+    StockShardRepository shardRepository;
+
+    @Inject
+    StockShardService shardService;
+
+    @Inject
+    ProcessedOrderEventRepository processedEventRepository;
+
+    @Inject
+    InventoryCacheService inventoryCache;
+
+    @Inject
+    LowStockService lowStock;
+
+    @Inject
+    ReservationEngine engine;
+
+    @Inject
+    @Channel("inventory-events")
+    Emitter<Map<String, Object>> inventoryEventEmitter;
+
+    /**
+     * Applies a batch of order events; other event types are ignored.
+     *
+     * @return the number of outcomes published
+     */
+    public int applyOrderEvents(List<OrderEvent> events) {
+        List<Map<String, Object>> outcomes = QuarkusTransaction.requiringNew().call(() -> apply(events));
+        outcomes.forEach(this::publish);
+        return outcomes.size();
+    }
+
+    private List<Map<String, Object>> apply(List<OrderEvent> events) {
+        Set<String> createdIds = orderIds(events, event -> OrderEvent.ORDER_CREATED.equals(event.eventType()));
+        Set<String> cancelledIds = orderIds(events, OrderEvent::isCancellation);
+        Set<String> fulfilledIds = orderIds(events, OrderEvent::isFulfilment);
+        if (createdIds.isEmpty() && cancelledIds.isEmpty() && fulfilledIds.isEmpty()) {
+            return List.of();
+        }
+        if (!createdIds.isEmpty() && engine.isEnabled()) {
+            throw new InvalidInventoryOperationException(
+                    "Orders cannot be reserved from order-events while the reservation engine is enabled");
+        }
+        // An order cancelled before its ORDER_CREATED arrived takes no hold when it does
+        Set<String> cancelledFirst = processedEventRepository.findProcessed(createdIds, OrderEvent.ORDER_CANCELLED);
+        Set<String> created = processedEventRepository.claim(createdIds, OrderEvent.ORDER_CREATED);
+        Set<String> cancelled = processedEventRepository.claim(cancelledIds, OrderEvent.ORDER_CANCELLED);
+        Set<String> fulfilled = processedEventRepository.claim(fulfilledIds, OrderEvent.ORDER_FULFILLED);
+
+        // Ledger lines first, then item rows in SKU order, then shards: the lock order of every other writer
+        if (!created.isEmpty()) {
+            reservationRepository.findByReservationIdIn(created).forEach(line -> {
+                log.infof("Order %s already holds a reservation, skipping ORDER_CREATED", line.getReservationId());
+                created.remove(line.getReservationId());
+            });
+        }
+        Map<String, SortedMap<String, Integer>> releasedByOrder = new HashMap<>();
+        if (!cancelled.isEmpty()) {
+            for (StockReservation line : reservationRepository.releaseHeld(cancelled)) {
+                releasedByOrder.computeIfAbsent(line.getReservationId(), orderId -> new TreeMap<>())
+                        .put(line.getSkuCode(), line.getQuantity());
+            }
+        }
+        Map<String, SortedMap<String, Integer>> consumedByOrder = new HashMap<>();
+        if (!fulfilled.isEmpty()) {
+            for (StockReservation line : reservationRepository.consumeHeld(fulfilled)) {
+                consumedByOrder.computeIfAbsent(line.getReservationId(), orderId -> new TreeMap<>())
+                        .put(line.getSkuCode(), line.getQuantity());
+            }
+        }
+
+        Map<UUID, InventoryItem> itemsByProduct = inventoryRepository.findByProductIdIn(events.stream()
+                        .filter(event -> created.contains(event.orderId()) && event.items() != null)
+                        .flatMap(event -> event.items().stream())
+                        .map(OrderEvent.Item::productId)
+                        .distinct()
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(InventoryItem::getProductId, Function.identity()));
+        Set<String> inactiveSkus = new HashSet<>();
+        Set<String> skuCodes = new TreeSet<>();
+        for (InventoryItem item : itemsByProduct.values()) {
+            skuCodes.add(item.getSkuCode());
+            if (!Boolean.TRUE.equals(item.getIsActive())) {
+                inactiveSkus.add(item.getSkuCode());
+            }
+        }
+        releasedByOrder.values().forEach(lines -> skuCodes.addAll(lines.keySet()));
+        consumedByOrder.values().forEach(lines -> skuCodes.addAll(lines.keySet()));
+        Map<String, Integer> available = new HashMap<>();
+        Map<String, Integer> shardCounts = Map.of();
+        if (!skuCodes.isEmpty()) {
+            available.putAll(inventoryRepository.lockAvailableInSkuOrder(skuCodes));
+            if (available.size() < skuCodes.size()) {
+                shardCounts = inventoryRepository.findShardCounts(skuCodes);
+                for (String skuCode : new TreeSet<>(shardCounts.keySet())) {
+                    available.put(skuCode, Arrays.stream(shardRepository.lockShards(skuCode)).sum());
+                }
+            }
+        }
+
+        // Check the events in arrival order against the locked counters; nothing is written yet
+        SortedMap<String, Integer> netReserved = new TreeMap<>();
+        SortedMap<String, Integer> netConsumed = new TreeMap<>();
+        Map<String, SortedMap<String, Integer>> accepted = new HashMap<>();
+        Map<String, SortedMap<String, Integer>> consumedInBatch = new HashMap<>();
+        List<Map<String, Object>> outcomes = new ArrayList<>();
+        for (OrderEvent event : events) {
+            String orderId = event.orderId();
+            if (OrderEvent.ORDER_CREATED.equals(event.eventType()) && created.remove(orderId)) {
+                if (cancelledFirst.contains(orderId)) {
+                    log.infof("Order %s was cancelled before it was created, skipping ORDER_CREATED", orderId);
+                    continue;
+                }
+                SortedMap<String, Integer> lines = new TreeMap<>();
+                List<UUID> unknownProducts = new ArrayList<>();
+                for (OrderEvent.Item line : event.items() != null ? event.items() : List.<OrderEvent.Item>of()) {
+                    InventoryItem item = itemsByProduct.get(line.productId());
+                    if (item == null) {
+                        unknownProducts.add(line.productId());
+                    } else if (line.quantity() != null && line.quantity() > 0) {
+                        lines.merge(item.getSkuCode(), line.quantity(), Math::addExact);
+                    }
+                }
+                List<String> unavailable = lines.entrySet().stream()
+                        .filter(line -> inactiveSkus.contains(line.getKey())
+                                || available.getOrDefault(line.getKey(), 0) < line.getValue())
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toList());
+                if (!unknownProducts.isEmpty() || !unavailable.isEmpty()) {
+                    Map<String, Object> outcome = outcome("inventory-out-of-stock", orderId, lines);
+                    outcome.put("unavailableSkus", unavailable);
+                    outcome.put("unknownProductIds", unknownProducts);
+                    outcomes.add(outcome);
+                    continue;
+                }
+                if (lines.isEmpty()) {
+                    continue;
+                }
+                lines.forEach((skuCode, quantity) -> {
+                    available.merge(skuCode, -quantity, Integer::sum);
+                    netReserved.merge(skuCode, quantity, Integer::sum);
+                });
+                accepted.put(orderId, lines);
+                outcomes.add(outcome("inventory-reserved", orderId, lines));
+            } else if (event.isCancellation() && cancelled.remove(orderId)) {
+                // Reserved earlier in this batch, or held from an earlier one
+                SortedMap<String, Integer> lines = accepted.remove(orderId);
+                if (lines == null) {
+                    lines = releasedByOrder.get(orderId);
+                }
+                if (lines == null) {
+                    cancelledFirst.add(orderId);
+                    continue;
+                }
+                lines.forEach((skuCode, quantity) -> {
+                    available.merge(skuCode, quantity, Integer::sum);
+                    netReserved.merge(skuCode, -quantity, Integer::sum);
+                });
+                outcomes.add(outcome("inventory-released", orderId, lines));
+            } else if (event.isFulfilment() && fulfilled.remove(orderId)) {
+                // Reserved earlier in this batch, or held from an earlier one
+                SortedMap<String, Integer> lines = accepted.remove(orderId);
+                if (lines != null) {
+                    consumedInBatch.put(orderId, lines);
+                } else {
+                    lines = consumedByOrder.get(orderId);
+                }
+                if (lines == null) {
+                    continue;
+                }
+                lines.forEach((skuCode, quantity) -> netConsumed.merge(skuCode, quantity, Integer::sum));
+                outcomes.add(outcome("inventory-consumed", orderId, lines));
+            }
+        }
+
+        accepted.forEach((orderId, lines) -> insertLines(orderId, lines, ReservationState.HELD));
+        consumedInBatch.forEach((orderId, lines) -> insertLines(orderId, lines, ReservationState.CONSUMED));
+        writeNetChanges(netReserved, shardCounts);
+        consume(netConsumed, shardCounts);
+        Set<String> changed = new TreeSet<>(netReserved.keySet());
+        changed.addAll(netConsumed.keySet());
+        inventoryCache.evict(changed);
+        recordLowStock(netReserved, available);
+        log.infof("Applied %d order events: %d reserved, %d outcomes", events.size(), accepted.size(), outcomes.size());
+        return outcomes;
+    }
+
+    private void insertLines(String orderId, SortedMap<String, Integer> lines, ReservationState state) {
+        if (reservationRepository.insert(orderId, lines, state, null) != lines.size()) {
+            // Another writer used the order id as reservation id since the check above; the batch is retried
+            throw new ReservationConflictException("Reservation " + orderId + " was created concurrently");
+        }
+    }
+
+    /**
+     * Takes the consumed units per SKU out of the quantity and the reserved quantity, after
+     * {@link #writeNetChanges} has reserved the ones held in this batch. The available units do not change.
+     */
+    private void consume(SortedMap<String, Integer> netConsumed, Map<String, Integer> shardCounts) {
+        int consumed = 0;
+        for (Map.Entry<String, Integer> net : netConsumed.entrySet()) {
+            boolean applied = shardCounts.containsKey(net.getKey())
+                    ? inventoryRepository.consumeShardedStock(net.getKey(), net.getValue())
+                    : inventoryRepository.consumeReservedStock(net.getKey(), net.getValue()).isPresent();
+            if (applied) {
+                consumed++;
+            }
+        }
+        if (consumed != netConsumed.size()) {
+            // The ledger lines are consumed either way; a counter that no longer covers them needs a manual adjustment
+            log.warnf("Consumed order reservations on %d SKUs but not all had the units reserved", netConsumed.size());
+        }
+    }
+
+    /**
+     * Writes the net reserved units per SKU: one set-based statement for the rows gaining reservations, one for the
+     * rows losing them, and shard moves for sharded SKUs. The rows and shards are locked, so the checks done in memory
+     * still hold.
+     */
+    private void writeNetChanges(SortedMap<String, Integer> netReserved, Map<String, Integer> shardCounts) {
+        SortedMap<String, Integer> rowReserves = new TreeMap<>();
+        SortedMap<String, Integer> rowReleases = new TreeMap<>();
+        for (Map.Entry<String, Integer> net : netReserved.entrySet()) {
+            String skuCode = net.getKey();
+            int quantity = net.getValue();
+            Integer shardCount = shardCounts.get(skuCode);
+            if (quantity == 0) {
+                continue;
+            }
+            if (shardCount != null) {
+                boolean moved = quantity > 0
+                        ? shardService.take(skuCode, shardCount, quantity) == StockShardService.Take.TAKEN
+                        : shardService.give(skuCode, shardCount, -quantity);
+                if (!moved) {
+                    throw new ReservationConflictException("Stock sharding of SKU " + skuCode
+                            + " changed during the batch, retry");
+                }
+            } else if (quantity > 0) {
+                rowReserves.put(skuCode, quantity);
+            } else {
+                rowReleases.put(skuCode, -quantity);
+            }
+        }
+        if (!rowReleases.isEmpty() && inventoryRepository.releaseAll(rowReleases).size() != rowReleases.size()) {
+            // The ledger lines are released either way; a counter that no longer covers them needs a manual adjustment
+            log.warnf("Released order reservations on %d SKUs but not all had the units reserved", rowReleases.size());
+        }
+        if (!rowReserves.isEmpty() && inventoryRepository.reserveAll(rowReserves).size() != rowReserves.size()) {
+            // Cannot happen while the rows are locked; rolls back rather than leave a partial batch
+            throw new InsufficientStockException("Insufficient available quantity for order batch");
+        }
+    }
+
+    /**
+     * Reports the net change of every SKU to {@link LowStockService}; {@code available} holds the units left after
+     * the batch, as the items returned by the set-based statements may be the stale instances loaded above.
+     */
+    private void recordLowStock(SortedMap<String, Integer> netReserved, Map<String, Integer> available) {
+        List<String> changed = netReserved.entrySet().stream()
+                .filter(net -> net.getValue() != 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (changed.isEmpty()) {
+            return;
+        }
+        for (InventoryItem item : inventoryRepository.findBySkuCodeIn(changed)) {
+            lowStock.record(item, available.get(item.getSkuCode()), -netReserved.get(item.getSkuCode()));
+        }
+    }
+
+    private static Set<String> orderIds(List<OrderEvent> events, Predicate<OrderEvent> matches) {
+        Set<String> orderIds = new LinkedHashSet<>();
+        for (OrderEvent event : events) {
+            if (matches.test(event) && event.orderId() != null) {
+                orderIds.add(event.orderId());
+            }
+        }
+        return orderIds;
+    }
+
+    private static Map<String, Object> outcome(String eventType, String orderId, SortedMap<String, Integer> lines) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", eventType);
+        event.put("timestamp", LocalDateTime.now().toString());
+        event.put("orderId", orderId);
+        event.put("reservationId", orderId);
+        event.put("items", lines.entrySet().stream()
+                .map(line -> Map.<String, Object>of("skuCode", line.getKey(), "quantity", line.getValue()))
+                .collect(Collectors.toList()));
+        return event;
+    }
+
+    private void publish(Map<String, Object> event) {
+        try {
+            // Keyed by order id, so order-service sees one order's outcomes in order
+            inventoryEventEmitter.send(Message.of(event).addMetadata(OutgoingKafkaRecordMetadata.<String>builder()
+                    .withKey((String) event.get("orderId"))
+                    .build()));
+            log.debugf("Published %s event for order: %s", event.get("eventType"), event.get("orderId"));
+        } catch (Exception e) {
+            log.errorf(e, "Failed to publish inventory event: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.repository.ProcessedOrderEventRepository;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Reclaims stock held by reservations that were never released or consumed.
+ * <p>
+ * Every {@code inventory.reservation.sweep-interval} overdue holds are expired in batches of
+ * {@code inventory.reservation.sweep-batch-size}, each in its own transaction. Batches claim their ledger lines with
+ * {@code FOR UPDATE SKIP LOCKED}, so several instances can sweep at once without waiting on each other or on
+ * releases in flight. Settled lines, and the order-event receipts of {@link OrderEventService}, are deleted once older
+ * than {@code inventory.reservation.retention}.
+ */
+@ApplicationScoped
+public class ReservationExpiryService {
+
+    private static final Logger log = Logger.getLogger(ReservationExpiryService.class);
+
+    @Inject
+    InventoryService inventoryService;
+
+    @Inject
+    StockReservationRepository reservationRepository;
+
+    @Inject
+    ProcessedOrderEventRepository processedEventRepository;
+
+    @ConfigProperty(name = "inventory.reservation.sweep-enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "inventory.reservation.sweep-batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "inventory.reservation.retention", defaultValue = "P7D")
+    Duration retention;
+
+    @Scheduled(every = "{inventory.reservation.sweep-interval}", delayed = "{inventory.reservation.sweep-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            expireReservations();
+            purgeSettledReservations();
+            purgeProcessedOrderEvents();
+        } catch (Exception e) {
+            log.errorf(e, "Reservation sweep failed, retrying next interval");
+        }
+    }
+
+    /**
+     * Expires every overdue hold.
+     *
+     * @return the number of ledger lines expired
+     */
+    public long expireReservations() {
+        long expired = 0;
+        while (true) {
+            int batch = inventoryService.expireReservations(batchSize);
+            expired += batch;
+            if (batch < batchSize) {
+                break;
+            }
+        }
+        if (expired > 0) {
+            log.infof("Expired %d reservation lines", expired);
+        }
+        return expired;
+    }
+
+    long purgeSettledReservations() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long purged = 0;
+        while (true) {
+            int batch = QuarkusTransaction.requiringNew()
+                    .call(() -> reservationRepository.purgeSettled(before, batchSize));
+            purged += batch;
+            if (batch < batchSize) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.debugf("Purged %d settled reservation lines", purged);
+        }
+        return purged;
+    }
+
+    long purgeProcessedOrderEvents() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long purged = 0;
+        while (true) {
+            int batch = QuarkusTransaction.requiringNew()
+                    .call(() -> processedEventRepository.purge(before, batchSize));
+            purged += batch;
+            if (batch < batchSize) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.debugf("Purged %d processed order event receipts", purged);
+        }
+        return purged;
+    }
+}
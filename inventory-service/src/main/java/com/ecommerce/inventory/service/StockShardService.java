@@ -0,0 +1,165 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.exception.InventoryItemNotFoundException;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.StockShardRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded stock counters for hot SKUs.
+ * <p>
+ * A sharded SKU keeps its available units spread over {@code shard_count} rows of {@code inventory_stock_shards},
+ * so concurrent reservations lock different rows instead of queueing on the item row. A reservation tries a random
+ * shard, then the fullest unlocked shard, and only then locks every shard to take the units from several of them.
+ * The item row keeps the quantity; its reserved and available quantities are refreshed from the shards every
+ * {@code inventory.shards.rebalance-interval}, when shards that ran low are also refilled from the others. Reads
+ * that need the exact figure sum the shards.
+ * <p>
+ * Locks are always taken item row first, then shards in shard order.
+ */
+@ApplicationScoped
+public class StockShardService {
+
+    private static final Logger log = Logger.getLogger(StockShardService.class);
+
+    /**
+     * Outcome of taking units from the shards of a SKU.
+     */
+    public enum Take {
+        TAKEN,
+        INSUFFICIENT,
+        /** The SKU has no shards, because sharding was switched off after the caller read the item. */
+        NOT_SHARDED
+    }
+
+    @Inject
+    InventoryRepository inventoryRepository;
+
+    @Inject
+    StockShardRepository shardRepository;
+
+    @ConfigProperty(name = "inventory.shards.max-count", defaultValue = "64")
+    int maxShards;
+
+    /**
+     * Takes {@code quantity} units from the shards of a SKU.
+     */
+    public Take take(String skuCode, int shardCount, int quantity) {
+        if (shardRepository.take(skuCode, ThreadLocalRandom.current().nextInt(shardCount), quantity)
+                || shardRepository.takeFromFullest(skuCode, quantity)) {
+            return Take.TAKEN;
+        }
+        int[] shards = shardRepository.lockShards(skuCode);
+        if (shards.length == 0) {
+            return Take.NOT_SHARDED;
+        }
+        if (Arrays.stream(shards).asLongStream().sum() < quantity) {
+            return Take.INSUFFICIENT;
+        }
+        int remaining = quantity;
+        for (int shard = 0; shard < shards.length && remaining > 0; shard++) {
+            int taken = Math.min(shards[shard], remaining);
+            if (taken > 0) {
+                shardRepository.setAvailable(skuCode, shard, shards[shard] - taken);
+                remaining -= taken;
+            }
+        }
+        return Take.TAKEN;
+    }
+
+    /**
+     * Returns {@code quantity} units to a random shard of a SKU.
+     *
+     * @return {@code false} if the SKU has no shards
+     */
+    public boolean give(String skuCode, int shardCount, int quantity) {
+        return shardRepository.give(skuCode, ThreadLocalRandom.current().nextInt(shardCount), quantity);
+    }
+
+    /**
+     * Spreads the available units of a SKU over {@code shardCount} shards, or moves them back onto the item row when
+     * {@code shardCount} is 0 or 1.
+     */
+    @Transactional
+    public InventoryItem setShardCount(String skuCode, int shardCount) {
+        if (shardCount < 0 || shardCount > maxShards) {
+            throw new InvalidInventoryOperationException("Shard count must be between 0 and " + maxShards);
+        }
+        InventoryItem item = inventoryRepository.findBySkuCodeForUpdate(skuCode)
+                .orElseThrow(() -> new InventoryItemNotFoundException("Inventory not found for SKU: " + skuCode));
+        int target = shardCount <= 1 ? 0 : shardCount;
+
+        int available;
+        if (item.getShardCount() > 0) {
+            available = Arrays.stream(shardRepository.lockShards(skuCode)).sum();
+            shardRepository.deleteShards(skuCode);
+        } else {
+            available = Math.max(0, item.getQuantity() - item.getReservedQuantity());
+        }
+        if (target > 0) {
+            shardRepository.insertShards(skuCode, split(available, target));
+        }
+
+        item.setShardCount(target);
+        item.setReservedQuantity(item.getQuantity() - available);
+        item.calculateAvailableQuantity();
+        log.infof("SKU %s now uses %d stock shards for %d available units", skuCode, target, available);
+        return item;
+    }
+
+    @Scheduled(every = "{inventory.shards.rebalance-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void rebalanceAll() {
+        for (String skuCode : QuarkusTransaction.requiringNew().call(shardRepository::findShardedSkuCodes)) {
+            try {
+                QuarkusTransaction.requiringNew().run(() -> rebalance(skuCode));
+            } catch (Exception e) {
+                log.errorf(e, "Rebalancing stock shards of SKU %s failed", skuCode);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the item's totals from its shards, and evens out the shards when one holds less than half its share.
+     */
+    void rebalance(String skuCode) {
+        InventoryItem item = inventoryRepository.findBySkuCodeForUpdate(skuCode).orElse(null);
+        if (item == null || item.getShardCount() == 0) {
+            return;
+        }
+        int[] shards = shardRepository.lockShards(skuCode);
+        int available = Arrays.stream(shards).sum();
+        int min = Arrays.stream(shards).min().orElse(0);
+        if (shards.length > 0 && min < available / shards.length / 2) {
+            int[] even = split(available, shards.length);
+            for (int shard = 0; shard < shards.length; shard++) {
+                if (even[shard] != shards[shard]) {
+                    shardRepository.setAvailable(skuCode, shard, even[shard]);
+                }
+            }
+            log.debugf("Rebalanced %d stock shards of SKU %s", shards.length, skuCode);
+        }
+        inventoryRepository.foldShardTotals(skuCode, available);
+    }
+
+    /**
+     * Splits {@code total} units over {@code shards} shards as evenly as possible.
+     */
+    static int[] split(int total, int shards) {
+        int[] split = new int[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            split[shard] = total / shards + (shard < total % shards ? 1 : 0);
+        }
+        return split;
+    }
+}
@@ -0,0 +1,20 @@
+-- Ledger of stock reservations; a HELD row is backed by reserved_quantity on inventory_items
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id UUID PRIMARY KEY,
+    reservation_id VARCHAR(255) NOT NULL,
+    sku_code VARCHAR(255) NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    state VARCHAR(20) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT uk_stock_reservations_reservation_sku UNIQUE (reservation_id, sku_code)
+);
+
+-- Drives the expiry sweep; settled rows drop out of the index
+CREATE INDEX idx_stock_reservations_held_expires_at ON stock_reservations(expires_at) WHERE state = 'HELD';
+CREATE INDEX idx_stock_reservations_settled_updated_at ON stock_reservations(updated_at) WHERE state <> 'HELD';
+
+CREATE TRIGGER update_stock_reservations_updated_at
+BEFORE UPDATE ON stock_reservations
+FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
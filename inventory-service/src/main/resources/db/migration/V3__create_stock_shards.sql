@@ -0,0 +1,10 @@
+-- Sharded stock counters: when shard_count > 0 the SKU's available units live in inventory_stock_shards and the
+-- item's reserved_quantity and available_quantity are a periodically refreshed total
+ALTER TABLE inventory_items ADD COLUMN shard_count INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS inventory_stock_shards (
+    sku_code VARCHAR(255) NOT NULL REFERENCES inventory_items(sku_code) ON DELETE CASCADE,
+    shard_no INTEGER NOT NULL,
+    available_quantity INTEGER NOT NULL CHECK (available_quantity >= 0),
+    PRIMARY KEY (sku_code, shard_no)
+);
@@ -0,0 +1,11 @@
+-- Reservations held by the in-memory reservation engine are expired by the engine, not by the database sweep
+ALTER TABLE stock_reservations ADD COLUMN engine_owned BOOLEAN NOT NULL DEFAULT false;
+
+-- Last journal sequence of each engine partition whose effects are written to inventory_items and stock_reservations
+CREATE TABLE IF NOT EXISTS inventory_engine_checkpoints (
+    instance_id VARCHAR(255) NOT NULL,
+    partition_no INTEGER NOT NULL,
+    journal_seq BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (instance_id, partition_no)
+);
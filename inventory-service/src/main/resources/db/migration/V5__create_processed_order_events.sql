@@ -0,0 +1,9 @@
+-- One row per order event applied by the order-events consumer; a redelivered event finds its row and is skipped
+CREATE TABLE IF NOT EXISTS processed_order_events (
+    order_id VARCHAR(255) NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    processed_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (order_id, event_type)
+);
+
+CREATE INDEX idx_processed_order_events_processed_at ON processed_order_events(processed_at);
@@ -0,0 +1,3 @@
+-- Only the rows at or below their low-stock threshold, for reloading the low-stock set without a table scan
+CREATE INDEX idx_inventory_items_low_stock ON inventory_items(sku_code)
+    WHERE available_quantity <= low_stock_threshold AND is_active = true AND shard_count = 0;
@@ -0,0 +1,2 @@
+-- Order holds last as long as their order and have no expiry; the sweep only matches rows with one
+ALTER TABLE stock_reservations ALTER COLUMN expires_at DROP NOT NULL;
@@ -0,0 +1,206 @@
+package com.ecommerce.inventory.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and deadlock rate of reserving whole orders against a small pool of hot SKUs:
+ * <ul>
+ *     <li>{@code perSkuCalls}: one transaction per line, as when each line is a separate {@code /reserve} call;</li>
+ *     <li>{@code unorderedRowLocks}: one transaction locking lines in request order, the naive all-or-nothing
+ *     version;</li>
+ *     <li>{@code sortedSetBased}: what {@code POST /api/inventory/reservations} does, locking in SKU order and
+ *     updating with one statement.</li>
+ * </ul>
+ * The {@code deadlocks} counter reports transactions PostgreSQL aborted with SQLState 40P01.
+ * <p>
+ * Needs a PostgreSQL database with the inventory schema and is not run by the test suite. Run like
+ * {@link ReservationContentionBenchmark}, naming this class instead.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class OrderReservationBenchmark {
+
+    private static final String DEADLOCK = "40P01";
+
+    private static final int HOT_SKUS = 32;
+
+    private static final String RESERVE_ONE = "UPDATE inventory_items SET version = version + 1, "
+            + "reserved_quantity = reserved_quantity + 1, available_quantity = quantity - reserved_quantity - 1 "
+            + "WHERE sku_code = ? AND quantity - reserved_quantity >= 1";
+
+    private static final String LOCK_ONE = "SELECT quantity - reserved_quantity FROM inventory_items "
+            + "WHERE sku_code = ? FOR UPDATE";
+
+    @State(Scope.Benchmark)
+    public static class HotSkus {
+        final List<String> skuCodes = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void insert() throws SQLException {
+            String prefix = "BENCH-" + UUID.randomUUID() + "-";
+            try (Connection connection = connect();
+                 PreparedStatement insert = connection.prepareStatement("INSERT INTO inventory_items "
+                         + "(id, product_id, sku_code, quantity, reserved_quantity, available_quantity, "
+                         + "low_stock_threshold, restock_threshold, version, created_at, updated_at) "
+                         + "VALUES (?, ?, ?, 1000000000, 0, 1000000000, 10, 20, 0, now(), now())")) {
+                for (int i = 0; i < HOT_SKUS; i++) {
+                    String sku = prefix + String.format("%02d", i);
+                    insert.setObject(1, UUID.randomUUID());
+                    insert.setObject(2, UUID.randomUUID());
+                    insert.setString(3, sku);
+                    insert.addBatch();
+                    skuCodes.add(sku);
+                }
+                insert.executeBatch();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws SQLException {
+            try (Connection connection = connect();
+                 PreparedStatement delete = connection.prepareStatement(
+                         "DELETE FROM inventory_items WHERE sku_code = ANY (?)")) {
+                delete.setArray(1, connection.createArrayOf("varchar", skuCodes.toArray()));
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Session {
+        @Param({"4", "12"})
+        public int lines;
+
+        public long deadlocks;
+
+        Connection connection;
+        PreparedStatement reserveOne;
+        PreparedStatement lockOne;
+        PreparedStatement lockSorted;
+        PreparedStatement reserveSorted;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            connection = connect();
+            connection.setAutoCommit(false);
+            reserveOne = connection.prepareStatement(RESERVE_ONE);
+            lockOne = connection.prepareStatement(LOCK_ONE);
+            lockSorted = connection.prepareStatement("SELECT sku_code FROM inventory_items "
+                    + "WHERE sku_code = ANY (?) ORDER BY sku_code FOR UPDATE");
+            reserveSorted = connection.prepareStatement("UPDATE inventory_items SET version = version + 1, "
+                    + "reserved_quantity = reserved_quantity + 1, available_quantity = quantity - reserved_quantity - 1 "
+                    + "WHERE sku_code = ANY (?) AND quantity - reserved_quantity >= 1");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+
+        List<String> order(HotSkus skus) {
+            List<String> shuffled = new ArrayList<>(skus.skuCodes);
+            Collections.shuffle(shuffled, ThreadLocalRandom.current());
+            return shuffled.subList(0, lines);
+        }
+    }
+
+    @Benchmark
+    public void perSkuCalls(HotSkus skus, Session session) throws SQLException {
+        for (String sku : session.order(skus)) {
+            session.reserveOne.setString(1, sku);
+            session.reserveOne.executeUpdate();
+            session.connection.commit();
+        }
+    }
+
+    @Benchmark
+    public void unorderedRowLocks(HotSkus skus, Session session) throws SQLException {
+        try {
+            for (String sku : session.order(skus)) {
+                session.lockOne.setString(1, sku);
+                try (ResultSet row = session.lockOne.executeQuery()) {
+                    row.next();
+                }
+                session.reserveOne.setString(1, sku);
+                session.reserveOne.executeUpdate();
+            }
+            session.connection.commit();
+        } catch (SQLException e) {
+            rollback(session, e);
+        }
+    }
+
+    @Benchmark
+    public void sortedSetBased(HotSkus skus, Session session) throws SQLException {
+        try {
+            Array skuArray = session.connection.createArrayOf("varchar", session.order(skus).toArray());
+            session.lockSorted.setArray(1, skuArray);
+            try (ResultSet rows = session.lockSorted.executeQuery()) {
+                while (rows.next()) {
+                    // Locks are taken as the sorted rows are read
+                }
+            }
+            session.reserveSorted.setArray(1, skuArray);
+            session.reserveSorted.executeUpdate();
+            session.connection.commit();
+        } catch (SQLException e) {
+            rollback(session, e);
+        }
+    }
+
+    private static void rollback(Session session, SQLException e) throws SQLException {
+        session.connection.rollback();
+        if (!DEADLOCK.equals(e.getSQLState())) {
+            throw e;
+        }
+        session.deadlocks++;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/inventorydb"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "postgres"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderReservationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,166 @@
+package com.ecommerce.inventory.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of reserve-then-release on a single hot SKU under contention, comparing the
+ * {@link com.ecommerce.inventory.service.ReservationLockMode#ROW_LOCK} statement sequence (lock the row, read it,
+ * write it back, commit) with the {@link com.ecommerce.inventory.service.ReservationLockMode#ATOMIC} guarded
+ * {@code UPDATE ... RETURNING}.
+ * <p>
+ * Needs a PostgreSQL database with the inventory schema and is not run by the test suite. Run with
+ * {@code mvn -pl inventory-service test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/inventorydb -cp %classpath
+ * com.ecommerce.inventory.benchmark.ReservationContentionBenchmark"}; {@code benchmark.jdbc.user} and
+ * {@code benchmark.jdbc.password} default to {@code postgres}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ReservationContentionBenchmark {
+
+    private static final String ROW_LOCK_SELECT =
+            "SELECT quantity, reserved_quantity FROM inventory_items WHERE sku_code = ? FOR UPDATE";
+
+    private static final String ROW_LOCK_UPDATE = "UPDATE inventory_items SET reserved_quantity = ?, "
+            + "available_quantity = ?, version = version + 1 WHERE sku_code = ?";
+
+    private static final String ATOMIC_RESERVE = "UPDATE inventory_items SET version = version + 1, "
+            + "reserved_quantity = reserved_quantity + ?, available_quantity = quantity - reserved_quantity - ? "
+            + "WHERE sku_code = ? AND quantity - reserved_quantity >= ? RETURNING *";
+
+    private static final String ATOMIC_RELEASE = "UPDATE inventory_items SET version = version + 1, "
+            + "reserved_quantity = reserved_quantity - ?, "
+            + "available_quantity = GREATEST(0, quantity - reserved_quantity + ?) "
+            + "WHERE sku_code = ? AND reserved_quantity >= ? RETURNING *";
+
+    @State(Scope.Benchmark)
+    public static class HotSku {
+        final String skuCode = "BENCH-" + UUID.randomUUID();
+
+        @Setup(Level.Trial)
+        public void insert() throws SQLException {
+            try (Connection connection = connect();
+                 PreparedStatement insert = connection.prepareStatement("INSERT INTO inventory_items "
+                         + "(id, product_id, sku_code, quantity, reserved_quantity, available_quantity, "
+                         + "low_stock_threshold, restock_threshold, version, created_at, updated_at) "
+                         + "VALUES (?, ?, ?, 1000000, 0, 1000000, 10, 20, 0, now(), now())")) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setObject(2, UUID.randomUUID());
+                insert.setString(3, skuCode);
+                insert.executeUpdate();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws SQLException {
+            try (Connection connection = connect();
+                 PreparedStatement delete = connection.prepareStatement("DELETE FROM inventory_items WHERE sku_code = ?")) {
+                delete.setString(1, skuCode);
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement lockRow;
+        PreparedStatement writeRow;
+        PreparedStatement atomicReserve;
+        PreparedStatement atomicRelease;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            connection = connect();
+            connection.setAutoCommit(false);
+            lockRow = connection.prepareStatement(ROW_LOCK_SELECT);
+            writeRow = connection.prepareStatement(ROW_LOCK_UPDATE);
+            atomicReserve = connection.prepareStatement(ATOMIC_RESERVE);
+            atomicRelease = connection.prepareStatement(ATOMIC_RELEASE);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public void rowLock(HotSku sku, Session session) throws SQLException {
+        rowLockChange(sku, session, 1);
+        rowLockChange(sku, session, -1);
+    }
+
+    @Benchmark
+    public void atomicUpdate(HotSku sku, Session session) throws SQLException {
+        atomicChange(session.atomicReserve, sku, session);
+        atomicChange(session.atomicRelease, sku, session);
+    }
+
+    private static void rowLockChange(HotSku sku, Session session, int delta) throws SQLException {
+        session.lockRow.setString(1, sku.skuCode);
+        int quantity;
+        int reserved;
+        try (ResultSet row = session.lockRow.executeQuery()) {
+            row.next();
+            quantity = row.getInt(1);
+            reserved = row.getInt(2) + delta;
+        }
+        session.writeRow.setInt(1, reserved);
+        session.writeRow.setInt(2, quantity - reserved);
+        session.writeRow.setString(3, sku.skuCode);
+        session.writeRow.executeUpdate();
+        session.connection.commit();
+    }
+
+    private static void atomicChange(PreparedStatement update, HotSku sku, Session session) throws SQLException {
+        update.setInt(1, 1);
+        update.setInt(2, 1);
+        update.setString(3, sku.skuCode);
+        update.setInt(4, 1);
+        try (ResultSet row = update.executeQuery()) {
+            row.next();
+        }
+        session.connection.commit();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/inventorydb"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "postgres"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReservationContentionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.inventory.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservations per second on one hot SKU as its stock is spread over more counter shards, using the statements of
+ * {@link com.ecommerce.inventory.repository.StockShardRepository}: take from a random shard, fall back to the
+ * fullest unlocked shard, then return the unit to a random shard. With one shard every reservation queues on the
+ * same row, as on an unsharded item.
+ * <p>
+ * Needs a PostgreSQL database with the inventory schema and is not run by the test suite. Run like
+ * {@link ReservationContentionBenchmark}, naming this class instead.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ShardedReservationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class HotSku {
+        @Param({"1", "4", "16"})
+        int shards;
+
+        final String skuCode = "BENCH-" + UUID.randomUUID();
+
+        @Setup(Level.Trial)
+        public void insert() throws SQLException {
+            try (Connection connection = connect();
+                 PreparedStatement item = connection.prepareStatement("INSERT INTO inventory_items "
+                         + "(id, product_id, sku_code, quantity, reserved_quantity, available_quantity, "
+                         + "low_stock_threshold, restock_threshold, version, shard_count, created_at, updated_at) "
+                         + "VALUES (?, ?, ?, 1000000, 0, 1000000, 10, 20, 0, ?, now(), now())");
+                 PreparedStatement shard = connection.prepareStatement("INSERT INTO inventory_stock_shards "
+                         + "(sku_code, shard_no, available_quantity) VALUES (?, ?, ?)")) {
+                item.setObject(1, UUID.randomUUID());
+                item.setObject(2, UUID.randomUUID());
+                item.setString(3, skuCode);
+                item.setInt(4, shards);
+                item.executeUpdate();
+                for (int i = 0; i < shards; i++) {
+                    shard.setString(1, skuCode);
+                    shard.setInt(2, i);
+                    shard.setInt(3, 1000000 / shards);
+                    shard.addBatch();
+                }
+                shard.executeBatch();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws SQLException {
+            try (Connection connection = connect();
+                 PreparedStatement delete = connection.prepareStatement("DELETE FROM inventory_items WHERE sku_code = ?")) {
+                delete.setString(1, skuCode);
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement take;
+        PreparedStatement takeFromFullest;
+        PreparedStatement give;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            connection = connect();
+            connection.setAutoCommit(false);
+            take = connection.prepareStatement("UPDATE inventory_stock_shards "
+                    + "SET available_quantity = available_quantity - 1 "
+                    + "WHERE sku_code = ? AND shard_no = ? AND available_quantity >= 1");
+            takeFromFullest = connection.prepareStatement("UPDATE inventory_stock_shards s "
+                    + "SET available_quantity = s.available_quantity - 1 "
+                    + "FROM (SELECT shard_no FROM inventory_stock_shards WHERE sku_code = ? AND available_quantity >= 1 "
+                    + "ORDER BY available_quantity DESC LIMIT 1 FOR UPDATE SKIP LOCKED) f "
+                    + "WHERE s.sku_code = ? AND s.shard_no = f.shard_no");
+            give = connection.prepareStatement("UPDATE inventory_stock_shards "
+                    + "SET available_quantity = available_quantity + 1 WHERE sku_code = ? AND shard_no = ?");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public void reserveAndRelease(HotSku sku, Session session) throws SQLException {
+        session.take.setString(1, sku.skuCode);
+        session.take.setInt(2, ThreadLocalRandom.current().nextInt(sku.shards));
+        if (session.take.executeUpdate() == 0) {
+            session.takeFromFullest.setString(1, sku.skuCode);
+            session.takeFromFullest.setString(2, sku.skuCode);
+            session.takeFromFullest.executeUpdate();
+        }
+        session.connection.commit();
+
+        session.give.setString(1, sku.skuCode);
+        session.give.setInt(2, ThreadLocalRandom.current().nextInt(sku.shards));
+        session.give.executeUpdate();
+        session.connection.commit();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/inventorydb"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "postgres"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ShardedReservationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.inventory.controller;
 import com.ecommerce.inventory.testsupport.KafkaTestResource;
 import com.ecommerce.inventory.testsupport.PostgresTestResource;
 import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.ws.rs.core.Response;
@@ -12,7 +13,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledIf;
 import org.testcontainers.DockerClientFactory;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
 import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Basic contract tests for {@link InventoryController} backed by Testcontainers Postgres and Kafka.
@@ -23,6 +33,9 @@ import static io.restassured.RestAssured.given;
 @DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
 class InventoryControllerContractTest {
 
+    @TestHTTPResource("/")
+    URL baseUrl;
+
     static boolean isDockerNotAvailable() {
         try {
             DockerClientFactory.instance().client();
@@ -43,6 +56,53 @@ class InventoryControllerContractTest {
                 .statusCode(Response.Status.OK.getStatusCode())
                 .body(Matchers.containsString("Inventory Service is healthy"));
     }
-}
 
+    @Test
+    @DisplayName("Batch status lists unknown SKUs and products as missing")
+    void batchStatus_contract() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"skuCodes\":[\"SKU-UNKNOWN-1\"],\"productIds\":[\"00000000-0000-0000-0000-000000000001\"]}")
+        .when()
+                .post("/api/inventory/status:batch")
+        .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .body("items", Matchers.empty())
+                .body("missingSkuCodes", Matchers.contains("SKU-UNKNOWN-1"))
+                .body("missingProductIds", Matchers.contains("00000000-0000-0000-0000-000000000001"));
+    }
+
+    @Test
+    @DisplayName("Cycle count import reports each line it cannot apply")
+    void cycleCountImport_contract() {
+        given()
+                .contentType("text/csv")
+                .body("skuCode,quantity\nSKU-UNKNOWN-1,5\nSKU-UNKNOWN-2,-1\n")
+        .when()
+                .post("/api/inventory/cycle-counts")
+        .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .body("rowsRead", Matchers.is(2))
+                .body("rowsApplied", Matchers.is(0))
+                .body("rowsRejected", Matchers.is(2))
+                .body("errors.line", Matchers.containsInAnyOrder(2, 3));
+    }
 
+    @Test
+    @DisplayName("Cycle count import rejects a malformed Content-Length as a bad request")
+    void cycleCountImport_malformedContentLength() throws IOException {
+        // HTTP clients always send a valid Content-Length, so the request is written by hand
+        try (Socket socket = new Socket(baseUrl.getHost(), baseUrl.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /api/inventory/cycle-counts HTTP/1.1\r\n"
+                    + "Host: " + baseUrl.getHost() + "\r\n"
+                    + "Content-Type: text/csv\r\n"
+                    + "Content-Length: 12abc\r\n"
+                    + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String statusLine = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+            assertThat(statusLine).startsWith("HTTP/1.1 400");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.inventory.dto.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Cancellations arrive as ORDER_CANCELLED or as a status update to CANCELLED")
+    void cancellations() throws Exception {
+        assertThat(parse("{\"eventType\":\"ORDER_CANCELLED\",\"orderId\":\"O-1\",\"status\":\"CANCELLED\"}")
+                .isCancellation()).isTrue();
+        assertThat(parse("{\"eventType\":\"ORDER_STATUS_UPDATED\",\"orderId\":\"O-1\",\"status\":\"CANCELLED\"}")
+                .isCancellation()).isTrue();
+        assertThat(parse("{\"eventType\":\"ORDER_STATUS_UPDATED\",\"orderId\":\"O-1\",\"status\":\"SHIPPED\"}")
+                .isCancellation()).isFalse();
+        assertThat(parse("{\"eventType\":\"ORDER_CREATED\",\"orderId\":\"O-1\",\"status\":\"PENDING\","
+                + "\"items\":[{\"productId\":\"00000000-0000-0000-0000-000000000001\",\"quantity\":2}]}")
+                .isCancellation()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Fulfilments arrive as a status update to SHIPPED, DELIVERED or COMPLETED")
+    void fulfilments() throws Exception {
+        assertThat(parse("{\"eventType\":\"ORDER_STATUS_UPDATED\",\"orderId\":\"O-1\",\"status\":\"SHIPPED\"}")
+                .isFulfilment()).isTrue();
+        assertThat(parse("{\"eventType\":\"ORDER_STATUS_UPDATED\",\"orderId\":\"O-1\",\"status\":\"COMPLETED\"}")
+                .isFulfilment()).isTrue();
+        assertThat(parse("{\"eventType\":\"ORDER_STATUS_UPDATED\",\"orderId\":\"O-1\",\"status\":\"PAID\"}")
+                .isFulfilment()).isFalse();
+        assertThat(parse("{\"eventType\":\"ORDER_STATUS_UPDATED\",\"orderId\":\"O-1\"}").isFulfilment()).isFalse();
+    }
+
+    private OrderEvent parse(String json) throws Exception {
+        return objectMapper.readValue(json, OrderEvent.class);
+    }
+}
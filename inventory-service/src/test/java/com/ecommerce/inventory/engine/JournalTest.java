@@ -0,0 +1,89 @@
+package com.ecommerce.inventory.engine;
+
+import com.ecommerce.inventory.model.ReservationState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Replays entries across segments and stops at a torn record")
+    void replaysUpToTornRecord() throws IOException {
+        LocalDateTime expiresAt = LocalDateTime.of(2030, 1, 1, 12, 0);
+        try (Journal journal = new Journal(directory, 0, false)) {
+            journal.rotate(1);
+            journal.append(List.of(
+                    new JournalEntry(1, "SKU-1", 0, 2, "R-1", ReservationState.HELD, 2, expiresAt),
+                    new JournalEntry(2, "SKU-1", 5, 0, null, null, 0, null)));
+            journal.rotate(3);
+            journal.append(List.of(new JournalEntry(3, "SKU-1", 0, -2, "R-1", ReservationState.RELEASED, 2, expiresAt)));
+        }
+        Path last = directory.resolve("partition-0-00000000000000000003.journal");
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(last) - 3);
+        }
+
+        try (Journal journal = new Journal(directory, 0, false)) {
+            List<JournalEntry> entries = journal.readAll();
+
+            assertThat(entries).extracting(JournalEntry::seq).containsExactly(1L, 2L);
+            assertThat(entries.get(0).reservationId()).isEqualTo("R-1");
+            assertThat(entries.get(0).expiresAt()).isEqualTo(expiresAt);
+            assertThat(entries.get(1).quantityDelta()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Starting a segment again discards the torn write it holds")
+    void rotateDiscardsTornWrite() throws IOException {
+        try (Journal journal = new Journal(directory, 1, false)) {
+            journal.rotate(1);
+            journal.append(List.of(new JournalEntry(1, "SKU-1", 1, 0, null, null, 0, null)));
+            journal.rotate(2);
+            journal.append(List.of(new JournalEntry(2, "SKU-1", 2, 0, null, null, 0, null)));
+        }
+        Path torn = directory.resolve("partition-1-00000000000000000002.journal");
+        try (FileChannel channel = FileChannel.open(torn, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(torn) - 3);
+        }
+
+        try (Journal journal = new Journal(directory, 1, false)) {
+            journal.rotate(2);
+            journal.append(List.of(new JournalEntry(2, "SKU-1", 3, 0, null, null, 0, null)));
+            journal.append(List.of(new JournalEntry(3, "SKU-1", 4, 0, null, null, 0, null)));
+
+            assertThat(journal.readAll()).extracting(JournalEntry::quantityDelta).containsExactly(1, 3, 4);
+        }
+    }
+
+    @Test
+    @DisplayName("Deletes only segments whose entries are all flushed")
+    void deletesFlushedSegments() throws IOException {
+        try (Journal journal = new Journal(directory, 3, false)) {
+            journal.rotate(1);
+            journal.append(List.of(new JournalEntry(1, "SKU-1", 1, 0, null, null, 0, null)));
+            journal.rotate(2);
+            journal.append(List.of(new JournalEntry(2, "SKU-1", 1, 0, null, null, 0, null)));
+            journal.rotate(3);
+
+            journal.deleteUpTo(1);
+
+            assertThat(journal.readAll()).extracting(JournalEntry::seq).containsExactly(2L);
+            assertThat(Journal.partitions(directory)).containsExactly(3);
+        }
+    }
+}
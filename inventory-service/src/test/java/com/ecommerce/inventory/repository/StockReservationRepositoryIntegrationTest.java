@@ -0,0 +1,78 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.model.ReservationState;
+import com.ecommerce.inventory.model.StockReservation;
+import com.ecommerce.inventory.testsupport.PostgresTestResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the reservation ledger in {@link StockReservationRepository} backed by Testcontainers
+ * Postgres.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class StockReservationRepositoryIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Inject
+    StockReservationRepository reservationRepository;
+
+    @Test
+    @DisplayName("Holding the same line twice inserts it once and it settles only once")
+    @Transactional
+    void holdAndSettleOnce() {
+        String reservationId = "RES-" + UUID.randomUUID();
+        TreeMap<String, Integer> lines = new TreeMap<>();
+        lines.put("SKU-A", 2);
+        lines.put("SKU-B", 1);
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(15);
+
+        assertThat(reservationRepository.insertHeld(reservationId, lines, expiresAt)).isEqualTo(2);
+        assertThat(reservationRepository.insertHeld(reservationId, lines, expiresAt)).isZero();
+
+        assertThat(reservationRepository.settle(reservationId, "SKU-A", ReservationState.RELEASED)).contains(2);
+        assertThat(reservationRepository.settle(reservationId, "SKU-A", ReservationState.RELEASED)).isEmpty();
+        assertThat(reservationRepository.settle(reservationId, "SKU-A", ReservationState.CONSUMED)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Only overdue held lines are expired")
+    @Transactional
+    void expireOverdueHolds() {
+        String overdue = "RES-" + UUID.randomUUID();
+        String current = "RES-" + UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        reservationRepository.insertHeld(overdue, new TreeMap<>(Map.of("SKU-C", 3)), now.minusMinutes(1));
+        reservationRepository.insertHeld(current, new TreeMap<>(Map.of("SKU-C", 4)), now.plusMinutes(15));
+
+        List<StockReservation> expired = reservationRepository.expireHeld(now, 100, true);
+
+        assertThat(expired).extracting(StockReservation::getReservationId).contains(overdue).doesNotContain(current);
+        assertThat(reservationRepository.findByReservationIdAndSkuCode(overdue, "SKU-C"))
+                .get().extracting(StockReservation::getState).isEqualTo(ReservationState.EXPIRED);
+    }
+}
@@ -0,0 +1,211 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.CycleCountError;
+import com.ecommerce.inventory.dto.CycleCountReport;
+import com.ecommerce.inventory.engine.ReservationEngine;
+import com.ecommerce.inventory.exception.InvalidInventoryOperationException;
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.repository.CycleCountRepository.ChunkResult;
+import com.ecommerce.inventory.repository.CycleCountRepository.CountedItem;
+import com.ecommerce.inventory.repository.CycleCountRepository.CountedLine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CycleCountServiceTest {
+
+    private final List<List<CountedLine>> chunks = new ArrayList<>();
+
+    private final List<Map<String, Object>> published = new ArrayList<>();
+
+    private CycleCountService cycleCounts;
+
+    @BeforeEach
+    void setUp() {
+        cycleCounts = new RecordingCycleCountService();
+        cycleCounts.engine = new ReservationEngine();
+        cycleCounts.objectMapper = new ObjectMapper();
+        cycleCounts.inventoryEventEmitter = new RecordingEmitter();
+        cycleCounts.chunkSize = 2;
+        cycleCounts.maxReportedErrors = 100;
+    }
+
+    @Test
+    @DisplayName("CSV columns are found by header name, quotes are stripped and blank lines skipped")
+    void csv_parsesByHeader() {
+        CycleCountReport report = importCsv("quantity,\"sku_code\"\n"
+                + "5,SKU-1\n"
+                + "\n"
+                + " 7 , \"SKU-2\" \n");
+
+        assertThat(chunks).containsExactly(List.of(
+                new CountedLine(2, "SKU-1", 5),
+                new CountedLine(4, "SKU-2", 7)));
+        assertThat(report.getRowsRead()).isEqualTo(2);
+        assertThat(report.getRowsApplied()).isEqualTo(2);
+        assertThat(report.getRowsRejected()).isZero();
+    }
+
+    @Test
+    @DisplayName("A CSV header without a SKU or quantity column fails the import")
+    void csv_headerWithoutColumns() {
+        assertThatThrownBy(() -> importCsv("sku,count\nSKU-1,5\n"))
+                .isInstanceOf(InvalidInventoryOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Lines that cannot be parsed are reported with their line number and the rest are applied")
+    void csv_rejectsBadLines() {
+        CycleCountReport report = importCsv("skuCode,quantity\n"
+                + "SKU-1\n"
+                + ",5\n"
+                + "SKU-3,five\n"
+                + "SKU-4,-1\n"
+                + "S".repeat(256) + ",1\n"
+                + "S".repeat(255) + ",1\n");
+
+        assertThat(report.getRowsRead()).isEqualTo(6);
+        assertThat(report.getRowsApplied()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(CycleCountError::getLine).containsExactly(2, 3, 4, 5, 6);
+        assertThat(report.getErrors().get(4).getMessage()).isEqualTo("SKU code is longer than 255 characters");
+        assertThat(chunks).containsExactly(List.of(new CountedLine(7, "S".repeat(255), 1)));
+    }
+
+    @Test
+    @DisplayName("NDJSON lines are parsed as objects and malformed ones are reported")
+    void ndjson_parsesObjects() {
+        CycleCountReport report = cycleCounts.importCounts(stream("{\"skuCode\":\"SKU-1\",\"quantity\":5}\n"
+                + "{\"skuCode\":\"SKU-2\",\n"
+                + "{\"skuCode\":\"SKU-3\",\"quantity\":\"4\"}\n"), CycleCountService.Format.NDJSON, null);
+
+        assertThat(chunks).containsExactly(List.of(
+                new CountedLine(1, "SKU-1", 5),
+                new CountedLine(3, "SKU-3", 4)));
+        assertThat(report.getErrors()).extracting(CycleCountError::getLine).containsExactly(2);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Malformed JSON");
+    }
+
+    @Test
+    @DisplayName("Counts are applied in chunks of the configured size, with one event per chunk")
+    void chunks_ofConfiguredSize() {
+        CycleCountReport report = importCsv("skuCode,quantity\nSKU-1,1\nSKU-2,2\nSKU-3,3\nSKU-4,4\nSKU-5,5\n");
+
+        assertThat(chunks).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(report.getChunks()).isEqualTo(3);
+        assertThat(report.getRowsApplied()).isEqualTo(5);
+        assertThat(published).extracting(event -> event.get("chunk")).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    @DisplayName("A SKU counted twice within a chunk keeps the later line and reports the earlier one")
+    void duplicate_withinChunk() {
+        CycleCountReport report = importCsv("skuCode,quantity\nSKU-1,1\nSKU-1,9\nSKU-2,2\n");
+
+        assertThat(chunks).containsExactly(
+                List.of(new CountedLine(3, "SKU-1", 9), new CountedLine(4, "SKU-2", 2)));
+        assertThat(report.getRowsRejected()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getSkuCode()).isEqualTo("SKU-1");
+            assertThat(error.getMessage()).isEqualTo("Counted again on line 3");
+        });
+    }
+
+    @Test
+    @DisplayName("A SKU counted again in a later chunk is applied in both")
+    void duplicate_acrossChunks() {
+        CycleCountReport report = importCsv("skuCode,quantity\nSKU-1,1\nSKU-2,2\nSKU-1,3\n");
+
+        assertThat(chunks).containsExactly(
+                List.of(new CountedLine(2, "SKU-1", 1), new CountedLine(3, "SKU-2", 2)),
+                List.of(new CountedLine(4, "SKU-1", 3)));
+        assertThat(report.getRowsRejected()).isZero();
+    }
+
+    @Test
+    @DisplayName("Only the configured number of errors is reported, and the report says it was cut")
+    void errors_truncated() {
+        cycleCounts.maxReportedErrors = 2;
+
+        CycleCountReport report = importCsv("skuCode,quantity\nSKU-1,x\nSKU-2,x\nSKU-3,x\n");
+
+        assertThat(report.getRowsRejected()).isEqualTo(3);
+        assertThat(report.getErrors()).hasSize(2);
+        assertThat(report.isErrorsTruncated()).isTrue();
+    }
+
+    private CycleCountReport importCsv(String csv) {
+        return cycleCounts.importCounts(stream(csv), CycleCountService.Format.CSV, "test");
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records each chunk instead of applying it, and reports every line as applied with its quantity unchanged.
+     */
+    private final class RecordingCycleCountService extends CycleCountService {
+
+        @Override
+        ChunkResult applyInTransaction(List<CountedLine> lines) {
+            chunks.add(List.copyOf(lines));
+            List<CountedItem> applied = new ArrayList<>();
+            for (CountedLine line : lines) {
+                InventoryItem item = InventoryItem.builder()
+                        .skuCode(line.skuCode())
+                        .quantity(line.quantity())
+                        .availableQuantity(line.quantity())
+                        .build();
+                applied.add(new CountedItem(item, line.quantity(), line.quantity()));
+            }
+            return new ChunkResult(applied, List.of());
+        }
+    }
+
+    private final class RecordingEmitter implements Emitter<Map<String, Object>> {
+
+        @Override
+        public CompletionStage<Void> send(Map<String, Object> event) {
+            published.add(event);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public <M extends Message<? extends Map<String, Object>>> void send(M message) {
+            published.add(message.getPayload());
+        }
+
+        @Override
+        public void complete() {
+        }
+
+        @Override
+        public void error(Exception e) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean hasRequests() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.InventoryRequest;
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.dto.ReservationRequest;
+import com.ecommerce.inventory.testsupport.KafkaTestResource;
+import com.ecommerce.inventory.testsupport.PostgresTestResource;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link InventoryCacheService} backed by Testcontainers Postgres and Kafka.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@QuarkusTestResource(KafkaTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class InventoryCacheServiceIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Inject
+    InventoryCacheService inventoryCache;
+
+    @Inject
+    InventoryService inventoryService;
+
+    @Inject
+    @CacheName("inventoryItems")
+    Cache inventoryItems;
+
+    @Test
+    @DisplayName("An entry cached again while the transaction is open is evicted after commit")
+    void evict_againAfterCommit() {
+        String sku = "SKU-CACHE-" + UUID.randomUUID();
+        CaffeineCache cache = inventoryItems.as(CaffeineCache.class);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            cache.put(sku, CompletableFuture.completedFuture(InventoryResponse.builder().skuCode(sku).build()));
+            inventoryCache.evict(sku);
+            assertThat(cache.getIfPresent(sku)).isNull();
+
+            // A concurrent read of the old row while the change is not committed yet
+            cache.put(sku, CompletableFuture.completedFuture(InventoryResponse.builder().skuCode(sku).build()));
+        });
+
+        assertThat(cache.getIfPresent(sku)).isNull();
+    }
+
+    @Test
+    @DisplayName("A repeated reservation is answered through the inventoryItems cache")
+    void replay_readsThroughCache() {
+        String sku = "SKU-CACHE-" + UUID.randomUUID();
+        inventoryService.createInventoryItem(InventoryRequest.builder()
+                .productId(UUID.randomUUID())
+                .skuCode(sku)
+                .quantity(10)
+                .unitCost(BigDecimal.ONE)
+                .build());
+        ReservationRequest reservation = ReservationRequest.builder()
+                .skuCode(sku)
+                .quantity(2)
+                .reservationId(UUID.randomUUID().toString())
+                .build();
+        inventoryService.reserveStock(reservation);
+        CaffeineCache cache = inventoryItems.as(CaffeineCache.class);
+        assertThat(cache.getIfPresent(sku)).isNull();
+
+        InventoryResponse replayed = inventoryService.reserveStock(reservation);
+
+        assertThat(replayed.getAvailableQuantity()).isEqualTo(8);
+        assertThat(cache.getIfPresent(sku)).isNotNull();
+    }
+}
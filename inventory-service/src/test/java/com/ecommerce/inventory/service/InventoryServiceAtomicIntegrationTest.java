@@ -0,0 +1,152 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.InventoryRequest;
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.dto.ReleaseRequest;
+import com.ecommerce.inventory.dto.ReservationRequest;
+import com.ecommerce.inventory.dto.StockAdjustment;
+import com.ecommerce.inventory.exception.InsufficientStockException;
+import com.ecommerce.inventory.exception.InventoryItemNotFoundException;
+import com.ecommerce.inventory.exception.ReservationConflictException;
+import com.ecommerce.inventory.testsupport.KafkaTestResource;
+import com.ecommerce.inventory.testsupport.PostgresTestResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for the {@link ReservationLockMode#ATOMIC} paths of {@link InventoryService}, backed by
+ * Testcontainers Postgres and Kafka.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@QuarkusTestResource(KafkaTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class InventoryServiceAtomicIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Inject
+    InventoryService inventoryService;
+
+    @Inject
+    StockShardService shardService;
+
+    @Test
+    @DisplayName("Reserving within the available units updates the row")
+    void reserve_available() {
+        String sku = createItem(10);
+
+        InventoryResponse response = inventoryService.reserveStock(reservation(sku, 4));
+
+        assertThat(response.getReservedQuantity()).isEqualTo(4);
+        assertThat(response.getAvailableQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Reserving more than is available fails and leaves the row unchanged")
+    void reserve_insufficientStock() {
+        String sku = createItem(3);
+
+        assertThatThrownBy(() -> inventoryService.reserveStock(reservation(sku, 4)))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(inventoryService.getInventoryBySkuCode(sku).getAvailableQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Reserving an unknown SKU fails as not found")
+    void reserve_skuNotFound() {
+        assertThatThrownBy(() -> inventoryService.reserveStock(reservation("SKU-ATOMIC-MISSING", 1)))
+                .isInstanceOf(InventoryItemNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Reserving a sharded SKU falls back to its shards")
+    void reserve_fallsBackToShards() {
+        String sku = createItem(10);
+        shardService.setShardCount(sku, 4);
+
+        InventoryResponse response = inventoryService.reserveStock(reservation(sku, 7));
+
+        assertThat(response.getAvailableQuantity()).isEqualTo(3);
+        assertThatThrownBy(() -> inventoryService.reserveStock(reservation(sku, 4)))
+                .isInstanceOf(InsufficientStockException.class);
+    }
+
+    @Test
+    @DisplayName("Releasing a hold returns its units; releasing or consuming a reservation with no hold is rejected")
+    void settle_requiresLedgerLine() {
+        String sku = createItem(10);
+        ReservationRequest hold = reservation(sku, 4);
+        inventoryService.reserveStock(hold);
+
+        InventoryResponse released = inventoryService.releaseStock(release(sku, 4, hold.getReservationId()));
+        assertThat(released.getAvailableQuantity()).isEqualTo(10);
+
+        String unknown = UUID.randomUUID().toString();
+        inventoryService.reserveStock(reservation(sku, 4));
+        assertThatThrownBy(() -> inventoryService.releaseStock(release(sku, 4, unknown)))
+                .isInstanceOf(ReservationConflictException.class);
+        assertThatThrownBy(() -> inventoryService.consumeReservedStock(sku, 4, unknown))
+                .isInstanceOf(ReservationConflictException.class);
+        assertThat(inventoryService.getInventoryBySkuCode(sku).getReservedQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("A keyed adjustment is applied once, however often it is repeated")
+    void adjustOnce_ignoresRepeatedKey() {
+        String sku = createItem(10);
+        String key = "adjust-" + UUID.randomUUID();
+        StockAdjustment restock = StockAdjustment.builder().skuCode(sku).adjustment(3).reason("test").build();
+
+        assertThat(inventoryService.adjustStockOnce(key, restock).getQuantity()).isEqualTo(13);
+        assertThat(inventoryService.adjustStockOnce(key, restock).getQuantity()).isEqualTo(13);
+        assertThat(inventoryService.adjustStockOnce("adjust-" + UUID.randomUUID(), restock).getQuantity())
+                .isEqualTo(16);
+    }
+
+    private String createItem(int quantity) {
+        String sku = "SKU-ATOMIC-" + UUID.randomUUID();
+        inventoryService.createInventoryItem(InventoryRequest.builder()
+                .productId(UUID.randomUUID())
+                .skuCode(sku)
+                .quantity(quantity)
+                .unitCost(BigDecimal.ONE)
+                .build());
+        return sku;
+    }
+
+    private static ReleaseRequest release(String sku, int quantity, String reservationId) {
+        return ReleaseRequest.builder()
+                .skuCode(sku)
+                .quantity(quantity)
+                .reservationId(reservationId)
+                .build();
+    }
+
+    private static ReservationRequest reservation(String sku, int quantity) {
+        return ReservationRequest.builder()
+                .skuCode(sku)
+                .quantity(quantity)
+                .reservationId(UUID.randomUUID().toString())
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.InventoryRequest;
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.dto.OrderReservationRequest;
+import com.ecommerce.inventory.dto.OrderReservationResponse;
+import com.ecommerce.inventory.dto.ReservationLine;
+import com.ecommerce.inventory.exception.InsufficientStockException;
+import com.ecommerce.inventory.exception.InventoryItemNotFoundException;
+import com.ecommerce.inventory.exception.ReservationConflictException;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import com.ecommerce.inventory.testsupport.KafkaTestResource;
+import com.ecommerce.inventory.testsupport.PostgresTestResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for {@link InventoryService#reserveOrder} and {@code POST /api/inventory/reservations}, backed
+ * by Testcontainers Postgres and Kafka.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@QuarkusTestResource(KafkaTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class InventoryServiceReserveOrderIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Inject
+    InventoryService inventoryService;
+
+    @Inject
+    StockReservationRepository reservationRepository;
+
+    @Test
+    @DisplayName("Reserving an order takes every line")
+    void reserveOrder_takesEveryLine() {
+        String first = createItem(10);
+        String second = createItem(5);
+
+        OrderReservationResponse response = inventoryService.reserveOrder(
+                order(UUID.randomUUID().toString(), line(first, 4), line(second, 5)));
+
+        assertThat(response.getItems())
+                .extracting(InventoryResponse::getSkuCode, InventoryResponse::getAvailableQuantity)
+                .containsExactlyInAnyOrder(
+                        tuple(first, 6),
+                        tuple(second, 0));
+        assertThat(reservationRepository.findByReservationId(response.getReservationId())).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("One short SKU fails the whole order and leaves every SKU and the ledger unchanged")
+    void reserveOrder_shortSku_rollsBackEveryLine() {
+        String plenty = createItem(10);
+        String scarce = createItem(2);
+        String reservationId = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> inventoryService.reserveOrder(
+                order(reservationId, line(plenty, 4), line(scarce, 3))))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining(scarce)
+                .hasMessageNotContaining(plenty);
+
+        assertThat(inventoryService.getInventoryBySkuCode(plenty).getAvailableQuantity()).isEqualTo(10);
+        assertThat(inventoryService.getInventoryBySkuCode(scarce).getAvailableQuantity()).isEqualTo(2);
+        assertThat(reservationRepository.findByReservationId(reservationId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Unknown SKUs fail the order with a 404 naming every one of them")
+    void reserveOrder_missingSkus_notFound() {
+        String known = createItem(10);
+        String missingA = "SKU-RESERVE-MISSING-" + UUID.randomUUID();
+        String missingB = "SKU-RESERVE-MISSING-" + UUID.randomUUID();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(order(UUID.randomUUID().toString(), line(missingA, 1), line(known, 1), line(missingB, 1)))
+        .when()
+                .post("/api/inventory/reservations")
+        .then()
+                .statusCode(404)
+                .body("message", Matchers.allOf(
+                        Matchers.containsString(missingA),
+                        Matchers.containsString(missingB),
+                        Matchers.not(Matchers.containsString(known))));
+
+        assertThat(inventoryService.getInventoryBySkuCode(known).getAvailableQuantity()).isEqualTo(10);
+        assertThatThrownBy(() -> inventoryService.reserveOrder(order(UUID.randomUUID().toString(), line(missingA, 1))))
+                .isInstanceOf(InventoryItemNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Replaying a reservation with the same lines takes nothing more")
+    void reserveOrder_sameLinesReplay_isIdempotent() {
+        String first = createItem(10);
+        String second = createItem(10);
+        String reservationId = UUID.randomUUID().toString();
+
+        inventoryService.reserveOrder(order(reservationId, line(first, 3), line(second, 2)));
+        // Lines are compared per SKU, in any order
+        OrderReservationResponse replay = inventoryService.reserveOrder(
+                order(reservationId, line(second, 2), line(first, 3)));
+
+        assertThat(replay.getItems())
+                .extracting(InventoryResponse::getSkuCode, InventoryResponse::getAvailableQuantity)
+                .containsExactlyInAnyOrder(
+                        tuple(first, 7),
+                        tuple(second, 8));
+        assertThat(reservationRepository.findByReservationId(reservationId)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Reusing a reservation id with other lines is a conflict and takes nothing")
+    void reserveOrder_sameIdOtherLines_conflict() {
+        String first = createItem(10);
+        String second = createItem(10);
+        String reservationId = UUID.randomUUID().toString();
+        inventoryService.reserveOrder(order(reservationId, line(first, 3)));
+
+        assertThatThrownBy(() -> inventoryService.reserveOrder(order(reservationId, line(first, 4))))
+                .isInstanceOf(ReservationConflictException.class);
+        assertThatThrownBy(() -> inventoryService.reserveOrder(order(reservationId, line(first, 3), line(second, 1))))
+                .isInstanceOf(ReservationConflictException.class);
+
+        assertThat(inventoryService.getInventoryBySkuCode(first).getAvailableQuantity()).isEqualTo(7);
+        assertThat(inventoryService.getInventoryBySkuCode(second).getAvailableQuantity()).isEqualTo(10);
+    }
+
+    private String createItem(int quantity) {
+        String sku = "SKU-RESERVE-" + UUID.randomUUID();
+        inventoryService.createInventoryItem(InventoryRequest.builder()
+                .productId(UUID.randomUUID())
+                .skuCode(sku)
+                .quantity(quantity)
+                .unitCost(BigDecimal.ONE)
+                .build());
+        return sku;
+    }
+
+    private static ReservationLine line(String sku, int quantity) {
+        return ReservationLine.builder().skuCode(sku).quantity(quantity).build();
+    }
+
+    private static OrderReservationRequest order(String reservationId, ReservationLine... lines) {
+        return OrderReservationRequest.builder()
+                .reservationId(reservationId)
+                .lines(Arrays.asList(lines))
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.StockLevel;
+import com.ecommerce.inventory.model.InventoryItem;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LowStockServiceTest {
+
+    private final List<Map<String, Object>> published = new ArrayList<>();
+
+    private LowStockService lowStock;
+
+    @BeforeEach
+    void setUp() {
+        lowStock = new LowStockService();
+        lowStock.inventoryEventEmitter = new RecordingEmitter();
+        lowStock.transactionSynchronizationRegistry = new NoTransaction();
+    }
+
+    @Test
+    @DisplayName("Falling to the threshold publishes low-stock and adds the SKU")
+    void crossingDown() {
+        lowStock.record(item("SKU-1", 10, true), -3);
+
+        assertThat(published).extracting(event -> event.get("eventType")).containsExactly("low-stock");
+        assertThat(published.get(0).get("availableQuantity")).isEqualTo(10);
+        assertThat(lowStock.getLowStockItems()).extracting(StockLevel::getSkuCode).containsExactly("SKU-1");
+    }
+
+    @Test
+    @DisplayName("Rising above the threshold publishes stock-recovered and removes the SKU")
+    void crossingUp() {
+        lowStock.record(item("SKU-1", 4, true), -8);
+        published.clear();
+
+        lowStock.record(item("SKU-1", 11, true), 7);
+
+        assertThat(published).extracting(event -> event.get("eventType")).containsExactly("stock-recovered");
+        assertThat(lowStock.getLowStockItems()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A change on either side of the threshold publishes nothing")
+    void noCrossing() {
+        lowStock.record(item("SKU-1", 15, true), -2);
+        lowStock.record(item("SKU-2", 5, true), -8);
+        published.clear();
+
+        lowStock.record(item("SKU-2", 3, true), -2);
+
+        assertThat(published).isEmpty();
+        assertThat(lowStock.getLowStockItems()).extracting(StockLevel::getSkuCode).containsExactly("SKU-2");
+        assertThat(lowStock.getLowStockItems().get(0).getCurrentLevel()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deactivating a low SKU publishes stock-recovered; reactivating it publishes low-stock")
+    void activeFlagChanges() {
+        lowStock.record(item("SKU-1", 2, true), -9);
+        published.clear();
+
+        lowStock.activeChanged(item("SKU-1", 2, false));
+        assertThat(published).extracting(event -> event.get("eventType")).containsExactly("stock-recovered");
+        assertThat(lowStock.getLowStockItems()).isEmpty();
+
+        lowStock.activeChanged(item("SKU-1", 2, true));
+        assertThat(published).extracting(event -> event.get("eventType"))
+                .containsExactly("stock-recovered", "low-stock");
+        assertThat(lowStock.getLowStockItems()).extracting(StockLevel::getSkuCode).containsExactly("SKU-1");
+    }
+
+    private static InventoryItem item(String skuCode, int available, boolean active) {
+        return InventoryItem.builder()
+                .productId(UUID.nameUUIDFromBytes(skuCode.getBytes()))
+                .skuCode(skuCode)
+                .quantity(available)
+                .reservedQuantity(0)
+                .availableQuantity(available)
+                .lowStockThreshold(10)
+                .restockThreshold(20)
+                .isActive(active)
+                .build();
+    }
+
+    private final class RecordingEmitter implements Emitter<Map<String, Object>> {
+
+        @Override
+        public CompletionStage<Void> send(Map<String, Object> event) {
+            published.add(event);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public <M extends Message<? extends Map<String, Object>>> void send(M message) {
+            published.add(message.getPayload());
+        }
+
+        @Override
+        public void complete() {
+        }
+
+        @Override
+        public void error(Exception e) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean hasRequests() {
+            return true;
+        }
+    }
+
+    /**
+     * Reports no active transaction, so the after-commit actions run at once.
+     */
+    private static final class NoTransaction implements TransactionSynchronizationRegistry {
+
+        @Override
+        public int getTransactionStatus() {
+            return Status.STATUS_NO_TRANSACTION;
+        }
+
+        @Override
+        public Object getTransactionKey() {
+            return null;
+        }
+
+        @Override
+        public void putResource(Object key, Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object getResource(Object key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void registerInterposedSynchronization(Synchronization sync) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setRollbackOnly() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean getRollbackOnly() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
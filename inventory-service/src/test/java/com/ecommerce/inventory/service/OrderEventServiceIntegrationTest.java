@@ -0,0 +1,166 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.InventoryRequest;
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.dto.event.OrderEvent;
+import com.ecommerce.inventory.model.ReservationState;
+import com.ecommerce.inventory.model.StockReservation;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import com.ecommerce.inventory.testsupport.KafkaTestResource;
+import com.ecommerce.inventory.testsupport.PostgresTestResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link OrderEventService} backed by Testcontainers Postgres and Kafka.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@QuarkusTestResource(KafkaTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class OrderEventServiceIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Inject
+    OrderEventService orderEventService;
+
+    @Inject
+    InventoryService inventoryService;
+
+    @Inject
+    StockReservationRepository reservationRepository;
+
+    @Test
+    @DisplayName("An order hold never expires and is released by a status update to CANCELLED")
+    void orderHold_lastsUntilCancelled() {
+        UUID productId = UUID.randomUUID();
+        String sku = createItem(productId);
+        String orderId = UUID.randomUUID().toString();
+
+        assertThat(orderEventService.applyOrderEvents(List.of(new OrderEvent(OrderEvent.ORDER_CREATED, orderId,
+                "PENDING", List.of(new OrderEvent.Item(productId, 2)))))).isEqualTo(1);
+        StockReservation hold = reservationRepository.findByReservationIdAndSkuCode(orderId, sku).orElseThrow();
+        assertThat(hold.getExpiresAt()).isNull();
+
+        inventoryService.expireReservations(1000);
+        assertThat(reservationRepository.findByReservationIdAndSkuCode(orderId, sku).orElseThrow().getState())
+                .isEqualTo(ReservationState.HELD);
+        assertThat(inventoryService.getInventoryBySkuCode(sku).getAvailableQuantity()).isEqualTo(8);
+
+        assertThat(orderEventService.applyOrderEvents(List.of(
+                new OrderEvent(OrderEvent.ORDER_STATUS_UPDATED, orderId, "CANCELLED", null)))).isEqualTo(1);
+        assertThat(reservationRepository.findByReservationIdAndSkuCode(orderId, sku).orElseThrow().getState())
+                .isEqualTo(ReservationState.RELEASED);
+        assertThat(inventoryService.getInventoryBySkuCode(sku).getAvailableQuantity()).isEqualTo(10);
+
+        // The ORDER_CANCELLED that follows finds the cancellation already applied
+        assertThat(orderEventService.applyOrderEvents(List.of(
+                new OrderEvent(OrderEvent.ORDER_CANCELLED, orderId, "CANCELLED", null)))).isZero();
+    }
+
+    @Test
+    @DisplayName("Shipping an order consumes its hold: the units leave the quantity and the reservation")
+    void orderHold_consumedWhenShipped() {
+        UUID productId = UUID.randomUUID();
+        String sku = createItem(productId);
+        String orderId = UUID.randomUUID().toString();
+        orderEventService.applyOrderEvents(List.of(new OrderEvent(OrderEvent.ORDER_CREATED, orderId, "PENDING",
+                List.of(new OrderEvent.Item(productId, 2)))));
+
+        assertThat(orderEventService.applyOrderEvents(List.of(
+                new OrderEvent(OrderEvent.ORDER_STATUS_UPDATED, orderId, "SHIPPED", null)))).isEqualTo(1);
+
+        assertThat(reservationRepository.findByReservationIdAndSkuCode(orderId, sku).orElseThrow().getState())
+                .isEqualTo(ReservationState.CONSUMED);
+        InventoryResponse item = inventoryService.getInventoryBySkuCode(sku);
+        assertThat(item.getQuantity()).isEqualTo(8);
+        assertThat(item.getReservedQuantity()).isZero();
+        assertThat(item.getAvailableQuantity()).isEqualTo(8);
+
+        // Neither a later fulfilment status nor a cancellation returns or takes the units again
+        assertThat(orderEventService.applyOrderEvents(List.of(
+                new OrderEvent(OrderEvent.ORDER_STATUS_UPDATED, orderId, "DELIVERED", null),
+                new OrderEvent(OrderEvent.ORDER_CANCELLED, orderId, "CANCELLED", null)))).isZero();
+        assertThat(inventoryService.getInventoryBySkuCode(sku).getQuantity()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("An order created and shipped in one batch is recorded as consumed")
+    void orderHold_createdAndShippedInOneBatch() {
+        UUID productId = UUID.randomUUID();
+        String sku = createItem(productId);
+        String orderId = UUID.randomUUID().toString();
+
+        assertThat(orderEventService.applyOrderEvents(List.of(
+                new OrderEvent(OrderEvent.ORDER_CREATED, orderId, "PENDING", List.of(new OrderEvent.Item(productId, 3))),
+                new OrderEvent(OrderEvent.ORDER_STATUS_UPDATED, orderId, "SHIPPED", null)))).isEqualTo(2);
+
+        assertThat(reservationRepository.findByReservationIdAndSkuCode(orderId, sku).orElseThrow().getState())
+                .isEqualTo(ReservationState.CONSUMED);
+        InventoryResponse item = inventoryService.getInventoryBySkuCode(sku);
+        assertThat(item.getQuantity()).isEqualTo(7);
+        assertThat(item.getReservedQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("An ORDER_CREATED that arrives after its order's cancellation takes no hold")
+    void cancelledBeforeCreated_takesNoHold() {
+        UUID productId = UUID.randomUUID();
+        String sku = createItem(productId);
+        String orderId = UUID.randomUUID().toString();
+
+        assertThat(orderEventService.applyOrderEvents(List.of(
+                new OrderEvent(OrderEvent.ORDER_CANCELLED, orderId, "CANCELLED", null)))).isZero();
+        assertThat(orderEventService.applyOrderEvents(List.of(new OrderEvent(OrderEvent.ORDER_CREATED, orderId,
+                "PENDING", List.of(new OrderEvent.Item(productId, 2)))))).isZero();
+
+        assertThat(reservationRepository.findByReservationId(orderId)).isEmpty();
+        assertThat(inventoryService.getInventoryBySkuCode(sku).getAvailableQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Within one batch, a cancellation ahead of its ORDER_CREATED also leaves the order without a hold")
+    void cancelledBeforeCreatedInOneBatch_takesNoHold() {
+        UUID productId = UUID.randomUUID();
+        String sku = createItem(productId);
+        String orderId = UUID.randomUUID().toString();
+
+        assertThat(orderEventService.applyOrderEvents(List.of(
+                new OrderEvent(OrderEvent.ORDER_CANCELLED, orderId, "CANCELLED", null),
+                new OrderEvent(OrderEvent.ORDER_CREATED, orderId, "PENDING",
+                        List.of(new OrderEvent.Item(productId, 2)))))).isZero();
+
+        assertThat(reservationRepository.findByReservationId(orderId)).isEmpty();
+        assertThat(inventoryService.getInventoryBySkuCode(sku).getAvailableQuantity()).isEqualTo(10);
+    }
+
+    private String createItem(UUID productId) {
+        String sku = "SKU-ORDER-" + productId;
+        inventoryService.createInventoryItem(InventoryRequest.builder()
+                .productId(productId)
+                .skuCode(sku)
+                .quantity(10)
+                .unitCost(BigDecimal.ONE)
+                .build());
+        return sku;
+    }
+}
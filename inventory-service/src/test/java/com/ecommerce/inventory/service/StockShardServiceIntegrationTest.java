@@ -0,0 +1,128 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.StockShardRepository;
+import com.ecommerce.inventory.testsupport.PostgresTestResource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link StockShardService} backed by Testcontainers Postgres.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class StockShardServiceIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Inject
+    StockShardService shardService;
+
+    @Inject
+    InventoryRepository inventoryRepository;
+
+    @Inject
+    StockShardRepository shardRepository;
+
+    @Test
+    @DisplayName("Sharding spreads the available units evenly over the shards")
+    void setShardCount_splitsAvailable() {
+        String sku = createItem(10, 0);
+
+        shardService.setShardCount(sku, 4);
+
+        assertThat(shards(sku)).containsExactly(3, 3, 2, 2);
+    }
+
+    @Test
+    @DisplayName("A take larger than any one shard locks every shard and spans them")
+    void take_spansShards() {
+        String sku = createItem(10, 0);
+        shardService.setShardCount(sku, 4);
+
+        assertThat(take(sku, 4, 5)).isEqualTo(StockShardService.Take.TAKEN);
+
+        assertThat(Arrays.stream(shards(sku)).sum()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("A take larger than all shards together is insufficient and takes nothing")
+    void take_insufficient() {
+        String sku = createItem(10, 0);
+        shardService.setShardCount(sku, 4);
+
+        assertThat(take(sku, 4, 11)).isEqualTo(StockShardService.Take.INSUFFICIENT);
+
+        assertThat(Arrays.stream(shards(sku)).sum()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("A take from a SKU whose shards are gone reports it as not sharded")
+    void take_notSharded() {
+        String sku = createItem(10, 0);
+
+        assertThat(take(sku, 4, 1)).isEqualTo(StockShardService.Take.NOT_SHARDED);
+    }
+
+    @Test
+    @DisplayName("Merging the shards back moves their units onto the item row")
+    void setShardCount_mergesShards() {
+        String sku = createItem(10, 2);
+        shardService.setShardCount(sku, 4);
+        take(sku, 4, 3);
+
+        InventoryItem merged = shardService.setShardCount(sku, 0);
+
+        assertThat(merged.getShardCount()).isZero();
+        assertThat(merged.getAvailableQuantity()).isEqualTo(5);
+        assertThat(merged.getReservedQuantity()).isEqualTo(5);
+        assertThat(shards(sku)).isEmpty();
+    }
+
+    private String createItem(int quantity, int reserved) {
+        String sku = "SKU-SHARD-" + UUID.randomUUID();
+        QuarkusTransaction.requiringNew().run(() -> {
+            InventoryItem item = new InventoryItem();
+            item.setProductId(UUID.randomUUID());
+            item.setSkuCode(sku);
+            item.setQuantity(quantity);
+            item.setReservedQuantity(reserved);
+            item.setLowStockThreshold(1);
+            item.setRestockThreshold(2);
+            item.setUnitCost(BigDecimal.ONE);
+            item.setIsActive(true);
+            item.calculateAvailableQuantity();
+            inventoryRepository.persist(item);
+        });
+        return sku;
+    }
+
+    private StockShardService.Take take(String sku, int shardCount, int quantity) {
+        return QuarkusTransaction.requiringNew().call(() -> shardService.take(sku, shardCount, quantity));
+    }
+
+    private int[] shards(String sku) {
+        return QuarkusTransaction.requiringNew().call(() -> shardRepository.lockShards(sku));
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.order.client;
+
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+
+import java.util.Map;
+
+@RegisterRestClient(configKey = "inventory-service")
+@Path("/api/inventory")
+public interface InventoryServiceClient {
+
+    /**
+     * Adjusts the stock of one SKU ({@code skuCode}, {@code adjustment}, {@code reason}, {@code referenceId}).
+     * Inventory-service applies an {@code Idempotency-Key} once, so a caller retrying after an unknown outcome passes
+     * the same key.
+     */
+    @POST
+    @Path("/adjust")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 5000)
+    Response adjustStock(@HeaderParam("Idempotency-Key") String idempotencyKey, Map<String, Object> adjustment);
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.order.client;
 
 import com.ecommerce.order.dto.ProductStockUpdateRequest;
+import com.ecommerce.order.dto.catalog.ProductSnapshot;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -45,19 +46,16 @@ public interface ProductServiceClient {
     Response updateProductStock(ProductStockUpdateRequest request);
 
     @POST
-    @Path("/check-stock")
+    @Path("/batch")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 5000)
-    @Fallback(fallbackMethod = "checkStockAvailabilityFallback")
-    Response checkStockAvailability(List<Map<String, Object>> items);
+    List<ProductSnapshot> getProductsByIds(List<UUID> productIds);
 
-    @POST
-    @Path("/update-inventory")
-    @Consumes(MediaType.APPLICATION_JSON)
-    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 5000)
-    @Fallback(fallbackMethod = "updateInventoryFallback")
-    Response updateInventory(List<Map<String, Object>> inventoryUpdates);
+    @GET
+    @Path("/export")
+    @Produces(MediaType.APPLICATION_JSON)
+    List<ProductSnapshot> exportProducts(@QueryParam("afterId") UUID afterId, @QueryParam("limit") int limit);
 
     default Response checkProductStockFallback(UUID productId, int quantity) {
         return Response.ok(false).build();
@@ -74,12 +72,4 @@ public interface ProductServiceClient {
     default Response updateProductStockFallback(ProductStockUpdateRequest request) {
         return Response.ok().build();
     }
-
-    default Response checkStockAvailabilityFallback(List<Map<String, Object>> items) {
-        return Response.ok().build();
-    }
-
-    default Response updateInventoryFallback(List<Map<String, Object>> inventoryUpdates) {
-        return Response.ok().build();
-    }
 }
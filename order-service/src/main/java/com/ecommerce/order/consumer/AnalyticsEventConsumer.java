@@ -0,0 +1,89 @@
+package com.ecommerce.order.consumer;
+
+import com.ecommerce.order.dto.analytics.OrderSalesEvent;
+import com.ecommerce.order.service.analytics.SalesAnalyticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.common.annotation.Blocking;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feeds order-events into the sales rollups in poll batches.
+ * <p>
+ * Unlike the trending consumer this channel uses one shared consumer group, since the rollups live in the
+ * database. A batch is acknowledged only after it has been applied; a failure propagates so the batch is retried,
+ * and {@link SalesAnalyticsService} skips the events it has already applied. Once the retries are exhausted the
+ * events are applied one at a time and those that still fail are parked through {@link DeadLetterPublisher}, so a
+ * poison event cannot stop the channel. Events published without an {@code eventId} are identified by their topic,
+ * partition and offset.
+ */
+@ApplicationScoped
+public class AnalyticsEventConsumer {
+    private static final Logger log = Logger.getLogger(AnalyticsEventConsumer.class);
+
+    @Inject
+    SalesAnalyticsService analyticsService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    DeadLetterPublisher deadLetters;
+
+    @Incoming("analytics-order-events")
+    @Blocking
+    @Retry(maxRetries = 3, delay = 1000)
+    @Fallback(fallbackMethod = "parkOrderEvents")
+    public void handleOrderEvents(ConsumerRecords<String, String> records) {
+        List<OrderSalesEvent> events = new ArrayList<>(records.count());
+        for (ConsumerRecord<String, String> record : records) {
+            OrderSalesEvent event = parse(record);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        int applied = analyticsService.applyEvents(events);
+        log.infof("Applied %d of %d order events to sales analytics", applied, records.count());
+    }
+
+    void parkOrderEvents(ConsumerRecords<String, String> records) {
+        int applied = 0;
+        for (ConsumerRecord<String, String> record : records) {
+            OrderSalesEvent event = parse(record);
+            if (event == null) {
+                continue;
+            }
+            try {
+                applied += analyticsService.applyEvents(List.of(event));
+            } catch (RuntimeException e) {
+                log.errorf(e, "Failed to apply order event %s to sales analytics after retries", event.eventId());
+                deadLetters.park("analytics-order-events", List.of(record.value()), e);
+            }
+        }
+        log.infof("Applied %d of %d order events to sales analytics one by one", applied, records.count());
+    }
+
+    private OrderSalesEvent parse(ConsumerRecord<String, String> record) {
+        try {
+            OrderSalesEvent event = objectMapper.readValue(record.value(), OrderSalesEvent.class);
+            UUID recordId = UUID.nameUUIDFromBytes((record.topic() + "-" + record.partition() + "-"
+                    + record.offset()).getBytes(StandardCharsets.UTF_8));
+            return event.withRecordMetadata(recordId, Instant.ofEpochMilli(record.timestamp()));
+        } catch (Exception e) {
+            log.errorf(e, "Skipping malformed order event: %s", record.value());
+            return null;
+        }
+    }
+}
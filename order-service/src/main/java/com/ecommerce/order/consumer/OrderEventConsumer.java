@@ -1,92 +1,145 @@
 package com.ecommerce.order.consumer;
 
+import com.ecommerce.order.exception.ResourceNotFoundException;
 import com.ecommerce.order.model.OrderStatus;
-import com.ecommerce.order.service.OrderService;
+import com.ecommerce.order.service.StatusEventService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.common.annotation.Blocking;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.jboss.logging.Logger;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Consumes payment and inventory events in poll batches.
+ * <p>
+ * Each batch is deserialized into {@link OrderStatusEvent}s and grouped by order id, keeping the
+ * partition order of the events. All transitions for one order are applied in a single transaction by
+ * {@link StatusEventService}, which skips event types the order has already applied, so a redelivered batch changes
+ * nothing. The batch is acknowledged, and its offsets committed, only after every order has been applied; a
+ * failure propagates so the batch is retried instead of being dropped. Once the retries are exhausted
+ * the batch is applied once more, and the events of every order that still fails are parked through
+ * {@link DeadLetterPublisher}, so one poison order cannot stop the channel. Per-order ordering across
+ * batches relies on payment-service and inventory-service keying records by order id and on the channel's
+ * {@code partitions} consumers each owning a disjoint set of partitions.
+ */
 @ApplicationScoped
 public class OrderEventConsumer {
     private static final Logger log = Logger.getLogger(OrderEventConsumer.class);
 
     @Inject
-    OrderService orderService;
+    StatusEventService statusEventService;
 
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    DeadLetterPublisher deadLetters;
+
     @Incoming("payment-events")
-    public void handlePaymentEvent(String eventJson) {
-        try {
-            Map<String, Object> event = objectMapper.readValue(eventJson, Map.class);
-            String eventType = (String) event.get("eventType");
-            UUID orderId = UUID.fromString((String) event.get("orderId"));
+    @Blocking
+    @Retry(maxRetries = 3, delay = 1000)
+    @Fallback(fallbackMethod = "parkPaymentEvents")
+    public void handlePaymentEvents(List<String> eventsJson) {
+        applyBatch("payment", eventsJson, false);
+    }
 
-            log.infof("Received payment event: %s for order: %s", eventType, orderId);
+    @Incoming("inventory-events")
+    @Blocking
+    @Retry(maxRetries = 3, delay = 1000)
+    @Fallback(fallbackMethod = "parkInventoryEvents")
+    public void handleInventoryEvents(List<String> eventsJson) {
+        applyBatch("inventory", eventsJson, false);
+    }
 
-            switch (eventType) {
-                case "payment-received":
-                    orderService.updateOrderStatus(
-                        orderId,
-                        OrderStatus.PAID
-                    );
-                    break;
-                case "payment-failed":
-                    orderService.updateOrderStatus(
-                        orderId,
-                        OrderStatus.CANCELLED
-                    );
-                    break;
-                case "payment-refunded":
-                    orderService.updateOrderStatus(
-                        orderId,
-                        OrderStatus.REFUNDED
-                    );
-                    break;
-                default:
-                    log.warnf("Unknown payment event type: %s", eventType);
+    void parkPaymentEvents(List<String> eventsJson) {
+        applyBatch("payment", eventsJson, true);
+    }
+
+    void parkInventoryEvents(List<String> eventsJson) {
+        applyBatch("inventory", eventsJson, true);
+    }
+
+    /**
+     * Applies the transitions of a batch order by order. With {@code park}, an order that fails has its events
+     * parked instead of failing the batch.
+     */
+    private void applyBatch(String source, List<String> eventsJson, boolean park) {
+        Map<UUID, Map<String, OrderStatus>> transitionsByOrder = new LinkedHashMap<>();
+        Map<UUID, List<String>> eventsByOrder = new HashMap<>();
+        for (String eventJson : eventsJson) {
+            OrderStatusEvent event = parse(eventJson);
+            if (event == null) {
+                continue;
+            }
+            OrderStatus target = targetStatus(event.eventType());
+            if (target != null) {
+                transitionsByOrder.computeIfAbsent(event.orderId(), id -> new LinkedHashMap<>())
+                        .putIfAbsent(event.eventType(), target);
+                eventsByOrder.computeIfAbsent(event.orderId(), id -> new ArrayList<>()).add(eventJson);
             }
-        } catch (Exception e) {
-            log.errorf(e, "Error processing payment event: %s", eventJson);
         }
-    }
 
-    @Incoming("inventory-events")
-    public void handleInventoryEvent(String eventJson) {
-        try {
-            Map<String, Object> event = objectMapper.readValue(eventJson, Map.class);
-            String eventType = (String) event.get("eventType");
-            String orderId = (String) event.get("orderId");
+        log.infof("Received %d %s events for %d orders", eventsJson.size(), source, transitionsByOrder.size());
 
-            log.infof("Received inventory event: %s for order: %s", eventType, orderId);
+        transitionsByOrder.forEach((orderId, targets) -> {
+            try {
+                statusEventService.applyEvents(orderId, targets);
+            } catch (ResourceNotFoundException e) {
+                // Not retryable: the order will never appear by redelivering the event
+                log.warnf("Skipping %s events for unknown order: %s", source, orderId);
+            } catch (RuntimeException e) {
+                if (!park) {
+                    throw e;
+                }
+                log.errorf(e, "Failed to apply %s events for order %s after retries", source, orderId);
+                deadLetters.park(source + "-events", eventsByOrder.get(orderId), e);
+            }
+        });
+    }
 
-            switch (eventType) {
-                case "inventory-reserved":
-                    orderService.updateOrderStatus(
-                        UUID.fromString(orderId),
-                        OrderStatus.PROCESSING
-                    );
-                    break;
-                case "inventory-updated":
-                    // Handle inventory update (e.g., update order items if needed)
-                    break;
-                case "inventory-out-of-stock":
-                    orderService.updateOrderStatus(
-                        UUID.fromString(orderId),
-                        OrderStatus.CANCELLED
-                    );
-                    break;
-                default:
-                    log.warnf("Unknown inventory event type: %s", eventType);
+    private OrderStatusEvent parse(String eventJson) {
+        try {
+            OrderStatusEvent event = objectMapper.readValue(eventJson, OrderStatusEvent.class);
+            if (event.eventType() == null || event.orderId() == null) {
+                log.errorf("Skipping event without eventType or orderId: %s", eventJson);
+                return null;
             }
+            return event;
         } catch (Exception e) {
-            log.errorf(e, "Error processing inventory event: %s", eventJson);
+            log.errorf(e, "Skipping malformed event: %s", eventJson);
+            return null;
+        }
+    }
+
+    private OrderStatus targetStatus(String eventType) {
+        switch (eventType) {
+            case "payment-received":
+                return OrderStatus.PAID;
+            case "payment-failed":
+            case "inventory-out-of-stock":
+                return OrderStatus.CANCELLED;
+            case "payment-refunded":
+                return OrderStatus.REFUNDED;
+            case "inventory-reserved":
+                return OrderStatus.PROCESSING;
+            case "inventory-updated":
+            case "inventory-released":
+            case "inventory-consumed":
+                // Inventory updates and settled holds follow the order status rather than change it
+                return null;
+            default:
+                log.warnf("Unknown event type: %s", eventType);
+                return null;
         }
     }
 }
@@ -0,0 +1,13 @@
+package com.ecommerce.order.consumer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.UUID;
+
+/**
+ * Typed view of the payment and inventory events consumed by {@link OrderEventConsumer}.
+ * Only the fields needed to drive order status transitions are bound.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OrderStatusEvent(String eventType, UUID orderId) {
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.order.consumer;
+
+import com.ecommerce.order.dto.catalog.ProductSnapshot;
+import com.ecommerce.order.service.catalog.ProductCatalogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the local product snapshot current from product-events.
+ * <p>
+ * Every instance needs every event, so the channel has no fixed consumer group and starts from the latest offset;
+ * history is covered by the bulk load in {@link ProductCatalogService}. Applying a batch only touches memory, so it
+ * runs on the event loop.
+ */
+@ApplicationScoped
+public class ProductEventConsumer {
+    private static final Logger log = Logger.getLogger(ProductEventConsumer.class);
+
+    @Inject
+    ProductCatalogService productCatalogService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Incoming("product-events")
+    public void handleProductEvents(List<String> eventsJson) {
+        List<ProductSnapshot> snapshots = new ArrayList<>(eventsJson.size());
+        for (String eventJson : eventsJson) {
+            try {
+                ProductSnapshot snapshot = objectMapper.readValue(eventJson, ProductSnapshot.class);
+                if (snapshot.id() != null) {
+                    snapshots.add(snapshot);
+                }
+            } catch (Exception e) {
+                log.errorf(e, "Skipping malformed product event: %s", eventJson);
+            }
+        }
+        productCatalogService.apply(snapshots);
+        log.debugf("Applied %d product events", snapshots.size());
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.order.consumer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Typed view of the order and product view events consumed by {@link TrendingEventConsumer}.
+ * Order events carry {@code items} only for {@code ORDER_CREATED}; view events carry just {@code productId}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TrendingEvent(String eventType, UUID productId, List<Item> items) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Item(UUID productId, Integer quantity) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.order.consumer;
+
+import com.ecommerce.order.service.recommendation.TrendingProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Feeds {@link TrendingProductService} from order-events and product-views.
+ * <p>
+ * Like the product snapshot, every instance needs every event, so both channels use a consumer group of their own
+ * per instance; {@link TrendingReplayListener} rewinds them to the start of the longest trending window when they
+ * are first assigned. Events are weighted at their record timestamp. Recording only touches memory, so batches are
+ * applied on the event loop.
+ */
+@ApplicationScoped
+public class TrendingEventConsumer {
+    private static final Logger log = Logger.getLogger(TrendingEventConsumer.class);
+
+    private static final String ORDER_CREATED = "ORDER_CREATED";
+
+    @Inject
+    TrendingProductService trendingProductService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Incoming("trending-order-events")
+    public void handleOrderEvents(ConsumerRecords<String, String> records) {
+        int lines = 0;
+        for (ConsumerRecord<String, String> record : records) {
+            TrendingEvent event = parse(record);
+            if (event == null || !ORDER_CREATED.equals(event.eventType()) || event.items() == null) {
+                continue;
+            }
+            Set<UUID> products = new HashSet<>();
+            for (TrendingEvent.Item item : event.items()) {
+                if (item.productId() != null && products.add(item.productId())) {
+                    trendingProductService.recordPurchase(item.productId(), record.timestamp());
+                    lines++;
+                }
+            }
+        }
+        log.debugf("Recorded %d purchased products from %d order events", lines, records.count());
+    }
+
+    @Incoming("trending-product-views")
+    public void handleProductViews(ConsumerRecords<String, String> records) {
+        int views = 0;
+        for (ConsumerRecord<String, String> record : records) {
+            TrendingEvent event = parse(record);
+            if (event != null && event.productId() != null) {
+                trendingProductService.recordView(event.productId(), record.timestamp());
+                views++;
+            }
+        }
+        log.debugf("Recorded %d product views", views);
+    }
+
+    private TrendingEvent parse(ConsumerRecord<String, String> record) {
+        try {
+            return objectMapper.readValue(record.value(), TrendingEvent.class);
+        } catch (Exception e) {
+            log.errorf(e, "Skipping malformed event from %s: %s", record.topic(), record.value());
+            return null;
+        }
+    }
+}
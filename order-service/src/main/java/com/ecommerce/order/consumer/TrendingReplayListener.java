@@ -0,0 +1,50 @@
+package com.ecommerce.order.consumer;
+
+import com.ecommerce.order.dto.recommendation.TrendingWindow;
+import io.smallrye.common.annotation.Identifier;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumerRebalanceListener;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.jboss.logging.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rewinds the trending channels to the start of the longest {@link TrendingWindow} the first time each partition is
+ * assigned, so a new instance ranks the same products as the ones already running. Partitions assigned again later
+ * keep their position, so no event is counted twice.
+ */
+@ApplicationScoped
+@Identifier("trending-replay")
+public class TrendingReplayListener implements KafkaConsumerRebalanceListener {
+    private static final Logger log = Logger.getLogger(TrendingReplayListener.class);
+
+    private final Set<TopicPartition> replayed = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        long from = System.currentTimeMillis() - TrendingWindow.longest().toMillis();
+        Map<TopicPartition, Long> timestamps = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            if (replayed.add(partition)) {
+                timestamps.put(partition, from);
+            }
+        }
+        if (timestamps.isEmpty()) {
+            return;
+        }
+        Map<TopicPartition, OffsetAndTimestamp> offsets = consumer.offsetsForTimes(timestamps);
+        offsets.forEach((partition, offset) -> {
+            if (offset != null) {
+                consumer.seek(partition, offset.offset());
+            }
+        });
+        log.infof("Replaying trending events since %d on %s", from, timestamps.keySet());
+    }
+}
@@ -1,18 +1,28 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.order.dto.FeedFormat;
 import com.ecommerce.order.dto.OrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.dto.bulk.BulkStatusUpdateResponse;
 import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.exception.InvalidOrderException;
+import com.ecommerce.order.service.BulkOrderStatusService;
+import com.ecommerce.order.service.OrderArchiveService;
 import com.ecommerce.order.service.OrderService;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Path("/api/orders")
@@ -24,6 +34,12 @@ public class OrderController {
     @Inject
     OrderService orderService;
 
+    @Inject
+    BulkOrderStatusService bulkOrderStatusService;
+
+    @Inject
+    OrderArchiveService orderArchiveService;
+
     @POST
     @Operation(summary = "Create a new order")
     public Response createOrder(@Valid OrderRequest request) {
@@ -64,6 +80,14 @@ public class OrderController {
         return orderService.updateOrderStatus(orderId, status);
     }
 
+    @POST
+    @Path("/status:bulk")
+    @Consumes({FeedFormat.APPLICATION_NDJSON, FeedFormat.TEXT_CSV})
+    @Operation(summary = "Apply a streamed NDJSON or CSV feed of order status changes")
+    public BulkStatusUpdateResponse bulkUpdateOrderStatus(@Context HttpHeaders headers, InputStream feed) {
+        return bulkOrderStatusService.apply(feed, FeedFormat.fromMediaType(headers.getMediaType()));
+    }
+
     @POST
     @Path("/{orderId}/cancel")
     @Operation(summary = "Cancel an order")
@@ -71,6 +95,39 @@ public class OrderController {
         return orderService.cancelOrder(orderId);
     }
 
+    @GET
+    @Path("/archive")
+    @Operation(summary = "Get archived orders created in [from, to), optionally for one customer")
+    public List<OrderResponse> getArchivedOrders(
+            @QueryParam("from") LocalDateTime from,
+            @QueryParam("to") LocalDateTime to,
+            @QueryParam("customerId") UUID customerId,
+            @QueryParam("page") @DefaultValue("0") int pageIndex,
+            @QueryParam("size") @DefaultValue("50") int pageSize) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidOrderException("Query parameters from and to are required and from must be before to");
+        }
+        return customerId != null
+                ? orderArchiveService.getArchivedCustomerOrders(customerId, from, to, pageIndex, pageSize)
+                : orderArchiveService.getArchivedOrders(from, to, pageIndex, pageSize);
+    }
+
+    @POST
+    @Path("/archive")
+    @Operation(summary = "Archive completed orders older than the configured retention now")
+    public Response archiveCompletedOrders() {
+        long archived = orderArchiveService.archiveCompletedOrders();
+        return Response.ok(Map.of("archived", archived)).build();
+    }
+
+    @POST
+    @Path("/projections/rebuild")
+    @Operation(summary = "Rebuild the order summary read model from the order tables")
+    public Response rebuildOrderProjection() {
+        long projected = orderService.rebuildOrderProjection();
+        return Response.ok(Map.of("projected", projected)).build();
+    }
+
     @GET
     @Path("/health")
     @Operation(summary = "Health check endpoint")
@@ -0,0 +1,59 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.dto.FeedFormat;
+import com.ecommerce.order.dto.export.OrderExportFilter;
+import com.ecommerce.order.exception.InvalidOrderException;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.OrderExportService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+@Path("/api/orders/export")
+@Produces({FeedFormat.APPLICATION_NDJSON, FeedFormat.TEXT_CSV})
+@Tag(name = "Order Export API", description = "APIs for streaming order exports")
+public class OrderExportController {
+
+    @Inject
+    OrderExportService orderExportService;
+
+    @GET
+    @Operation(summary = "Stream orders matching the given criteria as NDJSON or CSV")
+    public Response exportOrders(
+            @QueryParam("from") LocalDateTime from,
+            @QueryParam("to") LocalDateTime to,
+            @QueryParam("status") OrderStatus status,
+            @QueryParam("customerId") UUID customerId,
+            @QueryParam("productId") UUID productId,
+            @QueryParam("format") @DefaultValue("ndjson") String format) {
+        FeedFormat feedFormat;
+        try {
+            feedFormat = FeedFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOrderException("Unsupported export format: " + format);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidOrderException("from must be before to");
+        }
+
+        OrderExportFilter filter = OrderExportFilter.builder()
+                .createdFrom(from)
+                .createdTo(to)
+                .status(status)
+                .customerId(customerId)
+                .productId(productId)
+                .build();
+        StreamingOutput body = output -> orderExportService.export(filter, feedFormat, output);
+        return Response.ok(body, feedFormat.getMediaType())
+                .header("Content-Disposition",
+                        "attachment; filename=\"orders." + feedFormat.name().toLowerCase(Locale.ROOT) + "\"")
+                .build();
+    }
+}
@@ -2,6 +2,8 @@ package com.ecommerce.order.controller;
 
 import com.ecommerce.order.dto.returns.ReturnRequest;
 import com.ecommerce.order.dto.returns.ReturnResponse;
+import com.ecommerce.order.exception.InvalidOrderException;
+import com.ecommerce.order.service.OrderReturnService;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
@@ -19,48 +21,38 @@ import java.util.UUID;
 @Tag(name = "Order Return API", description = "APIs for order returns")
 public class OrderReturnController {
 
-    // TODO: Inject OrderReturnService when implemented
-    // @Inject
-    // OrderReturnService returnService;
+    @Inject
+    OrderReturnService returnService;
 
     @POST
     @Path("/{orderId}/return")
     @Operation(summary = "Initiate an order return")
     public Response initiateReturn(
             @PathParam("orderId") UUID orderId,
-            ReturnRequest request) {
-        // TODO: Implement return service
-        // ReturnResponse response = returnService.initiateReturn(orderId, request);
-        // return Response.status(Response.Status.CREATED).entity(response).build();
-        return Response.status(Response.Status.NOT_IMPLEMENTED)
-                .entity("{\"message\":\"Order return functionality not yet implemented\"}")
-                .build();
+            @Valid ReturnRequest request) {
+        ReturnResponse response = returnService.initiateReturn(orderId, request);
+        return Response.status(Response.Status.CREATED).entity(response).build();
     }
 
     @GET
     @Path("/returns")
-    @Operation(summary = "Get return history for the current user")
+    @Operation(summary = "Get return history for a customer")
     public Response getReturnHistory(
+            @QueryParam("customerId") UUID customerId,
             @QueryParam("page") @DefaultValue("0") int pageIndex,
             @QueryParam("size") @DefaultValue("10") int pageSize) {
-        // TODO: Implement return service
-        // Page<ReturnResponse> returns = returnService.getReturnHistory(pageable);
-        // return Response.ok(returns).build();
-        return Response.status(Response.Status.NOT_IMPLEMENTED)
-                .entity("{\"message\":\"Return history functionality not yet implemented\"}")
-                .build();
+        if (customerId == null) {
+            throw new InvalidOrderException("customerId is required");
+        }
+        List<ReturnResponse> returns = returnService.getReturnHistory(customerId, pageIndex, pageSize);
+        return Response.ok(returns).build();
     }
 
     @GET
     @Path("/returns/{returnId}")
     @Operation(summary = "Get return details")
     public Response getReturnDetails(@PathParam("returnId") UUID returnId) {
-        // TODO: Implement return service
-        // ReturnResponse response = returnService.getReturnDetails(returnId);
-        // return Response.ok(response).build();
-        return Response.status(Response.Status.NOT_IMPLEMENTED)
-                .entity("{\"message\":\"Return details functionality not yet implemented\"}")
-                .build();
+        ReturnResponse response = returnService.getReturnDetails(returnId);
+        return Response.ok(response).build();
     }
 }
-
@@ -2,12 +2,15 @@ package com.ecommerce.order.controller;
 
 import com.ecommerce.order.dto.tracking.OrderStatusUpdate;
 import com.ecommerce.order.dto.tracking.OrderTrackingResponse;
+import com.ecommerce.order.service.OrderTrackingService;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
-import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,32 +21,30 @@ import java.util.UUID;
 @Tag(name = "Order Tracking API", description = "APIs for order tracking")
 public class OrderTrackingController {
 
-    // TODO: Inject OrderTrackingService when implemented
-    // @Inject
-    // OrderTrackingService trackingService;
+    @Inject
+    OrderTrackingService trackingService;
 
     @GET
     @Path("/{orderId}/tracking")
     @Operation(summary = "Get order tracking information")
-    public Response getOrderTracking(@PathParam("orderId") UUID orderId) {
-        // TODO: Implement tracking service
-        // OrderTrackingResponse response = trackingService.getOrderTracking(orderId);
-        // return Response.ok(response).build();
-        return Response.status(Response.Status.NOT_IMPLEMENTED)
-                .entity("{\"message\":\"Order tracking functionality not yet implemented\"}")
-                .build();
+    public OrderTrackingResponse getOrderTracking(@PathParam("orderId") UUID orderId) {
+        return trackingService.getOrderTracking(orderId);
     }
 
     @GET
     @Path("/{orderId}/timeline")
     @Operation(summary = "Get order status timeline")
-    public Response getOrderTimeline(@PathParam("orderId") UUID orderId) {
-        // TODO: Implement tracking service
-        // List<OrderStatusUpdate> timeline = trackingService.getOrderTimeline(orderId);
-        // return Response.ok(timeline).build();
-        return Response.status(Response.Status.NOT_IMPLEMENTED)
-                .entity("{\"message\":\"Order timeline functionality not yet implemented\"}")
-                .build();
+    public List<OrderStatusUpdate> getOrderTimeline(@PathParam("orderId") UUID orderId) {
+        return trackingService.getOrderTimeline(orderId);
     }
-}
 
+    @GET
+    @Path("/{orderId}/tracking/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Blocking
+    @Operation(summary = "Stream order status changes as Server-Sent Events")
+    public Multi<OrderStatusUpdate> streamOrderTracking(@PathParam("orderId") UUID orderId) {
+        return trackingService.streamStatusUpdates(orderId);
+    }
+}
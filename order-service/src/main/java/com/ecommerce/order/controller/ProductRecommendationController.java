@@ -0,0 +1,47 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.dto.recommendation.RelatedProduct;
+import com.ecommerce.order.dto.recommendation.TrendingProduct;
+import com.ecommerce.order.service.recommendation.CoPurchaseService;
+import com.ecommerce.order.service.recommendation.TrendingProductService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.util.List;
+import java.util.UUID;
+
+@Path("/api/products")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Product Recommendation API", description = "APIs for product recommendations based on orders and views")
+public class ProductRecommendationController {
+
+    @Inject
+    CoPurchaseService coPurchaseService;
+
+    @Inject
+    TrendingProductService trendingProductService;
+
+    @GET
+    @Path("/trending")
+    @Operation(summary = "Get products trending now from recent purchases and views")
+    public Response getTrendingProducts(
+            @QueryParam("window") @DefaultValue("1h") String window,
+            @QueryParam("limit") @DefaultValue("20") int limit) {
+        List<TrendingProduct> trending = trendingProductService.getTrendingProducts(window, limit);
+        return Response.ok(trending).build();
+    }
+
+    @GET
+    @Path("/{productId}/related")
+    @Operation(summary = "Get products frequently bought together with a product")
+    public Response getRelatedProducts(
+            @PathParam("productId") UUID productId,
+            @QueryParam("limit") @DefaultValue("10") int limit) {
+        List<RelatedProduct> related = coPurchaseService.getRelatedProducts(productId, limit);
+        return Response.ok(related).build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.dto.analytics.CategorySalesResponse;
+import com.ecommerce.order.dto.analytics.ProductSalesResponse;
+import com.ecommerce.order.dto.analytics.RollupGranularity;
+import com.ecommerce.order.dto.analytics.SalesRollupResponse;
+import com.ecommerce.order.dto.analytics.StatusRollupResponse;
+import com.ecommerce.order.service.analytics.SalesAnalyticsService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Path("/api/analytics")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Sales Analytics API", description = "Sales reports served from pre-aggregated rollups; times are UTC")
+public class SalesAnalyticsController {
+
+    @Inject
+    SalesAnalyticsService analyticsService;
+
+    @GET
+    @Path("/sales")
+    @Operation(summary = "Get orders, units and revenue per hour or day in [from, to)")
+    public List<SalesRollupResponse> getSales(
+            @QueryParam("granularity") @DefaultValue("DAY") RollupGranularity granularity,
+            @QueryParam("from") LocalDateTime from,
+            @QueryParam("to") LocalDateTime to,
+            @QueryParam("currency") String currency) {
+        return analyticsService.getSales(granularity, from, to, currency);
+    }
+
+    @GET
+    @Path("/products")
+    @Operation(summary = "Get the best-selling products by revenue or units for the days in [from, to)")
+    public List<ProductSalesResponse> getTopProducts(
+            @QueryParam("from") LocalDate from,
+            @QueryParam("to") LocalDate to,
+            @QueryParam("currency") String currency,
+            @QueryParam("sort") @DefaultValue("revenue") String sort,
+            @QueryParam("limit") @DefaultValue("20") int limit) {
+        return analyticsService.getTopProducts(from, to, currency, sort, limit);
+    }
+
+    @GET
+    @Path("/categories")
+    @Operation(summary = "Get orders, units and revenue per category for the days in [from, to)")
+    public List<CategorySalesResponse> getCategories(
+            @QueryParam("from") LocalDate from,
+            @QueryParam("to") LocalDate to,
+            @QueryParam("currency") String currency) {
+        return analyticsService.getCategories(from, to, currency);
+    }
+
+    @GET
+    @Path("/statuses")
+    @Operation(summary = "Get the number of orders entering each status per hour or day in [from, to)")
+    public List<StatusRollupResponse> getStatuses(
+            @QueryParam("granularity") @DefaultValue("DAY") RollupGranularity granularity,
+            @QueryParam("from") LocalDateTime from,
+            @QueryParam("to") LocalDateTime to) {
+        return analyticsService.getStatuses(granularity, from, to);
+    }
+}
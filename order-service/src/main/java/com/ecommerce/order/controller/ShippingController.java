@@ -1,6 +1,7 @@
 package com.ecommerce.order.controller;
 
 import com.ecommerce.order.dto.shipping.ShippingOption;
+import com.ecommerce.order.service.shipping.ShippingRateService;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
@@ -8,45 +9,45 @@ import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @Path("/api/shipping")
 @Produces(MediaType.APPLICATION_JSON)
 @Tag(name = "Shipping API", description = "APIs for shipping operations")
 public class ShippingController {
 
-    // TODO: Inject ShippingService when implemented
-    // @Inject
-    // ShippingService shippingService;
+    @Inject
+    ShippingRateService shippingRateService;
 
     @GET
     @Path("/options")
     @Operation(summary = "Get available shipping options")
-    public Response getShippingOptions(
+    public List<ShippingOption> getShippingOptions(
             @QueryParam("country") String country,
             @QueryParam("postalCode") String postalCode) {
-        // TODO: Implement shipping service
-        // List<ShippingOption> options = shippingService.getAvailableShippingOptions(country, postalCode);
-        // return Response.ok(options).build();
-        return Response.status(Response.Status.NOT_IMPLEMENTED)
-                .entity("{\"message\":\"Shipping options functionality not yet implemented\"}")
-                .build();
+        return shippingRateService.getAvailableShippingOptions(country, postalCode);
     }
 
     @POST
     @Path("/calculate")
     @Operation(summary = "Calculate shipping costs")
-    public Response calculateShipping(
+    public List<ShippingOption> calculateShipping(
             @QueryParam("country") String country,
             @QueryParam("postalCode") String postalCode,
             @QueryParam("weight") Double weight,
             @QueryParam("value") Double value) {
-        // TODO: Implement shipping service
-        // List<ShippingOption> options = shippingService.calculateShippingOptions(country, postalCode, weight, value);
-        // return Response.ok(options).build();
-        return Response.status(Response.Status.NOT_IMPLEMENTED)
-                .entity("{\"message\":\"Shipping calculation functionality not yet implemented\"}")
-                .build();
+        return shippingRateService.calculateShippingOptions(
+                country, postalCode, weight, value != null ? BigDecimal.valueOf(value) : null);
+    }
+
+    @POST
+    @Path("/rates/reload")
+    @Operation(summary = "Reload the shipping rate tables")
+    public Response reloadRates() {
+        int services = shippingRateService.reload();
+        return Response.ok(Map.of("services", services)).build();
     }
 
     @GET
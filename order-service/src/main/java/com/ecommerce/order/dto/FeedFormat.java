@@ -0,0 +1,31 @@
+package com.ecommerce.order.dto;
+
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Line-oriented formats accepted by bulk imports and produced by streaming exports.
+ */
+public enum FeedFormat {
+    NDJSON(FeedFormat.APPLICATION_NDJSON),
+    CSV(FeedFormat.TEXT_CSV);
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    public static final String TEXT_CSV = "text/csv";
+
+    private final String mediaType;
+
+    FeedFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns CSV for {@code text/csv} and NDJSON otherwise.
+     */
+    public static FeedFormat fromMediaType(MediaType mediaType) {
+        return mediaType != null && mediaType.isCompatible(MediaType.valueOf(TEXT_CSV)) ? CSV : NDJSON;
+    }
+}
@@ -5,7 +5,6 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -36,16 +35,25 @@ public class OrderRequest {
     @NotBlank(message = "Billing address is required")
     private String billingAddress;
 
-    @NotNull(message = "Subtotal is required")
+    @NotBlank(message = "Shipping country is required")
+    private String shippingCountry;
+
+    private String shippingPostalCode;
+
+    /** Id of the option chosen from the shipping options; the fee is quoted by the server. */
+    @NotBlank(message = "Shipping option is required")
+    private String shippingOptionId;
+
+    /** Ignored: computed by the server from the priced lines. */
     private BigDecimal subtotal;
 
-    @NotNull(message = "Tax is required")
+    /** Ignored: computed by the server from the priced lines. */
     private BigDecimal tax;
 
-    @NotNull(message = "Shipping fee is required")
+    /** Ignored: the fee of {@code shippingOptionId} is quoted by the server. */
     private BigDecimal shippingFee;
 
-    @NotNull(message = "Total is required")
+    /** Ignored: computed by the server from the priced lines and the quoted fee. */
     private BigDecimal total;
 
     private String notes;
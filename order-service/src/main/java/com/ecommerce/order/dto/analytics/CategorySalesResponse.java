@@ -0,0 +1,11 @@
+package com.ecommerce.order.dto.analytics;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Orders, units and revenue of one category over a date range, in one currency. {@code categoryId} is
+ * {@code null} for products without a category.
+ */
+public record CategorySalesResponse(UUID categoryId, String currency, long orders, long units, BigDecimal revenue) {
+}
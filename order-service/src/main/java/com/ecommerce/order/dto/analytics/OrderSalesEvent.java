@@ -0,0 +1,32 @@
+package com.ecommerce.order.dto.analytics;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Typed view of an order-events record for sales analytics. {@code items}, {@code total} and {@code currency} are
+ * set on {@code ORDER_CREATED}; {@code status} on every order status event. {@code occurredAt} is not part of the
+ * payload and is taken from the record timestamp.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OrderSalesEvent(UUID eventId, String eventType, UUID orderId, String status, String currency,
+                              BigDecimal total, List<Item> items, Instant occurredAt) {
+
+    public static final String ORDER_CREATED = "ORDER_CREATED";
+
+    /**
+     * Returns a copy carrying the record's timestamp, and {@code fallbackEventId} if the event has no id of its own.
+     */
+    public OrderSalesEvent withRecordMetadata(UUID fallbackEventId, Instant recordTimestamp) {
+        return new OrderSalesEvent(eventId != null ? eventId : fallbackEventId, eventType, orderId, status, currency,
+                total, items, recordTimestamp);
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Item(UUID productId, UUID categoryId, Integer quantity, BigDecimal unitPrice) {
+    }
+}
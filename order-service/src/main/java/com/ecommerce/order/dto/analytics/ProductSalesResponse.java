@@ -0,0 +1,10 @@
+package com.ecommerce.order.dto.analytics;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Orders, units and revenue of one product over a date range, in one currency.
+ */
+public record ProductSalesResponse(UUID productId, String currency, long orders, long units, BigDecimal revenue) {
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.order.dto.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Orders placed, units sold and revenue in one UTC time bucket and currency.
+ */
+public record SalesRollupResponse(LocalDateTime bucketStart, String currency, long orders, long units,
+                                  BigDecimal revenue) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.order.dto.analytics;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of orders that entered {@code status} in one UTC time bucket.
+ */
+public record StatusRollupResponse(LocalDateTime bucketStart, String status, long orders) {
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.order.dto.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResponse {
+    private long total;
+    private long updated;
+    private long unchanged;
+    private long failed;
+    private List<BulkStatusUpdateResult> results;
+}
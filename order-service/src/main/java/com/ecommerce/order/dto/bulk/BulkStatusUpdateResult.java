@@ -0,0 +1,33 @@
+package com.ecommerce.order.dto.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkStatusUpdateResult {
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        INVALID,
+        NOT_FOUND,
+        REJECTED,
+        FAILED
+    }
+
+    private long line;
+    private UUID orderId;
+    private String orderNumber;
+    private String status;
+    private Outcome outcome;
+    private String message;
+}
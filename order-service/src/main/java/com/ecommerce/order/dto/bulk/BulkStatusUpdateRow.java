@@ -0,0 +1,26 @@
+package com.ecommerce.order.dto.bulk;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One line of a bulk status feed. Orders are identified by {@code orderId} or, when absent, by {@code orderNumber}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkStatusUpdateRow {
+    private UUID orderId;
+    private String orderNumber;
+    private String status;
+    private String trackingNumber;
+    private String carrier;
+    private String message;
+}
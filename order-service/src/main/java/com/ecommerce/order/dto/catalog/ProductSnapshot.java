@@ -0,0 +1,19 @@
+package com.ecommerce.order.dto.catalog;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The part of a product order-service needs to price, validate and categorise order lines. Read from product-events and from
+ * product-service's export and batch endpoints; every other product field is ignored.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ProductSnapshot(UUID id, String sku, String name, BigDecimal price, UUID categoryId, boolean active,
+                              Long version) {
+
+    public long versionOrZero() {
+        return version != null ? version : 0L;
+    }
+}
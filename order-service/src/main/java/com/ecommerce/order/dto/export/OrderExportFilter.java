@@ -0,0 +1,26 @@
+package com.ecommerce.order.dto.export;
+
+import com.ecommerce.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Optional criteria of an order export; unset fields do not restrict the result.
+ * {@code createdFrom} is inclusive and {@code createdTo} exclusive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportFilter {
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private OrderStatus status;
+    private UUID customerId;
+    private UUID productId;
+}
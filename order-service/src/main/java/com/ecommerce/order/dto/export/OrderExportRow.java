@@ -0,0 +1,31 @@
+package com.ecommerce.order.dto.export;
+
+import com.ecommerce.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat order row selected directly by the export query, so streamed rows never enter the persistence context.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportRow {
+    private UUID id;
+    private String orderNumber;
+    private UUID customerId;
+    private String customerEmail;
+    private OrderStatus status;
+    private BigDecimal subtotal;
+    private BigDecimal tax;
+    private BigDecimal shippingFee;
+    private BigDecimal total;
+    private String currency;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -9,6 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 @Data
 @Builder
@@ -32,4 +33,7 @@ public class OrderItemRequest {
 
     private String sku;
     private String imageUrl;
+
+    /** Set from the catalogue when the line is priced. */
+    private UUID categoryId;
 }
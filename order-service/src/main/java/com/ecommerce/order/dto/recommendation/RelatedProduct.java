@@ -0,0 +1,9 @@
+package com.ecommerce.order.dto.recommendation;
+
+import java.util.UUID;
+
+/**
+ * A product frequently bought together with another, and the number of orders that contained both.
+ */
+public record RelatedProduct(UUID productId, long purchasedTogether) {
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.order.dto.recommendation;
+
+import java.util.UUID;
+
+/**
+ * A trending product and its score: purchases and views weighted by {@code order.trending.*-weight} and decayed
+ * exponentially over the window, so roughly the weighted activity of the last window length.
+ */
+public record TrendingProduct(UUID productId, double score) {
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.order.dto.recommendation;
+
+import java.time.Duration;
+
+/**
+ * Decay windows for trending products, named by their {@code window} query parameter value.
+ */
+public enum TrendingWindow {
+    ONE_HOUR("1h", Duration.ofHours(1)),
+    ONE_DAY("24h", Duration.ofHours(24));
+
+    private final String label;
+    private final Duration duration;
+
+    TrendingWindow(String label, Duration duration) {
+        this.label = label;
+        this.duration = duration;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the window with the given label, or {@code null} if there is none.
+     */
+    public static TrendingWindow fromLabel(String label) {
+        for (TrendingWindow window : values()) {
+            if (window.label.equalsIgnoreCase(label)) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the longest window, which bounds how far back events are replayed on startup.
+     */
+    public static Duration longest() {
+        Duration longest = Duration.ZERO;
+        for (TrendingWindow window : values()) {
+            if (window.duration.compareTo(longest) > 0) {
+                longest = window.duration;
+            }
+        }
+        return longest;
+    }
+}
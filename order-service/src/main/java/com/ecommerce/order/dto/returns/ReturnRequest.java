@@ -1,14 +1,16 @@
 package com.ecommerce.order.dto.returns;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import java.util.List;
 import java.util.UUID;
 
 public class ReturnRequest {
     @NotEmpty(message = "At least one item must be returned")
-    private List<ReturnItemRequest> items;
+    private List<@Valid ReturnItemRequest> items;
     
     @NotNull(message = "Return reason is required")
     private String reason;
@@ -31,6 +33,7 @@ public class ReturnRequest {
         private UUID orderItemId;
         
         @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
         private Integer quantity;
         
         @NotNull(message = "Return reason is required")
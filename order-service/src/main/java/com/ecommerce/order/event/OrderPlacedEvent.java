@@ -0,0 +1,12 @@
+package com.ecommerce.order.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * CDI event fired by {@link com.ecommerce.order.service.OrderService} when an order is created, carrying the
+ * products it contains. Observers interested only in committed orders should use
+ * {@code TransactionPhase.AFTER_SUCCESS}.
+ */
+public record OrderPlacedEvent(UUID orderId, List<UUID> productIds) {
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.order.event;
+
+import com.ecommerce.order.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * CDI event fired by {@link com.ecommerce.order.service.OrderService} whenever an order changes status.
+ * Observers interested only in committed changes should use {@code TransactionPhase.AFTER_SUCCESS}.
+ */
+public record OrderStatusChangedEvent(UUID orderId, OrderStatus status, String message, LocalDateTime timestamp) {
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.order.exception;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+@Provider
+public class InvalidOrderExceptionMapper implements ExceptionMapper<InvalidOrderException> {
+
+    @Override
+    public Response toResponse(InvalidOrderException exception) {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity(new ResourceNotFoundExceptionMapper.ErrorResponse(exception.getMessage()))
+                .build();
+    }
+}
@@ -6,6 +6,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,6 +21,11 @@ import java.util.UUID;
 @ToString(exclude = {"items", "statusHistory"})
 @EqualsAndHashCode(exclude = {"items", "statusHistory"})
 public class Order {
+
+    public static final String DEFAULT_CURRENCY = "USD";
+
+    /** Flat 10% tax on the subtotal. */
+    private static final long TAX_RATE_BASIS_POINTS = 1_000L;
     
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -118,13 +124,14 @@ public class Order {
     private String currency;
 
     // Business methods
-    public void addStatusHistory(OrderStatus status, String message) {
+    public OrderStatusHistory addStatusHistory(OrderStatus status, String message) {
         if (this.statusHistory == null) {
             this.statusHistory = new ArrayList<>();
         }
         OrderStatusHistory history = OrderStatusHistory.create(status, message);
         history.setOrder(this);
         this.statusHistory.add(history);
+        return history;
     }
 
     // Lifecycle callbacks
@@ -164,14 +171,19 @@ public class Order {
         } else if (status == OrderStatus.RETURNED) {
             this.returnedAt = LocalDateTime.now();
         }
-        
-        // Add to status history
-        if (this.statusHistory == null) {
-            this.statusHistory = new ArrayList<>();
+    }
+
+    /**
+     * Moves the order to {@code target} and records exactly one status history row.
+     * @return the history row recorded for the transition
+     * @throws IllegalStateException if {@link OrderStatusTransitions} does not allow the transition
+     */
+    public OrderStatusHistory transitionTo(OrderStatus target, String message) {
+        if (!OrderStatusTransitions.isAllowed(this.status, target)) {
+            throw new IllegalStateException("Invalid status transition from " + this.status + " to " + target);
         }
-        OrderStatusHistory history = OrderStatusHistory.create(status, "Status updated to " + status);
-        history.setOrder(this);
-        this.statusHistory.add(history);
+        setStatus(target);
+        return addStatusHistory(target, message);
     }
 
     // Helper methods
@@ -233,19 +245,25 @@ public class Order {
     }
 
     public void calculateTotals() {
+        String currency = currencyOrDefault();
         if (this.items != null && !this.items.isEmpty()) {
-            this.subtotal = this.items.stream()
-                    .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            long subtotalMinor = 0L;
+            for (OrderItem item : this.items) {
+                subtotalMinor = Math.addExact(subtotalMinor,
+                        Math.multiplyExact(Money.toMinorUnits(item.getUnitPrice(), currency), item.getQuantity()));
+            }
 
-            // Calculate tax (10% of subtotal)
-            this.tax = this.subtotal.multiply(new BigDecimal("0.10"));
+            // Tax is rounded half-up to the currency's minor unit
+            long taxMinor = Money.applyRate(subtotalMinor, TAX_RATE_BASIS_POINTS, RoundingMode.HALF_UP);
 
-            // Calculate shipping ($10 flat rate)
-            this.shippingFee = new BigDecimal("10.00");
+            // Shipping is quoted by ShippingRateService and set on the order, not derived from the items
+            long shippingMinor = Money.toMinorUnits(this.shippingFee, currency);
 
-            // Calculate total
-            this.total = this.subtotal.add(this.tax).add(this.shippingFee);
+            int scale = Money.scale(currency);
+            this.subtotal = BigDecimal.valueOf(subtotalMinor, scale);
+            this.tax = BigDecimal.valueOf(taxMinor, scale);
+            this.shippingFee = BigDecimal.valueOf(shippingMinor, scale);
+            this.total = BigDecimal.valueOf(Math.addExact(Math.addExact(subtotalMinor, taxMinor), shippingMinor), scale);
         } else {
             this.subtotal = BigDecimal.ZERO;
             this.tax = BigDecimal.ZERO;
@@ -254,31 +272,30 @@ public class Order {
         }
     }
 
+    public String currencyOrDefault() {
+        return currency != null ? currency : DEFAULT_CURRENCY;
+    }
+
     // Status update helper methods
     public void markAsPaid() {
-        setStatus(OrderStatus.PAID);
-        this.paidAt = LocalDateTime.now();
+        transitionTo(OrderStatus.PAID, "Payment received");
     }
 
     public void markAsProcessing() {
-        setStatus(OrderStatus.PROCESSING);
-        this.processingAt = LocalDateTime.now();
+        transitionTo(OrderStatus.PROCESSING, "Order is being processed");
     }
 
     public void markAsShipped(String trackingNumber, String carrier) {
         this.trackingNumber = trackingNumber;
         this.carrier = carrier;
-        setStatus(OrderStatus.SHIPPED);
-        this.shippedAt = LocalDateTime.now();
+        transitionTo(OrderStatus.SHIPPED, "Shipped with " + carrier + " (" + trackingNumber + ")");
     }
 
     public void markAsDelivered() {
-        setStatus(OrderStatus.DELIVERED);
-        this.deliveredDate = LocalDateTime.now();
+        transitionTo(OrderStatus.DELIVERED, "Order delivered");
     }
 
     public void markAsCancelled() {
-        setStatus(OrderStatus.CANCELLED);
-        this.cancelledAt = LocalDateTime.now();
+        transitionTo(OrderStatus.CANCELLED, "Order cancelled");
     }
 }
@@ -0,0 +1,99 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A completed order moved to the monthly-partitioned {@code orders_archive} table by
+ * {@link com.ecommerce.order.service.OrderArchiveService}. Items and status history are stored as JSONB
+ * documents shaped like {@link com.ecommerce.order.dto.orderitem.OrderItemResponse} and
+ * {@link com.ecommerce.order.dto.OrderStatusHistoryResponse}. Rows are written only by the archiver.
+ */
+@Entity
+@Table(name = "orders_archive")
+@Immutable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderArchive {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "customer_id", nullable = false)
+    private UUID customerId;
+
+    @Column(name = "order_number", nullable = false)
+    private String orderNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "shipping_address", nullable = false)
+    private String shippingAddress;
+
+    @Column(name = "billing_address", nullable = false)
+    private String billingAddress;
+
+    @Column(name = "customer_email", nullable = false)
+    private String customerEmail;
+
+    @Column(name = "customer_phone", nullable = false)
+    private String customerPhone;
+
+    @Column(name = "subtotal", nullable = false, precision = 19, scale = 4)
+    private BigDecimal subtotal;
+
+    @Column(name = "tax", nullable = false, precision = 19, scale = 4)
+    private BigDecimal tax;
+
+    @Column(name = "shipping_fee", nullable = false, precision = 19, scale = 4)
+    private BigDecimal shippingFee;
+
+    @Column(name = "total", nullable = false, precision = 19, scale = 4)
+    private BigDecimal total;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "currency")
+    private String currency;
+
+    @Column(name = "tracking_number")
+    private String trackingNumber;
+
+    @Column(name = "carrier")
+    private String carrier;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "delivered_date")
+    private LocalDateTime deliveredAt;
+
+    @Column(name = "cancelled_at")
+    private LocalDateTime cancelledAt;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "items", nullable = false, columnDefinition = "jsonb")
+    private String items;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "status_history", nullable = false, columnDefinition = "jsonb")
+    private String statusHistory;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
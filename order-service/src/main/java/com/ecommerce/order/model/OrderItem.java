@@ -82,11 +82,11 @@ public class OrderItem {
      */
     private void calculateTotalPrice() {
         if (unitPrice != null && quantity != null) {
-            BigDecimal subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
-            this.totalPrice = subtotal.subtract(discount).add(tax);
-            if (this.totalPrice.compareTo(BigDecimal.ZERO) < 0) {
-                this.totalPrice = BigDecimal.ZERO;
-            }
+            String currency = order != null ? order.currencyOrDefault() : Order.DEFAULT_CURRENCY;
+            long totalMinor = Math.multiplyExact(Money.toMinorUnits(unitPrice, currency), quantity.longValue());
+            totalMinor = Math.addExact(Math.subtractExact(totalMinor, Money.toMinorUnits(discount, currency)),
+                    Money.toMinorUnits(tax, currency));
+            this.totalPrice = BigDecimal.valueOf(Math.max(totalMinor, 0L), Money.scale(currency));
         } else {
             this.totalPrice = BigDecimal.ZERO;
         }
@@ -0,0 +1,52 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Entity
+@Table(name = "order_return_items")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = "orderReturn")
+@EqualsAndHashCode(exclude = "orderReturn")
+public class OrderReturnItem {
+
+    @Id
+    @UuidGenerator
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "return_id", nullable = false)
+    private OrderReturn orderReturn;
+
+    @Column(name = "order_item_id", nullable = false)
+    private UUID orderItemId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(name = "product_sku", nullable = false)
+    private String productSku;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "unit_price", nullable = false, precision = 19, scale = 4)
+    private BigDecimal unitPrice;
+
+    @Column(name = "refund_amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal refundAmount;
+
+    @Column(name = "reason", columnDefinition = "TEXT")
+    private String reason;
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.order.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Table of allowed order status transitions.
+ * <p>
+ * Statuses without an entry (CANCELLED, REFUNDED, DECLINED, FAILED) are terminal.
+ * The same pairs are stored in the {@code order_status_transitions} table, which the
+ * {@code validate_order_status_transition} trigger checks, so both must be changed together.
+ */
+public final class OrderStatusTransitions {
+
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED = new EnumMap<>(OrderStatus.class);
+
+    static {
+        allow(OrderStatus.PENDING,
+                OrderStatus.PLACED, OrderStatus.AWAITING_PAYMENT, OrderStatus.PAID, OrderStatus.PROCESSING,
+                OrderStatus.ON_HOLD, OrderStatus.VERIFICATION_REQUIRED, OrderStatus.CANCELLED,
+                OrderStatus.DECLINED, OrderStatus.FAILED);
+        allow(OrderStatus.PLACED,
+                OrderStatus.AWAITING_PAYMENT, OrderStatus.PAID, OrderStatus.PROCESSING, OrderStatus.ON_HOLD,
+                OrderStatus.CANCELLED, OrderStatus.FAILED);
+        allow(OrderStatus.AWAITING_PAYMENT,
+                OrderStatus.PAID, OrderStatus.CANCELLED, OrderStatus.DECLINED, OrderStatus.FAILED);
+        allow(OrderStatus.VERIFICATION_REQUIRED,
+                OrderStatus.PENDING, OrderStatus.PAID, OrderStatus.CANCELLED, OrderStatus.DECLINED);
+        allow(OrderStatus.ON_HOLD,
+                OrderStatus.PENDING, OrderStatus.PAID, OrderStatus.PROCESSING, OrderStatus.CANCELLED);
+        allow(OrderStatus.PAID,
+                OrderStatus.PROCESSING, OrderStatus.AWAITING_FULFILLMENT, OrderStatus.SHIPPED,
+                OrderStatus.CANCELLED, OrderStatus.REFUNDED, OrderStatus.PARTIALLY_REFUNDED,
+                OrderStatus.DISPUTED);
+        allow(OrderStatus.PROCESSING,
+                OrderStatus.PAID, OrderStatus.PROCESSED, OrderStatus.AWAITING_FULFILLMENT,
+                OrderStatus.AWAITING_SHIPMENT, OrderStatus.SHIPPED, OrderStatus.PARTIALLY_SHIPPED,
+                OrderStatus.ON_HOLD, OrderStatus.CANCELLED, OrderStatus.FAILED);
+        allow(OrderStatus.AWAITING_FULFILLMENT,
+                OrderStatus.PROCESSING, OrderStatus.AWAITING_SHIPMENT, OrderStatus.CANCELLED);
+        allow(OrderStatus.PROCESSED,
+                OrderStatus.AWAITING_SHIPMENT, OrderStatus.AWAITING_PICKUP, OrderStatus.SHIPPED,
+                OrderStatus.PARTIALLY_SHIPPED, OrderStatus.CANCELLED);
+        allow(OrderStatus.AWAITING_SHIPMENT,
+                OrderStatus.SHIPPED, OrderStatus.PARTIALLY_SHIPPED, OrderStatus.CANCELLED);
+        allow(OrderStatus.PARTIALLY_SHIPPED, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+        allow(OrderStatus.SHIPPED,
+                OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED, OrderStatus.RETURN_REQUESTED,
+                OrderStatus.CANCELLED);
+        allow(OrderStatus.OUT_FOR_DELIVERY,
+                OrderStatus.DELIVERED, OrderStatus.AWAITING_PICKUP, OrderStatus.RETURN_REQUESTED);
+        allow(OrderStatus.AWAITING_PICKUP,
+                OrderStatus.DELIVERED, OrderStatus.COMPLETED, OrderStatus.CANCELLED);
+        allow(OrderStatus.DELIVERED,
+                OrderStatus.COMPLETED, OrderStatus.RETURN_REQUESTED, OrderStatus.REFUNDED,
+                OrderStatus.PARTIALLY_REFUNDED, OrderStatus.DISPUTED);
+        allow(OrderStatus.COMPLETED,
+                OrderStatus.RETURN_REQUESTED, OrderStatus.REFUNDED, OrderStatus.DISPUTED);
+        allow(OrderStatus.RETURN_REQUESTED,
+                OrderStatus.RETURNED, OrderStatus.DELIVERED, OrderStatus.COMPLETED);
+        allow(OrderStatus.RETURNED, OrderStatus.REFUNDED, OrderStatus.PARTIALLY_REFUNDED);
+        allow(OrderStatus.PARTIALLY_REFUNDED, OrderStatus.REFUNDED, OrderStatus.DISPUTED);
+        allow(OrderStatus.DISPUTED, OrderStatus.REFUNDED, OrderStatus.DELIVERED, OrderStatus.COMPLETED);
+    }
+
+    private OrderStatusTransitions() {
+    }
+
+    public static boolean isAllowed(OrderStatus from, OrderStatus to) {
+        return from == null || ALLOWED.getOrDefault(from, Collections.emptySet()).contains(to);
+    }
+
+    public static Set<OrderStatus> allowedFrom(OrderStatus from) {
+        return Collections.unmodifiableSet(ALLOWED.getOrDefault(from, Collections.emptySet()));
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... to) {
+        Set<OrderStatus> targets = EnumSet.noneOf(OrderStatus.class);
+        Collections.addAll(targets, to);
+        ALLOWED.put(from, targets);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Denormalized read model of an {@link Order}, maintained by
+ * {@link com.ecommerce.order.service.OrderProjectionService}.
+ * Items and the latest status are stored as JSONB documents.
+ */
+@Entity
+@Table(name = "order_summaries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id", updatable = false, nullable = false)
+    private UUID orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private UUID customerId;
+
+    @Column(name = "order_number", nullable = false, unique = true)
+    private String orderNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "customer_email", nullable = false)
+    private String customerEmail;
+
+    @Column(name = "customer_phone", nullable = false)
+    private String customerPhone;
+
+    @Column(name = "shipping_address", nullable = false)
+    private String shippingAddress;
+
+    @Column(name = "billing_address", nullable = false)
+    private String billingAddress;
+
+    @Column(name = "subtotal", nullable = false, precision = 19, scale = 4)
+    private BigDecimal subtotal;
+
+    @Column(name = "tax", nullable = false, precision = 19, scale = 4)
+    private BigDecimal tax;
+
+    @Column(name = "shipping_fee", nullable = false, precision = 19, scale = 4)
+    private BigDecimal shippingFee;
+
+    @Column(name = "total", nullable = false, precision = 19, scale = 4)
+    private BigDecimal total;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "items", nullable = false, columnDefinition = "jsonb")
+    private String items;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "latest_status", columnDefinition = "jsonb")
+    private String latestStatus;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.order.model;
+
+/**
+ * Lifecycle of an {@link OrderReturn}.
+ */
+public enum ReturnStatus {
+    /**
+     * Return accepted; restock and refund are queued.
+     */
+    REQUESTED,
+
+    /**
+     * At least one processing stage has finished.
+     */
+    PROCESSING,
+
+    /**
+     * Items restocked and refund issued.
+     */
+    COMPLETED,
+
+    /**
+     * A processing stage exhausted its retries and needs manual attention.
+     */
+    FAILED
+}
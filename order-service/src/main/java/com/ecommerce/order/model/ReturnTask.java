@@ -0,0 +1,74 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One queued processing stage of an {@link OrderReturn}, worked asynchronously by
+ * {@link com.ecommerce.order.service.ReturnTaskProcessor}.
+ */
+@Entity
+@Table(name = "order_return_tasks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReturnTask {
+
+    public enum Stage {
+        RESTOCK,
+        REFUND,
+        NOTIFY
+    }
+
+    public enum Status {
+        PENDING,
+        DONE,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "return_id", nullable = false)
+    private UUID returnId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", nullable = false)
+    private Stage stage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static ReturnTask pending(UUID returnId, Stage stage) {
+        LocalDateTime now = LocalDateTime.now();
+        return ReturnTask.builder()
+                .returnId(returnId)
+                .stage(stage)
+                .status(Status.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
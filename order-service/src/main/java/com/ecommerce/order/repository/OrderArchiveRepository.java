@@ -0,0 +1,28 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.OrderArchive;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Page;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads archived orders. Every query is bounded on {@code createdAt} so PostgreSQL only scans the
+ * monthly partitions overlapping the requested range.
+ */
+@ApplicationScoped
+public class OrderArchiveRepository implements PanacheRepositoryBase<OrderArchive, UUID> {
+
+    public List<OrderArchive> findCreatedBetween(LocalDateTime from, LocalDateTime to, Page page) {
+        return find("createdAt >= ?1 and createdAt < ?2 order by createdAt, id", from, to).page(page).list();
+    }
+
+    public List<OrderArchive> findByCustomerIdCreatedBetween(UUID customerId, LocalDateTime from, LocalDateTime to,
+                                                             Page page) {
+        return find("customerId = ?1 and createdAt >= ?2 and createdAt < ?3 order by createdAt desc",
+                customerId, from, to).page(page).list();
+    }
+}
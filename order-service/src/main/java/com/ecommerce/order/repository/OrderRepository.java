@@ -1,15 +1,23 @@
 package com.ecommerce.order.repository;
 
+import com.ecommerce.order.dto.export.OrderExportFilter;
+import com.ecommerce.order.dto.export.OrderExportRow;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderStatus;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import io.quarkus.panache.common.Page;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.AvailableHints;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class OrderRepository implements PanacheRepositoryBase<Order, UUID> {
@@ -18,6 +26,14 @@ public class OrderRepository implements PanacheRepositoryBase<Order, UUID> {
         return find("orderNumber", orderNumber).firstResultOptional();
     }
 
+    public List<Order> findByIds(Collection<UUID> ids) {
+        return list("id in ?1", ids);
+    }
+
+    public List<Order> findByOrderNumbers(Collection<String> orderNumbers) {
+        return list("orderNumber in ?1", orderNumbers);
+    }
+
     public List<Order> findByCustomerId(UUID customerId) {
         return list("customerId", customerId);
     }
@@ -26,12 +42,16 @@ public class OrderRepository implements PanacheRepositoryBase<Order, UUID> {
         return find("customerId", customerId).page(page).list();
     }
 
-    public List<Order> findByStatus(OrderStatus status) {
-        return list("status", status);
+    public List<Order> findByStatus(OrderStatus status, Page page) {
+        return find("status = ?1 order by createdAt", status).page(page).list();
     }
 
-    public List<Order> findOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
-        return list("createdAt between ?1 and ?2", startDate, endDate);
+    /**
+     * Returns active orders created in {@code [startDate, endDate)}; archived orders are served by
+     * {@link OrderArchiveRepository#findCreatedBetween}.
+     */
+    public List<Order> findOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate, Page page) {
+        return find("createdAt >= ?1 and createdAt < ?2 order by createdAt, id", startDate, endDate).page(page).list();
     }
 
     public List<Order> findByCustomerIdAndStatus(UUID customerId, OrderStatus status, Page page) {
@@ -49,4 +69,43 @@ public class OrderRepository implements PanacheRepositoryBase<Order, UUID> {
     public boolean existsByIdAndCustomerId(UUID orderId, UUID customerId) {
         return count("id = ?1 and customerId = ?2", orderId, customerId) > 0;
     }
+
+    /**
+     * Streams export rows matching {@code filter} in creation order through a forward-only cursor that fetches
+     * {@code fetchSize} rows per round trip. Must be consumed inside a transaction and closed by the caller.
+     */
+    public Stream<OrderExportRow> streamForExport(OrderExportFilter filter, int fetchSize) {
+        StringBuilder jpql = new StringBuilder("select new com.ecommerce.order.dto.export.OrderExportRow("
+                + "o.id, o.orderNumber, o.customerId, o.customerEmail, o.status, o.subtotal, o.tax, o.shippingFee, "
+                + "o.total, o.currency, o.createdAt, o.updatedAt) from Order o where 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        if (filter.getCreatedFrom() != null) {
+            jpql.append(" and o.createdAt >= :createdFrom");
+            params.put("createdFrom", filter.getCreatedFrom());
+        }
+        if (filter.getCreatedTo() != null) {
+            jpql.append(" and o.createdAt < :createdTo");
+            params.put("createdTo", filter.getCreatedTo());
+        }
+        if (filter.getStatus() != null) {
+            jpql.append(" and o.status = :status");
+            params.put("status", filter.getStatus());
+        }
+        if (filter.getCustomerId() != null) {
+            jpql.append(" and o.customerId = :customerId");
+            params.put("customerId", filter.getCustomerId());
+        }
+        if (filter.getProductId() != null) {
+            // exists rather than a join, so an order with several matching lines is exported once
+            jpql.append(" and exists (select 1 from OrderItem i where i.order = o and i.productId = :productId)");
+            params.put("productId", filter.getProductId());
+        }
+        jpql.append(" order by o.createdAt, o.id");
+
+        TypedQuery<OrderExportRow> query = getEntityManager().createQuery(jpql.toString(), OrderExportRow.class)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true);
+        params.forEach(query::setParameter);
+        return query.getResultStream();
+    }
 }
@@ -0,0 +1,42 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.OrderReturn;
+import com.ecommerce.order.model.ReturnStatus;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Page;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@ApplicationScoped
+public class OrderReturnRepository implements PanacheRepositoryBase<OrderReturn, UUID> {
+
+    public Optional<OrderReturn> findByIdWithItems(UUID returnId) {
+        return find("select distinct r from OrderReturn r left join fetch r.items where r.id = ?1", returnId)
+                .firstResultOptional();
+    }
+
+    /**
+     * Returns one page of a customer's returns, newest first, with their items loaded in a second query
+     * so the page is applied in the database rather than in memory.
+     */
+    public List<OrderReturn> findByCustomerId(UUID customerId, Page page) {
+        List<UUID> ids = getEntityManager().createQuery("select r.id from OrderReturn r where r.customerId = :customerId "
+                        + "order by r.requestedAt desc, r.id", UUID.class)
+                .setParameter("customerId", customerId)
+                .setFirstResult(page.index * page.size)
+                .setMaxResults(page.size)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return find("select distinct r from OrderReturn r left join fetch r.items where r.id in ?1 "
+                + "order by r.requestedAt desc, r.id", ids).list();
+    }
+
+    public long countOpenByOrderId(UUID orderId) {
+        return count("orderId = ?1 and status in ?2", orderId, List.of(ReturnStatus.REQUESTED, ReturnStatus.PROCESSING));
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.dto.tracking.OrderStatusUpdate;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OrderStatusHistory;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@ApplicationScoped
+public class OrderStatusHistoryRepository implements PanacheRepository<OrderStatusHistory> {
+
+    /**
+     * Returns the status timeline of an order, oldest first. Only the columns held by
+     * {@code idx_order_status_history_order_date} are selected so the query is index-only.
+     */
+    public List<OrderStatusUpdate> findTimeline(UUID orderId) {
+        List<Object[]> rows = getEntityManager()
+                .createQuery("select h.status, h.message, h.statusDate from OrderStatusHistory h "
+                        + "where h.order.id = :orderId order by h.statusDate", Object[].class)
+                .setParameter("orderId", orderId)
+                .getResultList();
+
+        List<OrderStatusUpdate> timeline = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            timeline.add(new OrderStatusUpdate(
+                    ((OrderStatus) row[0]).name(),
+                    (String) row[1],
+                    null,
+                    (LocalDateTime) row[2],
+                    i == rows.size() - 1));
+        }
+        return timeline;
+    }
+}
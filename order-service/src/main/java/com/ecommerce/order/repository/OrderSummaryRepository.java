@@ -0,0 +1,22 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.OrderSummary;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Page;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@ApplicationScoped
+public class OrderSummaryRepository implements PanacheRepositoryBase<OrderSummary, UUID> {
+
+    public Optional<OrderSummary> findByOrderNumber(String orderNumber) {
+        return find("orderNumber", orderNumber).firstResultOptional();
+    }
+
+    public List<OrderSummary> findByCustomerId(UUID customerId, Page page) {
+        return find("customerId = ?1 order by createdAt desc", customerId).page(page).list();
+    }
+}
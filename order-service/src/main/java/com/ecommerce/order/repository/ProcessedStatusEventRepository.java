@@ -0,0 +1,64 @@
+package com.ecommerce.order.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Statements on {@code processed_status_events}, which makes the payment and inventory event consumer idempotent per
+ * order id and event type.
+ */
+@ApplicationScoped
+public class ProcessedStatusEventRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Records every type in {@code eventTypes} as processed for {@code orderId}. A type already recorded by another
+     * transaction is waited for and then left out.
+     *
+     * @return the event types recorded by this call
+     */
+    @SuppressWarnings("unchecked")
+    public Set<String> claim(UUID orderId, Collection<String> eventTypes) {
+        if (eventTypes.isEmpty()) {
+            return Set.of();
+        }
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < eventTypes.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append("(:orderId, :type").append(i).append(", now())");
+        }
+        Query insert = entityManager.createNativeQuery("INSERT INTO processed_status_events "
+                + "(order_id, event_type, processed_at) VALUES " + values
+                + " ON CONFLICT DO NOTHING RETURNING event_type");
+        int i = 0;
+        for (String eventType : eventTypes) {
+            insert.setParameter("type" + i++, eventType);
+        }
+        return new HashSet<>((List<String>) insert.setParameter("orderId", orderId).getResultList());
+    }
+
+    /**
+     * Deletes up to {@code limit} records processed before {@code before}.
+     *
+     * @return the number of records deleted
+     */
+    public int purge(LocalDateTime before, int limit) {
+        return entityManager
+                .createNativeQuery("DELETE FROM processed_status_events WHERE (order_id, event_type) IN "
+                        + "(SELECT order_id, event_type FROM processed_status_events WHERE processed_at < :before "
+                        + "LIMIT :limit)")
+                .setParameter("before", before)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+}
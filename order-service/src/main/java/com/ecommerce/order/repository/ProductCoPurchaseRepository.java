@@ -0,0 +1,95 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.service.recommendation.CoPurchaseMatrix;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Reads and writes the {@code product_co_purchase} table with set-based SQL; rows are plain counts, so there is
+ * no entity.
+ */
+@ApplicationScoped
+public class ProductCoPurchaseRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String UPSERT = "INSERT INTO product_co_purchase (product_id, related_product_id, purchase_count) "
+            + "VALUES (?, ?, ?) ON CONFLICT (product_id, related_product_id) "
+            + "DO UPDATE SET purchase_count = product_co_purchase.purchase_count + EXCLUDED.purchase_count";
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Loads every stored pair into {@code matrix}.
+     *
+     * @return the number of pairs read
+     */
+    @SuppressWarnings("unchecked")
+    public long loadInto(CoPurchaseMatrix matrix, int fetchSize) {
+        long rows = 0;
+        try (Stream<Object[]> stream = entityManager.createNativeQuery(
+                        "SELECT product_id, related_product_id, purchase_count FROM product_co_purchase")
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()) {
+            for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                long count = ((Number) row[2]).longValue();
+                matrix.add((UUID) row[0], (UUID) row[1], (int) Math.min(count, Integer.MAX_VALUE));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Adds the counts in {@code deltas} to the stored ones with batched upserts.
+     */
+    public void addCounts(CoPurchaseMatrix deltas) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+                int[] pending = {0};
+                deltas.forEachPair((productId, relatedProductId, count) -> {
+                    try {
+                        statement.setObject(1, productId);
+                        statement.setObject(2, relatedProductId);
+                        statement.setLong(3, count);
+                        statement.addBatch();
+                        if (++pending[0] == BATCH_SIZE) {
+                            statement.executeBatch();
+                            pending[0] = 0;
+                        }
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Could not write co-purchase counts", e);
+                    }
+                });
+                if (pending[0] > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
+    /**
+     * Deletes all but the {@code keep} strongest pairs of each of {@code productIds}.
+     */
+    public int retainTop(Collection<UUID> productIds, int keep) {
+        return entityManager.createNativeQuery("DELETE FROM product_co_purchase p USING ("
+                        + "SELECT product_id, related_product_id, row_number() OVER ("
+                        + "PARTITION BY product_id ORDER BY purchase_count DESC, related_product_id) AS rn "
+                        + "FROM product_co_purchase WHERE product_id IN (:ids)) r "
+                        + "WHERE p.product_id = r.product_id AND p.related_product_id = r.related_product_id "
+                        + "AND r.rn > :keep")
+                .setParameter("ids", productIds)
+                .setParameter("keep", keep)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.ReturnTask;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@ApplicationScoped
+public class ReturnTaskRepository implements PanacheRepositoryBase<ReturnTask, Long> {
+
+    public List<ReturnTask> findByReturnId(UUID returnId) {
+        return list("returnId", returnId);
+    }
+
+    /**
+     * Claims up to {@code limit} due tasks by pushing their next attempt out to {@code leaseUntil}.
+     * Rows locked by another worker are skipped, and a worker that dies mid-task only delays it until the
+     * lease expires.
+     *
+     * @return the ids of the claimed tasks
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        return getEntityManager().createNativeQuery("UPDATE order_return_tasks SET next_attempt_at = :leaseUntil "
+                        + "WHERE id IN (SELECT id FROM order_return_tasks WHERE status = 'PENDING' "
+                        + "AND next_attempt_at <= :now ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) "
+                        + "RETURNING id", Long.class)
+                .setParameter("leaseUntil", leaseUntil)
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+}
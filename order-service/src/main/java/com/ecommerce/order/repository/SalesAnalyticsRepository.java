@@ -0,0 +1,244 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.dto.analytics.RollupGranularity;
+import com.ecommerce.order.service.analytics.SalesRollupDeltas;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reads and writes the sales rollup tables and the processed event ids with set-based SQL; rollup rows are plain
+ * sums, so there are no entities.
+ */
+@ApplicationScoped
+public class SalesAnalyticsRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String CLAIM_EVENTS = "INSERT INTO analytics_processed_events (event_id) "
+            + "SELECT unnest(?) ON CONFLICT (event_id) DO NOTHING RETURNING event_id";
+
+    private static final String UPSERT_SALES = "INSERT INTO sales_rollup "
+            + "(granularity, bucket_start, currency, order_count, unit_count, revenue_minor) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (granularity, bucket_start, currency) DO UPDATE SET "
+            + "order_count = sales_rollup.order_count + EXCLUDED.order_count, "
+            + "unit_count = sales_rollup.unit_count + EXCLUDED.unit_count, "
+            + "revenue_minor = sales_rollup.revenue_minor + EXCLUDED.revenue_minor";
+
+    private static final String UPSERT_PRODUCTS = "INSERT INTO product_sales_rollup "
+            + "(bucket_date, product_id, currency, order_count, unit_count, revenue_minor) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (bucket_date, product_id, currency) DO UPDATE SET "
+            + "order_count = product_sales_rollup.order_count + EXCLUDED.order_count, "
+            + "unit_count = product_sales_rollup.unit_count + EXCLUDED.unit_count, "
+            + "revenue_minor = product_sales_rollup.revenue_minor + EXCLUDED.revenue_minor";
+
+    private static final String UPSERT_CATEGORIES = "INSERT INTO category_sales_rollup "
+            + "(bucket_date, category_id, currency, order_count, unit_count, revenue_minor) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (bucket_date, category_id, currency) DO UPDATE SET "
+            + "order_count = category_sales_rollup.order_count + EXCLUDED.order_count, "
+            + "unit_count = category_sales_rollup.unit_count + EXCLUDED.unit_count, "
+            + "revenue_minor = category_sales_rollup.revenue_minor + EXCLUDED.revenue_minor";
+
+    private static final String UPSERT_STATUSES = "INSERT INTO order_status_rollup "
+            + "(granularity, bucket_start, status, order_count) VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (granularity, bucket_start, status) DO UPDATE SET "
+            + "order_count = order_status_rollup.order_count + EXCLUDED.order_count";
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Records {@code eventIds} as processed.
+     *
+     * @return the ids that had not been processed before
+     */
+    public Set<UUID> claimEvents(Collection<UUID> eventIds) {
+        Set<UUID> claimed = new HashSet<>();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            Array ids = connection.createArrayOf("uuid", eventIds.toArray());
+            try (PreparedStatement statement = connection.prepareStatement(CLAIM_EVENTS)) {
+                statement.setArray(1, ids);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        claimed.add(rows.getObject(1, UUID.class));
+                    }
+                }
+            } finally {
+                ids.free();
+            }
+        });
+        return claimed;
+    }
+
+    /**
+     * Adds {@code deltas} to the rollup rows with batched upserts, in key order.
+     */
+    public void applyDeltas(SalesRollupDeltas deltas) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_SALES)) {
+                int pending = 0;
+                for (Map.Entry<SalesRollupDeltas.TimeKey, SalesRollupDeltas.Totals> row : deltas.sales().entrySet()) {
+                    statement.setString(1, row.getKey().granularity().name());
+                    statement.setObject(2, row.getKey().bucketStart());
+                    statement.setString(3, row.getKey().dimension());
+                    statement.setLong(4, row.getValue().orders());
+                    statement.setLong(5, row.getValue().units());
+                    statement.setLong(6, row.getValue().revenueMinor());
+                    statement.addBatch();
+                    pending = executeIfFull(statement, pending + 1);
+                }
+                executeRemaining(statement, pending);
+            }
+            upsertDailyRows(connection, UPSERT_PRODUCTS, deltas.products());
+            upsertDailyRows(connection, UPSERT_CATEGORIES, deltas.categories());
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_STATUSES)) {
+                int pending = 0;
+                for (Map.Entry<SalesRollupDeltas.TimeKey, SalesRollupDeltas.Totals> row
+                        : deltas.statuses().entrySet()) {
+                    statement.setString(1, row.getKey().granularity().name());
+                    statement.setObject(2, row.getKey().bucketStart());
+                    statement.setString(3, row.getKey().dimension());
+                    statement.setLong(4, row.getValue().orders());
+                    statement.addBatch();
+                    pending = executeIfFull(statement, pending + 1);
+                }
+                executeRemaining(statement, pending);
+            }
+        });
+    }
+
+    /**
+     * Forgets up to {@code limit} processed event ids recorded before {@code cutoff}.
+     */
+    public int purgeProcessedEvents(LocalDateTime cutoff, int limit) {
+        return entityManager.createNativeQuery("DELETE FROM analytics_processed_events WHERE event_id IN ("
+                        + "SELECT event_id FROM analytics_processed_events WHERE processed_at < :cutoff LIMIT :limit)")
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    /**
+     * Returns {@code bucket_start, currency, order_count, unit_count, revenue_minor} rows in {@code [from, to)}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findSales(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                    String currency) {
+        Query query = entityManager.createNativeQuery("SELECT bucket_start, currency, order_count, unit_count, "
+                        + "revenue_minor FROM sales_rollup WHERE granularity = :granularity "
+                        + "AND bucket_start >= :from AND bucket_start < :to"
+                        + (currency != null ? " AND currency = :currency" : "")
+                        + " ORDER BY bucket_start, currency")
+                .setParameter("granularity", granularity.name())
+                .setParameter("from", from)
+                .setParameter("to", to);
+        if (currency != null) {
+            query.setParameter("currency", currency);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Returns {@code product_id, currency, orders, units, revenue_minor} summed over {@code [from, to)}, the top
+     * {@code limit} by units or by revenue.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findTopProducts(LocalDate from, LocalDate to, String currency, boolean byUnits,
+                                          int limit) {
+        Query query = entityManager.createNativeQuery("SELECT product_id, currency, SUM(order_count), "
+                        + "SUM(unit_count), SUM(revenue_minor) FROM product_sales_rollup "
+                        + "WHERE bucket_date >= :from AND bucket_date < :to"
+                        + (currency != null ? " AND currency = :currency" : "")
+                        + " GROUP BY product_id, currency ORDER BY "
+                        + (byUnits ? "SUM(unit_count)" : "SUM(revenue_minor)") + " DESC, product_id LIMIT :limit")
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("limit", limit);
+        if (currency != null) {
+            query.setParameter("currency", currency);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Returns {@code category_id, currency, orders, units, revenue_minor} summed over {@code [from, to)}, by
+     * revenue.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findCategories(LocalDate from, LocalDate to, String currency) {
+        Query query = entityManager.createNativeQuery("SELECT category_id, currency, SUM(order_count), "
+                        + "SUM(unit_count), SUM(revenue_minor) FROM category_sales_rollup "
+                        + "WHERE bucket_date >= :from AND bucket_date < :to"
+                        + (currency != null ? " AND currency = :currency" : "")
+                        + " GROUP BY category_id, currency ORDER BY SUM(revenue_minor) DESC, category_id")
+                .setParameter("from", from)
+                .setParameter("to", to);
+        if (currency != null) {
+            query.setParameter("currency", currency);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Returns {@code bucket_start, status, order_count} rows in {@code [from, to)}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findStatuses(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        return entityManager.createNativeQuery("SELECT bucket_start, status, order_count FROM order_status_rollup "
+                        + "WHERE granularity = :granularity AND bucket_start >= :from AND bucket_start < :to "
+                        + "ORDER BY bucket_start, status")
+                .setParameter("granularity", granularity.name())
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+
+    private static void upsertDailyRows(Connection connection, String sql,
+                                        Map<SalesRollupDeltas.DayKey, SalesRollupDeltas.Totals> rows)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (Map.Entry<SalesRollupDeltas.DayKey, SalesRollupDeltas.Totals> row : rows.entrySet()) {
+                statement.setObject(1, row.getKey().day());
+                statement.setObject(2, row.getKey().id());
+                statement.setString(3, row.getKey().currency());
+                statement.setLong(4, row.getValue().orders());
+                statement.setLong(5, row.getValue().units());
+                statement.setLong(6, row.getValue().revenueMinor());
+                statement.addBatch();
+                pending = executeIfFull(statement, pending + 1);
+            }
+            executeRemaining(statement, pending);
+        }
+    }
+
+    private static int executeIfFull(PreparedStatement statement, int pending) throws SQLException {
+        if (pending < BATCH_SIZE) {
+            return pending;
+        }
+        statement.executeBatch();
+        return 0;
+    }
+
+    private static void executeRemaining(PreparedStatement statement, int pending) throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+        }
+    }
+}
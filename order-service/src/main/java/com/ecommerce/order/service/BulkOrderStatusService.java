@@ -0,0 +1,326 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.FeedFormat;
+import com.ecommerce.order.dto.bulk.BulkStatusUpdateResponse;
+import com.ecommerce.order.dto.bulk.BulkStatusUpdateResult;
+import com.ecommerce.order.dto.bulk.BulkStatusUpdateResult.Outcome;
+import com.ecommerce.order.dto.bulk.BulkStatusUpdateRow;
+import com.ecommerce.order.event.OrderStatusChangedEvent;
+import com.ecommerce.order.exception.InvalidOrderException;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OrderStatusHistory;
+import com.ecommerce.order.model.OrderStatusTransitions;
+import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Applies status feeds from warehouses and carriers.
+ * <p>
+ * The feed is read line by line and applied in chunks of {@code order.bulk-status.chunk-size} rows, each chunk
+ * in its own transaction: orders are loaded with one query, history rows are flushed through JDBC batching and
+ * summaries are projected together. Kafka events for a chunk are sent after it commits, and the next chunk's
+ * events wait for the previous chunk's acknowledgements, so the number of in-flight events stays bounded.
+ * A failing chunk is reported row by row and does not stop the rest of the feed.
+ */
+@ApplicationScoped
+public class BulkOrderStatusService {
+
+    private static final Logger log = Logger.getLogger(BulkOrderStatusService.class);
+
+    private static final String EVENT_TYPE = "ORDER_STATUS_UPDATED";
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderService orderService;
+
+    @Inject
+    OrderProjectionService orderProjectionService;
+
+    @Inject
+    Event<OrderStatusChangedEvent> statusChangedEvent;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "order.bulk-status.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @ConfigProperty(name = "order.bulk-status.event-ack-timeout", defaultValue = "PT30S")
+    Duration eventAckTimeout;
+
+    public BulkStatusUpdateResponse apply(InputStream feed, FeedFormat format) {
+        List<BulkStatusUpdateResult> results = new ArrayList<>();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(feed, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == FeedFormat.CSV && columns == null) {
+                    columns = parseCsvHeader(line);
+                    continue;
+                }
+
+                BulkStatusUpdateRow row;
+                OrderStatus status;
+                try {
+                    row = format == FeedFormat.CSV ? parseCsvRow(columns, line) : objectMapper.readValue(line, BulkStatusUpdateRow.class);
+                    status = parseRow(row);
+                } catch (Exception e) {
+                    results.add(result(lineNumber, null, Outcome.INVALID, e.getMessage()));
+                    continue;
+                }
+
+                chunk.add(new PendingRow(lineNumber, row, status));
+                if (chunk.size() >= chunkSize) {
+                    inFlight = applyChunk(chunk, results, inFlight);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading bulk status feed", e);
+        }
+        if (!chunk.isEmpty()) {
+            inFlight = applyChunk(chunk, results, inFlight);
+        }
+        awaitEvents(inFlight);
+
+        results.sort(Comparator.comparingLong(BulkStatusUpdateResult::getLine));
+        long updated = results.stream().filter(r -> r.getOutcome() == Outcome.UPDATED).count();
+        long unchanged = results.stream().filter(r -> r.getOutcome() == Outcome.UNCHANGED).count();
+        log.infof("Bulk status feed applied: %d rows, %d updated, %d unchanged", results.size(), updated, unchanged);
+
+        return BulkStatusUpdateResponse.builder()
+                .total(results.size())
+                .updated(updated)
+                .unchanged(unchanged)
+                .failed(results.size() - updated - unchanged)
+                .results(results)
+                .build();
+    }
+
+    private CompletableFuture<Void> applyChunk(List<PendingRow> chunk, List<BulkStatusUpdateResult> results,
+                                               CompletableFuture<Void> inFlight) {
+        ChunkResult chunkResult;
+        try {
+            chunkResult = QuarkusTransaction.requiringNew().call(() -> applyInTransaction(chunk));
+        } catch (Exception e) {
+            log.errorf(e, "Bulk status chunk of %d rows starting at line %d failed", chunk.size(), chunk.get(0).line());
+            for (PendingRow row : chunk) {
+                results.add(result(row.line(), row.row(), Outcome.FAILED, "Chunk rolled back: " + e.getMessage()));
+            }
+            return inFlight;
+        }
+
+        results.addAll(chunkResult.results());
+        if (chunkResult.updatedOrders().isEmpty()) {
+            return inFlight;
+        }
+        awaitEvents(inFlight);
+        return orderService.publishOrderEvents(chunkResult.updatedOrders(), EVENT_TYPE);
+    }
+
+    private ChunkResult applyInTransaction(List<PendingRow> chunk) {
+        Set<UUID> ids = new HashSet<>();
+        Set<String> orderNumbers = new HashSet<>();
+        for (PendingRow pending : chunk) {
+            if (pending.row().getOrderId() != null) {
+                ids.add(pending.row().getOrderId());
+            } else {
+                orderNumbers.add(pending.row().getOrderNumber());
+            }
+        }
+
+        Map<UUID, Order> ordersById = new HashMap<>();
+        Map<String, Order> ordersByNumber = new HashMap<>();
+        List<Order> loaded = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            loaded.addAll(orderRepository.findByIds(ids));
+        }
+        if (!orderNumbers.isEmpty()) {
+            loaded.addAll(orderRepository.findByOrderNumbers(orderNumbers));
+        }
+        for (Order order : loaded) {
+            ordersById.put(order.getId(), order);
+            ordersByNumber.put(order.getOrderNumber(), order);
+        }
+
+        List<BulkStatusUpdateResult> results = new ArrayList<>(chunk.size());
+        List<OrderStatusHistory> changes = new ArrayList<>();
+        Map<UUID, Order> updatedOrders = new LinkedHashMap<>();
+        for (PendingRow pending : chunk) {
+            BulkStatusUpdateRow row = pending.row();
+            Order order = row.getOrderId() != null
+                    ? ordersById.get(row.getOrderId())
+                    : ordersByNumber.get(row.getOrderNumber());
+            if (order == null) {
+                results.add(result(pending.line(), row, Outcome.NOT_FOUND, "Order not found"));
+                continue;
+            }
+
+            OrderStatus oldStatus = order.getStatus();
+            OrderStatus status = pending.status();
+            if (oldStatus == status) {
+                results.add(result(pending.line(), order, status, Outcome.UNCHANGED, null));
+                continue;
+            }
+            if (!OrderStatusTransitions.isAllowed(oldStatus, status)) {
+                results.add(result(pending.line(), order, status, Outcome.REJECTED, String.format(
+                        "Order cannot move from %s to %s; allowed: %s",
+                        oldStatus, status, OrderStatusTransitions.allowedFrom(oldStatus))));
+                continue;
+            }
+
+            if (row.getTrackingNumber() != null) {
+                order.setTrackingNumber(row.getTrackingNumber());
+            }
+            if (row.getCarrier() != null) {
+                order.setCarrier(row.getCarrier());
+            }
+            String message = row.getMessage() != null
+                    ? row.getMessage()
+                    : String.format("Status changed from %s to %s", oldStatus, status);
+            changes.add(order.transitionTo(status, message));
+            statusChangedEvent.fire(new OrderStatusChangedEvent(order.getId(), status, message, LocalDateTime.now()));
+            updatedOrders.put(order.getId(), order);
+            results.add(result(pending.line(), order, status, Outcome.UPDATED, null));
+        }
+
+        orderProjectionService.projectStatusChanges(changes);
+        return new ChunkResult(results, new ArrayList<>(updatedOrders.values()));
+    }
+
+    private void awaitEvents(CompletableFuture<Void> inFlight) {
+        try {
+            inFlight.get(eventAckTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warnf("Order events not acknowledged within %s, continuing", eventAckTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing order events", e);
+        } catch (Exception e) {
+            // Individual send failures are already logged by OrderService
+            log.debug("Order event batch completed with errors", e);
+        }
+    }
+
+    private OrderStatus parseRow(BulkStatusUpdateRow row) {
+        if (row.getOrderId() == null && (row.getOrderNumber() == null || row.getOrderNumber().isBlank())) {
+            throw new InvalidOrderException("orderId or orderNumber is required");
+        }
+        if (row.getStatus() == null || row.getStatus().isBlank()) {
+            throw new InvalidOrderException("status is required");
+        }
+        try {
+            return OrderStatus.valueOf(row.getStatus().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOrderException("Unknown status: " + row.getStatus());
+        }
+    }
+
+    /**
+     * Reads the CSV header. Columns are matched by name, case-insensitively, so feeds may order them freely.
+     */
+    private Map<String, Integer> parseCsvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        String[] names = line.split(",", -1);
+        for (int i = 0; i < names.length; i++) {
+            columns.put(names[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("status") || !(columns.containsKey("orderid") || columns.containsKey("ordernumber"))) {
+            throw new InvalidOrderException("CSV header must contain status and orderId or orderNumber columns");
+        }
+        return columns;
+    }
+
+    /**
+     * Reads one CSV row. Fields are split on commas without quoting, which carrier feeds of ids and
+     * statuses do not need.
+     */
+    private BulkStatusUpdateRow parseCsvRow(Map<String, Integer> columns, String line) {
+        String[] fields = line.split(",", -1);
+        String orderId = csvField(columns, fields, "orderid");
+        return BulkStatusUpdateRow.builder()
+                .orderId(orderId != null ? UUID.fromString(orderId) : null)
+                .orderNumber(csvField(columns, fields, "ordernumber"))
+                .status(csvField(columns, fields, "status"))
+                .trackingNumber(csvField(columns, fields, "trackingnumber"))
+                .carrier(csvField(columns, fields, "carrier"))
+                .message(csvField(columns, fields, "message"))
+                .build();
+    }
+
+    private static String csvField(Map<String, Integer> columns, String[] fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.length) {
+            return null;
+        }
+        String value = fields[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BulkStatusUpdateResult result(long line, BulkStatusUpdateRow row, Outcome outcome, String message) {
+        return BulkStatusUpdateResult.builder()
+                .line(line)
+                .orderId(row != null ? row.getOrderId() : null)
+                .orderNumber(row != null ? row.getOrderNumber() : null)
+                .status(row != null ? row.getStatus() : null)
+                .outcome(outcome)
+                .message(message)
+                .build();
+    }
+
+    private static BulkStatusUpdateResult result(long line, Order order, OrderStatus status, Outcome outcome,
+                                                 String message) {
+        return BulkStatusUpdateResult.builder()
+                .line(line)
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .status(status.name())
+                .outcome(outcome)
+                .message(message)
+                .build();
+    }
+
+    private record PendingRow(long line, BulkStatusUpdateRow row, OrderStatus status) {
+    }
+
+    private record ChunkResult(List<BulkStatusUpdateResult> results, List<Order> updatedOrders) {
+    }
+}
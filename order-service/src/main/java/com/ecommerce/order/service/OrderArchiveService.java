@@ -0,0 +1,190 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.dto.OrderStatusHistoryResponse;
+import com.ecommerce.order.dto.orderitem.OrderItemResponse;
+import com.ecommerce.order.model.OrderArchive;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.OrderArchiveRepository;
+import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Page;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves completed orders out of the hot tables into the monthly-partitioned {@code orders_archive}.
+ * <p>
+ * Orders in a completed state ({@link com.ecommerce.order.model.Order#isCompleted()}) that have not changed for
+ * {@code order.archive.after-days} are copied together with their items and status history, then deleted from
+ * {@code orders}; the foreign keys cascade the delete to {@code order_items} and {@code order_status_history}.
+ * Each batch runs in its own transaction and claims its rows with {@code FOR UPDATE SKIP LOCKED}, so several
+ * instances can archive concurrently. Order summaries are kept and remain the customer's order history.
+ */
+@ApplicationScoped
+public class OrderArchiveService {
+
+    private static final Logger log = Logger.getLogger(OrderArchiveService.class);
+
+    private static final List<String> COMPLETED_STATUSES = List.of(
+            OrderStatus.DELIVERED.name(), OrderStatus.CANCELLED.name(),
+            OrderStatus.RETURNED.name(), OrderStatus.REFUNDED.name());
+
+    private static final String ARCHIVE_COLUMNS = "id, customer_id, order_number, status, shipping_address, "
+            + "billing_address, customer_email, customer_phone, subtotal, tax, shipping_fee, total, notes, currency, "
+            + "tracking_number, carrier, created_at, updated_at, delivered_date, cancelled_at";
+
+    private static final TypeReference<List<OrderItemResponse>> ITEMS_TYPE = new TypeReference<>() {};
+
+    private static final TypeReference<List<OrderStatusHistoryResponse>> HISTORY_TYPE = new TypeReference<>() {};
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderArchiveRepository orderArchiveRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "order.archive.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "order.archive.after-days", defaultValue = "90")
+    int afterDays;
+
+    @ConfigProperty(name = "order.archive.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @Scheduled(every = "{order.archive.every}", delayed = "{order.archive.every}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledArchive() {
+        if (enabled) {
+            archiveCompletedOrders();
+        }
+    }
+
+    /**
+     * Archives every eligible order in batches of {@code order.archive.batch-size}.
+     *
+     * @return the number of orders archived
+     */
+    public long archiveCompletedOrders() {
+        return archiveCompletedOrders(LocalDateTime.now().minusDays(afterDays));
+    }
+
+    /**
+     * Archives every completed order last updated before {@code cutoff}.
+     */
+    public long archiveCompletedOrders(LocalDateTime cutoff) {
+        long archived = 0;
+        while (true) {
+            int moved = QuarkusTransaction.requiringNew().call(() -> archiveBatch(cutoff));
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.infof("Archived %d orders completed before %s", archived, cutoff);
+        }
+        return archived;
+    }
+
+    public List<OrderResponse> getArchivedOrders(LocalDateTime from, LocalDateTime to, int pageIndex, int pageSize) {
+        return orderArchiveRepository.findCreatedBetween(from, to, Page.of(pageIndex, pageSize)).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    public List<OrderResponse> getArchivedCustomerOrders(UUID customerId, LocalDateTime from, LocalDateTime to,
+                                                         int pageIndex, int pageSize) {
+        return orderArchiveRepository.findByCustomerIdCreatedBetween(customerId, from, to, Page.of(pageIndex, pageSize))
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private int archiveBatch(LocalDateTime cutoff) {
+        EntityManager em = orderRepository.getEntityManager();
+        List<UUID> ids = em.createNativeQuery("SELECT id FROM orders WHERE status IN (:statuses) AND updated_at < :cutoff "
+                        + "ORDER BY updated_at LIMIT :limit FOR UPDATE SKIP LOCKED", UUID.class)
+                .setParameter("statuses", COMPLETED_STATUSES)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", batchSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        em.createNativeQuery("SELECT ensure_orders_archive_partition(m.month_start) FROM "
+                        + "(SELECT DISTINCT CAST(date_trunc('month', created_at) AS date) AS month_start FROM orders WHERE id IN (:ids)) m")
+                .setParameter("ids", ids)
+                .getResultList();
+
+        em.createNativeQuery("INSERT INTO orders_archive (" + ARCHIVE_COLUMNS + ", items, status_history, archived_at) "
+                        + "SELECT " + prefixed("o.") + ", "
+                        + "COALESCE((SELECT jsonb_agg(jsonb_build_object("
+                        + "'id', i.id, 'productId', i.product_id, 'productName', i.product_name, "
+                        + "'productSku', i.product_sku, 'quantity', i.quantity, 'unitPrice', i.unit_price, "
+                        + "'totalPrice', i.total_price, 'notes', i.notes, "
+                        + "'createdAt', i.created_at, 'updatedAt', i.updated_at) ORDER BY i.created_at) "
+                        + "FROM order_items i WHERE i.order_id = o.id), CAST('[]' AS jsonb)), "
+                        + "COALESCE((SELECT jsonb_agg(jsonb_build_object("
+                        + "'status', h.status, 'message', h.message, 'statusDate', h.status_date) "
+                        + "ORDER BY h.status_date, h.id) "
+                        + "FROM order_status_history h WHERE h.order_id = o.id), CAST('[]' AS jsonb)), "
+                        + "now() "
+                        + "FROM orders o WHERE o.id IN (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+
+        em.createNativeQuery("DELETE FROM orders WHERE id IN (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return ids.size();
+    }
+
+    private OrderResponse toResponse(OrderArchive archive) {
+        try {
+            return OrderResponse.builder()
+                    .id(archive.getId())
+                    .orderNumber(archive.getOrderNumber())
+                    .customerId(archive.getCustomerId())
+                    .customerEmail(archive.getCustomerEmail())
+                    .customerPhone(archive.getCustomerPhone())
+                    .status(archive.getStatus().name())
+                    .shippingAddress(archive.getShippingAddress())
+                    .billingAddress(archive.getBillingAddress())
+                    .subtotal(archive.getSubtotal())
+                    .tax(archive.getTax())
+                    .shippingFee(archive.getShippingFee())
+                    .total(archive.getTotal())
+                    .notes(archive.getNotes())
+                    .createdAt(archive.getCreatedAt())
+                    .updatedAt(archive.getUpdatedAt())
+                    .items(objectMapper.readValue(archive.getItems(), ITEMS_TYPE))
+                    .statusHistory(objectMapper.readValue(archive.getStatusHistory(), HISTORY_TYPE))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error reading archived order " + archive.getId(), e);
+        }
+    }
+
+    private static String prefixed(String alias) {
+        return alias + ARCHIVE_COLUMNS.replace(", ", ", " + alias);
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.event.OrderStatusChangedEvent;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OrderStatusHistory;
+import com.ecommerce.order.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancels orders left PENDING longer than {@code order.expiry.pending-timeout}.
+ * <p>
+ * Each chunk runs in its own transaction and claims up to {@code order.expiry.batch-size} orders with
+ * {@code FOR UPDATE SKIP LOCKED}, so replicas sweeping at the same time never pick the same order and never wait on
+ * an order a customer is paying for. After the chunk commits, an {@code ORDER_CANCELLED} event is published per
+ * order; inventory-service releases the order's stock hold from it, once per order however often it is delivered.
+ * The number of expired orders still pending after a run is exported as the {@code orders.expiry.backlog} gauge.
+ */
+@ApplicationScoped
+public class OrderExpiryService {
+
+    private static final Logger log = Logger.getLogger(OrderExpiryService.class);
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderService orderService;
+
+    @Inject
+    OrderProjectionService orderProjectionService;
+
+    @Inject
+    Event<OrderStatusChangedEvent> statusChangedEvent;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "order.expiry.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "order.expiry.pending-timeout", defaultValue = "PT30M")
+    Duration pendingTimeout;
+
+    @ConfigProperty(name = "order.expiry.batch-size", defaultValue = "200")
+    int batchSize;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private Counter expiredCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("orders.expiry.backlog", backlog);
+        expiredCounter = meterRegistry.counter("orders.expiry.cancelled");
+    }
+
+    @Scheduled(every = "{order.expiry.every}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledSweep() {
+        if (enabled) {
+            sweepExpiredOrders();
+        }
+    }
+
+    /**
+     * Cancels every order that has been PENDING since before the configured timeout.
+     *
+     * @return the number of orders cancelled
+     */
+    public long sweepExpiredOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(pendingTimeout);
+        long cancelled = 0;
+        while (true) {
+            List<Order> expired;
+            try {
+                expired = QuarkusTransaction.requiringNew().call(() -> expireChunk(cutoff));
+            } catch (Exception e) {
+                log.errorf(e, "Expiring unpaid orders failed, retrying on the next run");
+                break;
+            }
+            if (expired.isEmpty()) {
+                break;
+            }
+            cancelled += expired.size();
+            expiredCounter.increment(expired.size());
+            orderService.publishOrderEvents(expired, "ORDER_CANCELLED");
+            if (expired.size() < batchSize) {
+                break;
+            }
+        }
+
+        backlog.set(orderRepository.count("status = ?1 and createdAt < ?2", OrderStatus.PENDING, cutoff));
+        if (cancelled > 0) {
+            log.infof("Cancelled %d unpaid orders created before %s, %d still pending", cancelled, cutoff, backlog.get());
+        }
+        return cancelled;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Order> expireChunk(LocalDateTime cutoff) {
+        List<UUID> ids = orderRepository.getEntityManager()
+                .createNativeQuery("SELECT id FROM orders WHERE status = 'PENDING' AND created_at < :cutoff "
+                        + "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", UUID.class)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", batchSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Order> orders = orderRepository.list("id in ?1", ids);
+        String message = "Order expired: payment not received within " + pendingTimeout.toMinutes() + " minutes";
+        List<OrderStatusHistory> changes = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            changes.add(order.transitionTo(OrderStatus.CANCELLED, message));
+            statusChangedEvent.fire(new OrderStatusChangedEvent(
+                    order.getId(), OrderStatus.CANCELLED, message, LocalDateTime.now()));
+        }
+        orderProjectionService.projectStatusChanges(changes);
+        return orders;
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.FeedFormat;
+import com.ecommerce.order.dto.export.OrderExportFilter;
+import com.ecommerce.order.dto.export.OrderExportRow;
+import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders to an output stream as NDJSON or CSV.
+ * <p>
+ * Rows come from a forward-only database cursor fetched {@code order.export.fetch-size} at a time and are written
+ * through a buffer of {@code order.export.buffer-size} bytes, so memory use does not depend on the number of rows.
+ * Writes block while the client is slow to read. When the client disconnects the next write fails, which closes
+ * the cursor and ends the read-only transaction.
+ */
+@ApplicationScoped
+public class OrderExportService {
+
+    private static final Logger log = Logger.getLogger(OrderExportService.class);
+
+    private static final String CSV_HEADER = "id,orderNumber,customerId,customerEmail,status,subtotal,tax,"
+            + "shippingFee,total,currency,createdAt,updatedAt";
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "order.export.fetch-size", defaultValue = "1000")
+    int fetchSize;
+
+    @ConfigProperty(name = "order.export.buffer-size", defaultValue = "65536")
+    int bufferSize;
+
+    @ConfigProperty(name = "order.export.timeout", defaultValue = "PT30M")
+    Duration timeout;
+
+    /**
+     * Writes every order matching {@code filter} to {@code output}.
+     *
+     * @return the number of rows written, or -1 if the client went away before the export finished
+     */
+    public long export(OrderExportFilter filter, FeedFormat format, OutputStream output) {
+        try {
+            long rows = QuarkusTransaction.requiringNew()
+                    .timeout((int) timeout.toSeconds())
+                    .call(() -> writeRows(filter, format, output));
+            log.infof("Exported %d orders as %s", rows, format);
+            return rows;
+        } catch (UncheckedIOException e) {
+            log.infof("Order export cancelled: %s", e.getCause().getMessage());
+            return -1;
+        }
+    }
+
+    private long writeRows(OrderExportFilter filter, FeedFormat format, OutputStream output) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), bufferSize);
+        long rows = 0;
+        try (Stream<OrderExportRow> stream = orderRepository.streamForExport(filter, fetchSize)) {
+            if (format == FeedFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<OrderExportRow> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                OrderExportRow row = iterator.next();
+                if (format == FeedFormat.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                }
+                writer.write('\n');
+                rows++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, OrderExportRow row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writeCsvField(writer, row.getOrderNumber());
+        writer.write(',');
+        writer.write(String.valueOf(row.getCustomerId()));
+        writer.write(',');
+        writeCsvField(writer, row.getCustomerEmail());
+        writer.write(',');
+        writeCsvField(writer, row.getStatus() != null ? row.getStatus().name() : null);
+        writer.write(',');
+        writeCsvField(writer, row.getSubtotal() != null ? row.getSubtotal().toPlainString() : null);
+        writer.write(',');
+        writeCsvField(writer, row.getTax() != null ? row.getTax().toPlainString() : null);
+        writer.write(',');
+        writeCsvField(writer, row.getShippingFee() != null ? row.getShippingFee().toPlainString() : null);
+        writer.write(',');
+        writeCsvField(writer, row.getTotal() != null ? row.getTotal().toPlainString() : null);
+        writer.write(',');
+        writeCsvField(writer, row.getCurrency());
+        writer.write(',');
+        writeCsvField(writer, row.getCreatedAt() != null ? row.getCreatedAt().toString() : null);
+        writer.write(',');
+        writeCsvField(writer, row.getUpdatedAt() != null ? row.getUpdatedAt().toString() : null);
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,233 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.dto.OrderStatusHistoryResponse;
+import com.ecommerce.order.dto.orderitem.OrderItemResponse;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatusHistory;
+import com.ecommerce.order.model.OrderSummary;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSummaryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@link OrderSummary} read model from the order write model.
+ * <p>
+ * {@link #project(Order)} is called by {@link OrderService} inside the same transaction
+ * as the domain change, so the projection never lags behind a committed order; orders
+ * placed before the projection existed are backfilled by migration V10.
+ * {@link #rebuild()} regenerates every summary from the write tables.
+ */
+@ApplicationScoped
+public class OrderProjectionService {
+
+    private static final Logger log = Logger.getLogger(OrderProjectionService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final TypeReference<List<OrderItemResponse>> ITEMS_TYPE = new TypeReference<>() {};
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderSummaryRepository orderSummaryRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Transactional
+    public void project(Order order) {
+        List<OrderStatusHistory> history = order.getStatusHistory();
+        OrderStatusHistory latest = history == null || history.isEmpty() ? null : history.get(history.size() - 1);
+        project(order, latest);
+    }
+
+    /**
+     * Projects a batch of status changes, given the history row each order just recorded.
+     * Existing summaries are loaded with one query and only their status columns are rewritten;
+     * orders without a summary yet get a full projection.
+     */
+    @Transactional
+    public void projectStatusChanges(List<OrderStatusHistory> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<UUID, OrderSummary> summaries = orderSummaryRepository
+                .list("orderId in ?1", changes.stream().map(h -> h.getOrder().getId()).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(OrderSummary::getOrderId, summary -> summary));
+
+        for (OrderStatusHistory latest : changes) {
+            Order order = latest.getOrder();
+            OrderSummary summary = summaries.get(order.getId());
+            if (summary == null) {
+                project(order, latest);
+                continue;
+            }
+            summary.setStatus(order.getStatus());
+            summary.setLatestStatus(writeJson(OrderStatusHistoryResponse.fromEntity(latest)));
+            summary.setUpdatedAt(order.getUpdatedAt() != null ? order.getUpdatedAt() : LocalDateTime.now());
+        }
+    }
+
+    public OrderResponse toResponse(OrderSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+        try {
+            List<OrderItemResponse> items = objectMapper.readValue(summary.getItems(), ITEMS_TYPE);
+            List<OrderStatusHistoryResponse> statusHistory = summary.getLatestStatus() != null
+                    ? List.of(objectMapper.readValue(summary.getLatestStatus(), OrderStatusHistoryResponse.class))
+                    : null;
+
+            return OrderResponse.builder()
+                    .id(summary.getOrderId())
+                    .orderNumber(summary.getOrderNumber())
+                    .customerId(summary.getCustomerId())
+                    .customerEmail(summary.getCustomerEmail())
+                    .customerPhone(summary.getCustomerPhone())
+                    .status(summary.getStatus().name())
+                    .shippingAddress(summary.getShippingAddress())
+                    .billingAddress(summary.getBillingAddress())
+                    .subtotal(summary.getSubtotal())
+                    .tax(summary.getTax())
+                    .shippingFee(summary.getShippingFee())
+                    .total(summary.getTotal())
+                    .notes(summary.getNotes())
+                    .createdAt(summary.getCreatedAt())
+                    .updatedAt(summary.getUpdatedAt())
+                    .items(items)
+                    .statusHistory(statusHistory)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error reading order summary " + summary.getOrderId(), e);
+        }
+    }
+
+    /**
+     * Regenerates all order summaries from the write model in keyset-paged batches,
+     * each batch in its own transaction.
+     *
+     * @return the number of orders projected
+     */
+    public long rebuild() {
+        log.info("Rebuilding order summary projection");
+        long projected = 0;
+        UUID lastId = null;
+        while (true) {
+            UUID after = lastId;
+            List<UUID> ids = QuarkusTransaction.requiringNew().call(() -> rebuildBatch(after));
+            if (ids.isEmpty()) {
+                break;
+            }
+            projected += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        log.infof("Rebuilt order summary projection for %d orders", projected);
+        return projected;
+    }
+
+    private List<UUID> rebuildBatch(UUID after) {
+        TypedQuery<UUID> idQuery = after == null
+                ? orderRepository.getEntityManager()
+                        .createQuery("select o.id from Order o order by o.id", UUID.class)
+                : orderRepository.getEntityManager()
+                        .createQuery("select o.id from Order o where o.id > :after order by o.id", UUID.class)
+                        .setParameter("after", after);
+        List<UUID> ids = idQuery.setMaxResults(REBUILD_BATCH_SIZE).getResultList();
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        List<Order> orders = orderRepository.list(
+                "select distinct o from Order o left join fetch o.items where o.id in ?1", ids);
+        Map<UUID, OrderStatusHistory> latestByOrder = new HashMap<>();
+        orderRepository.getEntityManager()
+                .createQuery("select h from OrderStatusHistory h where h.order.id in :ids order by h.statusDate, h.id",
+                        OrderStatusHistory.class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(h -> latestByOrder.put(h.getOrder().getId(), h));
+
+        for (Order order : orders) {
+            project(order, latestByOrder.get(order.getId()));
+        }
+        return ids;
+    }
+
+    private void project(Order order, OrderStatusHistory latest) {
+        OrderSummary summary = orderSummaryRepository.findById(order.getId());
+        boolean isNew = summary == null;
+        if (isNew) {
+            summary = new OrderSummary();
+            summary.setOrderId(order.getId());
+        }
+
+        List<OrderItem> orderItems = order.getItems() != null ? order.getItems() : Collections.emptyList();
+        List<OrderItemResponse> items = orderItems.stream()
+                .map(this::toItemResponse)
+                .collect(Collectors.toList());
+
+        summary.setCustomerId(order.getCustomerId());
+        summary.setOrderNumber(order.getOrderNumber());
+        summary.setStatus(order.getStatus());
+        summary.setCustomerEmail(order.getCustomerEmail());
+        summary.setCustomerPhone(order.getCustomerPhone());
+        summary.setShippingAddress(order.getShippingAddress());
+        summary.setBillingAddress(order.getBillingAddress());
+        summary.setSubtotal(zeroIfNull(order.getSubtotal()));
+        summary.setTax(zeroIfNull(order.getTax()));
+        summary.setShippingFee(zeroIfNull(order.getShippingFee()));
+        summary.setTotal(zeroIfNull(order.getTotal()));
+        summary.setNotes(order.getNotes());
+        summary.setItemCount(items.size());
+        summary.setItems(writeJson(items));
+        summary.setLatestStatus(latest != null ? writeJson(OrderStatusHistoryResponse.fromEntity(latest)) : null);
+        summary.setCreatedAt(order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now());
+        summary.setUpdatedAt(order.getUpdatedAt() != null ? order.getUpdatedAt() : LocalDateTime.now());
+
+        if (isNew) {
+            orderSummaryRepository.persist(summary);
+        }
+    }
+
+    private OrderItemResponse toItemResponse(OrderItem item) {
+        OrderItemResponse response = OrderItemResponse.fromEntity(item);
+        // totalPrice is transient on the entity and not populated for rows loaded from the database
+        if (response.getTotalPrice() == null && item.getUnitPrice() != null && item.getQuantity() != null) {
+            response.setTotalPrice(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return response;
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error writing order summary", e);
+        }
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
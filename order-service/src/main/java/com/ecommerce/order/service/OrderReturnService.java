@@ -0,0 +1,182 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.returns.ReturnRequest;
+import com.ecommerce.order.dto.returns.ReturnResponse;
+import com.ecommerce.order.exception.InvalidOrderException;
+import com.ecommerce.order.exception.ResourceNotFoundException;
+import com.ecommerce.order.model.Money;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderReturn;
+import com.ecommerce.order.model.OrderReturnItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OrderStatusTransitions;
+import com.ecommerce.order.model.ReturnStatus;
+import com.ecommerce.order.model.ReturnTask;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderReturnRepository;
+import com.ecommerce.order.repository.ReturnTaskRepository;
+import io.quarkus.panache.common.Page;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts order returns and serves return history.
+ * <p>
+ * A return is validated and recorded synchronously together with its restock and refund tasks, so the request
+ * only pays for a few inserts. The tasks are worked asynchronously by {@link ReturnTaskProcessor}, which retries
+ * them with backoff and completes the return once both have succeeded.
+ */
+@ApplicationScoped
+public class OrderReturnService {
+
+    private static final Logger log = Logger.getLogger(OrderReturnService.class);
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderReturnRepository orderReturnRepository;
+
+    @Inject
+    ReturnTaskRepository returnTaskRepository;
+
+    @Inject
+    OrderService orderService;
+
+    /**
+     * Records a return of some or all of an order's items. Each line may return at most the quantity not already
+     * returned; the refund is the unit price times the returned quantity.
+     */
+    @Transactional
+    public ReturnResponse initiateReturn(UUID orderId, ReturnRequest request) {
+        Order order = orderRepository.findByIdOptional(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+
+        OrderStatus status = order.getStatus();
+        if (status != OrderStatus.RETURN_REQUESTED
+                && !OrderStatusTransitions.isAllowed(status, OrderStatus.RETURN_REQUESTED)) {
+            throw new InvalidOrderException("Order cannot be returned in its current state: " + status);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OrderReturn orderReturn = OrderReturn.builder()
+                .returnNumber(generateReturnNumber())
+                .orderId(orderId)
+                .orderNumber(order.getOrderNumber())
+                .customerId(order.getCustomerId())
+                .status(ReturnStatus.REQUESTED)
+                .reason(request.getReason())
+                .comments(request.getComments())
+                .requestedAt(now)
+                .updatedAt(now)
+                .build();
+
+        Map<UUID, OrderItem> orderItems = order.getItems().stream()
+                .collect(Collectors.toMap(OrderItem::getId, Function.identity()));
+        Set<UUID> seen = new HashSet<>();
+        String currency = order.currencyOrDefault();
+        Money refundAmount = Money.zero(currency);
+        for (ReturnRequest.ReturnItemRequest line : request.getItems()) {
+            if (!seen.add(line.getOrderItemId())) {
+                throw new InvalidOrderException("Order item listed more than once: " + line.getOrderItemId());
+            }
+            OrderItem item = orderItems.get(line.getOrderItemId());
+            if (item == null) {
+                throw new InvalidOrderException(String.format(
+                        "Order item %s does not belong to order %s", line.getOrderItemId(), orderId));
+            }
+            int returnable = item.getQuantity() - item.getReturnedQuantity();
+            if (line.getQuantity() > returnable) {
+                throw new InvalidOrderException(String.format(
+                        "Only %d of order item %s can be returned", returnable, item.getId()));
+            }
+
+            item.setReturnedQuantity(item.getReturnedQuantity() + line.getQuantity());
+            Money lineRefund = Money.of(item.getUnitPrice(), currency).times(line.getQuantity());
+            refundAmount = refundAmount.plus(lineRefund);
+            orderReturn.addItem(OrderReturnItem.builder()
+                    .orderItemId(item.getId())
+                    .productId(item.getProductId())
+                    .productName(item.getProductName())
+                    .productSku(item.getProductSku())
+                    .quantity(line.getQuantity())
+                    .unitPrice(item.getUnitPrice())
+                    .refundAmount(lineRefund.toBigDecimal())
+                    .reason(line.getReason())
+                    .build());
+        }
+        orderReturn.setRefundAmount(refundAmount.toBigDecimal());
+
+        orderReturnRepository.persist(orderReturn);
+        returnTaskRepository.persist(List.of(
+                ReturnTask.pending(orderReturn.getId(), ReturnTask.Stage.RESTOCK),
+                ReturnTask.pending(orderReturn.getId(), ReturnTask.Stage.REFUND)));
+
+        if (status != OrderStatus.RETURN_REQUESTED) {
+            orderService.applyStatusTransitions(orderId, List.of(OrderStatus.RETURN_REQUESTED));
+        }
+
+        log.infof("Return %s requested for order %s, refund %s", orderReturn.getReturnNumber(), orderId, refundAmount);
+        return toResponse(orderReturn);
+    }
+
+    public List<ReturnResponse> getReturnHistory(UUID customerId, int pageIndex, int pageSize) {
+        return orderReturnRepository.findByCustomerId(customerId, Page.of(pageIndex, pageSize)).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    public ReturnResponse getReturnDetails(UUID returnId) {
+        return orderReturnRepository.findByIdWithItems(returnId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Return not found with id: " + returnId));
+    }
+
+    private ReturnResponse toResponse(OrderReturn orderReturn) {
+        ReturnResponse response = new ReturnResponse();
+        response.setId(orderReturn.getId());
+        response.setReturnNumber(orderReturn.getReturnNumber());
+        response.setOrderId(orderReturn.getOrderId());
+        response.setOrderNumber(orderReturn.getOrderNumber());
+        response.setStatus(orderReturn.getStatus().name());
+        response.setReturnReason(orderReturn.getReason());
+        response.setComments(orderReturn.getComments());
+        response.setRefundAmount(orderReturn.getRefundAmount());
+        response.setRefundMethod(orderReturn.getRefundMethod());
+        response.setRequestedDate(orderReturn.getRequestedAt());
+        response.setProcessedDate(orderReturn.getProcessedAt());
+        response.setItems(orderReturn.getItems().stream()
+                .map(item -> {
+                    ReturnResponse.ReturnItemResponse itemResponse = new ReturnResponse.ReturnItemResponse();
+                    itemResponse.setId(item.getId());
+                    itemResponse.setOrderItemId(item.getOrderItemId());
+                    itemResponse.setProductId(item.getProductId());
+                    itemResponse.setProductName(item.getProductName());
+                    itemResponse.setProductSku(item.getProductSku());
+                    itemResponse.setQuantity(item.getQuantity());
+                    itemResponse.setUnitPrice(item.getUnitPrice());
+                    itemResponse.setRefundAmount(item.getRefundAmount());
+                    itemResponse.setReason(item.getReason());
+                    itemResponse.setStatus(orderReturn.getStatus().name());
+                    return itemResponse;
+                })
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    private String generateReturnNumber() {
+        return "RET-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
@@ -1,31 +1,40 @@
 package com.ecommerce.order.service;
 
-import com.ecommerce.order.client.ProductServiceClient;
 import com.ecommerce.order.dto.OrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
-import com.ecommerce.order.exception.InsufficientStockException;
+import com.ecommerce.order.dto.orderitem.OrderItemRequest;
+import com.ecommerce.order.dto.shipping.ShippingOption;
+import com.ecommerce.order.event.OrderPlacedEvent;
+import com.ecommerce.order.event.OrderStatusChangedEvent;
 import com.ecommerce.order.exception.InvalidOrderException;
 import com.ecommerce.order.exception.ResourceNotFoundException;
 import com.ecommerce.order.mapper.OrderMapper;
 import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
 import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OrderStatusTransitions;
 import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSummaryRepository;
+import com.ecommerce.order.service.catalog.ProductCatalogService;
+import com.ecommerce.order.service.shipping.ShippingRateService;
 import io.quarkus.panache.common.Page;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.eclipse.microprofile.faulttolerance.Retry;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.eclipse.microprofile.reactive.messaging.Message;
 import org.jboss.logging.Logger;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -37,11 +46,25 @@ public class OrderService {
     OrderRepository orderRepository;
 
     @Inject
-    @RestClient
-    ProductServiceClient productServiceClient;
+    OrderMapper orderMapper;
 
     @Inject
-    OrderMapper orderMapper;
+    OrderSummaryRepository orderSummaryRepository;
+
+    @Inject
+    OrderProjectionService orderProjectionService;
+
+    @Inject
+    ProductCatalogService productCatalogService;
+
+    @Inject
+    ShippingRateService shippingRateService;
+
+    @Inject
+    Event<OrderStatusChangedEvent> statusChangedEvent;
+
+    @Inject
+    Event<OrderPlacedEvent> orderPlacedEvent;
 
     @Inject
     @Channel("order-events")
@@ -58,7 +81,9 @@ public class OrderService {
             throw new InvalidOrderException("Order must contain at least one item");
         }
 
-        checkProductAvailability(request);
+        // Stock is not checked here: inventory-service reserves every line from ORDER_CREATED, and an order it cannot
+        // reserve is cancelled by its inventory-out-of-stock outcome
+        productCatalogService.priceItems(request.getItems());
 
         Order order = orderMapper.toEntity(request);
         order.setOrderNumber(generateOrderNumber());
@@ -68,55 +93,104 @@ public class OrderService {
 
         order.addStatusHistory(OrderStatus.PENDING, "Order created");
 
-        BigDecimal total = request.getItems().stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        order.setTotal(total);
+        // Every amount is computed here from the priced lines; the client's subtotal, tax, fee and total are ignored
+        for (OrderItemRequest line : request.getItems()) {
+            OrderItem item = new OrderItem();
+            item.setProductId(UUID.fromString(line.getProductId()));
+            item.setProductName(line.getProductName());
+            item.setProductSku(line.getSku());
+            item.setQuantity(line.getQuantity());
+            item.setUnitPrice(line.getUnitPrice());
+            order.addItem(item);
+        }
+        ShippingOption shipping = shippingRateService.quote(request.getShippingCountry(),
+                request.getShippingPostalCode(), request.getShippingOptionId(), order.getSubtotal());
+        order.setShippingFee(shipping.getPrice());
+        order.calculateTotals();
 
         orderRepository.persist(order);
+        orderProjectionService.project(order);
 
-        updateProductInventory(order);
-        publishOrderEvent(order, "ORDER_CREATED");
+        Map<String, Object> createdEvent = toOrderEvent(order, "ORDER_CREATED");
+        createdEvent.put("items", request.getItems().stream()
+                .map(OrderService::toItemEvent)
+                .collect(Collectors.toList()));
+        publishOrderEvent(order, "ORDER_CREATED", createdEvent);
+        orderPlacedEvent.fire(new OrderPlacedEvent(order.getId(), request.getItems().stream()
+                .map(item -> UUID.fromString(item.getProductId()))
+                .collect(Collectors.toList())));
 
         return orderMapper.toResponse(order);
     }
 
     public OrderResponse getOrderById(UUID orderId) {
         log.infof("Fetching order with id: %s", orderId);
-        Order order = orderRepository.findByIdOptional(orderId)
+        return orderRepository.findByIdOptional(orderId)
+                .map(orderMapper::toResponse)
+                // Archived orders only remain in the summary read model
+                .or(() -> orderSummaryRepository.findByIdOptional(orderId).map(orderProjectionService::toResponse))
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
-        return orderMapper.toResponse(order);
     }
 
     public OrderResponse getOrderByNumber(String orderNumber) {
         log.infof("Fetching order with number: %s", orderNumber);
-        Order order = orderRepository.findByOrderNumber(orderNumber)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with number: " + orderNumber));
-        return orderMapper.toResponse(order);
+        return orderSummaryRepository.findByOrderNumber(orderNumber)
+                .map(orderProjectionService::toResponse)
+                // Fall back to the write model for orders not yet projected
+                .orElseGet(() -> orderRepository.findByOrderNumber(orderNumber)
+                        .map(orderMapper::toResponse)
+                        .orElseThrow(() -> new ResourceNotFoundException("Order not found with number: " + orderNumber)));
     }
 
     public List<OrderResponse> getCustomerOrders(UUID customerId, int pageIndex, int pageSize) {
         log.infof("Fetching orders for customer: %s", customerId);
-        return orderRepository.findByCustomerId(customerId, Page.of(pageIndex, pageSize)).stream()
-                .map(orderMapper::toResponse)
+        return orderSummaryRepository.findByCustomerId(customerId, Page.of(pageIndex, pageSize)).stream()
+                .map(orderProjectionService::toResponse)
                 .collect(Collectors.toList());
     }
 
+    public long rebuildOrderProjection() {
+        return orderProjectionService.rebuild();
+    }
+
     @Transactional
     public OrderResponse updateOrderStatus(UUID orderId, OrderStatus status) {
         log.infof("Updating order %s status to %s", orderId, status);
         Order order = orderRepository.findByIdOptional(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
 
-        OrderStatus oldStatus = order.getStatus();
-        order.setStatus(status);
-        order.setUpdatedAt(LocalDateTime.now());
+        applyStatusTransition(order, status);
+        orderProjectionService.project(order);
 
-        order.addStatusHistory(status, String.format("Status changed from %s to %s", oldStatus, status));
+        return orderMapper.toResponse(order);
+    }
 
-        publishOrderEvent(order, "ORDER_STATUS_UPDATED");
+    /**
+     * Applies a sequence of status changes to one order in a single transaction.
+     * Changes to the status the order already has, and changes the order's status does not allow, are skipped.
+     */
+    @Transactional
+    public void applyStatusTransitions(UUID orderId, List<OrderStatus> statuses) {
+        log.infof("Applying %d status transitions to order %s", statuses.size(), orderId);
+        Order order = orderRepository.findByIdOptional(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
 
-        return orderMapper.toResponse(order);
+        boolean changed = false;
+        for (OrderStatus status : statuses) {
+            if (order.getStatus() == status) {
+                log.debugf("Order %s already in status %s, skipping", orderId, status);
+                continue;
+            }
+            if (!OrderStatusTransitions.isAllowed(order.getStatus(), status)) {
+                log.warnf("Ignoring invalid transition of order %s from %s to %s", orderId, order.getStatus(), status);
+                continue;
+            }
+            applyStatusTransition(order, status);
+            changed = true;
+        }
+        if (changed) {
+            orderProjectionService.project(order);
+        }
     }
 
     @Transactional
@@ -130,82 +204,126 @@ public class OrderService {
             throw new InvalidOrderException("Order cannot be cancelled in its current state: " + order.getStatus());
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
-        order.setCancelledAt(LocalDateTime.now());
-        order.setUpdatedAt(LocalDateTime.now());
-
-        order.addStatusHistory(OrderStatus.CANCELLED, "Order cancelled by customer");
-
-        updateProductInventory(order, true);
+        order.transitionTo(OrderStatus.CANCELLED, "Order cancelled by customer");
+        orderProjectionService.project(order);
+        statusChangedEvent.fire(new OrderStatusChangedEvent(
+                orderId, OrderStatus.CANCELLED, "Order cancelled by customer", LocalDateTime.now()));
 
+        // Inventory-service releases the order's hold from ORDER_CANCELLED
         publishOrderEvent(order, "ORDER_CANCELLED");
 
         return orderMapper.toResponse(order);
     }
 
-    @Retry(maxRetries = 3, delay = 1000)
-    protected void checkProductAvailability(OrderRequest request) {
-        log.info("Checking product availability for order");
-        try {
-            List<Map<String, Object>> itemsToCheck = request.getItems().stream()
-                    .map(item -> {
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("productId", item.getProductId().toString());
-                        map.put("quantity", item.getQuantity());
-                        return map;
-                    })
-                    .collect(Collectors.toList());
-
-            productServiceClient.checkStockAvailability(itemsToCheck);
-        } catch (Exception e) {
-            log.error("Error checking product availability", e);
-            throw new RuntimeException("Error checking product availability", e);
+    private void applyStatusTransition(Order order, OrderStatus status) {
+        OrderStatus oldStatus = order.getStatus();
+        if (!OrderStatusTransitions.isAllowed(oldStatus, status)) {
+            throw new InvalidOrderException(String.format(
+                    "Order cannot move from %s to %s; allowed: %s",
+                    oldStatus, status, OrderStatusTransitions.allowedFrom(oldStatus)));
         }
-    }
 
-    @Retry(maxRetries = 3, delay = 1000)
-    protected void updateProductInventory(Order order) {
-        updateProductInventory(order, false);
-    }
+        String message = String.format("Status changed from %s to %s", oldStatus, status);
+        order.transitionTo(status, message);
+        statusChangedEvent.fire(new OrderStatusChangedEvent(order.getId(), status, message, LocalDateTime.now()));
 
-    @Retry(maxRetries = 3, delay = 1000)
-    protected void updateProductInventory(Order order, boolean isCancellation) {
-        log.infof("Updating product inventory for order: %s", order.getId());
-        try {
-            List<Map<String, Object>> items = order.getItems().stream()
-                    .map(item -> {
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("productId", item.getProductId().toString());
-                        map.put("quantity", isCancellation ? item.getQuantity() : -item.getQuantity());
-                        return map;
-                    })
-                    .collect(Collectors.toList());
-
-            productServiceClient.updateInventory(items);
-        } catch (Exception e) {
-            log.error("Error updating product inventory", e);
-            throw new RuntimeException("Error updating product inventory", e);
-        }
+        publishOrderEvent(order, "ORDER_STATUS_UPDATED");
     }
 
     protected void publishOrderEvent(Order order, String eventType) {
+        publishOrderEvent(order, eventType, toOrderEvent(order, eventType));
+    }
+
+    private void publishOrderEvent(Order order, String eventType, Map<String, Object> event) {
         log.infof("Publishing %s event for order: %s", eventType, order.getId());
         try {
-            Map<String, Object> event = Map.of(
-                    "eventType", eventType,
-                    "orderId", order.getId().toString(),
-                    "orderNumber", order.getOrderNumber(),
-                    "customerId", order.getCustomerId().toString(),
-                    "status", order.getStatus().name(),
-                    "timestamp", LocalDateTime.now().toString()
-            );
-
-            orderEventEmitter.send(event);
+            send(event).exceptionally(e -> {
+                log.errorf(e, "Error publishing %s event for order: %s", eventType, order.getId());
+                return null;
+            });
         } catch (Exception e) {
             log.error("Error publishing order event", e);
         }
     }
 
+    /**
+     * Sends one event per order and returns a stage that completes once every send has been acknowledged,
+     * so callers can bound the number of in-flight events.
+     */
+    protected CompletableFuture<Void> publishOrderEvents(List<Order> orders, String eventType) {
+        log.infof("Publishing %d %s events", orders.size(), eventType);
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            try {
+                sends[i] = send(toOrderEvent(order, eventType))
+                        .exceptionally(e -> {
+                            log.errorf(e, "Error publishing %s event for order: %s", eventType, order.getId());
+                            return null;
+                        });
+            } catch (Exception e) {
+                log.errorf(e, "Error publishing %s event for order: %s", eventType, order.getId());
+                sends[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+        return CompletableFuture.allOf(sends);
+    }
+
+    /**
+     * Sends an arbitrary event on {@code order-events}. Unlike {@link #publishOrderEvent} failures are not swallowed:
+     * the returned stage completes once the broker has acknowledged the event, or fails.
+     */
+    protected CompletableFuture<Void> sendOrderEvent(Map<String, Object> event) {
+        return send(event);
+    }
+
+    /**
+     * Sends {@code event} keyed by its order id, so all events of one order share a partition and are consumed in the
+     * order they were published; a cancellation cannot overtake the creation of its order. The returned stage
+     * completes once the broker has acknowledged the event, or fails.
+     */
+    private CompletableFuture<Void> send(Map<String, Object> event) {
+        CompletableFuture<Void> acked = new CompletableFuture<>();
+        Message<Map<String, Object>> message = Message.of(event, () -> {
+            acked.complete(null);
+            return CompletableFuture.completedFuture(null);
+        }, failure -> {
+            acked.completeExceptionally(failure);
+            return CompletableFuture.completedFuture(null);
+        });
+        Object orderId = event.get("orderId");
+        if (orderId != null) {
+            message = message.addMetadata(OutgoingKafkaRecordMetadata.<String>builder()
+                    .withKey(orderId.toString())
+                    .build());
+        }
+        orderEventEmitter.send(message);
+        return acked;
+    }
+
+    private Map<String, Object> toOrderEvent(Order order, String eventType) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventId", UUID.randomUUID().toString());
+        event.put("eventType", eventType);
+        event.put("orderId", order.getId().toString());
+        event.put("orderNumber", order.getOrderNumber());
+        event.put("customerId", order.getCustomerId().toString());
+        event.put("status", order.getStatus().name());
+        event.put("total", order.getTotal());
+        event.put("currency", order.currencyOrDefault());
+        event.put("timestamp", LocalDateTime.now().toString());
+        return event;
+    }
+
+    private static Map<String, Object> toItemEvent(OrderItemRequest item) {
+        Map<String, Object> line = new HashMap<>();
+        line.put("productId", item.getProductId());
+        line.put("categoryId", item.getCategoryId() != null ? item.getCategoryId().toString() : null);
+        line.put("quantity", item.getQuantity());
+        line.put("unitPrice", item.getUnitPrice());
+        return line;
+    }
+
     private String generateOrderNumber() {
         return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
@@ -0,0 +1,89 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.tracking.OrderStatusUpdate;
+import com.ecommerce.order.dto.tracking.OrderTrackingResponse;
+import com.ecommerce.order.event.OrderStatusChangedEvent;
+import com.ecommerce.order.exception.ResourceNotFoundException;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderStatusHistoryRepository;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.smallrye.mutiny.operators.multi.processors.SerializedProcessor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves order tracking and timeline reads from {@code order_status_history}, and pushes
+ * committed status changes to Server-Sent Events subscribers.
+ */
+@ApplicationScoped
+public class OrderTrackingService {
+
+    private static final Logger log = Logger.getLogger(OrderTrackingService.class);
+
+    private static final int STREAM_BUFFER_SIZE = 64;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderStatusHistoryRepository orderStatusHistoryRepository;
+
+    // Observers run on the committing threads, so their signals are serialized before reaching subscribers
+    private final SerializedProcessor<OrderStatusChangedEvent, OrderStatusChangedEvent> statusChanges =
+            BroadcastProcessor.<OrderStatusChangedEvent>create().serialized();
+
+    public OrderTrackingResponse getOrderTracking(UUID orderId) {
+        log.debugf("Fetching tracking for order: %s", orderId);
+        Order order = orderRepository.findByIdOptional(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+
+        OrderTrackingResponse response = new OrderTrackingResponse();
+        response.setOrderId(order.getId());
+        response.setOrderNumber(order.getOrderNumber());
+        response.setStatus(order.getStatus().name());
+        response.setTrackingNumber(order.getTrackingNumber());
+        response.setCarrier(order.getCarrier());
+        response.setEstimatedDelivery(order.getEstimatedDeliveryDate());
+        response.setActualDelivery(order.getDeliveredAt());
+        response.setStatusUpdates(orderStatusHistoryRepository.findTimeline(orderId));
+        return response;
+    }
+
+    public List<OrderStatusUpdate> getOrderTimeline(UUID orderId) {
+        log.debugf("Fetching timeline for order: %s", orderId);
+        List<OrderStatusUpdate> timeline = orderStatusHistoryRepository.findTimeline(orderId);
+        if (timeline.isEmpty() && orderRepository.count("id", orderId) == 0) {
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
+        }
+        return timeline;
+    }
+
+    /**
+     * Streams status changes of one order as they are committed, starting with the current status.
+     */
+    public Multi<OrderStatusUpdate> streamStatusUpdates(UUID orderId) {
+        List<OrderStatusUpdate> timeline = getOrderTimeline(orderId);
+        Multi<OrderStatusUpdate> current = timeline.isEmpty()
+                ? Multi.createFrom().empty()
+                : Multi.createFrom().item(timeline.get(timeline.size() - 1));
+        Multi<OrderStatusUpdate> changes = Multi.createFrom().publisher(statusChanges)
+                .filter(event -> event.orderId().equals(orderId))
+                .map(event -> new OrderStatusUpdate(
+                        event.status().name(), event.message(), null, event.timestamp(), true))
+                .onOverflow().buffer(STREAM_BUFFER_SIZE);
+        return Multi.createBy().concatenating().streams(current, changes);
+    }
+
+    void onStatusChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrderStatusChangedEvent event) {
+        log.debugf("Pushing status %s for order: %s", event.status(), event.orderId());
+        statusChanges.onNext(event);
+    }
+}
@@ -0,0 +1,261 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.client.InventoryServiceClient;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderReturn;
+import com.ecommerce.order.model.OrderReturnItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.ReturnStatus;
+import com.ecommerce.order.model.ReturnTask;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderReturnRepository;
+import com.ecommerce.order.repository.ReturnTaskRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Works the queued stages of order returns: restocking the returned items, requesting the refund and, once both
+ * are done, notifying the customer.
+ * <p>
+ * Due tasks are claimed in a short transaction with {@code FOR UPDATE SKIP LOCKED} and leased for
+ * {@code order.returns.lease}, so several instances can work the queue without picking the same task. Each task then
+ * runs in its own transaction; a failure is recorded on the task and retried with exponential backoff until
+ * {@code order.returns.max-attempts} is reached, at which point the task and its return are marked FAILED.
+ * <p>
+ * Order-service does not know payment ids or talk to the notification service directly, so the refund and the
+ * customer notification are published on {@code order-events} as {@code ORDER_REFUND_REQUESTED} and
+ * {@code ORDER_RETURN_COMPLETED}; a stage only succeeds once the broker has acknowledged its event. Events carry the
+ * return id so consumers can ignore redeliveries; each restock adjustment carries the task id and SKU as its idempotency
+ * key for the same reason.
+ */
+@ApplicationScoped
+public class ReturnTaskProcessor {
+
+    private static final Logger log = Logger.getLogger(ReturnTaskProcessor.class);
+
+    private static final String REFUND_METHOD = "ORIGINAL_PAYMENT";
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    @Inject
+    ReturnTaskRepository returnTaskRepository;
+
+    @Inject
+    OrderReturnRepository orderReturnRepository;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderService orderService;
+
+    @Inject
+    @RestClient
+    InventoryServiceClient inventoryServiceClient;
+
+    @ConfigProperty(name = "order.returns.worker.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "order.returns.batch-size", defaultValue = "50")
+    int batchSize;
+
+    @ConfigProperty(name = "order.returns.lease", defaultValue = "PT5M")
+    Duration lease;
+
+    @ConfigProperty(name = "order.returns.max-attempts", defaultValue = "8")
+    int maxAttempts;
+
+    @ConfigProperty(name = "order.returns.initial-backoff", defaultValue = "PT10S")
+    Duration initialBackoff;
+
+    @ConfigProperty(name = "order.returns.max-backoff", defaultValue = "PT30M")
+    Duration maxBackoff;
+
+    @ConfigProperty(name = "order.returns.event-ack-timeout", defaultValue = "PT30S")
+    Duration eventAckTimeout;
+
+    @Scheduled(every = "{order.returns.worker.every}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRun() {
+        if (enabled) {
+            processDueTasks();
+        }
+    }
+
+    /**
+     * Claims and runs due tasks until none are left.
+     *
+     * @return the number of tasks attempted
+     */
+    public int processDueTasks() {
+        int processed = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> taskIds = QuarkusTransaction.requiringNew()
+                    .call(() -> returnTaskRepository.claimDue(now, now.plus(lease), batchSize));
+            for (Long taskId : taskIds) {
+                process(taskId);
+            }
+            processed += taskIds.size();
+            if (taskIds.size() < batchSize) {
+                return processed;
+            }
+        }
+    }
+
+    private void process(Long taskId) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> runTask(taskId));
+        } catch (Exception e) {
+            log.warnf(e, "Return task %d failed", taskId);
+            QuarkusTransaction.requiringNew().run(() -> recordFailure(taskId, e));
+        }
+    }
+
+    private void runTask(Long taskId) {
+        ReturnTask task = returnTaskRepository.findById(taskId);
+        if (task == null || task.getStatus() != ReturnTask.Status.PENDING) {
+            return;
+        }
+        // Serialises the stages of one return, so completion is decided exactly once
+        OrderReturn orderReturn = orderReturnRepository.findById(task.getReturnId(), LockModeType.PESSIMISTIC_WRITE);
+
+        switch (task.getStage()) {
+            case RESTOCK -> restock(task, orderReturn);
+            case REFUND -> publish(orderReturn, "ORDER_REFUND_REQUESTED");
+            case NOTIFY -> publish(orderReturn, "ORDER_RETURN_COMPLETED");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        task.setStatus(ReturnTask.Status.DONE);
+        task.setAttempts(task.getAttempts() + 1);
+        task.setLastError(null);
+        task.setUpdatedAt(now);
+        if (task.getStage() == ReturnTask.Stage.NOTIFY) {
+            return;
+        }
+
+        if (task.getStage() == ReturnTask.Stage.REFUND) {
+            orderReturn.setRefundMethod(REFUND_METHOD);
+        }
+        orderReturn.setUpdatedAt(now);
+        boolean finished = returnTaskRepository.findByReturnId(orderReturn.getId()).stream()
+                .filter(t -> t.getStage() != ReturnTask.Stage.NOTIFY)
+                .allMatch(t -> t.getStatus() == ReturnTask.Status.DONE);
+        if (finished) {
+            complete(orderReturn, now);
+        } else {
+            orderReturn.setStatus(ReturnStatus.PROCESSING);
+        }
+    }
+
+    private void complete(OrderReturn orderReturn, LocalDateTime now) {
+        orderReturn.setStatus(ReturnStatus.COMPLETED);
+        orderReturn.setProcessedAt(now);
+        returnTaskRepository.persist(ReturnTask.pending(orderReturn.getId(), ReturnTask.Stage.NOTIFY));
+        log.infof("Return %s completed", orderReturn.getReturnNumber());
+
+        // Locking the order makes concurrent completions of two returns of the same order see each other
+        Order order = orderRepository.findById(orderReturn.getOrderId(), LockModeType.PESSIMISTIC_WRITE);
+        if (order == null || order.getStatus() != OrderStatus.RETURN_REQUESTED
+                || orderReturnRepository.countOpenByOrderId(order.getId()) > 0) {
+            return;
+        }
+        boolean fullyReturned = order.getItems().stream()
+                .allMatch(item -> item.getReturnedQuantity() >= item.getQuantity());
+        orderService.applyStatusTransitions(order.getId(),
+                List.of(fullyReturned ? OrderStatus.RETURNED : OrderStatus.DELIVERED));
+    }
+
+    /**
+     * Adds the returned units back through inventory-service, one adjustment per SKU, failing the task on the first
+     * adjustment that is not accepted so it is retried. Each adjustment is keyed by the task id and SKU: when a retry
+     * follows an adjustment that was applied, whether the earlier attempt failed on a later SKU or on the task's
+     * commit, inventory-service does not add the units twice.
+     */
+    private void restock(ReturnTask task, OrderReturn orderReturn) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderReturnItem item : orderReturn.getItems()) {
+            quantities.merge(item.getProductSku(), item.getQuantity(), Integer::sum);
+        }
+        quantities.forEach((sku, quantity) -> {
+            Map<String, Object> adjustment = new HashMap<>();
+            adjustment.put("skuCode", sku);
+            adjustment.put("adjustment", quantity);
+            adjustment.put("reason", "Return " + orderReturn.getReturnNumber());
+            adjustment.put("referenceId", orderReturn.getId().toString());
+            Response response = inventoryServiceClient.adjustStock("return-restock-" + task.getId() + ":" + sku,
+                    adjustment);
+            if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new IllegalStateException("Restock of " + sku + " failed with status " + response.getStatus());
+            }
+        });
+    }
+
+    private void publish(OrderReturn orderReturn, String eventType) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", eventType);
+        event.put("returnId", orderReturn.getId().toString());
+        event.put("returnNumber", orderReturn.getReturnNumber());
+        event.put("orderId", orderReturn.getOrderId().toString());
+        event.put("orderNumber", orderReturn.getOrderNumber());
+        event.put("customerId", orderReturn.getCustomerId().toString());
+        event.put("refundAmount", orderReturn.getRefundAmount().toPlainString());
+        event.put("timestamp", LocalDateTime.now().toString());
+        try {
+            orderService.sendOrderEvent(event).get(eventAckTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted publishing " + eventType, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not publish " + eventType, e);
+        }
+    }
+
+    private void recordFailure(Long taskId, Exception error) {
+        ReturnTask task = returnTaskRepository.findById(taskId);
+        if (task == null || task.getStatus() != ReturnTask.Status.PENDING) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String message = String.valueOf(error.getMessage());
+        task.setAttempts(task.getAttempts() + 1);
+        task.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        task.setUpdatedAt(now);
+
+        if (task.getAttempts() < maxAttempts) {
+            task.setNextAttemptAt(now.plus(backoff(task.getAttempts())));
+            return;
+        }
+
+        task.setStatus(ReturnTask.Status.FAILED);
+        log.errorf("Return task %d (%s of return %s) failed after %d attempts: %s",
+                taskId, task.getStage(), task.getReturnId(), task.getAttempts(), message);
+        if (task.getStage() != ReturnTask.Stage.NOTIFY) {
+            OrderReturn orderReturn = orderReturnRepository.findById(task.getReturnId());
+            orderReturn.setStatus(ReturnStatus.FAILED);
+            orderReturn.setUpdatedAt(now);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.ProcessedStatusEventRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies payment and inventory events to orders, once per order and event type.
+ * <p>
+ * The event types applied to an order are recorded in {@code processed_status_events} in the same transaction as
+ * the status changes they cause. A redelivered event is skipped even when the order has moved on since, so a replayed
+ * {@code inventory-reserved} cannot take a PAID order back to PROCESSING. Records are kept for
+ * {@code order.status-events.dedupe-retention}, well beyond any redelivery.
+ */
+@ApplicationScoped
+public class StatusEventService {
+
+    private static final Logger log = Logger.getLogger(StatusEventService.class);
+
+    private static final int PURGE_BATCH_SIZE = 10_000;
+
+    @Inject
+    OrderService orderService;
+
+    @Inject
+    ProcessedStatusEventRepository processedEventRepository;
+
+    @ConfigProperty(name = "order.status-events.dedupe-retention", defaultValue = "P14D")
+    Duration dedupeRetention;
+
+    /**
+     * Applies the status each event type in {@code targets} leads to, in iteration order, skipping the event types
+     * already applied to the order.
+     */
+    @Transactional
+    public void applyEvents(UUID orderId, Map<String, OrderStatus> targets) {
+        Set<String> claimed = processedEventRepository.claim(orderId, targets.keySet());
+        List<OrderStatus> statuses = new ArrayList<>(claimed.size());
+        targets.forEach((eventType, status) -> {
+            if (claimed.contains(eventType)) {
+                statuses.add(status);
+            } else {
+                log.debugf("Order %s already applied %s, skipping", orderId, eventType);
+            }
+        });
+        if (!statuses.isEmpty()) {
+            orderService.applyStatusTransitions(orderId, statuses);
+        }
+    }
+
+    @Scheduled(every = "{order.status-events.purge-every}", delayed = "{order.status-events.purge-every}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purgeProcessedEvents() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(dedupeRetention);
+        long purged = 0;
+        while (true) {
+            int deleted = QuarkusTransaction.requiringNew()
+                    .call(() -> processedEventRepository.purge(cutoff, PURGE_BATCH_SIZE));
+            purged += deleted;
+            if (deleted < PURGE_BATCH_SIZE) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.infof("Purged %d processed status events recorded before %s", purged, cutoff);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.ecommerce.order.service.analytics;
+
+import com.ecommerce.order.dto.analytics.CategorySalesResponse;
+import com.ecommerce.order.dto.analytics.OrderSalesEvent;
+import com.ecommerce.order.dto.analytics.ProductSalesResponse;
+import com.ecommerce.order.dto.analytics.RollupGranularity;
+import com.ecommerce.order.dto.analytics.SalesRollupResponse;
+import com.ecommerce.order.dto.analytics.StatusRollupResponse;
+import com.ecommerce.order.exception.InvalidOrderException;
+import com.ecommerce.order.model.Money;
+import com.ecommerce.order.repository.SalesAnalyticsRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains and queries the sales rollups.
+ * <p>
+ * Each batch of order events is applied in one transaction: the event ids are inserted into
+ * {@code analytics_processed_events} first, and only the events not seen before are summed into
+ * {@link SalesRollupDeltas} and added to the rollup tables. A redelivered batch therefore changes nothing. Event
+ * ids are kept for {@code order.analytics.dedupe-retention}, which must exceed how long a batch can be redelivered.
+ * <p>
+ * Queries read only the rollup tables: a range costs one row per bucket, or one row per product or category per
+ * day, whatever the number of orders.
+ */
+@ApplicationScoped
+public class SalesAnalyticsService {
+
+    private static final Logger log = Logger.getLogger(SalesAnalyticsService.class);
+
+    private static final long MAX_HOUR_BUCKETS = 24L * 93;
+
+    private static final long MAX_DAY_BUCKETS = 366L * 5;
+
+    private static final int MAX_LIMIT = 1000;
+
+    private static final int PURGE_BATCH_SIZE = 10_000;
+
+    @Inject
+    SalesAnalyticsRepository analyticsRepository;
+
+    @ConfigProperty(name = "order.analytics.dedupe-retention", defaultValue = "P14D")
+    Duration dedupeRetention;
+
+    /**
+     * Applies a batch of order events to the rollups, skipping any already applied.
+     *
+     * @return the number of events applied
+     */
+    @Transactional
+    public int applyEvents(List<OrderSalesEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        Set<UUID> eventIds = events.stream().map(OrderSalesEvent::eventId).collect(Collectors.toCollection(TreeSet::new));
+        Set<UUID> claimed = analyticsRepository.claimEvents(eventIds);
+        int applied = claimed.size();
+        SalesRollupDeltas deltas = new SalesRollupDeltas();
+        for (OrderSalesEvent event : events) {
+            if (claimed.remove(event.eventId())) {
+                deltas.add(event);
+            }
+        }
+        if (!deltas.isEmpty()) {
+            analyticsRepository.applyDeltas(deltas);
+        }
+        log.debugf("Applied %d of %d order events to sales rollups", applied, events.size());
+        return applied;
+    }
+
+    public List<SalesRollupResponse> getSales(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                              String currency) {
+        validateRange(granularity, from, to);
+        return analyticsRepository.findSales(granularity, granularity.bucketStart(from), to, currency).stream()
+                .map(row -> new SalesRollupResponse(toLocalDateTime(row[0]), (String) row[1],
+                        toLong(row[2]), toLong(row[3]), toAmount(row[4], (String) row[1])))
+                .collect(Collectors.toList());
+    }
+
+    public List<ProductSalesResponse> getTopProducts(LocalDate from, LocalDate to, String currency, String sort,
+                                                     int limit) {
+        validateRange(from, to);
+        if (!"revenue".equals(sort) && !"units".equals(sort)) {
+            throw new InvalidOrderException("sort must be revenue or units");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidOrderException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return analyticsRepository.findTopProducts(from, to, currency, "units".equals(sort), limit).stream()
+                .map(row -> new ProductSalesResponse((UUID) row[0], (String) row[1],
+                        toLong(row[2]), toLong(row[3]), toAmount(row[4], (String) row[1])))
+                .collect(Collectors.toList());
+    }
+
+    public List<CategorySalesResponse> getCategories(LocalDate from, LocalDate to, String currency) {
+        validateRange(from, to);
+        return analyticsRepository.findCategories(from, to, currency).stream()
+                .map(row -> new CategorySalesResponse(
+                        SalesRollupDeltas.NO_CATEGORY.equals(row[0]) ? null : (UUID) row[0], (String) row[1],
+                        toLong(row[2]), toLong(row[3]), toAmount(row[4], (String) row[1])))
+                .collect(Collectors.toList());
+    }
+
+    public List<StatusRollupResponse> getStatuses(RollupGranularity granularity, LocalDateTime from,
+                                                  LocalDateTime to) {
+        validateRange(granularity, from, to);
+        return analyticsRepository.findStatuses(granularity, granularity.bucketStart(from), to).stream()
+                .map(row -> new StatusRollupResponse(toLocalDateTime(row[0]), (String) row[1], toLong(row[2])))
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(every = "{order.analytics.purge-every}", delayed = "{order.analytics.purge-every}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purgeProcessedEvents() {
+        LocalDateTime cutoff = LocalDateTime.now(ZoneOffset.UTC).minus(dedupeRetention);
+        long purged = 0;
+        while (true) {
+            int deleted = QuarkusTransaction.requiringNew()
+                    .call(() -> analyticsRepository.purgeProcessedEvents(cutoff, PURGE_BATCH_SIZE));
+            purged += deleted;
+            if (deleted < PURGE_BATCH_SIZE) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.infof("Purged %d processed order event ids recorded before %s", purged, cutoff);
+        }
+    }
+
+    private static void validateRange(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        if (granularity == null) {
+            throw new InvalidOrderException("granularity must be HOUR or DAY");
+        }
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidOrderException("Query parameters from and to are required and from must be before to");
+        }
+        long maxBuckets = granularity == RollupGranularity.HOUR ? MAX_HOUR_BUCKETS : MAX_DAY_BUCKETS;
+        if (granularity.bucketsBetween(from, to) > maxBuckets) {
+            throw new InvalidOrderException("Range spans more than " + maxBuckets + " " + granularity + " buckets");
+        }
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidOrderException("Query parameters from and to are required and from must be before to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_DAY_BUCKETS) {
+            throw new InvalidOrderException("Range spans more than " + MAX_DAY_BUCKETS + " days");
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private static BigDecimal toAmount(Object minorUnits, String currency) {
+        return Money.ofMinor(toLong(minorUnits), currency).toBigDecimal();
+    }
+}
@@ -0,0 +1,148 @@
+package com.ecommerce.order.service.analytics;
+
+import com.ecommerce.order.dto.analytics.OrderSalesEvent;
+import com.ecommerce.order.dto.analytics.RollupGranularity;
+import com.ecommerce.order.model.Money;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Rollup increments of a batch of order events, summed per row before anything is written.
+ * <p>
+ * Rows are kept in key order so every writer upserts them in the same order and concurrent batches cannot deadlock
+ * on each other. Not thread-safe.
+ */
+public final class SalesRollupDeltas {
+
+    /** Category of lines whose product has none; the category tables need a non-null key. */
+    public static final UUID NO_CATEGORY = new UUID(0L, 0L);
+
+    private static final Comparator<TimeKey> TIME_ORDER = Comparator.comparing(TimeKey::granularity)
+            .thenComparing(TimeKey::bucketStart)
+            .thenComparing(TimeKey::dimension);
+
+    private static final Comparator<DayKey> DAY_ORDER = Comparator.comparing(DayKey::day)
+            .thenComparing(DayKey::id)
+            .thenComparing(DayKey::currency);
+
+    private final NavigableMap<TimeKey, Totals> sales = new TreeMap<>(TIME_ORDER);
+    private final NavigableMap<DayKey, Totals> products = new TreeMap<>(DAY_ORDER);
+    private final NavigableMap<DayKey, Totals> categories = new TreeMap<>(DAY_ORDER);
+    private final NavigableMap<TimeKey, Totals> statuses = new TreeMap<>(TIME_ORDER);
+
+    /**
+     * Adds one event. Every status event counts towards its status; an {@code ORDER_CREATED} event also counts
+     * towards sales, each of its products and each of its categories, once per order.
+     */
+    public void add(OrderSalesEvent event) {
+        LocalDateTime at = LocalDateTime.ofInstant(event.occurredAt(), ZoneOffset.UTC);
+        if (event.status() != null) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                statuses.computeIfAbsent(new TimeKey(granularity, granularity.bucketStart(at), event.status()),
+                        key -> new Totals()).add(1, 0, 0);
+            }
+        }
+        if (!OrderSalesEvent.ORDER_CREATED.equals(event.eventType()) || event.total() == null
+                || event.currency() == null) {
+            return;
+        }
+
+        String currency = event.currency();
+        Map<UUID, long[]> byProduct = new HashMap<>();
+        Map<UUID, long[]> byCategory = new HashMap<>();
+        long units = 0;
+        if (event.items() != null) {
+            for (OrderSalesEvent.Item item : event.items()) {
+                if (item.productId() == null || item.quantity() == null || item.unitPrice() == null) {
+                    continue;
+                }
+                long revenue = Math.multiplyExact(Money.toMinorUnits(item.unitPrice(), currency), item.quantity());
+                units += item.quantity();
+                accumulate(byProduct, item.productId(), item.quantity(), revenue);
+                accumulate(byCategory, item.categoryId() != null ? item.categoryId() : NO_CATEGORY,
+                        item.quantity(), revenue);
+            }
+        }
+
+        long orderRevenue = Money.toMinorUnits(event.total(), currency);
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            sales.computeIfAbsent(new TimeKey(granularity, granularity.bucketStart(at), currency),
+                    key -> new Totals()).add(1, units, orderRevenue);
+        }
+        LocalDate day = at.toLocalDate();
+        byProduct.forEach((productId, totals) -> products.computeIfAbsent(new DayKey(day, productId, currency),
+                key -> new Totals()).add(1, totals[0], totals[1]));
+        byCategory.forEach((categoryId, totals) -> categories.computeIfAbsent(new DayKey(day, categoryId, currency),
+                key -> new Totals()).add(1, totals[0], totals[1]));
+    }
+
+    public NavigableMap<TimeKey, Totals> sales() {
+        return sales;
+    }
+
+    public NavigableMap<DayKey, Totals> products() {
+        return products;
+    }
+
+    public NavigableMap<DayKey, Totals> categories() {
+        return categories;
+    }
+
+    public NavigableMap<TimeKey, Totals> statuses() {
+        return statuses;
+    }
+
+    public boolean isEmpty() {
+        return sales.isEmpty() && statuses.isEmpty();
+    }
+
+    private static void accumulate(Map<UUID, long[]> totals, UUID key, long units, long revenue) {
+        long[] row = totals.computeIfAbsent(key, k -> new long[2]);
+        row[0] += units;
+        row[1] = Math.addExact(row[1], revenue);
+    }
+
+    /**
+     * Row of an hourly or daily rollup; {@code dimension} is the currency for sales and the status for statuses.
+     */
+    public record TimeKey(RollupGranularity granularity, LocalDateTime bucketStart, String dimension) {
+    }
+
+    /**
+     * Row of a daily per-product or per-category rollup.
+     */
+    public record DayKey(LocalDate day, UUID id, String currency) {
+    }
+
+    public static final class Totals {
+        private long orders;
+        private long units;
+        private long revenueMinor;
+
+        private void add(long orders, long units, long revenueMinor) {
+            this.orders += orders;
+            this.units += units;
+            this.revenueMinor = Math.addExact(this.revenueMinor, revenueMinor);
+        }
+
+        public long orders() {
+            return orders;
+        }
+
+        public long units() {
+            return units;
+        }
+
+        public long revenueMinor() {
+            return revenueMinor;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.ecommerce.order.service.catalog;
+
+import com.ecommerce.order.client.ProductServiceClient;
+import com.ecommerce.order.dto.catalog.ProductSnapshot;
+import com.ecommerce.order.dto.orderitem.OrderItemRequest;
+import com.ecommerce.order.exception.InvalidOrderException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Prices and validates order lines against a local copy of the product catalogue.
+ * <p>
+ * The {@link ProductSnapshotStore} is loaded from product-service's export endpoint at startup and every
+ * {@code order.product-snapshot.refresh-interval}, and kept current in between from product-events. Order lines
+ * are priced from the store with one hash lookup each; the client-supplied price, name and SKU are replaced.
+ * Products missing from the store, or every product once the store has not been refreshed for
+ * {@code order.product-snapshot.max-staleness}, are fetched from product-service in one batch call instead.
+ * Staleness is exported as the {@code products.snapshot.staleness} gauge.
+ */
+@ApplicationScoped
+public class ProductCatalogService {
+
+    private static final Logger log = Logger.getLogger(ProductCatalogService.class);
+
+    private final ProductSnapshotStore store = new ProductSnapshotStore();
+
+    @Inject
+    @RestClient
+    ProductServiceClient productServiceClient;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "order.product-snapshot.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "order.product-snapshot.page-size", defaultValue = "1000")
+    int pageSize;
+
+    @ConfigProperty(name = "order.product-snapshot.max-staleness", defaultValue = "PT30M")
+    Duration maxStaleness;
+
+    /** Millis of the last successful bulk load or applied event; 0 until the first load. */
+    private volatile long lastRefreshedAt;
+
+    private Counter remoteLookups;
+
+    @PostConstruct
+    void init() {
+        meterRegistry.gauge("products.snapshot.size", store, ProductSnapshotStore::size);
+        meterRegistry.gauge("products.snapshot.staleness", this, ProductCatalogService::stalenessSeconds);
+        remoteLookups = meterRegistry.counter("products.snapshot.remote.lookups");
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            refreshQuietly();
+        }
+    }
+
+    @Scheduled(every = "{order.product-snapshot.refresh-interval}", delayed = "{order.product-snapshot.refresh-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        if (enabled) {
+            refreshQuietly();
+        }
+    }
+
+    /**
+     * Reloads every product from product-service, one keyset page at a time.
+     *
+     * @return the number of products read
+     */
+    public int refresh() {
+        int loaded = 0;
+        UUID afterId = null;
+        while (true) {
+            List<ProductSnapshot> page = productServiceClient.exportProducts(afterId, pageSize);
+            page.forEach(store::apply);
+            loaded += page.size();
+            if (page.size() < pageSize) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).id();
+        }
+        lastRefreshedAt = System.currentTimeMillis();
+        log.infof("Loaded %d product snapshots", loaded);
+        return loaded;
+    }
+
+    /**
+     * Applies product snapshots received as events.
+     */
+    public void apply(List<ProductSnapshot> snapshots) {
+        snapshots.forEach(store::apply);
+        if (lastRefreshedAt != 0) {
+            lastRefreshedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Replaces each line's price, name, SKU and category with the catalogue's and sets its total.
+     *
+     * @throws InvalidOrderException if a line references an unknown or inactive product
+     */
+    public void priceItems(List<OrderItemRequest> items) {
+        List<UUID> productIds = new ArrayList<>(items.size());
+        for (OrderItemRequest item : items) {
+            productIds.add(parseProductId(item.getProductId()));
+        }
+
+        Map<UUID, ProductSnapshot> resolved = new HashMap<>();
+        Set<UUID> misses = new LinkedHashSet<>();
+        boolean fresh = enabled && !isStale();
+        for (UUID productId : productIds) {
+            ProductSnapshot snapshot = fresh ? store.get(productId) : null;
+            if (snapshot != null) {
+                resolved.put(productId, snapshot);
+            } else {
+                misses.add(productId);
+            }
+        }
+        if (!misses.isEmpty()) {
+            remoteLookups.increment(misses.size());
+            for (ProductSnapshot snapshot : productServiceClient.getProductsByIds(new ArrayList<>(misses))) {
+                store.apply(snapshot);
+                resolved.put(snapshot.id(), snapshot);
+            }
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            OrderItemRequest item = items.get(i);
+            UUID productId = productIds.get(i);
+            ProductSnapshot product = resolved.get(productId);
+            if (product == null) {
+                throw new InvalidOrderException("Product not found: " + productId);
+            }
+            if (!product.active() || product.price() == null) {
+                throw new InvalidOrderException("Product is not available: " + productId);
+            }
+            item.setUnitPrice(product.price());
+            item.setProductName(product.name());
+            item.setSku(product.sku());
+            item.setCategoryId(product.categoryId());
+            item.setTotalPrice(product.price().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+    }
+
+    public boolean isStale() {
+        return lastRefreshedAt == 0 || System.currentTimeMillis() - lastRefreshedAt > maxStaleness.toMillis();
+    }
+
+    double stalenessSeconds() {
+        long refreshedAt = lastRefreshedAt;
+        return refreshedAt == 0 ? Double.NaN : (System.currentTimeMillis() - refreshedAt) / 1000.0;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.errorf(e, "Product snapshot refresh failed; %s", isStale()
+                    ? "order lines are priced by product-service until it succeeds"
+                    : "keeping the current snapshot");
+        }
+    }
+
+    private static UUID parseProductId(String productId) {
+        try {
+            return UUID.fromString(productId);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidOrderException("Invalid product id: " + productId);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.order.service.catalog;
+
+import com.ecommerce.order.dto.catalog.ProductSnapshot;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory product snapshots keyed by product id.
+ * <p>
+ * Snapshots arrive from the event stream and from bulk loads in no particular order, so a snapshot only replaces
+ * the stored one when its version is at least as new. Reads are a single hash lookup and never block.
+ */
+public final class ProductSnapshotStore {
+
+    private final Map<UUID, ProductSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Stores {@code snapshot} unless a newer version is already held.
+     *
+     * @return {@code true} if the snapshot was stored
+     */
+    public boolean apply(ProductSnapshot snapshot) {
+        if (snapshot == null || snapshot.id() == null) {
+            return false;
+        }
+        boolean[] stored = new boolean[1];
+        snapshots.compute(snapshot.id(), (id, current) -> {
+            if (current != null && current.versionOrZero() > snapshot.versionOrZero()) {
+                return current;
+            }
+            stored[0] = true;
+            return snapshot;
+        });
+        return stored[0];
+    }
+
+    public ProductSnapshot get(UUID productId) {
+        return snapshots.get(productId);
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+}
@@ -0,0 +1,159 @@
+package com.ecommerce.order.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sparse, symmetric matrix of how often two products were bought in the same order.
+ * <p>
+ * Product ids are interned to dense {@code int} indexes and each product's row is an {@link IntIntCounter}, so a
+ * pair costs two {@code int}s instead of two boxed keys and a boxed count. Rows are trimmed to their
+ * {@code keep} strongest pairs once they grow to {@code 4 * keep}, which bounds memory per product while keeping
+ * enough candidates for the top-K to stay accurate. Not thread-safe; {@link CoPurchaseService} serialises access.
+ */
+public final class CoPurchaseMatrix {
+
+    private final int keep;
+    private final Map<UUID, Integer> indexes = new HashMap<>();
+    private final List<UUID> products = new ArrayList<>();
+    private IntIntCounter[] rows = new IntIntCounter[1024];
+
+    public CoPurchaseMatrix(int keep) {
+        this.keep = keep;
+    }
+
+    /**
+     * A matrix that never trims rows, for collecting exact deltas.
+     */
+    public static CoPurchaseMatrix unbounded() {
+        return new CoPurchaseMatrix(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Counts one order containing all of {@code productIds}; duplicates must already be removed.
+     */
+    public void addOrder(List<UUID> productIds) {
+        int[] order = new int[productIds.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = index(productIds.get(i));
+        }
+        for (int i = 0; i < order.length; i++) {
+            for (int j = i + 1; j < order.length; j++) {
+                increment(order[i], order[j], 1);
+                increment(order[j], order[i], 1);
+            }
+        }
+    }
+
+    /**
+     * Adds {@code count} to the pair in one direction only; used when loading persisted rows.
+     */
+    public void add(UUID productId, UUID relatedProductId, int count) {
+        increment(index(productId), index(relatedProductId), count);
+    }
+
+    /**
+     * Returns up to {@code limit} products most often bought with {@code productId}, strongest first.
+     *
+     * @return packed {@code count << 32 | index} entries; resolve with {@link #productAt} and {@link #countOf}
+     */
+    public long[] related(UUID productId, int limit) {
+        Integer index = indexes.get(productId);
+        IntIntCounter row = index == null ? null : rows[index];
+        if (row == null) {
+            return new long[0];
+        }
+        long[] sorted = row.sortedByCountDescending();
+        return sorted.length <= limit ? sorted : Arrays.copyOf(sorted, limit);
+    }
+
+    public UUID productAt(long entry) {
+        return products.get(IntIntCounter.key(entry));
+    }
+
+    public static int countOf(long entry) {
+        return IntIntCounter.count(entry);
+    }
+
+    /**
+     * Calls {@code consumer} for every stored pair.
+     */
+    public void forEachPair(PairConsumer consumer) {
+        for (int i = 0; i < products.size(); i++) {
+            IntIntCounter row = rows[i];
+            if (row == null) {
+                continue;
+            }
+            for (long entry : row.sortedByCountDescending()) {
+                consumer.accept(products.get(i), products.get(IntIntCounter.key(entry)), IntIntCounter.count(entry));
+            }
+        }
+    }
+
+    /**
+     * Trims every row to its {@code keep} strongest pairs.
+     */
+    public void compact() {
+        for (int i = 0; i < products.size(); i++) {
+            if (rows[i] != null && rows[i].size() > keep) {
+                rows[i] = rows[i].retainTop(keep);
+            }
+        }
+    }
+
+    /**
+     * Returns the products that have at least one pair.
+     */
+    public List<UUID> productsWithPairs() {
+        List<UUID> result = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            if (rows[i] != null) {
+                result.add(products.get(i));
+            }
+        }
+        return result;
+    }
+
+    public int productCount() {
+        return products.size();
+    }
+
+    public boolean isEmpty() {
+        return products.isEmpty();
+    }
+
+    private void increment(int product, int related, int count) {
+        IntIntCounter row = rows[product];
+        if (row == null) {
+            row = new IntIntCounter(8);
+            rows[product] = row;
+        }
+        row.add(related, count);
+        if (row.size() >= 4L * keep) {
+            rows[product] = row.retainTop(keep);
+        }
+    }
+
+    private int index(UUID productId) {
+        Integer index = indexes.get(productId);
+        if (index != null) {
+            return index;
+        }
+        int next = products.size();
+        indexes.put(productId, next);
+        products.add(productId);
+        if (next == rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        return next;
+    }
+
+    @FunctionalInterface
+    public interface PairConsumer {
+        void accept(UUID productId, UUID relatedProductId, int count);
+    }
+}
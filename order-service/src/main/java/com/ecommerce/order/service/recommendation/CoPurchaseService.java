@@ -0,0 +1,180 @@
+package com.ecommerce.order.service.recommendation;
+
+import com.ecommerce.order.dto.recommendation.RelatedProduct;
+import com.ecommerce.order.event.OrderPlacedEvent;
+import com.ecommerce.order.exception.InvalidOrderException;
+import com.ecommerce.order.repository.ProductCoPurchaseRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintains the "frequently bought together" model.
+ * <p>
+ * Every committed order adds one to each pair of its products in an in-memory {@link CoPurchaseMatrix}, so
+ * related products are answered from memory without touching the order tables. Increments are also collected in
+ * a delta matrix that is added to {@code product_co_purchase} every {@code order.co-purchase.flush-interval};
+ * because the flush adds rather than overwrites, several instances can write concurrently. After a flush each
+ * touched product is trimmed to its {@code order.co-purchase.keep} strongest pairs in the table as well. The
+ * in-memory matrix is reloaded from the table every {@code order.co-purchase.reload-interval}, which is how
+ * instances pick up each other's orders.
+ */
+@ApplicationScoped
+public class CoPurchaseService {
+
+    private static final Logger log = Logger.getLogger(CoPurchaseService.class);
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final int PRUNE_CHUNK_SIZE = 1000;
+
+    @Inject
+    ProductCoPurchaseRepository coPurchaseRepository;
+
+    @ConfigProperty(name = "order.co-purchase.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "order.co-purchase.keep", defaultValue = "50")
+    int keep;
+
+    @ConfigProperty(name = "order.co-purchase.max-products-per-order", defaultValue = "100")
+    int maxProductsPerOrder;
+
+    @ConfigProperty(name = "order.co-purchase.fetch-size", defaultValue = "10000")
+    int fetchSize;
+
+    private final Object lock = new Object();
+
+    private CoPurchaseMatrix matrix;
+
+    private CoPurchaseMatrix pending = CoPurchaseMatrix.unbounded();
+
+    void onStart(@Observes StartupEvent event) {
+        synchronized (lock) {
+            matrix = new CoPurchaseMatrix(keep);
+        }
+        if (enabled) {
+            reloadQuietly();
+        }
+    }
+
+    void onOrderPlaced(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrderPlacedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<UUID> products = new ArrayList<>(new LinkedHashSet<>(event.productIds()));
+        if (products.size() < 2) {
+            return;
+        }
+        if (products.size() > maxProductsPerOrder) {
+            // Pairs grow quadratically; very large orders say little about what goes together
+            products = products.subList(0, maxProductsPerOrder);
+        }
+        synchronized (lock) {
+            matrix.addOrder(products);
+            pending.addOrder(products);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products most often bought together with {@code productId}.
+     */
+    public List<RelatedProduct> getRelatedProducts(UUID productId, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidOrderException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        synchronized (lock) {
+            long[] entries = matrix.related(productId, limit);
+            List<RelatedProduct> related = new ArrayList<>(entries.length);
+            for (long entry : entries) {
+                related.add(new RelatedProduct(matrix.productAt(entry), CoPurchaseMatrix.countOf(entry)));
+            }
+            return related;
+        }
+    }
+
+    @Scheduled(every = "{order.co-purchase.flush-interval}", delayed = "{order.co-purchase.flush-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    @Scheduled(every = "{order.co-purchase.reload-interval}", delayed = "{order.co-purchase.reload-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledReload() {
+        if (enabled) {
+            reloadQuietly();
+        }
+    }
+
+    /**
+     * Writes the increments collected since the last flush and compacts the in-memory rows.
+     *
+     * @return the number of products whose pairs were written
+     */
+    public int flush() {
+        CoPurchaseMatrix deltas;
+        synchronized (lock) {
+            matrix.compact();
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            deltas = pending;
+            pending = CoPurchaseMatrix.unbounded();
+        }
+
+        List<UUID> touched = deltas.productsWithPairs();
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                coPurchaseRepository.addCounts(deltas);
+                for (int from = 0; from < touched.size(); from += PRUNE_CHUNK_SIZE) {
+                    coPurchaseRepository.retainTop(
+                            touched.subList(from, Math.min(from + PRUNE_CHUNK_SIZE, touched.size())), keep);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Put the increments back so the next flush retries them
+            synchronized (lock) {
+                deltas.forEachPair(pending::add);
+            }
+            throw e;
+        }
+        log.debugf("Flushed co-purchase counts for %d products", touched.size());
+        return touched.size();
+    }
+
+    /**
+     * Rebuilds the in-memory matrix from the table plus the increments not yet flushed.
+     */
+    public void reload() {
+        CoPurchaseMatrix loaded = new CoPurchaseMatrix(keep);
+        long pairs = QuarkusTransaction.requiringNew().call(() -> coPurchaseRepository.loadInto(loaded, fetchSize));
+        synchronized (lock) {
+            pending.forEachPair(loaded::add);
+            loaded.compact();
+            matrix = loaded;
+        }
+        log.infof("Loaded %d co-purchase pairs for %d products", pairs, loaded.productCount());
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.errorf(e, "Could not load co-purchase counts; serving what this instance has seen");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.order.service.recommendation;
+
+import java.util.UUID;
+
+/**
+ * Count-min sketch of product weights in a fixed {@code depth x width} table.
+ * <p>
+ * Cells are {@code double} so they can hold forward-decayed weights. Updates are conservative: a product only raises
+ * the cells that are below its new estimate, which keeps the over-estimate caused by colliding products small.
+ * Estimates never under-count. Not thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final double[] cells;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1 || width > 1 << 24) {
+            throw new IllegalArgumentException("depth must be positive and width between 1 and 2^24");
+        }
+        int roundedWidth = Integer.highestOneBit(width) == width ? width : Integer.highestOneBit(width) << 1;
+        this.depth = depth;
+        this.mask = roundedWidth - 1;
+        this.cells = new double[depth * roundedWidth];
+    }
+
+    /**
+     * Adds {@code weight} to the product and returns its new estimate.
+     */
+    double add(UUID productId, double weight) {
+        long h1 = hash1(productId);
+        long h2 = hash2(h1);
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells[index(row, h1, h2)]);
+        }
+        double updated = estimate + weight;
+        for (int row = 0; row < depth; row++) {
+            int index = index(row, h1, h2);
+            if (cells[index] < updated) {
+                cells[index] = updated;
+            }
+        }
+        return updated;
+    }
+
+    double estimate(UUID productId) {
+        long h1 = hash1(productId);
+        long h2 = hash2(h1);
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells[index(row, h1, h2)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Multiplies every cell by {@code factor}.
+     */
+    void scale(double factor) {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] *= factor;
+        }
+    }
+
+    private int index(int row, long h1, long h2) {
+        long h = h1 + row * h2;
+        return row * (mask + 1) + ((int) (h ^ (h >>> 32)) & mask);
+    }
+
+    private static long hash1(UUID productId) {
+        return mix(productId.getMostSignificantBits() ^ mix(productId.getLeastSignificantBits()));
+    }
+
+    private static long hash2(long h1) {
+        // Odd, so the row hashes h1 + row * h2 stay distinct modulo the width
+        return mix(h1 + 0x9E3779B97F4A7C15L) | 1L;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.order.service.recommendation;
+
+import com.ecommerce.order.dto.recommendation.TrendingProduct;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The heaviest products of one exponentially decayed window, in bounded memory.
+ * <p>
+ * Every product's decayed weight is estimated by a {@link CountMinSketch}; only the {@code capacity} products with
+ * the highest estimates are remembered, space-saving style: a product that is not tracked replaces the lightest
+ * tracked one once its estimate is higher. Because the sketch keeps counting evicted products, one that comes back
+ * resumes from its full estimate.
+ * <p>
+ * Decay is forward decay: an event at time {@code t} is added with weight {@code e^((t - landmark) / tau)}, and a
+ * score is read back by multiplying with {@code e^((landmark - now) / tau)}. Ageing therefore costs nothing per
+ * event and keeps the ranking of tracked products intact; when the weights grow too large everything is rescaled
+ * once and the landmark moves forward. Not thread-safe.
+ */
+final class DecayedHeavyHitters {
+
+    /** Rescale before {@code e^exponent} gets anywhere near the range of a double. */
+    private static final double RESCALE_EXPONENT = 32;
+
+    /** Decayed scores below this are no longer trending. */
+    private static final double NEGLIGIBLE_SCORE = 0.5;
+
+    private final double tauMillis;
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final Map<UUID, Candidate> candidates;
+
+    private long landmark = Long.MIN_VALUE;
+    private UUID lightest;
+    private double lightestScore;
+    private boolean lightestValid;
+
+    DecayedHeavyHitters(long tauMillis, int capacity, int sketchDepth, int sketchWidth) {
+        if (tauMillis <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("tau and capacity must be positive");
+        }
+        this.tauMillis = tauMillis;
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(sketchDepth, sketchWidth);
+        this.candidates = new HashMap<>(capacity * 2);
+    }
+
+    void add(UUID productId, double weight, long timeMillis) {
+        if (landmark == Long.MIN_VALUE) {
+            landmark = timeMillis;
+        } else if (timeMillis - landmark > RESCALE_EXPONENT * tauMillis) {
+            rescale(timeMillis);
+        }
+        double estimate = sketch.add(productId, weight * Math.exp((timeMillis - landmark) / tauMillis));
+
+        Candidate candidate = candidates.get(productId);
+        if (candidate != null) {
+            candidate.score = estimate;
+            if (productId.equals(lightest)) {
+                lightestValid = false;
+            }
+            return;
+        }
+        if (candidates.size() < capacity) {
+            candidates.put(productId, new Candidate(productId, estimate));
+            lightestValid = false;
+            return;
+        }
+        if (!lightestValid) {
+            findLightest();
+        }
+        if (estimate > lightestScore) {
+            Candidate evicted = candidates.remove(lightest);
+            evicted.productId = productId;
+            evicted.score = estimate;
+            candidates.put(productId, evicted);
+            lightestValid = false;
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products with the highest decayed score at {@code nowMillis}, highest first.
+     */
+    List<TrendingProduct> top(int limit, long nowMillis) {
+        List<Candidate> sorted = new ArrayList<>(candidates.values());
+        sorted.sort((a, b) -> Double.compare(b.score, a.score));
+        double decay = Math.exp((landmark - nowMillis) / tauMillis);
+        List<TrendingProduct> top = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (Candidate candidate : sorted) {
+            double score = candidate.score * decay;
+            if (top.size() == limit || score < NEGLIGIBLE_SCORE) {
+                break;
+            }
+            top.add(new TrendingProduct(candidate.productId, score));
+        }
+        return top;
+    }
+
+    int trackedCount() {
+        return candidates.size();
+    }
+
+    private void rescale(long newLandmark) {
+        double factor = Math.exp((landmark - newLandmark) / tauMillis);
+        sketch.scale(factor);
+        for (Candidate candidate : candidates.values()) {
+            candidate.score *= factor;
+        }
+        lightestScore *= factor;
+        landmark = newLandmark;
+    }
+
+    private void findLightest() {
+        lightestScore = Double.MAX_VALUE;
+        for (Candidate candidate : candidates.values()) {
+            if (candidate.score < lightestScore) {
+                lightestScore = candidate.score;
+                lightest = candidate.productId;
+            }
+        }
+        lightestValid = true;
+    }
+
+    private static final class Candidate {
+        private UUID productId;
+        private double score;
+
+        private Candidate(UUID productId, double score) {
+            this.productId = productId;
+            this.score = score;
+        }
+    }
+}
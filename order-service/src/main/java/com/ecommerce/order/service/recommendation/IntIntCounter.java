@@ -0,0 +1,119 @@
+package com.ecommerce.order.service.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative {@code int} keys to {@code int} counts, with linear probing.
+ * Avoids boxing a key and a value per entry, which matters with millions of product pairs.
+ */
+final class IntIntCounter {
+
+    private static final int FREE = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    IntIntCounter(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+    }
+
+    /**
+     * Adds {@code delta} to the count of {@code key}, saturating at {@link Integer#MAX_VALUE}.
+     */
+    void add(int key, int delta) {
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            long sum = (long) values[slot] + delta;
+            values[slot] = (int) Math.min(sum, Integer.MAX_VALUE);
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size * 4 > keys.length * 3) {
+            resize(keys.length << 1);
+        }
+    }
+
+    int get(int key) {
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the entries as {@code count << 32 | key}, largest count first; ties go to the smaller key.
+     */
+    long[] sortedByCountDescending() {
+        long[] entries = new long[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                // Invert the key so that, within equal counts, ascending order of the packed value is descending key
+                entries[n++] = ((long) values[i] << 32) | (0xFFFFFFFFL & ~keys[i]);
+            }
+        }
+        Arrays.sort(entries);
+        for (int i = 0, j = entries.length - 1; i < j; i++, j--) {
+            long swap = entries[i];
+            entries[i] = entries[j];
+            entries[j] = swap;
+        }
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = (entries[i] & 0xFFFFFFFF00000000L) | (0xFFFFFFFFL & ~entries[i]);
+        }
+        return entries;
+    }
+
+    /**
+     * Returns a new counter holding only the {@code keep} largest counts.
+     */
+    IntIntCounter retainTop(int keep) {
+        long[] sorted = sortedByCountDescending();
+        int n = Math.min(keep, sorted.length);
+        IntIntCounter top = new IntIntCounter(n);
+        for (int i = 0; i < n; i++) {
+            top.add(key(sorted[i]), count(sorted[i]));
+        }
+        return top;
+    }
+
+    static int key(long entry) {
+        return (int) entry;
+    }
+
+    static int count(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int hash = key * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
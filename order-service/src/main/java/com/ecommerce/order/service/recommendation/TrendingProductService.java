@@ -0,0 +1,99 @@
+package com.ecommerce.order.service.recommendation;
+
+import com.ecommerce.order.dto.recommendation.TrendingProduct;
+import com.ecommerce.order.dto.recommendation.TrendingWindow;
+import com.ecommerce.order.exception.InvalidOrderException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ranks products trending now from the purchase and view streams.
+ * <p>
+ * Each {@link TrendingWindow} keeps a {@link DecayedHeavyHitters}: a count-min sketch of
+ * {@code order.trending.sketch-depth x order.trending.sketch-width} cells plus the {@code order.trending.capacity}
+ * heaviest products. Memory is therefore fixed, whatever the size of the catalog or the event rate, and a query
+ * only sorts the tracked products. Events are timestamped by the broker, so replayed events age correctly.
+ */
+@ApplicationScoped
+public class TrendingProductService {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "order.trending.capacity", defaultValue = "500")
+    int capacity;
+
+    @ConfigProperty(name = "order.trending.sketch-depth", defaultValue = "4")
+    int sketchDepth;
+
+    @ConfigProperty(name = "order.trending.sketch-width", defaultValue = "8192")
+    int sketchWidth;
+
+    @ConfigProperty(name = "order.trending.purchase-weight", defaultValue = "10")
+    double purchaseWeight;
+
+    @ConfigProperty(name = "order.trending.view-weight", defaultValue = "1")
+    double viewWeight;
+
+    private final Map<TrendingWindow, DecayedHeavyHitters> windows = new EnumMap<>(TrendingWindow.class);
+
+    @PostConstruct
+    void init() {
+        for (TrendingWindow window : TrendingWindow.values()) {
+            DecayedHeavyHitters heavyHitters = new DecayedHeavyHitters(
+                    window.getDuration().toMillis(), capacity, sketchDepth, sketchWidth);
+            windows.put(window, heavyHitters);
+            meterRegistry.gauge("products.trending.tracked", Tags.of("window", window.getLabel()),
+                    this, service -> service.trackedCount(window));
+        }
+    }
+
+    /**
+     * Counts one order line for the product. Each order counts once per product, whatever the quantity, so a
+     * single bulk order cannot push a product to the top.
+     */
+    public synchronized void recordPurchase(UUID productId, long timeMillis) {
+        record(productId, purchaseWeight, timeMillis);
+    }
+
+    public synchronized void recordView(UUID productId, long timeMillis) {
+        record(productId, viewWeight, timeMillis);
+    }
+
+    /**
+     * Returns up to {@code limit} products trending in the window labelled {@code window}, highest score first.
+     */
+    public List<TrendingProduct> getTrendingProducts(String window, int limit) {
+        TrendingWindow trendingWindow = TrendingWindow.fromLabel(window);
+        if (trendingWindow == null) {
+            throw new InvalidOrderException("window must be one of 1h, 24h");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidOrderException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        synchronized (this) {
+            return windows.get(trendingWindow).top(limit, System.currentTimeMillis());
+        }
+    }
+
+    private void record(UUID productId, double weight, long timeMillis) {
+        for (DecayedHeavyHitters heavyHitters : windows.values()) {
+            heavyHitters.add(productId, weight, timeMillis);
+        }
+    }
+
+    private synchronized int trackedCount(TrendingWindow window) {
+        return windows.get(window).trackedCount();
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.order.service.shipping;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable longest-prefix index from normalized postal codes to zone numbers.
+ * Children of each node are kept in sorted arrays and found by binary search.
+ */
+final class PostalPrefixTrie {
+
+    static final int NO_ZONE = -1;
+
+    private final Node root;
+
+    private PostalPrefixTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the zone of the longest prefix of {@code postalCode} in the trie, or {@link #NO_ZONE}.
+     */
+    int find(String postalCode) {
+        Node node = root;
+        int zone = node.zone;
+        for (int i = 0; i < postalCode.length(); i++) {
+            node = node.child(postalCode.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.zone != NO_ZONE) {
+                zone = node.zone;
+            }
+        }
+        return zone;
+    }
+
+    /**
+     * Upper-cases the postal code and drops spaces and dashes, so "sw1a 1aa" and "SW1A1AA" match the same prefixes.
+     */
+    static String normalize(String postalCode) {
+        if (postalCode == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(postalCode.length());
+        for (int i = 0; i < postalCode.length(); i++) {
+            char c = postalCode.charAt(i);
+            if (c != ' ' && c != '-') {
+                normalized.append(Character.toUpperCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder {
+        private final MutableNode root = new MutableNode();
+
+        /**
+         * @throws IllegalArgumentException if the prefix is already mapped to another zone
+         */
+        Builder put(String prefix, int zone) {
+            MutableNode node = root;
+            String normalized = normalize(prefix);
+            for (int i = 0; i < normalized.length(); i++) {
+                node = node.children.computeIfAbsent(normalized.charAt(i), c -> new MutableNode());
+            }
+            if (node.zone != NO_ZONE && node.zone != zone) {
+                throw new IllegalArgumentException("Postal prefix '" + prefix + "' is mapped to two zones");
+            }
+            node.zone = zone;
+            return this;
+        }
+
+        PostalPrefixTrie build() {
+            return new PostalPrefixTrie(root.freeze());
+        }
+    }
+
+    private static final class MutableNode {
+        private final TreeMap<Character, MutableNode> children = new TreeMap<>();
+        private int zone = NO_ZONE;
+
+        private Node freeze() {
+            char[] labels = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, MutableNode> child : children.entrySet()) {
+                labels[i] = child.getKey();
+                frozen[i] = child.getValue().freeze();
+                i++;
+            }
+            return new Node(labels, frozen, zone);
+        }
+    }
+
+    private static final class Node {
+        private final char[] labels;
+        private final Node[] children;
+        private final int zone;
+
+        private Node(char[] labels, Node[] children, int zone) {
+            this.labels = labels;
+            this.children = children;
+            this.zone = zone;
+        }
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
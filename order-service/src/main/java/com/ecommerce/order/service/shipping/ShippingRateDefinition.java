@@ -0,0 +1,40 @@
+package com.ecommerce.order.service.shipping;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Source form of a shipping rate table, as read from JSON. {@link ShippingRateTable#compile} turns it into the
+ * structures used for quoting.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ShippingRateDefinition(String currency, List<Service> services, List<Zone> zones, List<Rate> rates) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Service(String id, String name, String description, String carrier, String serviceLevel,
+                          int minDays, int maxDays, boolean tracking, boolean insurance, boolean signature,
+                          boolean cod, boolean recommended, BigDecimal freeOverValue) {
+    }
+
+    /**
+     * A shipping zone covering every postal code of {@code country} that starts with one of {@code postalPrefixes}.
+     * An empty prefix covers the whole country; the longest matching prefix wins.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Zone(String id, String country, List<String> postalPrefixes) {
+    }
+
+    /**
+     * Weight breaks of one service in one zone. A parcel pays the price of the first tier whose
+     * {@code maxWeight} (kg, inclusive) it does not exceed.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Rate(String zone, String service, List<Tier> tiers) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Tier(double maxWeight, BigDecimal price) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.order.service.shipping;
+
+import com.ecommerce.order.dto.shipping.ShippingOption;
+import com.ecommerce.order.exception.InvalidOrderException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Quotes shipping options from an in-memory {@link ShippingRateTable}.
+ * <p>
+ * The table is read from {@code shipping.rates.path} when set, otherwise from the bundled
+ * {@code shipping-rates.json}. When a file is configured it is checked every {@code shipping.rates.reload-interval}
+ * and can be reloaded on demand; a new table is compiled off to the side and published with a single volatile
+ * write, so quotes in flight keep using the old table and never wait. A file that fails to compile is rejected and
+ * the current table stays in use.
+ */
+@ApplicationScoped
+public class ShippingRateService {
+
+    private static final Logger log = Logger.getLogger(ShippingRateService.class);
+
+    private static final String BUNDLED_RATES = "shipping-rates.json";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "shipping.rates.path")
+    Optional<String> ratesPath;
+
+    private volatile ShippingRateTable table;
+
+    private volatile long loadedLastModified;
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    public List<ShippingOption> getAvailableShippingOptions(String country, String postalCode) {
+        return calculateShippingOptions(country, postalCode, null, null);
+    }
+
+    public List<ShippingOption> calculateShippingOptions(String country, String postalCode, Double weight,
+                                                         BigDecimal value) {
+        if (country == null || country.isBlank()) {
+            throw new InvalidOrderException("country is required");
+        }
+        if (weight != null && !(weight > 0)) {
+            throw new InvalidOrderException("weight must be positive");
+        }
+        return table.quote(country, postalCode, weight, value, LocalDateTime.now());
+    }
+
+    /**
+     * Quotes the shipping option {@code optionId} for an order of {@code value} to the given destination.
+     *
+     * @throws InvalidOrderException if the option does not ship to the destination
+     */
+    public ShippingOption quote(String country, String postalCode, String optionId, BigDecimal value) {
+        if (optionId == null || optionId.isBlank()) {
+            throw new InvalidOrderException("shippingOptionId is required");
+        }
+        return calculateShippingOptions(country, postalCode, null, value).stream()
+                .filter(option -> option.getId().equals(optionId))
+                .findFirst()
+                .orElseThrow(() -> new InvalidOrderException(String.format(
+                        "Shipping option %s is not available for %s %s", optionId, country, postalCode)));
+    }
+
+    /**
+     * Loads and compiles the rate table, then swaps it in.
+     *
+     * @return the number of services in the new table
+     */
+    public synchronized int reload() {
+        ShippingRateTable compiled;
+        long lastModified = 0;
+        try {
+            if (ratesPath.isPresent()) {
+                Path path = Path.of(ratesPath.get());
+                lastModified = Files.getLastModifiedTime(path).toMillis();
+                try (InputStream in = Files.newInputStream(path)) {
+                    compiled = compile(in);
+                }
+            } else {
+                try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(BUNDLED_RATES)) {
+                    if (in == null) {
+                        throw new IllegalStateException("Bundled " + BUNDLED_RATES + " not found");
+                    }
+                    compiled = compile(in);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Could not load shipping rates: " + e.getMessage(), e);
+        }
+
+        table = compiled;
+        loadedLastModified = lastModified;
+        log.infof("Loaded shipping rates with %d services from %s",
+                compiled.serviceCount(), ratesPath.orElse(BUNDLED_RATES));
+        return compiled.serviceCount();
+    }
+
+    @Scheduled(every = "{shipping.rates.reload-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reloadIfChanged() {
+        if (ratesPath.isEmpty()) {
+            return;
+        }
+        try {
+            if (Files.getLastModifiedTime(Path.of(ratesPath.get())).toMillis() != loadedLastModified) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.errorf(e, "Keeping current shipping rates, reload from %s failed", ratesPath.get());
+        }
+    }
+
+    private ShippingRateTable compile(InputStream in) throws IOException {
+        return ShippingRateTable.compile(objectMapper.readValue(in, ShippingRateDefinition.class));
+    }
+}
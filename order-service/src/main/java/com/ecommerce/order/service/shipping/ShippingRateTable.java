@@ -0,0 +1,204 @@
+package com.ecommerce.order.service.shipping;
+
+import com.ecommerce.order.dto.shipping.ShippingOption;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiled, immutable shipping rate table.
+ * <p>
+ * Postal codes resolve to a zone through one {@link PostalPrefixTrie} per country, and each zone/service pair keeps
+ * its weight breaks in a sorted array searched with {@link Arrays#binarySearch(double[], double)}. A quote therefore
+ * costs one trie walk plus one binary search per service, with no I/O and no locking. Instances are never
+ * modified after {@link #compile}, so a reload builds a new table and swaps the reference.
+ */
+public final class ShippingRateTable {
+
+    private final String currency;
+    private final ShippingRateDefinition.Service[] services;
+    private final Map<String, PostalPrefixTrie> triesByCountry;
+    /** Indexed by zone, then service; {@code null} where the service does not ship to the zone. */
+    private final WeightTiers[][] tiers;
+
+    private ShippingRateTable(String currency, ShippingRateDefinition.Service[] services,
+                              Map<String, PostalPrefixTrie> triesByCountry, WeightTiers[][] tiers) {
+        this.currency = currency;
+        this.services = services;
+        this.triesByCountry = triesByCountry;
+        this.tiers = tiers;
+    }
+
+    /**
+     * Validates a rate definition and builds the lookup structures.
+     *
+     * @throws IllegalArgumentException if the definition references unknown zones or services, maps one postal
+     *                                  prefix to two zones, or has weight breaks that are not strictly increasing
+     */
+    public static ShippingRateTable compile(ShippingRateDefinition definition) {
+        if (definition.services() == null || definition.zones() == null || definition.rates() == null) {
+            throw new IllegalArgumentException("Rate table must define services, zones and rates");
+        }
+
+        ShippingRateDefinition.Service[] services = definition.services().toArray(new ShippingRateDefinition.Service[0]);
+        Map<String, Integer> serviceIndex = new HashMap<>();
+        for (int i = 0; i < services.length; i++) {
+            if (serviceIndex.put(services[i].id(), i) != null) {
+                throw new IllegalArgumentException("Duplicate service: " + services[i].id());
+            }
+        }
+
+        Map<String, Integer> zoneIndex = new HashMap<>();
+        Map<String, PostalPrefixTrie.Builder> trieBuilders = new HashMap<>();
+        for (ShippingRateDefinition.Zone zone : definition.zones()) {
+            if (zoneIndex.putIfAbsent(zone.id(), zoneIndex.size()) != null) {
+                throw new IllegalArgumentException("Duplicate zone: " + zone.id());
+            }
+            PostalPrefixTrie.Builder trie = trieBuilders.computeIfAbsent(
+                    normalizeCountry(zone.country()), country -> PostalPrefixTrie.builder());
+            List<String> prefixes = zone.postalPrefixes() == null || zone.postalPrefixes().isEmpty()
+                    ? List.of("")
+                    : zone.postalPrefixes();
+            for (String prefix : prefixes) {
+                trie.put(prefix, zoneIndex.get(zone.id()));
+            }
+        }
+        Map<String, PostalPrefixTrie> tries = new HashMap<>();
+        trieBuilders.forEach((country, builder) -> tries.put(country, builder.build()));
+
+        WeightTiers[][] tiers = new WeightTiers[zoneIndex.size()][services.length];
+        for (ShippingRateDefinition.Rate rate : definition.rates()) {
+            Integer zone = zoneIndex.get(rate.zone());
+            Integer service = serviceIndex.get(rate.service());
+            if (zone == null || service == null) {
+                throw new IllegalArgumentException("Rate references unknown zone or service: "
+                        + rate.zone() + "/" + rate.service());
+            }
+            tiers[zone][service] = WeightTiers.of(rate);
+        }
+
+        return new ShippingRateTable(definition.currency() != null ? definition.currency() : "USD",
+                services, Map.copyOf(tries), tiers);
+    }
+
+    /**
+     * Quotes every service shipping to the given destination, cheapest first.
+     *
+     * @param weight parcel weight in kg; {@code null} quotes the lightest weight break
+     * @param value  order value, used for free-shipping thresholds; may be {@code null}
+     * @return the quotes, empty if the destination is not served
+     */
+    public List<ShippingOption> quote(String country, String postalCode, Double weight, BigDecimal value,
+                                      LocalDateTime now) {
+        PostalPrefixTrie trie = triesByCountry.get(normalizeCountry(country));
+        if (trie == null) {
+            return List.of();
+        }
+        int zone = trie.find(PostalPrefixTrie.normalize(postalCode));
+        if (zone == PostalPrefixTrie.NO_ZONE) {
+            return List.of();
+        }
+
+        List<ShippingOption> options = new ArrayList<>(services.length);
+        for (int i = 0; i < services.length; i++) {
+            WeightTiers serviceTiers = tiers[zone][i];
+            if (serviceTiers == null) {
+                continue;
+            }
+            BigDecimal price = weight != null ? serviceTiers.priceFor(weight) : serviceTiers.lowestPrice();
+            if (price == null) {
+                continue;
+            }
+            ShippingRateDefinition.Service service = services[i];
+            if (value != null && service.freeOverValue() != null && value.compareTo(service.freeOverValue()) >= 0) {
+                price = BigDecimal.ZERO;
+            }
+            options.add(toOption(service, price, serviceTiers.maxWeight(), now));
+        }
+        options.sort((a, b) -> a.getPrice().compareTo(b.getPrice()));
+        return options;
+    }
+
+    public int serviceCount() {
+        return services.length;
+    }
+
+    private ShippingOption toOption(ShippingRateDefinition.Service service, BigDecimal price, double maxWeight,
+                                    LocalDateTime now) {
+        ShippingOption option = new ShippingOption();
+        option.setId(service.id());
+        option.setName(service.name());
+        option.setDescription(service.description());
+        option.setPrice(price);
+        option.setCurrency(currency);
+        option.setEstimatedDelivery(service.minDays() + "-" + service.maxDays() + " days");
+        option.setRecommended(service.recommended());
+        option.setCarrier(service.carrier());
+        option.setServiceLevel(service.serviceLevel());
+        option.setMinDeliveryDate(now.plusDays(service.minDays()));
+        option.setMaxDeliveryDate(now.plusDays(service.maxDays()));
+        option.setHasTracking(service.tracking());
+        option.setHasInsurance(service.insurance());
+        option.setHasSignatureConfirmation(service.signature());
+        option.setSupportsCod(service.cod());
+        option.setMaxWeight(maxWeight);
+        return option;
+    }
+
+    private static String normalizeCountry(String country) {
+        return country == null ? "" : country.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static final class WeightTiers {
+        private final double[] maxWeights;
+        private final BigDecimal[] prices;
+
+        private WeightTiers(double[] maxWeights, BigDecimal[] prices) {
+            this.maxWeights = maxWeights;
+            this.prices = prices;
+        }
+
+        private static WeightTiers of(ShippingRateDefinition.Rate rate) {
+            List<ShippingRateDefinition.Tier> tiers = rate.tiers();
+            if (tiers == null || tiers.isEmpty()) {
+                throw new IllegalArgumentException("Rate " + rate.zone() + "/" + rate.service() + " has no tiers");
+            }
+            double[] maxWeights = new double[tiers.size()];
+            BigDecimal[] prices = new BigDecimal[tiers.size()];
+            for (int i = 0; i < tiers.size(); i++) {
+                maxWeights[i] = tiers.get(i).maxWeight();
+                prices[i] = tiers.get(i).price();
+                if (prices[i] == null || (i > 0 && maxWeights[i] <= maxWeights[i - 1])) {
+                    throw new IllegalArgumentException("Rate " + rate.zone() + "/" + rate.service()
+                            + " must have priced tiers with strictly increasing maxWeight");
+                }
+            }
+            return new WeightTiers(maxWeights, prices);
+        }
+
+        /**
+         * Returns the price of the first break not below {@code weight}, or {@code null} if the parcel is too heavy.
+         */
+        private BigDecimal priceFor(double weight) {
+            int index = Arrays.binarySearch(maxWeights, weight);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < maxWeights.length ? prices[index] : null;
+        }
+
+        private BigDecimal lowestPrice() {
+            return prices[0];
+        }
+
+        private double maxWeight() {
+            return maxWeights[maxWeights.length - 1];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+-- Backfill order_summaries for orders placed before the projection existed.
+-- New orders are projected in the same transaction as the write, so only older rows are missing;
+-- ON CONFLICT keeps any summary already written. The JSON matches what OrderProjectionService writes:
+-- items as OrderItemResponse objects and the latest status as an OrderStatusHistoryResponse.
+INSERT INTO order_summaries (
+    order_id, customer_id, order_number, status, customer_email, customer_phone,
+    shipping_address, billing_address, subtotal, tax, shipping_fee, total, notes,
+    item_count, items, latest_status, created_at, updated_at
+)
+SELECT o.id, o.customer_id, o.order_number, o.status, o.customer_email, o.customer_phone,
+       o.shipping_address, o.billing_address, o.subtotal, o.tax, o.shipping_fee, o.total, o.notes,
+       COALESCE(i.item_count, 0),
+       COALESCE(i.items, '[]'::jsonb),
+       h.latest_status,
+       o.created_at, o.updated_at
+FROM orders o
+LEFT JOIN LATERAL (
+    SELECT COUNT(*) AS item_count,
+           jsonb_agg(jsonb_strip_nulls(jsonb_build_object(
+               'id', oi.id,
+               'productId', oi.product_id,
+               'productName', oi.product_name,
+               'productSku', oi.product_sku,
+               'quantity', oi.quantity,
+               'unitPrice', oi.unit_price,
+               'totalPrice', oi.unit_price * oi.quantity,
+               'notes', oi.notes,
+               'createdAt', oi.created_at,
+               'updatedAt', oi.updated_at
+           )) ORDER BY oi.created_at, oi.id) AS items
+    FROM order_items oi
+    WHERE oi.order_id = o.id
+) i ON TRUE
+LEFT JOIN LATERAL (
+    SELECT jsonb_strip_nulls(jsonb_build_object(
+               'status', sh.status,
+               'message', sh.message,
+               'statusDate', sh.status_date
+           )) AS latest_status
+    FROM order_status_history sh
+    WHERE sh.order_id = o.id
+    ORDER BY sh.status_date DESC, sh.id DESC
+    LIMIT 1
+) h ON TRUE
+ON CONFLICT (order_id) DO NOTHING;
@@ -0,0 +1,10 @@
+-- Payment and inventory events already applied to an order, one row per order and event type,
+-- so a redelivered event is skipped even after the order has moved on
+CREATE TABLE processed_status_events (
+    order_id UUID NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    processed_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (order_id, event_type)
+);
+
+CREATE INDEX idx_processed_status_events_processed_at ON processed_status_events (processed_at);
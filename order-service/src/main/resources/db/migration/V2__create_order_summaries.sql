@@ -0,0 +1,27 @@
+-- Read-optimized projection of orders for customer order history.
+-- One row per order; items and the latest status are embedded as JSONB so that
+-- "my orders" pages are served without joining order_items / order_status_history.
+CREATE TABLE order_summaries (
+    order_id UUID PRIMARY KEY,
+    customer_id UUID NOT NULL,
+    order_number VARCHAR(50) NOT NULL UNIQUE,
+    status VARCHAR(50) NOT NULL,
+    customer_email VARCHAR(255) NOT NULL,
+    customer_phone VARCHAR(50) NOT NULL,
+    shipping_address TEXT NOT NULL,
+    billing_address TEXT NOT NULL,
+    subtotal DECIMAL(19, 4) NOT NULL,
+    tax DECIMAL(19, 4) NOT NULL,
+    shipping_fee DECIMAL(19, 4) NOT NULL,
+    total DECIMAL(19, 4) NOT NULL,
+    notes TEXT,
+    item_count INTEGER NOT NULL DEFAULT 0,
+    items JSONB NOT NULL DEFAULT '[]'::jsonb,
+    latest_status JSONB,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_order_summaries_order FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
+);
+
+-- Serves getCustomerOrders (newest first) with a single index range scan
+CREATE INDEX idx_order_summaries_customer_created ON order_summaries(customer_id, created_at DESC);
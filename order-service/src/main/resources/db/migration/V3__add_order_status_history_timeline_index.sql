@@ -0,0 +1,6 @@
+-- Covering index for the order timeline: the tracking endpoints read
+-- (status, message, status_date) for one order ordered by status_date,
+-- which this index serves with an index-only scan.
+CREATE INDEX idx_order_status_history_order_date
+    ON order_status_history(order_id, status_date)
+    INCLUDE (status, message);
@@ -0,0 +1,114 @@
+-- Status transitions are validated in OrderStatusTransitions before any write.
+-- The database keeps the same table as a backstop for writes that bypass the service.
+CREATE TABLE order_status_transitions (
+    from_status VARCHAR(50) NOT NULL,
+    to_status VARCHAR(50) NOT NULL,
+    PRIMARY KEY (from_status, to_status)
+);
+
+INSERT INTO order_status_transitions (from_status, to_status) VALUES
+    ('PENDING', 'PLACED'),
+    ('PENDING', 'AWAITING_PAYMENT'),
+    ('PENDING', 'PAID'),
+    ('PENDING', 'PROCESSING'),
+    ('PENDING', 'ON_HOLD'),
+    ('PENDING', 'VERIFICATION_REQUIRED'),
+    ('PENDING', 'CANCELLED'),
+    ('PENDING', 'DECLINED'),
+    ('PENDING', 'FAILED'),
+    ('PLACED', 'AWAITING_PAYMENT'),
+    ('PLACED', 'PAID'),
+    ('PLACED', 'PROCESSING'),
+    ('PLACED', 'ON_HOLD'),
+    ('PLACED', 'CANCELLED'),
+    ('PLACED', 'FAILED'),
+    ('AWAITING_PAYMENT', 'PAID'),
+    ('AWAITING_PAYMENT', 'CANCELLED'),
+    ('AWAITING_PAYMENT', 'DECLINED'),
+    ('AWAITING_PAYMENT', 'FAILED'),
+    ('VERIFICATION_REQUIRED', 'PENDING'),
+    ('VERIFICATION_REQUIRED', 'PAID'),
+    ('VERIFICATION_REQUIRED', 'CANCELLED'),
+    ('VERIFICATION_REQUIRED', 'DECLINED'),
+    ('ON_HOLD', 'PENDING'),
+    ('ON_HOLD', 'PAID'),
+    ('ON_HOLD', 'PROCESSING'),
+    ('ON_HOLD', 'CANCELLED'),
+    ('PAID', 'PROCESSING'),
+    ('PAID', 'AWAITING_FULFILLMENT'),
+    ('PAID', 'SHIPPED'),
+    ('PAID', 'CANCELLED'),
+    ('PAID', 'REFUNDED'),
+    ('PAID', 'PARTIALLY_REFUNDED'),
+    ('PAID', 'DISPUTED'),
+    ('PROCESSING', 'PAID'),
+    ('PROCESSING', 'PROCESSED'),
+    ('PROCESSING', 'AWAITING_FULFILLMENT'),
+    ('PROCESSING', 'AWAITING_SHIPMENT'),
+    ('PROCESSING', 'SHIPPED'),
+    ('PROCESSING', 'PARTIALLY_SHIPPED'),
+    ('PROCESSING', 'ON_HOLD'),
+    ('PROCESSING', 'CANCELLED'),
+    ('PROCESSING', 'FAILED'),
+    ('AWAITING_FULFILLMENT', 'PROCESSING'),
+    ('AWAITING_FULFILLMENT', 'AWAITING_SHIPMENT'),
+    ('AWAITING_FULFILLMENT', 'CANCELLED'),
+    ('PROCESSED', 'AWAITING_SHIPMENT'),
+    ('PROCESSED', 'AWAITING_PICKUP'),
+    ('PROCESSED', 'SHIPPED'),
+    ('PROCESSED', 'PARTIALLY_SHIPPED'),
+    ('PROCESSED', 'CANCELLED'),
+    ('AWAITING_SHIPMENT', 'SHIPPED'),
+    ('AWAITING_SHIPMENT', 'PARTIALLY_SHIPPED'),
+    ('AWAITING_SHIPMENT', 'CANCELLED'),
+    ('PARTIALLY_SHIPPED', 'SHIPPED'),
+    ('PARTIALLY_SHIPPED', 'DELIVERED'),
+    ('SHIPPED', 'OUT_FOR_DELIVERY'),
+    ('SHIPPED', 'DELIVERED'),
+    ('SHIPPED', 'RETURN_REQUESTED'),
+    ('SHIPPED', 'CANCELLED'),
+    ('OUT_FOR_DELIVERY', 'DELIVERED'),
+    ('OUT_FOR_DELIVERY', 'AWAITING_PICKUP'),
+    ('OUT_FOR_DELIVERY', 'RETURN_REQUESTED'),
+    ('AWAITING_PICKUP', 'DELIVERED'),
+    ('AWAITING_PICKUP', 'COMPLETED'),
+    ('AWAITING_PICKUP', 'CANCELLED'),
+    ('DELIVERED', 'COMPLETED'),
+    ('DELIVERED', 'RETURN_REQUESTED'),
+    ('DELIVERED', 'REFUNDED'),
+    ('DELIVERED', 'PARTIALLY_REFUNDED'),
+    ('DELIVERED', 'DISPUTED'),
+    ('COMPLETED', 'RETURN_REQUESTED'),
+    ('COMPLETED', 'REFUNDED'),
+    ('COMPLETED', 'DISPUTED'),
+    ('RETURN_REQUESTED', 'RETURNED'),
+    ('RETURN_REQUESTED', 'DELIVERED'),
+    ('RETURN_REQUESTED', 'COMPLETED'),
+    ('RETURNED', 'REFUNDED'),
+    ('RETURNED', 'PARTIALLY_REFUNDED'),
+    ('PARTIALLY_REFUNDED', 'REFUNDED'),
+    ('PARTIALLY_REFUNDED', 'DISPUTED'),
+    ('DISPUTED', 'REFUNDED'),
+    ('DISPUTED', 'DELIVERED'),
+    ('DISPUTED', 'COMPLETED');
+
+CREATE OR REPLACE FUNCTION validate_order_status_transition()
+RETURNS TRIGGER AS $$
+BEGIN
+    -- Allow status to stay the same (for updates that don't change status)
+    IF OLD.status = NEW.status THEN
+        RETURN NEW;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM order_status_transitions
+               WHERE from_status = OLD.status AND to_status = NEW.status) THEN
+        RETURN NEW;
+    END IF;
+
+    RAISE EXCEPTION 'Invalid status transition from % to %', OLD.status, NEW.status;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Pooled sequence ids for order_status_history so Hibernate can batch history inserts.
+-- The increment must match the allocationSize on OrderStatusHistory.
+ALTER SEQUENCE order_status_history_id_seq INCREMENT BY 50;
@@ -0,0 +1,56 @@
+-- Cold storage for completed orders, range-partitioned by month of created_at.
+-- OrderArchiveService moves DELIVERED / CANCELLED / RETURNED / REFUNDED orders here once they have
+-- been untouched for order.archive.after-days, so the hot orders, order_items and
+-- order_status_history tables and their indexes only hold the active working set.
+-- Items and status history are folded into JSONB documents (TOAST-compressed by PostgreSQL).
+CREATE TABLE orders_archive (
+    id UUID NOT NULL,
+    customer_id UUID NOT NULL,
+    order_number VARCHAR(50) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    shipping_address TEXT NOT NULL,
+    billing_address TEXT NOT NULL,
+    customer_email VARCHAR(255) NOT NULL,
+    customer_phone VARCHAR(50) NOT NULL,
+    subtotal DECIMAL(19, 4) NOT NULL,
+    tax DECIMAL(19, 4) NOT NULL,
+    shipping_fee DECIMAL(19, 4) NOT NULL,
+    total DECIMAL(19, 4) NOT NULL,
+    notes TEXT,
+    currency VARCHAR(10),
+    tracking_number VARCHAR(255),
+    carrier VARCHAR(100),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    delivered_date TIMESTAMP,
+    cancelled_at TIMESTAMP,
+    items JSONB NOT NULL DEFAULT '[]'::jsonb,
+    status_history JSONB NOT NULL DEFAULT '[]'::jsonb,
+    archived_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Local indexes per partition; queries bounded on created_at only touch the matching months
+CREATE INDEX idx_orders_archive_customer_created ON orders_archive (customer_id, created_at);
+CREATE INDEX idx_orders_archive_order_number ON orders_archive (order_number);
+
+-- Creates the monthly partition holding month_start if it does not exist yet and returns its name
+CREATE OR REPLACE FUNCTION ensure_orders_archive_partition(month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::date;
+    range_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := 'orders_archive_' || to_char(range_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF orders_archive FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Finds archival candidates without scanning active orders
+CREATE INDEX idx_orders_completed_updated_at ON orders (updated_at)
+    WHERE status IN ('DELIVERED', 'CANCELLED', 'RETURNED', 'REFUNDED');
+
+-- Summaries outlive archived orders: they stay the customer's order history
+ALTER TABLE order_summaries DROP CONSTRAINT fk_order_summaries_order;
@@ -0,0 +1,3 @@
+-- Serves the unpaid-order sweeper and its backlog gauge: oldest PENDING orders first,
+-- without touching the rest of the orders table
+CREATE INDEX idx_orders_pending_created_at ON orders (created_at) WHERE status = 'PENDING';
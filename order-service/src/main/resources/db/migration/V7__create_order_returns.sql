@@ -0,0 +1,61 @@
+-- Columns mapped by OrderItem but missing from V1; returns track returned_quantity per line
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS discount DECIMAL(10, 2) DEFAULT 0;
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS tax DECIMAL(10, 2) DEFAULT 0;
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS status VARCHAR(50) NOT NULL DEFAULT 'CREATED';
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS reviewed BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS returned_quantity INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE order_returns (
+    id UUID PRIMARY KEY,
+    return_number VARCHAR(50) NOT NULL UNIQUE,
+    order_id UUID NOT NULL,
+    order_number VARCHAR(50) NOT NULL,
+    customer_id UUID NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    reason TEXT NOT NULL,
+    comments TEXT,
+    refund_amount DECIMAL(19, 4) NOT NULL,
+    refund_method VARCHAR(50),
+    requested_at TIMESTAMP NOT NULL,
+    processed_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+-- Return history per customer, newest first
+CREATE INDEX idx_order_returns_customer_requested ON order_returns (customer_id, requested_at DESC);
+CREATE INDEX idx_order_returns_order_id ON order_returns (order_id);
+
+CREATE TABLE order_return_items (
+    id UUID PRIMARY KEY,
+    return_id UUID NOT NULL,
+    order_item_id UUID NOT NULL,
+    product_id UUID NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    product_sku VARCHAR(100) NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_price DECIMAL(19, 4) NOT NULL,
+    refund_amount DECIMAL(19, 4) NOT NULL,
+    reason TEXT,
+    CONSTRAINT fk_order_return_items_return FOREIGN KEY (return_id) REFERENCES order_returns(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_order_return_items_return_id ON order_return_items (return_id);
+
+-- Queue of return processing stages (restock, refund, notify), worked by ReturnTaskProcessor
+CREATE TABLE order_return_tasks (
+    id BIGSERIAL PRIMARY KEY,
+    return_id UUID NOT NULL,
+    stage VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_order_return_tasks_return FOREIGN KEY (return_id) REFERENCES order_returns(id) ON DELETE CASCADE,
+    CONSTRAINT uq_order_return_tasks_stage UNIQUE (return_id, stage)
+);
+
+-- Due tasks only; finished tasks drop out of the index
+CREATE INDEX idx_order_return_tasks_due ON order_return_tasks (next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,15 @@
+-- Co-purchase counts: how many orders contained both products. Stored in both directions so the top related
+-- products of one product are a single index range scan.
+CREATE TABLE product_co_purchase (
+    product_id UUID NOT NULL,
+    related_product_id UUID NOT NULL,
+    purchase_count BIGINT NOT NULL,
+    PRIMARY KEY (product_id, related_product_id)
+);
+
+-- Seed from the orders placed so far; CoPurchaseService keeps it current from here on
+INSERT INTO product_co_purchase (product_id, related_product_id, purchase_count)
+SELECT a.product_id, b.product_id, COUNT(DISTINCT a.order_id)
+FROM order_items a
+JOIN order_items b ON b.order_id = a.order_id AND b.product_id <> a.product_id
+GROUP BY a.product_id, b.product_id;
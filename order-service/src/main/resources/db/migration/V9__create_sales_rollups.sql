@@ -0,0 +1,52 @@
+-- Sales analytics rollups, maintained incrementally from order-events by SalesAnalyticsService.
+-- Buckets are UTC; amounts are in minor units of their currency. Orders are counted when placed.
+
+-- Event ids already applied, so a redelivered event is not counted twice
+CREATE TABLE analytics_processed_events (
+    event_id UUID PRIMARY KEY,
+    processed_at TIMESTAMP NOT NULL DEFAULT (now() AT TIME ZONE 'UTC')
+);
+
+CREATE INDEX idx_analytics_processed_events_processed_at ON analytics_processed_events (processed_at);
+
+-- Orders, units and revenue per hour and per day (granularity 'HOUR' or 'DAY')
+CREATE TABLE sales_rollup (
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    order_count BIGINT NOT NULL,
+    unit_count BIGINT NOT NULL,
+    revenue_minor BIGINT NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, currency)
+);
+
+-- Orders, units and revenue per product per day
+CREATE TABLE product_sales_rollup (
+    bucket_date DATE NOT NULL,
+    product_id UUID NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    order_count BIGINT NOT NULL,
+    unit_count BIGINT NOT NULL,
+    revenue_minor BIGINT NOT NULL,
+    PRIMARY KEY (bucket_date, product_id, currency)
+);
+
+-- Orders, units and revenue per category per day; lines of uncategorised products use the nil UUID
+CREATE TABLE category_sales_rollup (
+    bucket_date DATE NOT NULL,
+    category_id UUID NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    order_count BIGINT NOT NULL,
+    unit_count BIGINT NOT NULL,
+    revenue_minor BIGINT NOT NULL,
+    PRIMARY KEY (bucket_date, category_id, currency)
+);
+
+-- Orders entering each status per hour and per day
+CREATE TABLE order_status_rollup (
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    order_count BIGINT NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, status)
+);
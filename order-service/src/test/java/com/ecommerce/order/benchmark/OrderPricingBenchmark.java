@@ -0,0 +1,84 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-order pricing cost of the previous {@code BigDecimal} chain against {@link Order#calculateTotals()}, which
+ * now sums in minor units with {@link com.ecommerce.order.model.Money}.
+ * <p>
+ * Not run by the test suite. Run with
+ * {@code mvn -pl order-service test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath com.ecommerce.order.benchmark.OrderPricingBenchmark"}; add a GC profiler to the
+ * options in {@link #main} to compare allocation per order.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+    @Param({"1", "10", "50"})
+    int lines;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = new Order();
+        order.setCurrency("USD");
+        order.setShippingFee(new BigDecimal("7.95"));
+        List<OrderItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductId(UUID.randomUUID());
+            item.setUnitPrice(BigDecimal.valueOf(1999 + i * 37L, 2));
+            item.setQuantity(1 + i % 4);
+            items.add(item);
+        }
+        order.setItems(items);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalChain() {
+        BigDecimal subtotal = order.getItems().stream()
+                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal tax = subtotal.multiply(new BigDecimal("0.10"));
+        return subtotal.add(tax).add(order.getShippingFee());
+    }
+
+    @Benchmark
+    public BigDecimal minorUnits() {
+        order.calculateTotals();
+        return order.getTotal();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderPricingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
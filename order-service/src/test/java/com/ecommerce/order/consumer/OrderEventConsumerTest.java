@@ -0,0 +1,121 @@
+package com.ecommerce.order.consumer;
+
+import com.ecommerce.order.exception.ResourceNotFoundException;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.StatusEventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OrderEventConsumerTest {
+
+    private final UUID first = UUID.randomUUID();
+
+    private final UUID second = UUID.randomUUID();
+
+    private OrderEventConsumer consumer;
+
+    private StatusEventService statusEvents;
+
+    private DeadLetterPublisher deadLetters;
+
+    @BeforeEach
+    void setUp() {
+        statusEvents = mock(StatusEventService.class);
+        deadLetters = mock(DeadLetterPublisher.class);
+        consumer = new OrderEventConsumer();
+        consumer.statusEventService = statusEvents;
+        consumer.deadLetters = deadLetters;
+        consumer.objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("a batch is grouped per order, keeping each order's events in arrival order")
+    void batch_groupedPerOrder() {
+        consumer.handleInventoryEvents(List.of(
+                event("inventory-reserved", first),
+                event("inventory-reserved", second),
+                event("inventory-updated", first),
+                event("inventory-out-of-stock", first),
+                "not json",
+                "{\"eventType\":\"inventory-reserved\"}"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, OrderStatus>> firstTargets = ArgumentCaptor.forClass(Map.class);
+        InOrder order = inOrder(statusEvents);
+        order.verify(statusEvents).applyEvents(eq(first), firstTargets.capture());
+        order.verify(statusEvents).applyEvents(second, Map.of("inventory-reserved", OrderStatus.PROCESSING));
+        order.verifyNoMoreInteractions();
+        assertThat(firstTargets.getValue()).containsExactly(
+                entry("inventory-reserved", OrderStatus.PROCESSING),
+                entry("inventory-out-of-stock", OrderStatus.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("an event repeated within a batch is passed on once")
+    void batch_repeatedEventPassedOnce() {
+        consumer.handlePaymentEvents(List.of(
+                event("payment-received", first),
+                event("payment-received", first)));
+
+        verify(statusEvents).applyEvents(first, Map.of("payment-received", OrderStatus.PAID));
+    }
+
+    @Test
+    @DisplayName("a failing order fails the batch, so it is retried")
+    void failure_propagates() {
+        doThrow(new IllegalStateException("database down")).when(statusEvents).applyEvents(eq(first), anyMap());
+
+        assertThatThrownBy(() -> consumer.handlePaymentEvents(List.of(event("payment-received", first))))
+                .isInstanceOf(IllegalStateException.class);
+        verify(deadLetters, never()).park(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("after the retries, only the events of orders that still fail are parked")
+    void fallback_parksFailingOrdersOnly() {
+        IllegalStateException failure = new IllegalStateException("poison");
+        doThrow(failure).when(statusEvents).applyEvents(eq(first), anyMap());
+        String firstEvent = event("payment-received", first);
+
+        consumer.parkPaymentEvents(List.of(firstEvent, event("payment-received", second)));
+
+        verify(statusEvents).applyEvents(second, Map.of("payment-received", OrderStatus.PAID));
+        verify(deadLetters).park("payment-events", List.of(firstEvent), failure);
+    }
+
+    @Test
+    @DisplayName("events for an unknown order are skipped, neither retried nor parked")
+    void unknownOrder_skipped() {
+        doThrow(new ResourceNotFoundException("Order not found")).when(statusEvents).applyEvents(eq(first), anyMap());
+
+        consumer.handlePaymentEvents(List.of(event("payment-received", first), event("payment-received", second)));
+        consumer.parkPaymentEvents(List.of(event("payment-received", first)));
+
+        verify(statusEvents).applyEvents(second, Map.of("payment-received", OrderStatus.PAID));
+        verify(deadLetters, never()).park(any(), any(), any());
+    }
+
+    private static String event(String eventType, UUID orderId) {
+        return "{\"eventType\":\"" + eventType + "\",\"orderId\":\"" + orderId + "\",\"amount\":10}";
+    }
+}
@@ -78,6 +78,9 @@ class OrderControllerContractTest {
         request.setCustomerPhone("1234567890");
         request.setShippingAddress("123 Test St");
         request.setBillingAddress("123 Test St");
+        request.setShippingCountry("US");
+        request.setShippingPostalCode("10001");
+        request.setShippingOptionId("standard");
         request.setSubtotal(BigDecimal.valueOf(10.00));
         request.setTax(BigDecimal.valueOf(1.00));
         request.setShippingFee(BigDecimal.valueOf(5.00));
@@ -106,5 +109,25 @@ class OrderControllerContractTest {
                 // Current implementation returns 204 No Content when an order is not found
                 .statusCode(Response.Status.NO_CONTENT.getStatusCode());
     }
-}
 
+    @Test
+    @DisplayName("Bulk status update - per-row results contract")
+    void bulkUpdateOrderStatus_contract() {
+        String feed = "orderId,status,trackingNumber,carrier\n"
+                + UUID.randomUUID() + ",SHIPPED,1Z999,UPS\n"
+                + "not-a-uuid,SHIPPED,,\n";
+
+        given()
+                .contentType("text/csv")
+                .body(feed)
+        .when()
+                .post("/api/orders/status:bulk")
+        .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .body("total", Matchers.equalTo(2))
+                .body("failed", Matchers.equalTo(2))
+                .body("results[0].line", Matchers.equalTo(2))
+                .body("results[0].outcome", Matchers.equalTo("NOT_FOUND"))
+                .body("results[1].outcome", Matchers.equalTo("INVALID"));
+    }
+}
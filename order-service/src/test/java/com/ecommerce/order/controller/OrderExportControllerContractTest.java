@@ -0,0 +1,57 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.testsupport.PostgresTestResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.ws.rs.core.Response;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Contract tests for OrderExportController.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class OrderExportControllerContractTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Test
+    @DisplayName("Export orders as CSV - header contract test")
+    void exportOrdersCsv_contract() {
+        given()
+                .queryParam("format", "csv")
+                .queryParam("from", "2000-01-01T00:00:00")
+                .queryParam("to", "2000-02-01T00:00:00")
+        .when()
+                .get("/api/orders/export")
+        .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType(Matchers.startsWith("text/csv"))
+                .body(Matchers.startsWith("id,orderNumber,customerId"));
+    }
+
+    @Test
+    @DisplayName("Export orders - unsupported format contract test")
+    void exportOrdersUnsupportedFormat_contract() {
+        given()
+                .queryParam("format", "xml")
+        .when()
+                .get("/api/orders/export")
+        .then()
+                .statusCode(Response.Status.BAD_REQUEST.getStatusCode());
+    }
+}
@@ -1,12 +1,16 @@
 package com.ecommerce.order.controller;
 
 import com.ecommerce.order.dto.returns.ReturnRequest;
+import com.ecommerce.order.testsupport.PostgresTestResource;
+import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.ws.rs.core.Response;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,14 +20,24 @@ import static io.restassured.RestAssured.given;
 
 /**
  * Contract tests for OrderReturnController.
- * These are basic contract tests since the controller returns NOT_IMPLEMENTED.
  */
 @QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
 class OrderReturnControllerContractTest {
 
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
     @Test
-    @DisplayName("Initiate return - contract test")
-    void initiateReturn_contract() {
+    @DisplayName("Initiate return without items - contract test")
+    void initiateReturnWithoutItems_contract() {
         UUID orderId = UUID.randomUUID();
         ReturnRequest request = new ReturnRequest();
         request.setReason("Defective item");
@@ -36,18 +50,49 @@ class OrderReturnControllerContractTest {
         .when()
                 .post("/api/orders/" + orderId + "/return")
         .then()
-                .statusCode(Response.Status.NOT_IMPLEMENTED.getStatusCode())
-                .body("message", Matchers.notNullValue());
+                .statusCode(Response.Status.BAD_REQUEST.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Initiate return for unknown order - contract test")
+    void initiateReturnUnknownOrder_contract() {
+        ReturnRequest.ReturnItemRequest item = new ReturnRequest.ReturnItemRequest();
+        item.setOrderItemId(UUID.randomUUID());
+        item.setQuantity(1);
+        item.setReason("Wrong size");
+        ReturnRequest request = new ReturnRequest();
+        request.setReason("Wrong size");
+        request.setItems(List.of(item));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(request)
+        .when()
+                .post("/api/orders/" + UUID.randomUUID() + "/return")
+        .then()
+                .statusCode(Response.Status.NOT_FOUND.getStatusCode());
     }
 
     @Test
     @DisplayName("Get return history - contract test")
     void getReturnHistory_contract() {
+        given()
+                .queryParam("customerId", UUID.randomUUID())
+        .when()
+                .get("/api/orders/returns")
+        .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .body("size()", Matchers.is(0));
+    }
+
+    @Test
+    @DisplayName("Get return history without customer - contract test")
+    void getReturnHistoryWithoutCustomer_contract() {
         given()
         .when()
                 .get("/api/orders/returns")
         .then()
-                .statusCode(Response.Status.NOT_IMPLEMENTED.getStatusCode());
+                .statusCode(Response.Status.BAD_REQUEST.getStatusCode());
     }
 
     @Test
@@ -59,7 +104,6 @@ class OrderReturnControllerContractTest {
         .when()
                 .get("/api/orders/returns/" + returnId)
         .then()
-                .statusCode(Response.Status.NOT_IMPLEMENTED.getStatusCode());
+                .statusCode(Response.Status.NOT_FOUND.getStatusCode());
     }
 }
-
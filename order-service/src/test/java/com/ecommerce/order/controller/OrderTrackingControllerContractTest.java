@@ -1,10 +1,14 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.order.testsupport.PostgresTestResource;
+import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.ws.rs.core.Response;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
 
 import java.util.UUID;
 
@@ -14,10 +18,21 @@ import static io.restassured.RestAssured.given;
  * Contract tests for OrderTrackingController.
  */
 @QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
 class OrderTrackingControllerContractTest {
 
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
     @Test
-    @DisplayName("Get order tracking - contract test")
+    @DisplayName("Get order tracking - unknown order contract test")
     void getOrderTracking_contract() {
         UUID orderId = UUID.randomUUID();
 
@@ -25,12 +40,12 @@ class OrderTrackingControllerContractTest {
         .when()
                 .get("/api/orders/" + orderId + "/tracking")
         .then()
-                .statusCode(Response.Status.NOT_IMPLEMENTED.getStatusCode())
+                .statusCode(Response.Status.NOT_FOUND.getStatusCode())
                 .body("message", Matchers.notNullValue());
     }
 
     @Test
-    @DisplayName("Get order timeline - contract test")
+    @DisplayName("Get order timeline - unknown order contract test")
     void getOrderTimeline_contract() {
         UUID orderId = UUID.randomUUID();
 
@@ -38,7 +53,6 @@ class OrderTrackingControllerContractTest {
         .when()
                 .get("/api/orders/" + orderId + "/timeline")
         .then()
-                .statusCode(Response.Status.NOT_IMPLEMENTED.getStatusCode());
+                .statusCode(Response.Status.NOT_FOUND.getStatusCode());
     }
 }
-
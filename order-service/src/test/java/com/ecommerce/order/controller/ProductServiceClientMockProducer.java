@@ -1,12 +1,14 @@
 package com.ecommerce.order.controller;
 
 import com.ecommerce.order.client.ProductServiceClient;
+import com.ecommerce.order.dto.catalog.ProductSnapshot;
 import jakarta.annotation.Priority;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Alternative;
 import jakarta.enterprise.inject.Produces;
 import jakarta.ws.rs.core.Response;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -41,13 +43,15 @@ public class ProductServiceClientMockProducer {
             }
 
             @Override
-            public Response checkStockAvailability(List<Map<String, Object>> items) {
-                return Response.ok().build();
+            public List<ProductSnapshot> getProductsByIds(List<java.util.UUID> productIds) {
+                return productIds.stream()
+                        .map(id -> new ProductSnapshot(id, "SKU-" + id, "Test Product", BigDecimal.TEN, null, true, 0L))
+                        .toList();
             }
 
             @Override
-            public Response updateInventory(List<Map<String, Object>> inventoryUpdates) {
-                return Response.ok().build();
+            public List<ProductSnapshot> exportProducts(java.util.UUID afterId, int limit) {
+                return List.of();
             }
         };
     }
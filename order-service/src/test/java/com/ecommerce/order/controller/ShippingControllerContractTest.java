@@ -23,8 +23,9 @@ class ShippingControllerContractTest {
         .when()
                 .get("/api/shipping/options")
         .then()
-                .statusCode(Response.Status.NOT_IMPLEMENTED.getStatusCode())
-                .body("message", Matchers.notNullValue());
+                .statusCode(Response.Status.OK.getStatusCode())
+                .body("id", Matchers.hasItems("standard", "express", "overnight"))
+                .body("price", Matchers.everyItem(Matchers.notNullValue()));
     }
 
     @Test
@@ -38,7 +39,9 @@ class ShippingControllerContractTest {
         .when()
                 .post("/api/shipping/calculate")
         .then()
-                .statusCode(Response.Status.NOT_IMPLEMENTED.getStatusCode());
+                .statusCode(Response.Status.OK.getStatusCode())
+                .body("find { it.id == 'standard' }.price", Matchers.equalTo(0))
+                .body("find { it.id == 'express' }.price", Matchers.equalTo(18.99f));
     }
 
     @Test
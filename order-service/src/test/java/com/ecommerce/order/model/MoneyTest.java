@@ -0,0 +1,73 @@
+package com.ecommerce.order.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link Money}.
+ */
+class MoneyTest {
+
+    @Test
+    @DisplayName("applyRate rounds like BigDecimal for every rounding mode")
+    void applyRate_matchesBigDecimalRounding() {
+        long[] amounts = {0, 1, 5, 15, 25, 1234, 99_995, -5, -15, -1234};
+        long[] rates = {1_000, 825, 5_000, 1};
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long amount : amounts) {
+                for (long rate : rates) {
+                    long expected = BigDecimal.valueOf(amount).multiply(BigDecimal.valueOf(rate))
+                            .divide(BigDecimal.valueOf(Money.BASIS_POINTS), 0, mode).longValueExact();
+                    assertThat(Money.applyRate(amount, rate, mode))
+                            .as("%d * %d bp %s", amount, rate, mode)
+                            .isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("conversion uses the currency's minor unit and round-trips to NUMERIC")
+    void conversion_usesCurrencyScale() {
+        assertThat(Money.of(new BigDecimal("19.99"), "USD").minorUnits()).isEqualTo(1999L);
+        assertThat(Money.of(new BigDecimal("10.0000"), "USD").toBigDecimal()).isEqualByComparingTo("10.00");
+        assertThat(Money.of(new BigDecimal("0.125"), "USD").minorUnits()).isEqualTo(12L);
+        assertThat(Money.of(new BigDecimal("1500"), "JPY").toBigDecimal()).isEqualTo(new BigDecimal("1500"));
+        assertThat(Money.ofMinor(1999L, "USD").times(3).plus(Money.ofMinor(5L, "USD")))
+                .isEqualTo(Money.ofMinor(6002L, "USD"));
+    }
+
+    @Test
+    @DisplayName("arithmetic rejects mixed currencies and overflow")
+    void arithmetic_rejectsMismatchAndOverflow() {
+        assertThatThrownBy(() -> Money.ofMinor(1, "USD").plus(Money.ofMinor(1, "EUR")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE, "USD").times(2))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("order totals round tax half-up to the cent")
+    void orderTotals_roundTaxHalfUp() {
+        Order order = new Order();
+        order.setCurrency("USD");
+        order.setShippingFee(new BigDecimal("5.00"));
+        OrderItem item = new OrderItem();
+        item.setUnitPrice(new BigDecimal("0.45"));
+        item.setQuantity(3);
+        order.addItem(item);
+
+        assertThat(order.getSubtotal()).isEqualTo(new BigDecimal("1.35"));
+        assertThat(order.getTax()).isEqualTo(new BigDecimal("0.14"));
+        assertThat(order.getTotal()).isEqualTo(new BigDecimal("6.49"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.order.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link Order#transitionTo} and {@link OrderStatusTransitions}.
+ */
+class OrderStatusTransitionTest {
+
+    @Test
+    @DisplayName("transitionTo writes exactly one history row per transition")
+    void transitionTo_writesSingleHistoryRow() {
+        Order order = new Order();
+        order.setStatus(OrderStatus.PENDING);
+
+        order.transitionTo(OrderStatus.PAID, "Payment received");
+        order.transitionTo(OrderStatus.SHIPPED, "Shipped");
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(order.getStatusHistory())
+                .extracting(OrderStatusHistory::getStatus)
+                .containsExactly(OrderStatus.PAID, OrderStatus.SHIPPED);
+        assertThat(order.getPaidAt()).isNotNull();
+        assertThat(order.getShippedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("transitionTo rejects transitions missing from the table")
+    void transitionTo_rejectsInvalidTransition() {
+        Order order = new Order();
+        order.setStatus(OrderStatus.CANCELLED);
+
+        assertThatThrownBy(() -> order.transitionTo(OrderStatus.SHIPPED, "Shipped"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(order.getStatusHistory()).isNullOrEmpty();
+        assertThat(OrderStatusTransitions.allowedFrom(OrderStatus.CANCELLED)).isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderArchive;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.OrderArchiveService;
+import com.ecommerce.order.testsupport.PostgresTestResource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Page;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DB-level tests for {@link OrderArchiveRepository} and the archiver that fills it.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class OrderArchiveRepositoryIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderArchiveRepository orderArchiveRepository;
+
+    @Inject
+    OrderArchiveService orderArchiveService;
+
+    @Test
+    @DisplayName("archiveCompletedOrders moves completed orders and leaves active ones")
+    void archiveCompletedOrders_movesOnlyCompletedOrders() {
+        UUID customerId = UUID.randomUUID();
+        UUID deliveredId = QuarkusTransaction.requiringNew().call(() -> persistOrder(customerId, "ORD-ARC-1", OrderStatus.DELIVERED));
+        UUID pendingId = QuarkusTransaction.requiringNew().call(() -> persistOrder(customerId, "ORD-ARC-2", OrderStatus.PENDING));
+
+        orderArchiveService.archiveCompletedOrders(LocalDateTime.now().plusMinutes(1));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertThat(orderRepository.findByIdOptional(deliveredId)).isEmpty();
+            assertThat(orderRepository.findByIdOptional(pendingId)).isPresent();
+
+            List<OrderArchive> archived = orderArchiveRepository.findByCustomerIdCreatedBetween(
+                    customerId, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), Page.of(0, 10));
+            assertThat(archived).extracting(OrderArchive::getOrderNumber).containsExactly("ORD-ARC-1");
+            assertThat(archived.get(0).getStatusHistory()).contains("DELIVERED");
+        });
+    }
+
+    private UUID persistOrder(UUID customerId, String orderNumber, OrderStatus status) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setCustomerId(customerId);
+        order.setStatus(status);
+        order.setShippingAddress("123 Test St");
+        order.setBillingAddress("123 Test St");
+        order.setCustomerEmail("test@example.com");
+        order.setCustomerPhone("1234567890");
+        order.addStatusHistory(status, "Test order");
+        orderRepository.persist(order);
+        return order.getId();
+    }
+}
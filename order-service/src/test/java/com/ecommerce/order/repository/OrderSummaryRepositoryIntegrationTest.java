@@ -0,0 +1,79 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.dto.OrderResponse;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.OrderProjectionService;
+import com.ecommerce.order.testsupport.PostgresTestResource;
+import io.quarkus.panache.common.Page;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DB-level tests for {@link OrderSummaryRepository} and the projection that feeds it.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class OrderSummaryRepositoryIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderSummaryRepository orderSummaryRepository;
+
+    @Inject
+    OrderProjectionService orderProjectionService;
+
+    @Test
+    @DisplayName("project stores a summary readable by customer and order number")
+    @Transactional
+    void project_storesSummaryReadableByCustomerAndNumber() {
+        UUID customerId = UUID.randomUUID();
+        Order order = new Order();
+        order.setOrderNumber("ORD-SUM-1");
+        order.setCustomerId(customerId);
+        order.setStatus(OrderStatus.PENDING);
+        order.setShippingAddress("123 Test St");
+        order.setBillingAddress("123 Test St");
+        order.setCustomerEmail("test@example.com");
+        order.setCustomerPhone("1234567890");
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+        order.addStatusHistory(OrderStatus.PENDING, "Order created");
+
+        orderRepository.persist(order);
+        orderProjectionService.project(order);
+
+        List<OrderResponse> orders = orderSummaryRepository.findByCustomerId(customerId, Page.of(0, 10)).stream()
+                .map(orderProjectionService::toResponse)
+                .toList();
+        assertThat(orders).hasSize(1);
+        assertThat(orders.get(0).getOrderNumber()).isEqualTo("ORD-SUM-1");
+        assertThat(orders.get(0).getStatusHistory()).hasSize(1);
+
+        assertThat(orderSummaryRepository.findByOrderNumber("ORD-SUM-1")).isPresent();
+    }
+}
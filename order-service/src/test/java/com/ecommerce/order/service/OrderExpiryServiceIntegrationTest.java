@@ -0,0 +1,92 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.testsupport.KafkaTestResource;
+import com.ecommerce.order.testsupport.PostgresTestResource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link OrderExpiryService} backed by Testcontainers Postgres and Kafka.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@QuarkusTestResource(KafkaTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class OrderExpiryServiceIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Inject
+    OrderExpiryService expiryService;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Test
+    @DisplayName("The sweep cancels only orders left PENDING past the timeout, and records why")
+    void sweep_cancelsExpiredPendingOrders() {
+        UUID expired = createOrder(OrderStatus.PENDING, LocalDateTime.now().minusHours(2));
+        UUID recent = createOrder(OrderStatus.PENDING, LocalDateTime.now());
+        UUID paid = createOrder(OrderStatus.PAID, LocalDateTime.now().minusHours(2));
+
+        assertThat(expiryService.sweepExpiredOrders()).isGreaterThanOrEqualTo(1);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            Order cancelled = orderRepository.findById(expired);
+            assertThat(cancelled.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+            assertThat(cancelled.getStatusHistory()).anySatisfy(history -> {
+                assertThat(history.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+                assertThat(history.getMessage()).startsWith("Order expired");
+            });
+            assertThat(orderRepository.findById(recent).getStatus()).isEqualTo(OrderStatus.PENDING);
+            assertThat(orderRepository.findById(paid).getStatus()).isEqualTo(OrderStatus.PAID);
+        });
+
+        // A second run finds nothing left to expire
+        assertThat(expiryService.sweepExpiredOrders()).isZero();
+    }
+
+    private UUID createOrder(OrderStatus status, LocalDateTime createdAt) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Order order = new Order();
+            order.setOrderNumber("ORD-EXP-" + UUID.randomUUID().toString().substring(0, 8));
+            order.setCustomerId(UUID.randomUUID());
+            order.setStatus(status);
+            order.setShippingAddress("123 Test St");
+            order.setBillingAddress("123 Test St");
+            order.setCustomerEmail("test@example.com");
+            order.setCustomerPhone("1234567890");
+            order.addStatusHistory(status, "Order created");
+            orderRepository.persist(order);
+            orderRepository.flush();
+            // created_at is set on persist, so back-date it afterwards
+            orderRepository.getEntityManager()
+                    .createNativeQuery("UPDATE orders SET created_at = :createdAt WHERE id = :id")
+                    .setParameter("createdAt", createdAt)
+                    .setParameter("id", order.getId())
+                    .executeUpdate();
+            return order.getId();
+        });
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.client.InventoryServiceClient;
+import com.ecommerce.order.dto.returns.ReturnRequest;
+import com.ecommerce.order.dto.returns.ReturnResponse;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.ReturnStatus;
+import com.ecommerce.order.model.ReturnTask;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderReturnRepository;
+import com.ecommerce.order.repository.ReturnTaskRepository;
+import com.ecommerce.order.testsupport.KafkaTestResource;
+import com.ecommerce.order.testsupport.PostgresTestResource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectMock;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.mockito.ArgumentCaptor;
+import org.testcontainers.DockerClientFactory;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for {@link ReturnTaskProcessor} backed by Testcontainers Postgres and Kafka, with inventory-service
+ * mocked.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@QuarkusTestResource(KafkaTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class ReturnTaskProcessorIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @InjectMock
+    @RestClient
+    InventoryServiceClient inventoryServiceClient;
+
+    @Inject
+    ReturnTaskProcessor processor;
+
+    @Inject
+    OrderReturnService orderReturnService;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderReturnRepository orderReturnRepository;
+
+    @Inject
+    ReturnTaskRepository returnTaskRepository;
+
+    @Test
+    @DisplayName("The restock stage adjusts each returned SKU, keyed by task and SKU, and the return completes")
+    void restock_adjustsInventoryAndCompletes() {
+        when(inventoryServiceClient.adjustStock(anyString(), anyMap())).thenReturn(Response.ok().build());
+        String prefix = "SKU-RET-" + UUID.randomUUID().toString().substring(0, 8);
+        Order order = createDeliveredOrder(prefix);
+        ReturnResponse requested = orderReturnService.initiateReturn(order.getId(), returnAll(order));
+
+        assertThat(processor.processDueTasks()).isGreaterThanOrEqualTo(2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> adjustments = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(inventoryServiceClient, atLeast(2)).adjustStock(keys.capture(), adjustments.capture());
+        assertThat(adjustments.getAllValues())
+                .filteredOn(adjustment -> adjustment.get("skuCode").toString().startsWith(prefix))
+                .extracting(adjustment -> adjustment.get("skuCode"), adjustment -> adjustment.get("adjustment"),
+                        adjustment -> adjustment.get("referenceId"))
+                .containsExactlyInAnyOrder(
+                        tuple(prefix + "-A", 2, requested.getId().toString()),
+                        tuple(prefix + "-B", 1, requested.getId().toString()));
+        assertThat(keys.getAllValues())
+                .filteredOn(key -> key.contains(prefix))
+                .hasSize(2)
+                .allSatisfy(key -> assertThat(key).startsWith("return-restock-"))
+                .doesNotHaveDuplicates();
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertThat(returnTaskRepository.findByReturnId(requested.getId()))
+                    .filteredOn(task -> task.getStage() == ReturnTask.Stage.RESTOCK)
+                    .singleElement()
+                    .satisfies(task -> assertThat(task.getStatus()).isEqualTo(ReturnTask.Status.DONE));
+            assertThat(orderReturnRepository.findById(requested.getId()).getStatus())
+                    .isEqualTo(ReturnStatus.COMPLETED);
+        });
+    }
+
+    @Test
+    @DisplayName("A rejected restock leaves the task pending for a retry")
+    void restock_rejected_isRetried() {
+        when(inventoryServiceClient.adjustStock(anyString(), any()))
+                .thenReturn(Response.status(Response.Status.SERVICE_UNAVAILABLE).build());
+        Order order = createDeliveredOrder("SKU-RET-" + UUID.randomUUID().toString().substring(0, 8));
+        ReturnResponse requested = orderReturnService.initiateReturn(order.getId(), returnAll(order));
+
+        processor.processDueTasks();
+
+        QuarkusTransaction.requiringNew().run(() -> assertThat(returnTaskRepository.findByReturnId(requested.getId()))
+                .filteredOn(task -> task.getStage() == ReturnTask.Stage.RESTOCK)
+                .singleElement()
+                .satisfies(task -> {
+                    assertThat(task.getStatus()).isEqualTo(ReturnTask.Status.PENDING);
+                    assertThat(task.getAttempts()).isEqualTo(1);
+                    assertThat(task.getLastError()).contains("503");
+                }));
+    }
+
+    private Order createDeliveredOrder(String skuPrefix) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Order order = new Order();
+            order.setOrderNumber("ORD-RET-" + UUID.randomUUID().toString().substring(0, 8));
+            order.setCustomerId(UUID.randomUUID());
+            order.setStatus(OrderStatus.DELIVERED);
+            order.setShippingAddress("123 Test St");
+            order.setBillingAddress("123 Test St");
+            order.setCustomerEmail("test@example.com");
+            order.setCustomerPhone("1234567890");
+            order.addItem(item(skuPrefix + "-A", 2));
+            order.addItem(item(skuPrefix + "-B", 1));
+            order.addStatusHistory(OrderStatus.DELIVERED, "Order delivered");
+            orderRepository.persist(order);
+            return order;
+        });
+    }
+
+    private static OrderItem item(String sku, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProductId(UUID.randomUUID());
+        item.setProductName("Product " + sku);
+        item.setProductSku(sku);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal("10.00"));
+        return item;
+    }
+
+    private static ReturnRequest returnAll(Order order) {
+        ReturnRequest request = new ReturnRequest();
+        request.setReason("Changed mind");
+        request.setItems(order.getItems().stream().map(orderItem -> {
+            ReturnRequest.ReturnItemRequest line = new ReturnRequest.ReturnItemRequest();
+            line.setOrderItemId(orderItem.getId());
+            line.setQuantity(orderItem.getQuantity());
+            return line;
+        }).toList());
+        return request;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.testsupport.KafkaTestResource;
+import com.ecommerce.order.testsupport.PostgresTestResource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link StatusEventService} backed by Testcontainers Postgres and Kafka.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@QuarkusTestResource(KafkaTestResource.class)
+@DisabledIf(value = "isDockerNotAvailable", disabledReason = "Docker is not available. Tests require Testcontainers.")
+class StatusEventServiceIntegrationTest {
+
+    static boolean isDockerNotAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return false; // Docker is available
+        } catch (Exception e) {
+            return true; // Docker is not available
+        }
+    }
+
+    @Inject
+    StatusEventService statusEventService;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Test
+    @DisplayName("A redelivered batch leaves a PAID order, and its history, unchanged")
+    void redeliveredBatch_skipped() {
+        UUID orderId = createPendingOrder();
+        Map<String, OrderStatus> batch = new LinkedHashMap<>();
+        batch.put("inventory-reserved", OrderStatus.PROCESSING);
+        batch.put("payment-received", OrderStatus.PAID);
+
+        statusEventService.applyEvents(orderId, batch);
+        int history = historySize(orderId);
+        statusEventService.applyEvents(orderId, batch);
+        statusEventService.applyEvents(orderId, Map.of("inventory-reserved", OrderStatus.PROCESSING));
+
+        assertThat(status(orderId)).isEqualTo(OrderStatus.PAID);
+        assertThat(historySize(orderId)).isEqualTo(history);
+    }
+
+    @Test
+    @DisplayName("Only the event types not applied before change the order")
+    void newEventType_applied() {
+        UUID orderId = createPendingOrder();
+        statusEventService.applyEvents(orderId, Map.of("payment-received", OrderStatus.PAID));
+
+        Map<String, OrderStatus> batch = new LinkedHashMap<>();
+        batch.put("payment-received", OrderStatus.PAID);
+        batch.put("inventory-reserved", OrderStatus.PROCESSING);
+        statusEventService.applyEvents(orderId, batch);
+
+        assertThat(status(orderId)).isEqualTo(OrderStatus.PROCESSING);
+    }
+
+    private UUID createPendingOrder() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Order order = new Order();
+            order.setOrderNumber("ORD-EVT-" + UUID.randomUUID().toString().substring(0, 8));
+            order.setCustomerId(UUID.randomUUID());
+            order.setStatus(OrderStatus.PENDING);
+            order.setShippingAddress("123 Test St");
+            order.setBillingAddress("123 Test St");
+            order.setCustomerEmail("test@example.com");
+            order.setCustomerPhone("1234567890");
+            order.addStatusHistory(OrderStatus.PENDING, "Order created");
+            orderRepository.persist(order);
+            return order.getId();
+        });
+    }
+
+    private OrderStatus status(UUID orderId) {
+        return QuarkusTransaction.requiringNew().call(() -> orderRepository.findById(orderId).getStatus());
+    }
+
+    private int historySize(UUID orderId) {
+        return QuarkusTransaction.requiringNew().call(() -> orderRepository.findById(orderId).getStatusHistory().size());
+    }
+}
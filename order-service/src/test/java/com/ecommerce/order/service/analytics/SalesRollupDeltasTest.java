@@ -0,0 +1,74 @@
+package com.ecommerce.order.service.analytics;
+
+import com.ecommerce.order.dto.analytics.OrderSalesEvent;
+import com.ecommerce.order.dto.analytics.RollupGranularity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SalesRollupDeltas}.
+ */
+class SalesRollupDeltasTest {
+
+    private static final UUID PRODUCT = UUID.randomUUID();
+    private static final UUID CATEGORY = UUID.randomUUID();
+    private static final Instant AT = Instant.parse("2024-03-05T10:42:00Z");
+
+    private static OrderSalesEvent created(Instant at, OrderSalesEvent.Item... items) {
+        return new OrderSalesEvent(UUID.randomUUID(), OrderSalesEvent.ORDER_CREATED, UUID.randomUUID(), "PENDING",
+                "USD", new BigDecimal("25.48"), List.of(items), at);
+    }
+
+    @Test
+    @DisplayName("a placed order counts towards its hour, day, products, categories and status")
+    void add_orderCreated_fillsEveryRollup() {
+        SalesRollupDeltas deltas = new SalesRollupDeltas();
+        deltas.add(created(AT,
+                new OrderSalesEvent.Item(PRODUCT, CATEGORY, 2, new BigDecimal("9.99")),
+                new OrderSalesEvent.Item(PRODUCT, CATEGORY, 1, new BigDecimal("5.50")),
+                new OrderSalesEvent.Item(UUID.randomUUID(), null, 1, new BigDecimal("0.00"))));
+
+        SalesRollupDeltas.Totals hour = deltas.sales().get(new SalesRollupDeltas.TimeKey(
+                RollupGranularity.HOUR, LocalDateTime.parse("2024-03-05T10:00:00"), "USD"));
+        assertThat(hour.orders()).isEqualTo(1);
+        assertThat(hour.units()).isEqualTo(4);
+        assertThat(hour.revenueMinor()).isEqualTo(2548);
+        assertThat(deltas.sales()).containsKey(new SalesRollupDeltas.TimeKey(
+                RollupGranularity.DAY, LocalDateTime.parse("2024-03-05T00:00:00"), "USD"));
+
+        SalesRollupDeltas.Totals product = deltas.products().get(
+                new SalesRollupDeltas.DayKey(LocalDate.parse("2024-03-05"), PRODUCT, "USD"));
+        assertThat(product.orders()).isEqualTo(1);
+        assertThat(product.units()).isEqualTo(3);
+        assertThat(product.revenueMinor()).isEqualTo(2548);
+        assertThat(deltas.categories()).containsKeys(
+                new SalesRollupDeltas.DayKey(LocalDate.parse("2024-03-05"), CATEGORY, "USD"),
+                new SalesRollupDeltas.DayKey(LocalDate.parse("2024-03-05"), SalesRollupDeltas.NO_CATEGORY, "USD"));
+        assertThat(deltas.statuses()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("status events only count towards statuses, and rows of a batch are summed")
+    void add_statusEvents_sumPerBucket() {
+        SalesRollupDeltas deltas = new SalesRollupDeltas();
+        for (int i = 0; i < 3; i++) {
+            deltas.add(new OrderSalesEvent(UUID.randomUUID(), "ORDER_STATUS_UPDATED", UUID.randomUUID(), "SHIPPED",
+                    "USD", new BigDecimal("10.00"), null, AT.plusSeconds(i * 60L)));
+        }
+
+        assertThat(deltas.sales()).isEmpty();
+        assertThat(deltas.products()).isEmpty();
+        assertThat(deltas.statuses().get(new SalesRollupDeltas.TimeKey(
+                RollupGranularity.HOUR, LocalDateTime.parse("2024-03-05T10:00:00"), "SHIPPED")).orders())
+                .isEqualTo(3);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.order.service.catalog;
+
+import com.ecommerce.order.dto.catalog.ProductSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ProductSnapshotStore}.
+ */
+class ProductSnapshotStoreTest {
+
+    private static final UUID PRODUCT_ID = UUID.randomUUID();
+
+    private static ProductSnapshot snapshot(String price, boolean active, Long version) {
+        return new ProductSnapshot(PRODUCT_ID, "SKU-1", "Widget", new BigDecimal(price), null, active, version);
+    }
+
+    @Test
+    @DisplayName("apply keeps the newest version regardless of arrival order")
+    void apply_keepsNewestVersion() {
+        ProductSnapshotStore store = new ProductSnapshotStore();
+
+        assertThat(store.apply(snapshot("12.00", true, 3L))).isTrue();
+        assertThat(store.apply(snapshot("10.00", true, 2L))).isFalse();
+        assertThat(store.get(PRODUCT_ID).price()).isEqualByComparingTo("12.00");
+
+        assertThat(store.apply(snapshot("12.00", false, 3L))).isTrue();
+        assertThat(store.get(PRODUCT_ID).active()).isFalse();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("apply treats a missing version as the oldest")
+    void apply_missingVersionIsOldest() {
+        ProductSnapshotStore store = new ProductSnapshotStore();
+
+        store.apply(snapshot("12.00", true, 1L));
+
+        assertThat(store.apply(snapshot("9.00", true, null))).isFalse();
+        assertThat(store.get(UUID.randomUUID())).isNull();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.order.service.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CoPurchaseMatrix}.
+ */
+class CoPurchaseMatrixTest {
+
+    private static final UUID A = UUID.randomUUID();
+    private static final UUID B = UUID.randomUUID();
+    private static final UUID C = UUID.randomUUID();
+
+    @Test
+    @DisplayName("addOrder counts each pair in both directions and ranks by count")
+    void addOrder_countsPairsSymmetrically() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(10);
+        matrix.addOrder(List.of(A, B, C));
+        matrix.addOrder(List.of(A, B));
+
+        long[] relatedToA = matrix.related(A, 10);
+        assertThat(relatedToA).hasSize(2);
+        assertThat(matrix.productAt(relatedToA[0])).isEqualTo(B);
+        assertThat(CoPurchaseMatrix.countOf(relatedToA[0])).isEqualTo(2);
+        assertThat(matrix.productAt(relatedToA[1])).isEqualTo(C);
+        assertThat(CoPurchaseMatrix.countOf(relatedToA[1])).isEqualTo(1);
+
+        long[] relatedToC = matrix.related(C, 10);
+        assertThat(relatedToC).hasSize(2);
+        assertThat(matrix.related(UUID.randomUUID(), 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("compact keeps only the strongest pairs per product")
+    void compact_retainsTopPairs() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(1);
+        matrix.add(A, B, 5);
+        matrix.add(A, C, 2);
+        matrix.compact();
+
+        long[] related = matrix.related(A, 10);
+        assertThat(related).hasSize(1);
+        assertThat(matrix.productAt(related[0])).isEqualTo(B);
+    }
+
+    @Test
+    @DisplayName("forEachPair replays every count so deltas can be merged into another matrix")
+    void forEachPair_replaysCounts() {
+        CoPurchaseMatrix deltas = CoPurchaseMatrix.unbounded();
+        deltas.addOrder(List.of(A, B));
+        deltas.addOrder(List.of(A, B));
+
+        CoPurchaseMatrix target = new CoPurchaseMatrix(10);
+        target.add(A, B, 3);
+        List<UUID> visited = new ArrayList<>();
+        deltas.forEachPair((productId, relatedProductId, count) -> {
+            visited.add(productId);
+            target.add(productId, relatedProductId, count);
+        });
+
+        assertThat(visited).containsExactlyInAnyOrder(A, B);
+        assertThat(CoPurchaseMatrix.countOf(target.related(A, 1)[0])).isEqualTo(5);
+        assertThat(CoPurchaseMatrix.countOf(target.related(B, 1)[0])).isEqualTo(2);
+        assertThat(deltas.productsWithPairs()).containsExactlyInAnyOrder(A, B);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.order.service.recommendation;
+
+import com.ecommerce.order.dto.recommendation.TrendingProduct;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for {@link DecayedHeavyHitters}.
+ */
+class DecayedHeavyHittersTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    @DisplayName("heavy products surface through a long tail while tracking stays bounded")
+    void top_findsHeavyHittersInBoundedMemory() {
+        DecayedHeavyHitters heavyHitters = new DecayedHeavyHitters(HOUR, 20, 4, 1024);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        long now = 1_000_000L;
+
+        for (int i = 0; i < 5000; i++) {
+            heavyHitters.add(UUID.randomUUID(), 1, now);
+            if (i % 10 == 0) {
+                heavyHitters.add(first, 1, now);
+            }
+            if (i % 20 == 0) {
+                heavyHitters.add(second, 1, now);
+            }
+        }
+
+        List<TrendingProduct> top = heavyHitters.top(2, now);
+        assertThat(top).extracting(TrendingProduct::productId).containsExactly(first, second);
+        assertThat(top.get(0).score()).isGreaterThanOrEqualTo(500);
+        assertThat(heavyHitters.trackedCount()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("scores decay exponentially and recent activity overtakes older activity")
+    void top_decaysOlderActivity() {
+        DecayedHeavyHitters heavyHitters = new DecayedHeavyHitters(HOUR, 10, 4, 1024);
+        UUID earlier = UUID.randomUUID();
+        UUID later = UUID.randomUUID();
+        long start = 0L;
+
+        for (int i = 0; i < 100; i++) {
+            heavyHitters.add(earlier, 1, start);
+        }
+        assertThat(heavyHitters.top(1, start + HOUR).get(0).score()).isCloseTo(100 / Math.E, within(1e-6));
+
+        for (int i = 0; i < 50; i++) {
+            heavyHitters.add(later, 1, start + 2 * HOUR);
+        }
+        assertThat(heavyHitters.top(2, start + 2 * HOUR))
+                .extracting(TrendingProduct::productId)
+                .containsExactly(later, earlier);
+    }
+
+    @Test
+    @DisplayName("rescaling after a long gap keeps scores and drops negligible products")
+    void add_rescalesAfterLongGap() {
+        DecayedHeavyHitters heavyHitters = new DecayedHeavyHitters(HOUR, 10, 4, 1024);
+        UUID stale = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+
+        heavyHitters.add(stale, 1000, 0L);
+        long later = 100 * HOUR;
+        heavyHitters.add(fresh, 3, later);
+
+        List<TrendingProduct> top = new ArrayList<>(heavyHitters.top(10, later));
+        assertThat(top).extracting(TrendingProduct::productId).containsExactly(fresh);
+        assertThat(top.get(0).score()).isCloseTo(3, within(1e-9));
+    }
+}
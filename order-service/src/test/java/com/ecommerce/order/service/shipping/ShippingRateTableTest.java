@@ -0,0 +1,88 @@
+package com.ecommerce.order.service.shipping;
+
+import com.ecommerce.order.dto.shipping.ShippingOption;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for {@link ShippingRateTable} and {@link PostalPrefixTrie}.
+ */
+class ShippingRateTableTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private static ShippingRateDefinition.Service service(String id, BigDecimal freeOverValue) {
+        return new ShippingRateDefinition.Service(id, id, null, "UPS", "STANDARD", 2, 5,
+                true, false, false, false, false, freeOverValue);
+    }
+
+    private static ShippingRateDefinition.Tier tier(double maxWeight, String price) {
+        return new ShippingRateDefinition.Tier(maxWeight, new BigDecimal(price));
+    }
+
+    private static final ShippingRateTable TABLE = ShippingRateTable.compile(new ShippingRateDefinition("USD",
+            List.of(service("standard", new BigDecimal("100")), service("express", null)),
+            List.of(new ShippingRateDefinition.Zone("US", "US", List.of("")),
+                    new ShippingRateDefinition.Zone("US-REMOTE", "US", List.of("99", "967"))),
+            List.of(new ShippingRateDefinition.Rate("US", "standard", List.of(tier(1, "5.00"), tier(5, "8.00"))),
+                    new ShippingRateDefinition.Rate("US", "express", List.of(tier(1, "12.00"))),
+                    new ShippingRateDefinition.Rate("US-REMOTE", "standard", List.of(tier(5, "20.00"))))));
+
+    @Test
+    @DisplayName("quote picks the first weight break not below the parcel weight")
+    void quote_usesWeightBreaks() {
+        assertThat(TABLE.quote("US", "10001", 1.0, null, NOW))
+                .extracting(ShippingOption::getId, ShippingOption::getPrice)
+                .containsExactly(
+                        tuple("standard", new BigDecimal("5.00")),
+                        tuple("express", new BigDecimal("12.00")));
+
+        // Too heavy for express, second break for standard
+        assertThat(TABLE.quote("us", "10001", 1.5, null, NOW))
+                .extracting(ShippingOption::getId, ShippingOption::getPrice)
+                .containsExactly(tuple("standard", new BigDecimal("8.00")));
+
+        assertThat(TABLE.quote("US", "10001", 5.1, null, NOW)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("quote resolves the zone by longest postal prefix")
+    void quote_usesLongestPostalPrefix() {
+        assertThat(TABLE.quote("US", "99501", 1.0, null, NOW))
+                .extracting(ShippingOption::getPrice)
+                .containsExactly(new BigDecimal("20.00"));
+        assertThat(TABLE.quote("US", "96-801", 1.0, null, NOW)).hasSize(2);
+        assertThat(TABLE.quote("US", "96701", 1.0, null, NOW))
+                .extracting(ShippingOption::getPrice)
+                .containsExactly(new BigDecimal("20.00"));
+        assertThat(TABLE.quote("FR", "75001", 1.0, null, NOW)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("quote applies free-shipping thresholds")
+    void quote_appliesFreeShippingThreshold() {
+        assertThat(TABLE.quote("US", "10001", 1.0, new BigDecimal("100"), NOW))
+                .extracting(ShippingOption::getId, ShippingOption::getPrice)
+                .containsExactly(
+                        tuple("standard", BigDecimal.ZERO),
+                        tuple("express", new BigDecimal("12.00")));
+    }
+
+    @Test
+    @DisplayName("compile rejects weight breaks that are not increasing")
+    void compile_rejectsUnorderedTiers() {
+        assertThatThrownBy(() -> ShippingRateTable.compile(new ShippingRateDefinition("USD",
+                List.of(service("standard", null)),
+                List.of(new ShippingRateDefinition.Zone("US", "US", List.of(""))),
+                List.of(new ShippingRateDefinition.Rate("US", "standard", List.of(tier(5, "8.00"), tier(1, "5.00")))))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
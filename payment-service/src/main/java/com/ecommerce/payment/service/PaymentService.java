@@ -7,11 +7,13 @@ import com.ecommerce.payment.mapper.PaymentMapper;
 import com.ecommerce.payment.model.Payment;
 import com.ecommerce.payment.model.PaymentStatus;
 import com.ecommerce.payment.repository.PaymentRepository;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
@@ -168,7 +170,10 @@ public class PaymentService {
             event.put("currency", payment.getCurrency());
             event.put("status", payment.getStatus().name());
 
-            paymentEventEmitter.send(event);
+            // Keyed by order id, so one order's payment events stay in order on one partition
+            paymentEventEmitter.send(Message.of(event).addMetadata(OutgoingKafkaRecordMetadata.<String>builder()
+                    .withKey(payment.getOrderId().toString())
+                    .build()));
             LOG.debugf("Published %s event for order: %s", eventType, payment.getOrderId());
         } catch (Exception e) {
             LOG.errorf(e, "Failed to publish payment event: %s", e.getMessage());
@@ -50,7 +50,9 @@ public class ProductController {
     @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 5000, skipOn = {jakarta.ws.rs.NotFoundException.class, com.ecommerce.product.exception.ResourceNotFoundException.class})
     @Retry(maxRetries = 3, delay = 1000, abortOn = {jakarta.ws.rs.NotFoundException.class, com.ecommerce.product.exception.ResourceNotFoundException.class})
     public ProductResponse getProductById(@PathParam("id") UUID id) {
-        return productService.getProductById(id);
+        ProductResponse product = productService.getProductById(id);
+        productService.recordView(id);
+        return product;
     }
 
     @GET
@@ -61,6 +63,18 @@ public class ProductController {
         return productService.getAllProducts(pageIndex, pageSize);
     }
 
+    @GET
+    @Path("/export")
+    @Operation(summary = "Export all products in id order, one keyset page at a time")
+    public List<ProductResponse> exportProducts(
+            @QueryParam("afterId") UUID afterId,
+            @QueryParam("limit") @DefaultValue("1000") int limit) {
+        if (limit < 1 || limit > 5000) {
+            throw new BadRequestException("limit must be between 1 and 5000");
+        }
+        return productService.exportProducts(afterId, limit);
+    }
+
     @GET
     @Path("/search")
     @Operation(summary = "Search products by name or description")
@@ -2,6 +2,7 @@ package com.ecommerce.product.repository;
 
 import com.ecommerce.product.model.Product;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Page;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import java.util.List;
@@ -27,6 +28,16 @@ public class ProductRepository implements PanacheRepositoryBase<Product, UUID> {
         return list("stockQuantity <= ?1 and active = true", threshold);
     }
 
+    /**
+     * Keyset page over all products in id order, for consumers that copy the whole catalogue.
+     */
+    public List<Product> findAfterId(UUID afterId, int limit) {
+        if (afterId == null) {
+            return find("order by id").page(Page.ofSize(limit)).list();
+        }
+        return find("id > ?1 order by id", afterId).page(Page.ofSize(limit)).list();
+    }
+
     public List<Product> searchProducts(String query) {
         String lowerCaseQuery = "%" + query.toLowerCase() + "%";
         return list("active = true AND (LOWER(name) LIKE ?1 OR LOWER(description) LIKE ?1)", lowerCaseQuery);
@@ -16,6 +16,7 @@ import jakarta.transaction.TransactionSynchronizationRegistry;
 import org.eclipse.microprofile.faulttolerance.Retry;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
 import org.jboss.logging.Logger;
 
 import java.util.List;
@@ -41,6 +42,11 @@ public class ProductService {
     @Channel("inventory-updates")
     Emitter<StockUpdateEvent> inventoryUpdateEmitter;
 
+    @Inject
+    @Channel("product-views")
+    @OnOverflow(OnOverflow.Strategy.DROP)
+    Emitter<ProductViewedEvent> productViewEmitter;
+
     @Inject
     TransactionSynchronizationRegistry transactionSynchronizationRegistry;
 
@@ -92,6 +98,18 @@ public class ProductService {
         return productMapper.toDto(product);
     }
 
+    /**
+     * Publishes a view of the product for trending. Best effort: views are dropped rather than buffered when the
+     * broker cannot keep up, and never fail the request.
+     */
+    public void recordView(UUID productId) {
+        try {
+            productViewEmitter.send(new ProductViewedEvent(productId));
+        } catch (Exception e) {
+            log.debugf("Dropped product view for %s: %s", productId, e.getMessage());
+        }
+    }
+
     @CacheResult(cacheName = "products")
     public List<ProductResponse> getAllProducts(int pageIndex, int pageSize) {
         log.info("Fetching all products");
@@ -165,8 +183,9 @@ public class ProductService {
         Product product = findProductOrThrow(id);
         productRepository.delete(product);
         
-        // Send event after transaction commits
+        // Send event after transaction commits; consumers see a deleted product as inactive
         Product productForEvent = product;
+        productForEvent.setActive(false);
         transactionSynchronizationRegistry.registerInterposedSynchronization(
             new jakarta.transaction.Synchronization() {
                 @Override
@@ -236,6 +255,12 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
+    public List<ProductResponse> exportProducts(UUID afterId, int limit) {
+        return productRepository.findAfterId(afterId, limit).stream()
+                .map(productMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
     public boolean isInStock(UUID productId, int quantity) {
         return productRepository.findByIdOptional(productId)
                 .map(p -> p.getStockQuantity() >= quantity)
@@ -248,4 +273,6 @@ public class ProductService {
     }
 
     public record StockUpdateEvent(UUID productId, int quantityChange, int newStock) {}
+
+    public record ProductViewedEvent(UUID productId) {}
 }
@@ -63,11 +63,14 @@ public class KafkaTestResource implements QuarkusTestResourceLifecycleManager {
             // Switch channels from in-memory to Kafka for tests that use this resource
             props.put("mp.messaging.outgoing.product-events.connector", "smallrye-kafka");
             props.put("mp.messaging.outgoing.inventory-updates.connector", "smallrye-kafka");
+            props.put("mp.messaging.outgoing.product-views.connector", "smallrye-kafka");
             // Configure serializers for Kafka
             props.put("mp.messaging.outgoing.product-events.value.serializer", "io.quarkus.kafka.client.serialization.ObjectMapperSerializer");
             props.put("mp.messaging.outgoing.product-events.key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
             props.put("mp.messaging.outgoing.inventory-updates.value.serializer", "io.quarkus.kafka.client.serialization.ObjectMapperSerializer");
             props.put("mp.messaging.outgoing.inventory-updates.key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+            props.put("mp.messaging.outgoing.product-views.value.serializer", "io.quarkus.kafka.client.serialization.ObjectMapperSerializer");
+            props.put("mp.messaging.outgoing.product-views.key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
             // Make Kafka blocking in tests to ensure messages are actually sent
             // This helps verify that messages are produced successfully
             props.put("mp.messaging.outgoing.product-events.waitForWriteCompletion", "true");